@@ -0,0 +1,88 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Base class for level sources. Caches the names of the collections, so that the files or resources are listed only
+ * once. The content of a collection is streamed from the file or resource whenever the collection is read.
+ *
+ * @author Ullrich Hafner
+ */
+abstract class AbstractLevelSource implements LevelSource {
+    private final SokobanCollectionReader reader = new SokobanCollectionReader();
+    private final Object lock = new Object();
+    private List<String> collections = Collections.emptyList();
+    private boolean isListed;
+
+    @Override
+    public List<String> getCollections() {
+        synchronized (lock) {
+            if (!isListed) {
+                try (Stream<String> names = listCollections()) {
+                    collections = Collections.unmodifiableList(names.filter(LevelSources::isCollection)
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+                isListed = true;
+            }
+            return collections;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CloseResource") // will be closed when the stream is closed
+    public Stream<SokobanGameModel> read(final String collection) {
+        InputStream input = openCollection(collection).orElseThrow(
+                () -> new IllegalArgumentException("No such collection: " + collection));
+        try {
+            return reader.read(FilenameUtils.getBaseName(collection), input).onClose(() -> close(input));
+        }
+        catch (UncheckedIOException | IllegalArgumentException exception) {
+            close(input);
+            throw exception;
+        }
+    }
+
+    private static void close(final InputStream input) {
+        try {
+            input.close();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Releases the resources of this source. The default implementation does nothing.
+     */
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    /**
+     * Returns the names of all files of this source. Files that do not contain levels will be filtered afterwards.
+     *
+     * @return the file names, relative to the root of this source
+     */
+    protected abstract Stream<String> listCollections();
+
+    /**
+     * Opens the specified collection.
+     *
+     * @param collection
+     *         the name of the collection
+     *
+     * @return the content of the collection, or an empty {@link Optional} if the collection does not exist
+     */
+    protected abstract Optional<InputStream> openCollection(String collection);
+}
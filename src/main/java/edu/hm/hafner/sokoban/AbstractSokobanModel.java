@@ -3,7 +3,9 @@ package edu.hm.hafner.sokoban;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the game field of Sokoban.
@@ -14,6 +16,8 @@ import java.util.List;
 public abstract class AbstractSokobanModel {
     private final String name;
     private Field[][] fields = new Field[0][];
+    private SokobanBoard board = new SokobanBoard(fields);
+    private PlayerReachability reachability = new PlayerReachability(board);
 
     private int width;
     private int height;
@@ -44,34 +48,61 @@ public abstract class AbstractSokobanModel {
     }
 
     /**
-     * Sets the level. The level consists of an array of lines. Each line is represented by an array of fields.
+     * Sets the level. The level consists of an array of lines. Each line is represented by an array of fields. The
+     * fields are copied, so subsequent changes of the array have no effect on this model.
      *
      * @param level
      *         the level
      */
     @SuppressWarnings("PMD.UseVarargs")
     public void setLevel(final Field[][] level) {
+        initializeFields(level, new Field[level.length][level.length == 0 ? 0 : level[0].length]);
+    }
+
+    /**
+     * Sets the level without copying the fields: the specified array is used as internal storage of this model. The
+     * caller must not change the array afterwards.
+     *
+     * @param level
+     *         the level
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    void adoptLevel(final Field[][] level) {
+        initializeFields(level, level);
+    }
+
+    // Validates the level and stores the fields into the specified storage, that may be the level itself
+    @SuppressWarnings({"PMD.ArrayIsStoredDirectly", "PMD.UseVarargs"})
+    private void initializeFields(final Field[][] level, final Field[][] storage) {
+        if (level.length == 0) {
+            throw new IllegalArgumentException("Level contains no lines.");
+        }
         width = level[0].length;
         height = level.length;
         targetCount = 0;
 
-        fields = new Field[height][width];
         for (int y = 0; y < height; y++) {
-            Field[] line = level[y];
-            if (line.length != width) {
-                throw new IllegalArgumentException(
-                        String.format("Line %d has not the width %d of previous line.", y, width));
+            initializeLine(level[y], storage[y], y);
+        }
+        fields = storage;
+        board = new SokobanBoard(fields);
+        reachability = new PlayerReachability(board);
+    }
+
+    private void initializeLine(final Field[] line, final Field[] storage, final int y) {
+        if (line.length != width) {
+            throw new IllegalArgumentException(
+                    String.format("Line %d has not the width %d of previous line.", y, width));
+        }
+        for (int x = 0; x < width; x++) {
+            Field field = line[x];
+            if (field == null) {
+                throw new NullPointerException("Field is null at " + new Point(x, y));
             }
-            for (int x = 0; x < width; x++) {
-                Field field = level[y][x];
-                if (field == null) {
-                    throw new NullPointerException("Field is null at " + new Point(x, y));
-                }
-                if (field == Field.TARGET) {
-                    targetCount++;
-                }
-                fields[y][x] = field;
+            if (field == Field.TARGET) {
+                targetCount++;
             }
+            storage[x] = field;
         }
     }
 
@@ -227,6 +258,61 @@ public abstract class AbstractSokobanModel {
         return fields[point.getY()][point.getX()];
     }
 
+    /**
+     * Returns all positions the player can reach from the current position without pushing a treasure.
+     *
+     * @return the reachable positions, ordered row by row
+     */
+    public Set<Point> getReachablePositions() {
+        reachability.fill(board.createState(this));
+
+        Set<Point> reachable = new LinkedHashSet<>();
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (reachability.isReachable(cell)) {
+                reachable.add(board.toPoint(cell));
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Returns whether the player can reach the specified position from the current position without pushing a
+     * treasure.
+     *
+     * @param position
+     *         the position to check
+     *
+     * @return {@code true} if the position is reachable, {@code false} otherwise
+     */
+    public boolean isReachable(final Point position) {
+        if (position.getX() < 0 || position.getX() >= width || position.getY() < 0 || position.getY() >= height) {
+            return false;
+        }
+        reachability.fill(board.createState(this));
+
+        return reachability.isReachable(board.toCell(position));
+    }
+
+    /**
+     * Returns the normalized position of the player, i.e. the top-left most position the player can reach without
+     * pushing a treasure. Two levels with the same treasures and players that can reach each other have the same
+     * normalized player position.
+     *
+     * @return the normalized position of the player
+     */
+    public Point getNormalizedPlayer() {
+        return board.toPoint(reachability.fill(board.createState(this)));
+    }
+
+    /**
+     * Returns the flat representation of this level that is used by the search algorithms.
+     *
+     * @return the board
+     */
+    SokobanBoard getBoard() {
+        return board;
+    }
+
     /**
      * Returns the player position.
      *
@@ -0,0 +1,51 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Converts collections of levels in ASCII format to the binary format of {@link BinaryLevelWriter}. The levels are
+ * streamed, so collections of arbitrary size can be converted.
+ *
+ * @author Ullrich Hafner
+ */
+public class BinaryLevelConverter {
+    /**
+     * Converts the specified collections. For each collection {@code <name>.sok} a binary file {@code <name>.sokb} is
+     * created in the same folder.
+     *
+     * @param args
+     *         the file names of the collections
+     */
+    public static void main(final String... args) {
+        BinaryLevelConverter converter = new BinaryLevelConverter();
+        for (String fileName : args) {
+            Path collection = Paths.get(fileName);
+            converter.convert(collection, collection.resolveSibling(
+                    SokobanCollectionReader.getCollectionName(collection) + ".sokb"));
+        }
+    }
+
+    /**
+     * Converts the specified collection.
+     *
+     * @param collection
+     *         the collection in ASCII format
+     * @param target
+     *         the file to write the binary levels to
+     */
+    public void convert(final Path collection, final Path target) {
+        try (Stream<SokobanGameModel> levels = new SokobanCollectionReader().read(collection);
+                OutputStream output = Files.newOutputStream(target)) {
+            new BinaryLevelWriter().write(levels.iterator(), output);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
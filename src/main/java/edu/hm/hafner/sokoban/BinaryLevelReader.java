@@ -0,0 +1,122 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hm.hafner.sokoban.SokobanGameModel.SokobanGameModelBuilder;
+
+/**
+ * Loads Sokoban levels that have been written by a {@link BinaryLevelWriter}. The fields of a level are decoded from
+ * the bit planes directly into the array of fields, there is no parsing of characters. The loaded levels are
+ * validated.
+ *
+ * @author Ullrich Hafner
+ */
+public class BinaryLevelReader {
+    private static final Field[] FIELDS = Field.values();
+
+    /**
+     * Loads all levels of the specified file.
+     *
+     * @param file
+     *         the file to read
+     *
+     * @return the levels of the file
+     */
+    public List<SokobanGameModel> read(final Path file) {
+        try {
+            return read(ByteBuffer.wrap(Files.readAllBytes(file)));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Loads all levels of the specified buffer. The levels are read starting with the current position of the buffer.
+     *
+     * @param buffer
+     *         the buffer to read
+     *
+     * @return the levels of the buffer
+     * @throws IllegalArgumentException
+     *         if the buffer does not contain levels in the binary format or a level is not valid
+     */
+    public List<SokobanGameModel> read(final ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != BinaryLevelWriter.MAGIC) {
+                throw new IllegalArgumentException("Buffer does not contain levels in binary format");
+            }
+            int version = buffer.get();
+            if (version != BinaryLevelWriter.VERSION) {
+                throw new IllegalArgumentException("Unsupported version of binary format: " + version);
+            }
+
+            List<SokobanGameModel> levels = new ArrayList<>();
+            while (buffer.get() == BinaryLevelWriter.LEVEL) {
+                levels.add(readLevel(buffer));
+            }
+            return levels;
+        }
+        catch (BufferUnderflowException exception) {
+            throw new IllegalArgumentException("Binary levels are truncated", exception);
+        }
+    }
+
+    private SokobanGameModel readLevel(final ByteBuffer buffer) {
+        byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(name);
+
+        int width = Short.toUnsignedInt(buffer.getShort());
+        int height = Short.toUnsignedInt(buffer.getShort());
+        if (width == 0 || height == 0) {
+            throw new IllegalArgumentException(String.format("Invalid size of level: %dx%d", width, height));
+        }
+        int planeSize = BinaryLevelWriter.getPlaneSize(width, height);
+        if (buffer.remaining() < 2L * planeSize) {
+            throw new BufferUnderflowException();
+        }
+        int low = buffer.position();
+        int high = low + planeSize;
+        SokobanGameModelBuilder builder = new SokobanGameModelBuilder()
+                .withName(new String(name, StandardCharsets.UTF_8))
+                .withSize(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.withField(x, y, decodeField(buffer, low, high, y * width + x));
+            }
+        }
+        buffer.position(high + planeSize);
+
+        builder.withPlayer(toPoint(buffer.getInt(), width, height));
+        int treasureCount = buffer.getInt();
+        for (int i = 0; i < treasureCount; i++) {
+            builder.withTreasure(toPoint(buffer.getInt(), width, height));
+        }
+        SokobanGameModel level = builder.build();
+        level.validate();
+        return level;
+    }
+
+    // Combines the bits of the cell in the low and the high bit plane to the ordinal of the field
+    private Field decodeField(final ByteBuffer buffer, final int low, final int high, final int cell) {
+        int bit = cell & 7;
+        int ordinal = (buffer.get(low + (cell >> 3)) >> bit & 1) | (buffer.get(high + (cell >> 3)) >> bit & 1) << 1;
+        return FIELDS[ordinal];
+    }
+
+    private Point toPoint(final int cell, final int width, final int height) {
+        if (cell < 0 || cell / width >= height) {
+            throw new IllegalArgumentException(String.format("Cell %d is outside of the level: %dx%d",
+                    cell, width, height));
+        }
+        return new Point(cell % width, cell / width);
+    }
+}
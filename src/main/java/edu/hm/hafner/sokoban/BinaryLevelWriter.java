@@ -0,0 +1,137 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes Sokoban levels in a compact binary format that can be loaded without parsing characters, see {@link
+ * BinaryLevelReader}. A file starts with a header (magic number and version) followed by the levels. Each level
+ * starts with the marker {@link #LEVEL} and consists of:
+ * <ul>
+ *     <li>the length of the name of the level (2 bytes) followed by the UTF-8 bytes of the name</li>
+ *     <li>the width and the height (2 bytes each)</li>
+ *     <li>two bit planes that contain the low and the high bit of the {@link Field} ordinal of each cell
+ *     (row by row, 8 cells per byte)</li>
+ *     <li>the cell index of the player (4 bytes)</li>
+ *     <li>the number of treasures (4 bytes) followed by the cell index of each treasure (4 bytes each)</li>
+ * </ul>
+ * The file ends with the marker {@link #END_OF_LEVELS}.
+ *
+ * @author Ullrich Hafner
+ */
+public class BinaryLevelWriter {
+    static final int MAGIC = 0x534F4B42; // SOKB
+    static final int VERSION = 1;
+    static final byte LEVEL = 1;
+    static final byte END_OF_LEVELS = 0;
+    static final int MAX_DIMENSION = 0xFFFF;
+
+    /**
+     * Writes the specified levels to the output stream. The stream will not be closed.
+     *
+     * @param levels
+     *         the levels to write
+     * @param output
+     *         the stream to write to
+     */
+    public void write(final Iterator<? extends AbstractSokobanModel> levels, final OutputStream output) {
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            while (levels.hasNext()) {
+                data.writeByte(LEVEL);
+                write(levels.next(), data);
+            }
+            data.writeByte(END_OF_LEVELS);
+            data.flush();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Writes the specified levels to the output stream. The stream will not be closed.
+     *
+     * @param levels
+     *         the levels to write
+     * @param output
+     *         the stream to write to
+     */
+    public void write(final List<? extends AbstractSokobanModel> levels, final OutputStream output) {
+        write(levels.iterator(), output);
+    }
+
+    private void write(final AbstractSokobanModel level, final DataOutputStream data) throws IOException {
+        int width = level.getWidth();
+        int height = level.getHeight();
+        if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException(String.format("Level %s is too large: %dx%d",
+                    level.getName(), width, height));
+        }
+
+        byte[] name = level.getName().getBytes(StandardCharsets.UTF_8);
+        int nameLength = getTruncatedLength(name);
+        data.writeShort(nameLength);
+        data.write(name, 0, nameLength);
+        data.writeShort(width);
+        data.writeShort(height);
+
+        byte[] low = new byte[getPlaneSize(width, height)];
+        byte[] high = new byte[low.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                int ordinal = level.getField(new Point(x, y)).ordinal();
+                low[cell >> 3] = (byte) (low[cell >> 3] | (ordinal & 1) << (cell & 7));
+                high[cell >> 3] = (byte) (high[cell >> 3] | (ordinal >> 1) << (cell & 7));
+            }
+        }
+        data.write(low);
+        data.write(high);
+
+        data.writeInt(toCell(level.getPlayer(), width));
+        List<Point> treasures = level.getTreasures();
+        data.writeInt(treasures.size());
+        for (Point treasure : treasures) {
+            data.writeInt(toCell(treasure, width));
+        }
+    }
+
+    // Names longer than the maximum length are truncated before the first byte of a UTF-8 character
+    private int getTruncatedLength(final byte[] name) {
+        if (name.length <= MAX_DIMENSION) {
+            return name.length;
+        }
+        int length = MAX_DIMENSION;
+        while (length > 0 && (name[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    private int toCell(final Point point, final int width) {
+        return point.getY() * width + point.getX();
+    }
+
+    /**
+     * Returns the number of bytes of a bit plane of a level with the specified size.
+     *
+     * @param width
+     *         the width of the level
+     * @param height
+     *         the height of the level
+     *
+     * @return the number of bytes
+     */
+    static int getPlaneSize(final int width, final int height) {
+        return (int) (((long) width * height + 7) / 8);
+    }
+}
@@ -0,0 +1,224 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+
+/**
+ * Caches the boards of the {@link CloudHighScoreService} per level. A cached board is fresh for the configured time to
+ * live: fresh boards are served without contacting the server. Afterwards, the board is stale and needs to be
+ * revalidated: if the server returned an entity tag for the board, then the board can be revalidated with a
+ * conditional request that does not transfer the board again if it has not been changed. If the cache contains more
+ * than the maximum number of boards, then the least recently used board is evicted.
+ *
+ * <p>
+ * Each invalidation starts a new generation of the cache. A board that has been requested before the latest
+ * invalidation might not contain the invalidated changes, so such a board is not stored: clients obtain the current
+ * {@link #getGeneration() generation} before they send the request and pass it to {@link #put(String, List, Optional,
+ * long)}.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class BoardCache {
+    private final long timeToLiveMillis;
+    private final LongSupplier clock;
+    private final Object lock = new Object();
+    private final Map<String, CachedBoard> boards;
+    private long generation;
+
+    /**
+     * Creates a new cache that uses the system clock.
+     *
+     * @param maxBoards
+     *         the maximum number of boards in the cache
+     * @param timeToLiveMillis
+     *         the number of milliseconds a board is fresh
+     */
+    BoardCache(final int maxBoards, final long timeToLiveMillis) {
+        this(maxBoards, timeToLiveMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxBoards
+     *         the maximum number of boards in the cache
+     * @param timeToLiveMillis
+     *         the number of milliseconds a board is fresh
+     * @param clock
+     *         the clock that returns the current time in milliseconds
+     */
+    BoardCache(final int maxBoards, final long timeToLiveMillis, final LongSupplier clock) {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.clock = clock;
+        boards = new LeastRecentlyUsedMap(maxBoards);
+    }
+
+    /**
+     * Returns the cached board of the specified level, regardless whether the board is fresh or stale.
+     *
+     * @param levelName
+     *         the name of the level
+     *
+     * @return the cached board, or an empty optional if the board is not cached
+     */
+    Optional<CachedBoard> get(final String levelName) {
+        synchronized (lock) {
+            return Optional.ofNullable(boards.get(levelName));
+        }
+    }
+
+    /**
+     * Returns whether the specified board is still fresh.
+     *
+     * @param board
+     *         the board to check
+     *
+     * @return {@code true} if the board can be used without revalidation, {@code false} otherwise
+     */
+    boolean isFresh(final CachedBoard board) {
+        return clock.getAsLong() - board.fetchedAt < timeToLiveMillis;
+    }
+
+    /**
+     * Returns the current generation of this cache. The generation is incremented by each invalidation.
+     *
+     * @return the generation
+     */
+    long getGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Stores the specified board that has been fetched from the server. If the cache has been invalidated since the
+     * request of the board has been started, then the board is returned but not stored.
+     *
+     * @param levelName
+     *         the name of the level
+     * @param entries
+     *         the entries of the board
+     * @param entityTag
+     *         the entity tag of the board, if returned by the server
+     * @param requestGeneration
+     *         the generation of the cache when the request of the board has been started
+     *
+     * @return the board
+     */
+    CachedBoard put(final String levelName, final List<HighScoreEntry> entries, final Optional<String> entityTag,
+            final long requestGeneration) {
+        CachedBoard board = new CachedBoard(Collections.unmodifiableList(new ArrayList<>(entries)), entityTag,
+                clock.getAsLong());
+        synchronized (lock) {
+            if (requestGeneration == generation) {
+                boards.put(levelName, board);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Marks the specified board as fresh again, since the server confirmed that the board has not been changed.
+     *
+     * @param levelName
+     *         the name of the level
+     * @param board
+     *         the board that has been revalidated
+     * @param requestGeneration
+     *         the generation of the cache when the revalidation request has been started
+     *
+     * @return the revalidated board
+     */
+    CachedBoard revalidate(final String levelName, final CachedBoard board, final long requestGeneration) {
+        return put(levelName, board.entries, board.entityTag, requestGeneration);
+    }
+
+    /**
+     * Removes the board of the specified level.
+     *
+     * @param levelName
+     *         the name of the level
+     */
+    void invalidate(final String levelName) {
+        synchronized (lock) {
+            boards.remove(levelName);
+            generation++;
+        }
+    }
+
+    /**
+     * Removes all boards.
+     */
+    void invalidateAll() {
+        synchronized (lock) {
+            boards.clear();
+            generation++;
+        }
+    }
+
+    /**
+     * Returns the number of cached boards.
+     *
+     * @return the number of boards
+     */
+    int size() {
+        synchronized (lock) {
+            return boards.size();
+        }
+    }
+
+    /**
+     * A board in the cache.
+     */
+    static final class CachedBoard {
+        private final List<HighScoreEntry> entries;
+        private final Optional<String> entityTag;
+        private final long fetchedAt;
+
+        CachedBoard(final List<HighScoreEntry> entries, final Optional<String> entityTag, final long fetchedAt) {
+            this.entries = entries;
+            this.entityTag = entityTag;
+            this.fetchedAt = fetchedAt;
+        }
+
+        List<HighScoreEntry> getEntries() {
+            return entries;
+        }
+
+        Optional<String> getEntityTag() {
+            return entityTag;
+        }
+    }
+
+    /**
+     * A map in access order that removes the least recently used board if the maximum size is exceeded.
+     */
+    private static final class LeastRecentlyUsedMap extends LinkedHashMap<String, CachedBoard> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxBoards;
+
+        LeastRecentlyUsedMap(final int maxBoards) {
+            super(16, 0.75f, true);
+
+            this.maxBoards = maxBoards;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedBoard> eldest) {
+            return size() > maxBoards;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.hm.hafner.sokoban.BoardCache.CachedBoard;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Loads the boards of the {@link CloudHighScoreService} from the server and keeps them in a {@link BoardCache}. Fresh
+ * boards are served from the cache. A stale board is revalidated with a conditional request if the server provided an
+ * entity tag.
+ *
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class BoardLoader {
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final BoardCache boards;
+    private final CloudClientProfile profile;
+    private final Function<String, HttpUrl> boardUrl;
+
+    /**
+     * Creates a new loader.
+     *
+     * @param boards
+     *         the cache of the boards
+     * @param profile
+     *         the profile of the HTTP client that sends the requests
+     * @param boardUrl
+     *         returns the URL of the board of a level
+     */
+    BoardLoader(final BoardCache boards, final CloudClientProfile profile, final Function<String, HttpUrl> boardUrl) {
+        this.boards = boards;
+        this.profile = profile;
+        this.boardUrl = boardUrl;
+    }
+
+    /**
+     * Returns the board of the specified level.
+     *
+     * @param levelName
+     *         the name of the level
+     *
+     * @return the entries of the board
+     * @throws UncheckedIOException
+     *         if the server is not reachable
+     * @throws IllegalStateException
+     *         if the server returned an error
+     */
+    List<HighScoreEntry> getBoard(final String levelName) {
+        Optional<CachedBoard> cached = boards.get(levelName);
+        if (cached.isPresent() && boards.isFresh(cached.get())) {
+            return cached.get().getEntries();
+        }
+
+        long generation = boards.getGeneration();
+        Request.Builder request = new Request.Builder().url(boardUrl.apply(levelName));
+        cached.flatMap(CachedBoard::getEntityTag).ifPresent(entityTag -> request.header("If-None-Match", entityTag));
+
+        try (Response response = profile.execute(request.build())) {
+            if (response.code() == HTTP_NOT_MODIFIED && cached.isPresent()) {
+                return boards.revalidate(levelName, cached.get(), generation).getEntries();
+            }
+            List<HighScoreEntry> board;
+            try (Stream<HighScoreEntry> entries = CloudHighScoreService.streamEntries(response,
+                    /* isReadingSolutions= */ true)) {
+                board = entries.collect(Collectors.toList());
+            }
+            return boards.put(levelName, board, Optional.ofNullable(response.header("ETag")), generation)
+                    .getEntries();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the best entry of the specified level. If the board is not cached, then only the first entry of the
+     * board is requested from the server.
+     *
+     * @param levelName
+     *         the name of the level
+     *
+     * @return the best entry, or an empty optional if the board is empty
+     * @throws UncheckedIOException
+     *         if the server is not reachable
+     * @throws IllegalStateException
+     *         if the server returned an error
+     */
+    Optional<HighScoreEntry> getBestEntry(final String levelName) {
+        Optional<CachedBoard> cached = boards.get(levelName);
+        if (cached.isPresent() && boards.isFresh(cached.get())) {
+            return cached.get().getEntries().stream().findFirst();
+        }
+
+        Request request = new Request.Builder()
+                .url(boardUrl.apply(levelName).newBuilder().addQueryParameter("limit", "1").build())
+                .build();
+        try (Response response = profile.execute(request);
+                Stream<HighScoreEntry> entries = CloudHighScoreService.streamEntries(response,
+                        /* isReadingSolutions= */ true)) {
+            return entries.findFirst();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes the boards of the specified levels from the cache.
+     *
+     * @param levelNames
+     *         the names of the levels
+     */
+    void invalidate(final String... levelNames) {
+        for (String levelName : levelNames) {
+            boards.invalidate(levelName);
+        }
+    }
+
+    /**
+     * Removes all boards from the cache.
+     */
+    void invalidateAll() {
+        boards.invalidateAll();
+    }
+}
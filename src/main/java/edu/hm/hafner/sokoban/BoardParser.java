@@ -0,0 +1,244 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Reads the entries of a board from the JSON array that is returned by the high score server. In contrast to the data
+ * binding of Jackson, the entries are read one after another from the stream of the response: the entries are created
+ * only when they are requested, so a client that needs the first entries only stops reading the response early.
+ * Optionally, the solutions are skipped without decoding them, e.g. if a board should be printed only. If an entry
+ * contains its solution in both formats (as array of moves and encoded), then only the first one is decoded.
+ *
+ * @author Ullrich Hafner
+ */
+final class BoardParser implements Iterator<HighScoreEntry>, AutoCloseable {
+    private final JsonParser parser;
+    private final boolean isReadingSolutions;
+    private Optional<HighScoreEntry> lookahead = Optional.empty();
+    private boolean isFinished;
+    private boolean hasSolution;
+
+    /**
+     * Creates a stream of the entries of the board in the specified input. The input is closed when the stream is
+     * closed.
+     *
+     * @param factory
+     *         the factory for the JSON parser
+     * @param input
+     *         the JSON array of the entries
+     * @param isReadingSolutions
+     *         determines whether the solutions of the entries should be read, otherwise the solutions are empty
+     *
+     * @return the entries
+     * @throws IOException
+     *         if the input could not be read
+     * @throws IllegalStateException
+     *         if the input does not contain an array of entries (the stream throws this exception as well if an entry
+     *         contains an invalid solution)
+     */
+    @SuppressWarnings("PMD.CloseResource") // the parser is closed when the stream is closed
+    static Stream<HighScoreEntry> stream(final JsonFactory factory, final InputStream input,
+            final boolean isReadingSolutions) throws IOException {
+        BoardParser entries = new BoardParser(factory.createParser(input), isReadingSolutions);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(entries::close);
+    }
+
+    /**
+     * Converts the timestamp of an entry to an {@link Instant}. The server sends the timestamps in UTC without a zone.
+     *
+     * @param timestamp
+     *         the timestamp
+     *
+     * @return the instant, or the current time if the timestamp is invalid
+     */
+    static Instant parseTimestamp(final String timestamp) {
+        try {
+            return Instant.parse(timestamp + "Z"); // Z = UTC timezone
+        }
+        catch (DateTimeParseException exception) {
+            return Instant.now();
+        }
+    }
+
+    private BoardParser(final JsonParser parser, final boolean isReadingSolutions) throws IOException {
+        this.parser = parser;
+        this.isReadingSolutions = isReadingSolutions;
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalStateException("Error: Server returned no board");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!lookahead.isPresent() && !isFinished) {
+            try {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    lookahead = Optional.of(readEntry());
+                }
+                else {
+                    isFinished = true;
+                }
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+        return lookahead.isPresent();
+    }
+
+    @Override
+    public HighScoreEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more entries on the board");
+        }
+        HighScoreEntry entry = lookahead.get();
+        lookahead = Optional.empty();
+        return entry;
+    }
+
+    // Reads all fields of the entry, so that the parser is positioned at the next entry even if a field is invalid
+    private HighScoreEntry readEntry() throws IOException {
+        HighScoreEntryBuilder builder = new HighScoreEntryBuilder();
+        Optional<IllegalStateException> invalidField = Optional.empty();
+        hasSolution = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            try {
+                readField(builder, field);
+            }
+            catch (IllegalStateException exception) {
+                invalidField = Optional.of(exception);
+            }
+        }
+        if (invalidField.isPresent()) {
+            throw invalidField.get();
+        }
+        return builder.build();
+    }
+
+    private void readField(final HighScoreEntryBuilder builder, final String field) throws IOException {
+        switch (field) {
+            case "playerName":
+                builder.withPlayerName(parser.getText());
+                break;
+            case "levelName":
+                builder.withLevelName(parser.getText());
+                break;
+            case "numberOfMoves":
+                builder.withNumberOfMoves(parser.getIntValue());
+                break;
+            case "numberOfAttempts":
+                builder.withNumberOfAttempts(parser.getIntValue());
+                break;
+            case "timestamp":
+                builder.withTimestamp(parseTimestamp(parser.getText()));
+                break;
+            case "solution":
+                readSolution(builder);
+                break;
+            case "encodedSolution":
+                readEncodedSolution(builder);
+                break;
+            default:
+                parser.skipChildren();
+                break;
+        }
+    }
+
+    private boolean isSkippingSolution() {
+        return !isReadingSolutions || hasSolution;
+    }
+
+    private void readEncodedSolution(final HighScoreEntryBuilder builder) throws IOException {
+        if (!isSkippingSolution()) {
+            builder.withSolution(decodeSolution(parser.getText()));
+            hasSolution = true;
+        }
+    }
+
+    private void readSolution(final HighScoreEntryBuilder builder) throws IOException {
+        if (isSkippingSolution() || parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        List<Orientation> solution = new ArrayList<>();
+        List<String> invalidMoves = new ArrayList<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == null) {
+                throw new EOFException("Solution of entry is truncated");
+            }
+            Optional<Orientation> move = toMove(token);
+            if (move.isPresent()) {
+                solution.add(move.get());
+            }
+            else {
+                invalidMoves.add(parser.getText());
+                parser.skipChildren();
+            }
+        }
+        if (!invalidMoves.isEmpty()) {
+            throw new IllegalStateException("Error: Server returned invalid moves " + invalidMoves);
+        }
+        builder.withSolution(solution);
+        hasSolution = true;
+    }
+
+    private Optional<Orientation> toMove(final JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Orientation.valueOf(parser.getText()));
+        }
+        catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<Orientation> decodeSolution(final String encodedSolution) {
+        try {
+            return MoveCodec.fromBase64(encodedSolution);
+        }
+        catch (IllegalArgumentException exception) {
+            throw new IllegalStateException("Error: Server returned an invalid solution " + encodedSolution,
+                    exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
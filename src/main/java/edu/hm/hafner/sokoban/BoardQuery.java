@@ -0,0 +1,181 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+
+/**
+ * Selects a page of the entries of the high score boards. A query optionally restricts the entries to a level and to a
+ * player, skips the first entries ({@code offset}), and returns at most the specified number of entries ({@code
+ * limit}). Since the solutions are not required to show a board, a query can exclude the solutions: the selected
+ * entries then contain an empty solution. Queries are created with a {@link BoardQueryBuilder}.
+ *
+ * @author Ullrich Hafner
+ * @see HighScoreService#getBoard(BoardQuery)
+ */
+public final class BoardQuery {
+    private final Optional<String> levelName;
+    private final Optional<String> playerName;
+    private final int offset;
+    private final int limit;
+    private final boolean hasSolutions;
+
+    private BoardQuery(final Optional<String> levelName, final Optional<String> playerName, final int offset,
+            final int limit, final boolean isIncludingSolutions) {
+        this.levelName = levelName;
+        this.playerName = playerName;
+        this.offset = offset;
+        this.limit = limit;
+        hasSolutions = isIncludingSolutions;
+    }
+
+    /**
+     * Returns the level of the selected entries.
+     *
+     * @return the name of the level, or an empty optional if the entries of all levels are selected
+     */
+    public Optional<String> getLevelName() {
+        return levelName;
+    }
+
+    /**
+     * Returns the player of the selected entries.
+     *
+     * @return the name of the player, or an empty optional if the entries of all players are selected
+     */
+    public Optional<String> getPlayerName() {
+        return playerName;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isIncludingSolutions() {
+        return hasSolutions;
+    }
+
+    /**
+     * Returns whether the specified entry matches the level and the player of this query.
+     *
+     * @param entry
+     *         the entry to check
+     *
+     * @return {@code true} if the entry matches, {@code false} otherwise
+     */
+    public boolean matches(final HighScoreEntry entry) {
+        return levelName.map(entry.getLevelName()::equals).orElse(true)
+                && playerName.map(entry.getPlayerName()::equals).orElse(true);
+    }
+
+    /**
+     * Returns the specified entry in the projection of this query, i.e. without the solution if solutions are
+     * excluded.
+     *
+     * @param entry
+     *         the entry to project
+     *
+     * @return the projected entry
+     */
+    public HighScoreEntry project(final HighScoreEntry entry) {
+        if (hasSolutions) {
+            return entry;
+        }
+        return new HighScoreEntryBuilder()
+                .withLevelName(entry.getLevelName())
+                .withPlayerName(entry.getPlayerName())
+                .withNumberOfMoves(entry.getNumberOfMoves())
+                .withNumberOfAttempts(entry.getNumberOfAttempts())
+                .withTimestamp(entry.getInstant())
+                .build();
+    }
+
+    /**
+     * Selects the page of this query from the specified sorted entries. The stream is consumed only up to the last
+     * entry of the page.
+     *
+     * @param entries
+     *         the sorted entries
+     *
+     * @return the matching and projected entries of the page
+     */
+    public List<HighScoreEntry> select(final Stream<HighScoreEntry> entries) {
+        return entries.filter(this::matches).skip(offset).limit(limit).map(this::project).collect(Collectors.toList());
+    }
+
+    /**
+     * Builds {@link BoardQuery} instances. By default, all entries of all levels are selected, including the
+     * solutions.
+     */
+    @SuppressWarnings({"checkstyle:HiddenField", "checkstyle:MissingJavadocMethod", "PMD.AccessorClassGeneration", "ParameterHidesMemberVariable"})
+    public static class BoardQueryBuilder {
+        private Optional<String> levelName = Optional.empty();
+        private Optional<String> playerName = Optional.empty();
+        private int offset;
+        private int limit = Integer.MAX_VALUE;
+        private boolean isIncludingSolutions = true;
+
+        public BoardQueryBuilder withLevelName(final String levelName) {
+            this.levelName = Optional.of(levelName);
+            return this;
+        }
+
+        public BoardQueryBuilder withPlayerName(final String playerName) {
+            this.playerName = Optional.of(playerName);
+            return this;
+        }
+
+        /**
+         * Sets the number of matching entries that are skipped.
+         *
+         * @param offset
+         *         the number of skipped entries
+         *
+         * @return this builder
+         * @throws IllegalArgumentException
+         *         if the offset is negative
+         */
+        public BoardQueryBuilder withOffset(final int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset must not be negative: " + offset);
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of selected entries.
+         *
+         * @param limit
+         *         the maximum number of entries
+         *
+         * @return this builder
+         * @throws IllegalArgumentException
+         *         if the limit is negative
+         */
+        public BoardQueryBuilder withLimit(final int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public BoardQueryBuilder withoutSolutions() {
+            isIncludingSolutions = false;
+            return this;
+        }
+
+        public BoardQuery build() {
+            return new BoardQuery(levelName, playerName, offset, limit, isIncludingSolutions);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker that stops calls to a remote service that failed repeatedly. The breaker starts {@link
+ * State#CLOSED closed}. After the configured number of consecutive failures it opens: no calls are permitted until the
+ * open period has elapsed. Afterwards, the breaker is {@link State#HALF_OPEN half open} and permits a single trial
+ * call: a success closes the breaker, a failure opens it again.
+ *
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+class CircuitBreaker {
+    /** The states of a circuit breaker. */
+    enum State {
+        /** Calls are permitted. */
+        CLOSED,
+        /** Calls are not permitted. */
+        OPEN,
+        /** A single trial call is permitted. */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final Object lock = new Object();
+
+    private int failures;
+    private long openedAt;
+    private boolean isOpen;
+
+    /**
+     * Creates a new circuit breaker that uses the system clock.
+     *
+     * @param failureThreshold
+     *         the number of consecutive failures that open the breaker
+     * @param openMillis
+     *         the number of milliseconds the breaker stays open
+     */
+    CircuitBreaker(final int failureThreshold, final long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a new circuit breaker.
+     *
+     * @param failureThreshold
+     *         the number of consecutive failures that open the breaker
+     * @param openMillis
+     *         the number of milliseconds the breaker stays open
+     * @param clock
+     *         the clock that returns the current time in milliseconds
+     */
+    CircuitBreaker(final int failureThreshold, final long openMillis, final LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return the state
+     */
+    State getState() {
+        synchronized (lock) {
+            if (!isOpen) {
+                return State.CLOSED;
+            }
+            return getRemainingOpenMillis() > 0 ? State.OPEN : State.HALF_OPEN;
+        }
+    }
+
+    /**
+     * Returns the number of milliseconds until the next call is permitted.
+     *
+     * @return the remaining time of the open period, or 0 if a call is permitted now
+     */
+    long getRemainingOpenMillis() {
+        synchronized (lock) {
+            if (!isOpen) {
+                return 0;
+            }
+            return Math.max(0, openedAt + openMillis - clock.getAsLong());
+        }
+    }
+
+    /**
+     * Records a successful call. The breaker will be closed.
+     */
+    void recordSuccess() {
+        synchronized (lock) {
+            failures = 0;
+            isOpen = false;
+        }
+    }
+
+    /**
+     * Records a failed call. The breaker opens if the failure threshold has been reached or if the failed call was the
+     * trial call of a half open breaker.
+     */
+    void recordFailure() {
+        synchronized (lock) {
+            failures++;
+            if (isOpen || failures >= failureThreshold) {
+                isOpen = true;
+                openedAt = clock.getAsLong();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Provides the collection files that are resources of the class path. The collections are listed from the location of
+ * the classes of the application, i.e. a directory or a jar file. Collections can be read from every element of the
+ * class path.
+ *
+ * @author Ullrich Hafner
+ */
+class ClasspathLevelSource extends AbstractLevelSource {
+    private final Class<?> anchor;
+
+    ClasspathLevelSource(final Class<?> anchor) {
+        super();
+
+        this.anchor = anchor;
+    }
+
+    @Override
+    protected Stream<String> listCollections() {
+        Optional<Path> location = getLocation();
+        if (!location.isPresent()) {
+            return Stream.empty();
+        }
+        Path root = location.get();
+        if (Files.isDirectory(root)) {
+            return DirectoryLevelSource.list(root);
+        }
+        return listJar(root);
+    }
+
+    @SuppressWarnings("PMD.CloseResource") // will be closed when the stream is closed
+    @SuppressFBWarnings(value = "OS_OPEN_STREAM", justification = "The zip file is closed when the stream is closed")
+    private Stream<String> listJar(final Path jar) {
+        try {
+            ZipFile zip = new ZipFile(jar.toFile());
+            return zip.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(ZipEntry::getName)
+                    .onClose(() -> close(zip));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void close(final ZipFile zip) {
+        try {
+            zip.close();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Optional<Path> getLocation() {
+        CodeSource codeSource = anchor.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Paths.get(codeSource.getLocation().toURI()));
+        }
+        catch (URISyntaxException | IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "OBL_UNSATISFIED_OBLIGATION", justification = "The caller closes the stream")
+    protected Optional<InputStream> openCollection(final String collection) {
+        return Optional.ofNullable(anchor.getResourceAsStream("/" + collection));
+    }
+}
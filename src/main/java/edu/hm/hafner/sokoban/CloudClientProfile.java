@@ -0,0 +1,356 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.Okio;
+import okio.Source;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Configures the HTTP client of a {@link CloudHighScoreService}. A profile creates a single {@link OkHttpClient}, so
+ * all services that use the same profile share the connection pool and the threads of the client. The profile defines
+ * the following properties:
+ * <ul>
+ *     <li>the timeouts to connect to the server, to read a response, and to write a request</li>
+ *     <li>the number of idle connections that are kept alive and how long they are kept alive</li>
+ *     <li>the maximum number of concurrent requests: synchronous requests wait until the response of another request
+ *     has been closed, asynchronous requests are queued by the dispatcher of the client</li>
+ *     <li>whether the bodies of requests are compressed with gzip (responses are always decompressed
+ *     transparently)</li>
+ *     <li>whether the solutions are sent as array of moves in addition to the compact format, for servers that have
+ *     not been migrated yet</li>
+ * </ul>
+ * Profiles are created with a {@link CloudClientProfileBuilder}.
+ *
+ * @author Ullrich Hafner
+ */
+public final class CloudClientProfile {
+    private final OkHttpClient client;
+    private final RequestLimiter limiter;
+    private final boolean sendsSolutionArrays;
+
+    private CloudClientProfile(final OkHttpClient client, final RequestLimiter limiter,
+            final boolean sendsSolutionArrays) {
+        this.client = client;
+        this.limiter = limiter;
+        this.sendsSolutionArrays = sendsSolutionArrays;
+    }
+
+    /**
+     * Returns the client of this profile.
+     *
+     * @return the client
+     */
+    OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns whether the solutions are sent as array of moves in addition to the compact format.
+     *
+     * @return {@code true} if the solutions are sent in both formats, {@code false} if the compact format is sent only
+     */
+    boolean isSendingSolutionArrays() {
+        return sendsSolutionArrays;
+    }
+
+    /**
+     * Executes the specified request synchronously. If the maximum number of requests is already executed, then the
+     * request waits until the body of another response has been closed. The body of the returned response must be
+     * closed.
+     *
+     * @param request
+     *         the request to execute
+     *
+     * @return the response
+     * @throws IOException
+     *         if the request could not be executed
+     */
+    Response execute(final Request request) throws IOException {
+        return limiter.execute(client.newCall(request));
+    }
+
+    /**
+     * Limits the number of synchronous calls that are concurrently executed. A call holds its permit until the body of
+     * the response has been closed, so a response that is streamed counts as long as it is read. Asynchronous calls are
+     * limited by the {@link Dispatcher} of the client.
+     */
+    private static final class RequestLimiter {
+        private final Semaphore permits;
+
+        RequestLimiter(final int maxRequests) {
+            permits = new Semaphore(maxRequests, true);
+        }
+
+        Response execute(final Call call) throws IOException {
+            try {
+                permits.acquire();
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for a free request slot");
+                interrupted.initCause(exception);
+                throw interrupted;
+            }
+            Permit permit = new Permit(permits);
+            boolean isReleasedWithBody = false;
+            try {
+                Response response = call.execute();
+                @SuppressWarnings("PMD.CloseResource") // the body is closed with the response
+                ResponseBody body = response.body();
+                if (body == null) {
+                    return response;
+                }
+                isReleasedWithBody = true;
+                return response.newBuilder().body(new PermitReleasingBody(body, permit)).build();
+            }
+            finally {
+                if (!isReleasedWithBody) {
+                    permit.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * A permit of the {@link RequestLimiter} that is released only once.
+     */
+    private static final class Permit {
+        private final Semaphore permits;
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        Permit(final Semaphore permits) {
+            this.permits = permits;
+        }
+
+        void release() {
+            if (isReleased.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * A response body that releases the permit of its call when the body is closed.
+     */
+    private static final class PermitReleasingBody extends ResponseBody {
+        private final ResponseBody body;
+        private final BufferedSource content;
+
+        PermitReleasingBody(final ResponseBody body, final Permit permit) {
+            super();
+
+            this.body = body;
+            content = Okio.buffer(new PermitReleasingSource(body.source(), permit));
+        }
+
+        @Override @Nullable
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return content;
+        }
+    }
+
+    /**
+     * A source that releases the permit of its call when the source is closed.
+     */
+    private static final class PermitReleasingSource extends ForwardingSource {
+        private final Permit permit;
+
+        PermitReleasingSource(final Source source, final Permit permit) {
+            super(source);
+
+            this.permit = permit;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            }
+            finally {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Compresses the bodies of the requests with gzip. The compressed body is buffered, so that the request is sent
+     * with a content length rather than in chunks.
+     */
+    private static final class GzipRequestInterceptor implements Interceptor {
+        private static final String CONTENT_ENCODING = "Content-Encoding";
+
+        @Override
+        public Response intercept(final Chain chain) throws IOException {
+            Request request = chain.request();
+            RequestBody body = request.body();
+            if (body == null || request.header(CONTENT_ENCODING) != null) {
+                return chain.proceed(request);
+            }
+            return chain.proceed(request.newBuilder()
+                    .header(CONTENT_ENCODING, "gzip")
+                    .method(request.method(), compress(body))
+                    .build());
+        }
+
+        private RequestBody compress(final RequestBody body) throws IOException {
+            Buffer compressed = new Buffer();
+            try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+                body.writeTo(sink);
+            }
+            return RequestBody.create(body.contentType(), compressed.readByteString());
+        }
+    }
+
+    /**
+     * Builds {@link CloudClientProfile} instances. All properties have defaults that are suitable for a single server
+     * in the local network.
+     */
+    @SuppressWarnings({"checkstyle:HiddenField", "checkstyle:MissingJavadocMethod", "PMD.AccessorClassGeneration", "ParameterHidesMemberVariable"})
+    public static class CloudClientProfileBuilder {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        private int maxIdleConnections = 8;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = 64;
+        private boolean isCompressingRequests;
+        private boolean isSendingSolutionArrays;
+
+        public CloudClientProfileBuilder withConnectTimeout(final Duration connectTimeout) {
+            this.connectTimeout = requirePositive(connectTimeout);
+            return this;
+        }
+
+        public CloudClientProfileBuilder withReadTimeout(final Duration readTimeout) {
+            this.readTimeout = requirePositive(readTimeout);
+            return this;
+        }
+
+        public CloudClientProfileBuilder withWriteTimeout(final Duration writeTimeout) {
+            this.writeTimeout = requirePositive(writeTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the number of idle connections that are kept alive in the connection pool.
+         *
+         * @param maxIdleConnections
+         *         the maximum number of idle connections, 0 disables the reuse of connections
+         *
+         * @return this builder
+         * @throws IllegalArgumentException
+         *         if the number is negative
+         */
+        public CloudClientProfileBuilder withMaxIdleConnections(final int maxIdleConnections) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("Number of idle connections must not be negative: "
+                        + maxIdleConnections);
+            }
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public CloudClientProfileBuilder withKeepAlive(final Duration keepAlive) {
+            this.keepAlive = requirePositive(keepAlive);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests that are concurrently waiting for a response.
+         *
+         * @param maxRequests
+         *         the maximum number of concurrent requests
+         *
+         * @return this builder
+         * @throws IllegalArgumentException
+         *         if the number is not positive
+         */
+        public CloudClientProfileBuilder withMaxRequests(final int maxRequests) {
+            if (maxRequests <= 0) {
+                throw new IllegalArgumentException("Number of concurrent requests must be positive: " + maxRequests);
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Enables the compression of request bodies with gzip. The server must accept the header {@code
+         * Content-Encoding: gzip}.
+         *
+         * @return this builder
+         */
+        public CloudClientProfileBuilder withCompressedRequests() {
+            isCompressingRequests = true;
+            return this;
+        }
+
+        /**
+         * Sends the solutions as array of moves in addition to the compact format. This is required for servers that
+         * have not been migrated to the compact format yet, but more than doubles the size of the requests.
+         *
+         * @return this builder
+         */
+        public CloudClientProfileBuilder withSolutionArrays() {
+            isSendingSolutionArrays = true;
+            return this;
+        }
+
+        private static Duration requirePositive(final Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Duration must be positive: " + duration);
+            }
+            return duration;
+        }
+
+        public CloudClientProfile build() {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxRequests);
+            dispatcher.setMaxRequestsPerHost(maxRequests);
+
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .writeTimeout(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(),
+                            TimeUnit.MILLISECONDS))
+                    .dispatcher(dispatcher);
+            if (isCompressingRequests) {
+                builder.addInterceptor(new GzipRequestInterceptor());
+            }
+            return new CloudClientProfile(builder.build(), new RequestLimiter(maxRequests),
+                    isSendingSolutionArrays);
+        }
+    }
+}
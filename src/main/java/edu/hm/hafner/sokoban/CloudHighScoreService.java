@@ -2,23 +2,16 @@ package edu.hm.hafner.sokoban;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.time.Instant;
-import java.time.format.DateTimeParseException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-
-import org.apache.commons.lang3.StringUtils;
-
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import edu.hm.hafner.sokoban.CloudClientProfile.CloudClientProfileBuilder;
 import edu.hm.hafner.sokoban.model.HighScoreEntry;
 import edu.hm.hafner.sokoban.model.Orientation;
 
@@ -32,82 +25,282 @@ import okhttp3.ResponseBody;
 
 /**
  * A {@link HighScoreService} that stores/retrieves the {@link HighScoreEntry HighScoreEntries} in/from a cloud.
+ *
+ * <p>
+ * The entries are converted from and to JSON with a mapping that is shared by all instances, see {@link
+ * HighScoreJson}.
+ * </p>
+ *
+ * <p>
+ * The requests are sent with the HTTP client of a {@link CloudClientProfile}. Services that use the same profile share
+ * the connection pool of the client, by default all services use the same profile.
+ * </p>
+ *
+ * <p>
+ * Submitted solutions are sent from a bounded outbox in memory by default. If the service has been built with a
+ * journal file (see {@link CloudHighScoreServiceBuilder#withJournal(Path)}), then the solutions are uploaded with a
+ * {@link DurableScoreUploader} instead, so they are not lost while the server is not available. Such a service must be
+ * closed to stop the uploads and release the journal.
+ * </p>
  */
-public class CloudHighScoreService implements HighScoreService {
-    private static final int WIDTH = 73;
+@SuppressWarnings("PMD.GodClass")
+public class CloudHighScoreService implements HighScoreService, AutoCloseable {
     private static final String ALL = "all";
 
     private static final String CLOUD_HIGH_SCORE_SERVICE_URL = "http://localhost:8085";
+    private static final int OUTBOX_CAPACITY = 256;
+    private static final int BATCH_SIZE = 16;
+    private static final int MAX_CACHED_BOARDS = 64;
+    private static final long BOARD_TIME_TO_LIVE_MILLIS = 30_000;
+    private static final int HTTP_REQUEST_TIMEOUT = 408;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+    private static final MediaType JSON = createMediaType("application/json; charset=utf-8");
+
+    private static final CloudClientProfile DEFAULT_PROFILE = new CloudClientProfileBuilder().build();
+
+    private final CloudClientProfile profile;
+    private final HttpUrl serviceUrl;
+    private final Optional<SolutionCache> solutions;
+    private final ScoreOutbox outbox;
+    private final Optional<DurableScoreUploader> uploader;
+    private final BoardLoader boards;
+
+    /**
+     * Creates a new service. Use a {@link CloudHighScoreServiceBuilder} to create instances.
+     *
+     * @param serviceUrl
+     *         the URL of the high score server
+     * @param solutions
+     *         the cache of solutions for levels that have no entries in the cloud yet
+     * @param profile
+     *         the profile of the HTTP client
+     * @param boards
+     *         the cache of the boards
+     * @param journal
+     *         the journal of the submitted solutions that have not been uploaded yet
+     */
+    CloudHighScoreService(final String serviceUrl, final Optional<SolutionCache> solutions,
+            final CloudClientProfile profile, final BoardCache boards, final Optional<Path> journal) {
+        HttpUrl url = HttpUrl.parse(serviceUrl);
+        if (url == null) {
+            throw new IllegalArgumentException("Invalid URL of the high score server: " + serviceUrl);
+        }
+        this.serviceUrl = url;
+        this.solutions = solutions;
+        this.profile = profile;
+        this.boards = new BoardLoader(boards, profile, levelName -> getUrlWithParam(url, "levelName", levelName));
+        OkHttpClient client = profile.getClient();
+        outbox = new ScoreOutbox(client, entry -> createPostRequest(profile, url, entry), OUTBOX_CAPACITY, BATCH_SIZE,
+                client.dispatcher().executorService());
+        uploader = journal.map(file -> new DurableScoreUploader(file, entry -> send(profile, url, entry)));
+    }
 
-    private final OkHttpClient client = new OkHttpClient();
-
-    private static final TypeReference<List<HighScoreEntry>> ENTRY_LIST_TYPE_REFERENCE = new TypeReference<List<HighScoreEntry>>() {
-    };
+    private static MediaType createMediaType(final String contentType) {
+        MediaType mediaType = MediaType.parse(contentType);
+        if (mediaType == null) {
+            throw new IllegalArgumentException("Invalid media type: " + contentType);
+        }
+        return mediaType;
+    }
 
     @Override
     public void registerSolution(final String playerName, final String levelName, final int numberOfMoves,
             final int numberOfAttempts, final Collection<Orientation> solution) {
-        HighScoreEntry entry = new HighScoreEntry.HighScoreEntryBuilder().withPlayerName(playerName)
-                .withLevelName(levelName)
-                .withNumberOfMoves(numberOfMoves)
-                .withNumberOfAttempts(numberOfAttempts)
-                .withSolution(new ArrayList<>(solution))
-                .build();
+        HighScoreEntry entry = createEntry(playerName, levelName, numberOfMoves, numberOfAttempts, solution);
+        register(entry);
+    }
 
+    /**
+     * Sends the specified entry to the server and waits for the response.
+     *
+     * @param entry
+     *         the entry to register
+     *
+     * @throws UncheckedIOException
+     *         if the server is not reachable or temporarily not available, i.e., the entry should be sent again later
+     * @throws IllegalStateException
+     *         if the server rejected the entry permanently
+     */
+    public void register(final HighScoreEntry entry) {
         try {
-            ObjectWriter objectWriter = getObjectMapper().writer().withDefaultPrettyPrinter();
-            String body = objectWriter.writeValueAsString(entry);
-            String url = getUrlWithLevelParam(levelName);
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(RequestBody.create(MediaType.parse("application/json; charset=utf-8"), body))
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                validateBodyOfResponse(response);
-            }
+            send(profile, serviceUrl, entry);
+        }
+        finally {
+            invalidateBoards(entry);
+        }
+    }
+
+    private static void send(final CloudClientProfile profile, final HttpUrl serviceUrl, final HighScoreEntry entry) {
+        try (Response response = profile.execute(createPostRequest(profile, serviceUrl, entry))) {
+            validateBodyOfResponse(response);
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private void invalidateBoards(final HighScoreEntry entry) {
+        boards.invalidate(entry.getLevelName(), ALL);
+    }
+
+    /**
+     * Submits a new solution for the specified level. If the service has a journal, then the solution is stored in the
+     * journal and uploaded in the background until the server accepts it, see {@link DurableScoreUploader}.
+     * Otherwise, the solution is added to a bounded outbox that is flushed in batches on a background thread, see
+     * {@link ScoreOutbox}.
+     */
     @Override
-    public List<HighScoreEntry> getBoard(final String levelName) {
-        String url = getUrlWithLevelParam(levelName);
+    public CompletableFuture<Void> submitSolution(final String playerName, final String levelName,
+            final int numberOfMoves, final int numberOfAttempts, final Collection<Orientation> solution) {
+        HighScoreEntry entry = createEntry(playerName, levelName, numberOfMoves, numberOfAttempts, solution);
+        CompletableFuture<Void> upload = uploader.map(durable -> durable.submit(entry))
+                .orElseGet(() -> outbox.submit(entry));
+        return upload.whenComplete((result, error) -> invalidateBoards(entry));
+    }
 
-        Request request = new Request.Builder()
-                .url(url)
+    /**
+     * Stops the uploads of the journal, if any. Solutions that have not been uploaded yet remain in the journal and
+     * will be uploaded by the next service that uses the same journal.
+     */
+    @Override
+    public void close() {
+        uploader.ifPresent(DurableScoreUploader::close);
+    }
+
+    private HighScoreEntry createEntry(final String playerName, final String levelName, final int numberOfMoves,
+            final int numberOfAttempts, final Collection<Orientation> solution) {
+        return new HighScoreEntry.HighScoreEntryBuilder().withPlayerName(playerName)
+                .withLevelName(levelName)
+                .withNumberOfMoves(numberOfMoves)
+                .withNumberOfAttempts(numberOfAttempts)
+                .withSolution(new ArrayList<>(solution))
                 .build();
+    }
+
+    private static Request createPostRequest(final CloudClientProfile profile, final HttpUrl serviceUrl,
+            final HighScoreEntry entry) {
+        return new Request.Builder()
+                .url(getUrlWithParam(serviceUrl, "levelName", entry.getLevelName()))
+                .post(RequestBody.create(JSON, HighScoreJson.toBytes(entry, profile.isSendingSolutionArrays())))
+                .build();
+    }
+
+    /**
+     * Returns the board of the specified level. Boards are cached for a short time, see {@link BoardCache}. A stale
+     * board is revalidated with a conditional request if the server provided an entity tag.
+     */
+    @Override
+    public List<HighScoreEntry> getBoard(final String levelName) {
+        return boards.getBoard(levelName);
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            return convertResponse(validateBodyOfResponse(response));
+    /**
+     * Returns the page of the high score boards that is selected by the specified query. The query is sent to the
+     * server as parameters: the level (or {@code all}), the player, the number of entries up to the end of the page,
+     * and whether the solutions are excluded. The offset is applied while the response is read, and the response is
+     * read only up to the end of the page. Since a server that does not support some of these parameters returns
+     * additional entries, the level and the player are checked for each entry again. If the query selects a player,
+     * then the number of entries is not sent: a server that ignores the player would otherwise return a page that
+     * is filled with the entries of other players. The results of queries are not cached.
+     *
+     * @param query
+     *         the query that selects the level, the player, the page, and the projection of the entries
+     *
+     * @return the selected entries
+     * @throws UncheckedIOException
+     *         if the server is not reachable
+     * @throws IllegalStateException
+     *         if the server returned an error
+     */
+    @Override
+    public List<HighScoreEntry> getBoard(final BoardQuery query) {
+        HttpUrl.Builder url = getUrlWithLevelParam(query.getLevelName().orElse(ALL)).newBuilder();
+        query.getPlayerName().ifPresent(playerName -> url.addQueryParameter("playerName", playerName));
+        long end = (long) query.getOffset() + query.getLimit();
+        if (end < Integer.MAX_VALUE && !query.getPlayerName().isPresent()) {
+            url.addQueryParameter("limit", String.valueOf(end));
         }
-        catch (IOException e) {
-            throw new UncheckedIOException(e);
+        if (!query.isIncludingSolutions()) {
+            url.addQueryParameter("solutions", "false");
+        }
+        try (Stream<HighScoreEntry> entries = streamBoard(url.build(), query.isIncludingSolutions())) {
+            return query.select(entries);
         }
     }
 
-    private List<HighScoreEntry> convertResponse(final String responseBody) throws IOException {
-        return getObjectMapper().readValue(responseBody, ENTRY_LIST_TYPE_REFERENCE);
+    /**
+     * Returns the entries of the board of the specified level while they are read from the response of the server.
+     * In contrast to {@link #getBoard(String)}, the board is neither cached nor read completely: the entries are
+     * created one after another when they are consumed, so limiting the stream (e.g. with {@link Stream#limit(long)})
+     * stops reading the response early. The stream must be closed to release the connection.
+     *
+     * @param levelName
+     *         the level to get the board for, use {@code all} to get the boards of all levels
+     * @param isReadingSolutions
+     *         determines whether the solutions should be read, otherwise the solutions are skipped and empty
+     *
+     * @return the entries of the board
+     * @throws UncheckedIOException
+     *         if the server is not reachable
+     * @throws IllegalStateException
+     *         if the server returned an error
+     */
+    public Stream<HighScoreEntry> streamBoard(final String levelName, final boolean isReadingSolutions) {
+        return streamBoard(getUrlWithLevelParam(levelName), isReadingSolutions);
+    }
+
+    @SuppressWarnings("PMD.CloseResource") // the response is closed when the stream is closed
+    private Stream<HighScoreEntry> streamBoard(final HttpUrl url, final boolean isReadingSolutions) {
+        Request request = new Request.Builder().url(url).build();
+        Response response;
+        try {
+            response = profile.execute(request);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return streamEntries(response, isReadingSolutions);
+        }
+        catch (IOException e) {
+            response.close();
+            throw new UncheckedIOException(e);
+        }
+        catch (IllegalStateException e) {
+            response.close();
+            throw e;
+        }
     }
 
-    private ObjectMapper getObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        SimpleModule module = new SimpleModule();
-        module.addDeserializer(Instant.class, new InstantDeserializer());
-        mapper.registerModule(module);
-        return mapper;
+    // Reads the entries from the body of the response, the response is closed when the stream is closed
+    static Stream<HighScoreEntry> streamEntries(final Response response, final boolean isReadingSolutions)
+            throws IOException {
+        return HighScoreJson.stream(validateResponse(response).byteStream(), isReadingSolutions)
+                .onClose(response::close);
     }
 
-    private String validateBodyOfResponse(final Response response) throws IOException {
+    // Server errors, timeouts, and throttling are temporary failures, all other errors reject the request permanently
+    private static ResponseBody validateResponse(final Response response) throws IOException {
         if (!response.isSuccessful()) {
+            if (isTemporaryFailure(response.code())) {
+                throw new IOException("Server temporarily not available: " + response.toString());
+            }
             throw new IllegalStateException("Error: Server returned: " + response.toString());
         }
-        try (ResponseBody responseBody = response.body()) {
-            if (responseBody == null) {
-                throw new IllegalStateException("No response body");
-            }
+        ResponseBody responseBody = response.body();
+        if (responseBody == null) {
+            throw new IllegalStateException("No response body");
+        }
+        return responseBody;
+    }
+
+    private static boolean isTemporaryFailure(final int code) {
+        return code >= HTTP_SERVER_ERROR || code == HTTP_REQUEST_TIMEOUT || code == HTTP_TOO_MANY_REQUESTS;
+    }
+
+    static String validateBodyOfResponse(final Response response) throws IOException {
+        try (ResponseBody responseBody = validateResponse(response)) {
             String responseJson = responseBody.string();
             if ("{error}".equals(responseJson)) {
                 throw new IllegalStateException("Error: Server returned ERROR: " + response.toString());
@@ -118,41 +311,42 @@ public class CloudHighScoreService implements HighScoreService {
 
     @Override
     public void printBoard(final String levelName, final FormattedPrinter printer) {
-        List<HighScoreEntry> board = getBoard(levelName);
-        printLine(printer);
-        printer.print("+%-73s+", levelName);
-        printLine(printer);
-        System.out.format("|%-28s|%-9s|%-9s|%-24s|%n", "Player", "#Moves", "#Attempts", "Timestamp");
-        printLine(printer);
-        board.forEach(e -> System.out.format("|%-28s|%9d|%9d|%24s|%n", e.getPlayerName(), e.getNumberOfMoves(),
-                e.getNumberOfAttempts(), e.getTimestamp()));
-        printLine(printer);
-    }
-
-    private void printLine(final FormattedPrinter printer) {
-        printer.print("+%s+", StringUtils.repeat('-', WIDTH));
+        try (Stream<HighScoreEntry> board = streamBoard(levelName, /* isReadingSolutions= */ false)) {
+            HighScoreTable.print(printer, levelName, "Player", HighScoreEntry::getPlayerName, board);
+        }
     }
 
     @Override
     public void removeScoresFor(final String playerName) {
-        String url = getUrlWithPlayerParam(playerName);
+        HttpUrl url = getUrlWithPlayerParam(playerName);
 
         Request request = new Request.Builder()
                 .url(url)
                 .delete()
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = profile.execute(request)) {
             validateBodyOfResponse(response);
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        finally {
+            boards.invalidateAll();
+        }
     }
 
+    /**
+     * Returns the best solution for the specified level. Only the best entry of the board is requested from the
+     * server if the board is not cached.
+     */
     @Override
     public Collection<Orientation> getBestSolutionFor(final String levelName) {
-        return getBoard(levelName).get(0).getSolution();
+        Optional<HighScoreEntry> best = boards.getBestEntry(levelName);
+        if (best.isPresent()) {
+            return best.get().getSolution();
+        }
+        return solutions.flatMap(cache -> cache.get(levelName)).orElse(Collections.emptyList());
     }
 
     @Override
@@ -165,22 +359,22 @@ public class CloudHighScoreService implements HighScoreService {
         throw new UnsupportedOperationException();
     }
 
-    private String getUrlWithLevelParam(final String levelName) {
-        return getUrlWithParam("levelName", levelName);
+    private HttpUrl getUrlWithLevelParam(final String levelName) {
+        return getUrlWithParam(serviceUrl, "levelName", levelName);
     }
 
-    private String getUrlWithPlayerParam(final String playerName) {
-        return getUrlWithParam("playerName", playerName);
+    private HttpUrl getUrlWithPlayerParam(final String playerName) {
+        return getUrlWithParam(serviceUrl, "playerName", playerName);
     }
 
-    private String getUrlWithParam(final String paramName, final String value) {
-        HttpUrl.Builder urlBuilder = Objects.requireNonNull(HttpUrl.parse(CLOUD_HIGH_SCORE_SERVICE_URL)).newBuilder();
+    private static HttpUrl getUrlWithParam(final HttpUrl serviceUrl, final String paramName, final String value) {
+        HttpUrl.Builder urlBuilder = serviceUrl.newBuilder();
 
         if (paramName != null && value != null) {
             urlBuilder.addQueryParameter(paramName, value);
         }
 
-        return urlBuilder.build().toString();
+        return urlBuilder.build();
     }
 
     @Override
@@ -193,22 +387,73 @@ public class CloudHighScoreService implements HighScoreService {
         throw new UnsupportedOperationException();
     }
 
-    private static class InstantDeserializer extends JsonDeserializer<Instant> {
+    /**
+     * Builds {@link CloudHighScoreService} instances. By default, the service uses the server at {@code
+     * http://localhost:8085}, the shared default {@link CloudClientProfile}, no cache of solutions, and no journal.
+     */
+    @SuppressWarnings({"checkstyle:HiddenField", "checkstyle:MissingJavadocMethod", "ParameterHidesMemberVariable"})
+    public static class CloudHighScoreServiceBuilder {
+        private String serviceUrl = CLOUD_HIGH_SCORE_SERVICE_URL;
+        private Optional<SolutionCache> solutions = Optional.empty();
+        private CloudClientProfile profile = DEFAULT_PROFILE;
+        private Optional<BoardCache> boards = Optional.empty();
+        private Optional<Path> journal = Optional.empty();
+
+        public CloudHighScoreServiceBuilder withServiceUrl(final String serviceUrl) {
+            this.serviceUrl = serviceUrl;
+            return this;
+        }
+
         /**
-         * Deserializes String representation of an {@link Instant} to an {@link Instant} Object.
+         * Sets the cache of solutions that is used for levels that have no entries in the cloud yet.
+         *
+         * @param solutions
+         *         the cache of solutions
+         *
+         * @return this builder
          */
-        @Override
-        public Instant deserialize(final JsonParser jsonParser, final DeserializationContext deserializationContext) {
-            try {
-                String dateAsString = jsonParser.getText();
-                if (dateAsString != null) {
-                    return Instant.parse(dateAsString + "Z"); // Z = UTC timezone
-                }
-            }
-            catch (IOException | DateTimeParseException exception) {
-                // ignore and return now
-            }
-            return Instant.now();
+        public CloudHighScoreServiceBuilder withSolutions(final SolutionCache solutions) {
+            this.solutions = Optional.of(solutions);
+            return this;
+        }
+
+        /**
+         * Sets the profile of the HTTP client that sends the requests. Services that use the same profile share the
+         * connection pool of the client.
+         *
+         * @param profile
+         *         the profile of the HTTP client
+         *
+         * @return this builder
+         */
+        public CloudHighScoreServiceBuilder withProfile(final CloudClientProfile profile) {
+            this.profile = profile;
+            return this;
+        }
+
+        /**
+         * Sets the journal file that stores the submitted solutions until the server accepted them. If the file
+         * contains solutions that have not been uploaded yet, then these solutions are uploaded when the service is
+         * built.
+         *
+         * @param journal
+         *         the journal file
+         *
+         * @return this builder
+         */
+        public CloudHighScoreServiceBuilder withJournal(final Path journal) {
+            this.journal = Optional.of(journal);
+            return this;
+        }
+
+        CloudHighScoreServiceBuilder withBoardCache(final BoardCache boards) {
+            this.boards = Optional.of(boards);
+            return this;
+        }
+
+        public CloudHighScoreService build() {
+            return new CloudHighScoreService(serviceUrl, solutions, profile,
+                    boards.orElseGet(() -> new BoardCache(MAX_CACHED_BOARDS, BOARD_TIME_TO_LIVE_MILLIS)), journal);
         }
     }
 }
@@ -0,0 +1,111 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Loads and validates all levels of a collection in parallel. The collection is split sequentially on the level
+ * boundaries (see {@link SokobanCollectionReader}), afterwards the levels are parsed and validated concurrently using a
+ * {@link ForkJoinPool}. An invalid level does not abort the loading of the collection: the problem is reported in the
+ * {@link LevelLoadResult} of the level.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class CollectionLoader {
+    private final SokobanCollectionReader collectionReader = new SokobanCollectionReader();
+    private final SokobanReader reader = new SokobanReader();
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new loader that uses the common pool.
+     */
+    public CollectionLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param pool
+     *         the pool that parses and validates the levels in parallel
+     */
+    public CollectionLoader(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Loads all levels of the specified file.
+     *
+     * @param file
+     *         the file to read
+     *
+     * @return the results of the levels, in the order of the collection
+     */
+    public List<LevelLoadResult> loadAll(final Path file) {
+        try (Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return loadAll(SokobanCollectionReader.getCollectionName(file), input);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Loads all levels of the specified reader. The reader will not be closed.
+     *
+     * @param collectionName
+     *         the name of the collection, used for levels without name
+     * @param input
+     *         the reader to read the levels from
+     *
+     * @return the results of the levels, in the order of the collection
+     */
+    public List<LevelLoadResult> loadAll(final String collectionName, final Reader input) {
+        List<LevelText> levels;
+        try (Stream<LevelText> split = collectionReader.split(collectionName, input, LevelText::new)) {
+            levels = split.collect(Collectors.toList());
+        }
+        return pool.submit(() -> IntStream.range(0, levels.size())
+                .parallel()
+                .mapToObj(index -> load(index, levels.get(index)))
+                .collect(Collectors.toList())).join();
+    }
+
+    private LevelLoadResult load(final int index, final LevelText text) {
+        try {
+            SokobanGameModel level = reader.read(text.name, text.lines);
+            level.validate();
+            return LevelLoadResult.valid(index, level);
+        }
+        catch (IllegalArgumentException | IllegalStateException exception) {
+            return LevelLoadResult.invalid(index, text.name,
+                    StringUtils.defaultString(exception.getMessage(), exception.getClass().getSimpleName()));
+        }
+    }
+
+    /**
+     * The name and the field lines of a level that has not been parsed yet.
+     */
+    private static final class LevelText {
+        private final String name;
+        private final List<String> lines;
+
+        LevelText(final String name, final List<String> lines) {
+            this.name = name;
+            this.lines = new ArrayList<>(lines);
+        }
+    }
+}
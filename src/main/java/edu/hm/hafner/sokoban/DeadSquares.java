@@ -0,0 +1,83 @@
+package edu.hm.hafner.sokoban;
+
+/**
+ * Detects the dead squares of a {@link SokobanBoard}. A dead square is a cell where a treasure can't be pushed to any
+ * target anymore, independent of the positions of the other treasures. Pushing a treasure onto a dead square makes a
+ * level unsolvable, so search algorithms can skip such pushes.
+ *
+ * <p>
+ * The squares are computed by pulling a virtual treasure from each target in all directions: every cell where the
+ * treasure can be pulled to is alive, all other accessible cells are dead.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class DeadSquares {
+    private final SokobanBoard board;
+    private final boolean[] alive;
+
+    /**
+     * Computes the dead squares of the specified board.
+     *
+     * @param board
+     *         the board
+     */
+    DeadSquares(final SokobanBoard board) {
+        this.board = board;
+
+        alive = new boolean[board.size()];
+        int[] queue = new int[board.size()];
+        int tail = 0;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (board.isTarget(cell)) {
+                alive[cell] = true;
+                queue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                int treasure = board.getNeighbor(cell, direction);
+                if (board.isAccessible(treasure) && !alive[treasure]
+                        && board.isAccessible(board.getNeighbor(treasure, direction))) {
+                    alive[treasure] = true;
+                    queue[tail++] = treasure;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified cell is a dead square.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if a treasure on this cell can't be pushed to a target anymore, {@code false} otherwise
+     */
+    boolean isDead(final int cell) {
+        return !alive[cell] && !board.isWall(cell);
+    }
+
+    /**
+     * Returns the number of dead squares that are reachable by the player if there are no treasures on the board.
+     * Cells outside of the level are not counted.
+     *
+     * @param player
+     *         the position of the player
+     *
+     * @return the number of reachable dead squares
+     */
+    int countDeadSquares(final int player) {
+        PlayerReachability reachability = new PlayerReachability(board);
+        reachability.fill(new SokobanState(player, new int[0]));
+
+        int count = 0;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (reachability.isReachable(cell) && isDead(cell)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
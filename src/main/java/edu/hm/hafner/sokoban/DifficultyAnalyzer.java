@@ -0,0 +1,235 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import edu.hm.hafner.sokoban.LevelDifficulty.LevelDifficultyBuilder;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Estimates the difficulty of levels. For each level the push optimal solution is computed and the effort of the
+ * solver is recorded. Additionally, some static properties of the level are measured, see {@link LevelDifficulty}.
+ *
+ * <p>
+ * Collections of levels are analyzed in parallel using a {@link ForkJoinPool}. The results are cached using a hash of
+ * the content of the level, so levels that have not been changed are analyzed only once.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class DifficultyAnalyzer {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final SokobanSolver solver;
+    private final ForkJoinPool pool;
+    private final SearchStatistics statistics = SearchStatistics.forEngine("DifficultyAnalyzer");
+    private final Map<String, LevelDifficulty> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new analyzer that uses the default solver and the common pool.
+     */
+    public DifficultyAnalyzer() {
+        this(new SokobanSolver(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new analyzer.
+     *
+     * @param solver
+     *         the solver that computes the push optimal solutions
+     * @param pool
+     *         the pool that analyzes collections of levels in parallel
+     */
+    public DifficultyAnalyzer(final SokobanSolver solver, final ForkJoinPool pool) {
+        this.solver = solver;
+        this.pool = pool;
+    }
+
+    /**
+     * Analyzes the specified levels in parallel. The levels must not be changed during the analysis.
+     *
+     * @param levels
+     *         the levels to analyze
+     *
+     * @return the difficulty of each level, in the same order as the levels
+     */
+    public List<LevelDifficulty> analyzeAll(final Collection<? extends AbstractSokobanModel> levels) {
+        return pool.submit(() -> levels.parallelStream().map(this::analyze).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Analyzes the specified level. If a level with the same content has been analyzed before, then the cached result
+     * is returned.
+     *
+     * @param level
+     *         the level to analyze
+     *
+     * @return the difficulty of the level
+     */
+    public LevelDifficulty analyze(final AbstractSokobanModel level) {
+        String hash = computeContentHash(level);
+        LevelDifficulty cached = cache.get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        LevelDifficulty difficulty = computeDifficulty(level, hash);
+        LevelDifficulty concurrent = cache.putIfAbsent(hash, difficulty);
+        if (concurrent != null) {
+            return concurrent;
+        }
+        return difficulty;
+    }
+
+    /**
+     * Returns the number of different levels that have been analyzed.
+     *
+     * @return the number of cached results
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private LevelDifficulty computeDifficulty(final AbstractSokobanModel level, final String hash) {
+        SokobanBoard board = level.getBoard();
+        SokobanState start = board.createState(level);
+
+        SearchProbe probe = statistics.startSearch();
+        Optional<List<Orientation>> solution = solver.solve(board, start, probe);
+
+        return new LevelDifficultyBuilder()
+                .withContentHash(hash)
+                .withSolved(solution.isPresent())
+                .withOptimalPushes(solution.map(moves -> countPushes(board, start, moves)).orElse(0))
+                .withMoves(solution.map(List::size).orElse(0))
+                .withNodesExpanded(probe.getExpandedCount())
+                .withNodesGenerated(probe.getGeneratedCount())
+                .withDeadSquares(new DeadSquares(board).countDeadSquares(start.getPlayer()))
+                .withDistanceSum(computeDistanceSum(board, start))
+                .build();
+    }
+
+    /**
+     * Counts the pushes of the specified moves.
+     *
+     * @param board
+     *         the board to move on
+     * @param start
+     *         the state before the first move
+     * @param moves
+     *         the moves
+     *
+     * @return the number of moves that push a treasure
+     */
+    static int countPushes(final SokobanBoard board, final SokobanState start, final List<Orientation> moves) {
+        int pushes = 0;
+        SokobanState state = start;
+        for (Orientation move : moves) {
+            SokobanState next = state.move(board, SokobanBoard.toDirection(move));
+            if (!next.hasSameTreasures(state)) {
+                pushes++;
+            }
+            state = next;
+        }
+        return pushes;
+    }
+
+    // Breadth-first search from all targets that ignores the treasures, sums up the distances of the treasures
+    private int computeDistanceSum(final SokobanBoard board, final SokobanState state) {
+        int[] distances = new int[board.size()];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[board.size()];
+        int tail = 0;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (board.isTarget(cell)) {
+                distances[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                int neighbor = board.getNeighbor(cell, direction);
+                if (board.isAccessible(neighbor) && distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = distances[cell] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+
+        int sum = 0;
+        for (int i = 0; i < state.getTreasureCount(); i++) {
+            int distance = distances[state.getTreasure(i)];
+            if (distance != UNREACHABLE) {
+                sum += distance;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Computes a hash of the content of the specified level: the fields, the player and the treasures are part of the
+     * hash, the name of the level is not.
+     *
+     * @param level
+     *         the level to compute the hash for
+     *
+     * @return the hash as hexadecimal SHA-256 digest
+     */
+    static String computeContentHash(final AbstractSokobanModel level) {
+        StringBuilder content = new StringBuilder();
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                Point point = new Point(x, y);
+                content.append(toCharacter(level, point));
+            }
+            content.append('\n');
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+            }
+            return new String(hex);
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+
+    private static char toCharacter(final AbstractSokobanModel level, final Point point) {
+        Field field = level.getField(point);
+        boolean isTarget = field == Field.TARGET;
+        if (level.getPlayer().equals(point)) {
+            return isTarget ? '+' : '@';
+        }
+        if (level.getTreasures().contains(point)) {
+            return isTarget ? '*' : '$';
+        }
+        switch (field) {
+            case WALL:
+                return '#';
+            case TARGET:
+                return '.';
+            case BACKGROUND:
+                return '-';
+            default:
+                return ' ';
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Provides the collection files of a directory and its subdirectories.
+ *
+ * @author Ullrich Hafner
+ */
+class DirectoryLevelSource extends AbstractLevelSource {
+    private final Path directory;
+
+    DirectoryLevelSource(final Path directory) {
+        super();
+
+        this.directory = directory;
+    }
+
+    @Override
+    protected Stream<String> listCollections() {
+        return list(directory);
+    }
+
+    @Override
+    protected Optional<InputStream> openCollection(final String collection) {
+        Path file = directory.resolve(collection).normalize();
+        if (!file.startsWith(directory.normalize()) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.newInputStream(file));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Returns the files of the specified directory and its subdirectories.
+     *
+     * @param directory
+     *         the directory
+     *
+     * @return the files, relative to the directory and using {@code /} as separator
+     */
+    static Stream<String> list(final Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> FilenameUtils.separatorsToUnix(directory.relativize(file).toString()))
+                    .collect(Collectors.toList())
+                    .stream();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
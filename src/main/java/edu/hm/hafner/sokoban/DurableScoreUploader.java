@@ -0,0 +1,229 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import edu.hm.hafner.sokoban.ScoreJournal.PendingEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Uploads {@link HighScoreEntry high score entries} to a server that might be temporarily unavailable. Submitted
+ * entries are appended to a durable {@link ScoreJournal} first, so they survive a restart of the application. A single
+ * background thread uploads the entries in the order of their submission: an entry is removed from the journal only
+ * after the server accepted it, or if the server rejected it permanently (the sender throws an {@link
+ * IllegalStateException}). A permanently rejected entry is dropped, and the future of its submission completes
+ * exceptionally.
+ *
+ * <p>
+ * Failed uploads are retried with exponential backoff and full jitter: the delay before the n-th retry is a random
+ * value between 0 and {@code min(maxDelay, baseDelay * 2^n)}. Additionally, a {@link CircuitBreaker} stops the uploads
+ * for a while if the server failed repeatedly.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class DurableScoreUploader implements AutoCloseable {
+    private static final long BASE_DELAY_MILLIS = 500;
+    private static final long MAX_DELAY_MILLIS = 60_000;
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_MILLIS = 120_000;
+    private static final int MAX_EXPONENT = 30;
+
+    private final ScoreJournal journal;
+    private final Consumer<HighScoreEntry> sender;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final CircuitBreaker breaker;
+    private final Map<Long, CompletableFuture<Void>> submissions = new HashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Score Uploader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+
+    private boolean isUploadScheduled;
+    private Optional<ScheduledFuture<?>> scheduledUpload = Optional.empty();
+    private int retries;
+
+    /**
+     * Creates a new uploader. Entries that are still pending in the journal are uploaded immediately.
+     *
+     * @param journal
+     *         the journal file of the pending entries
+     * @param sender
+     *         sends an entry to the server, throws an {@link UncheckedIOException} if the server is not available, or
+     *         an {@link IllegalStateException} if the server rejected the entry
+     */
+    public DurableScoreUploader(final Path journal, final Consumer<HighScoreEntry> sender) {
+        this(journal, sender, BASE_DELAY_MILLIS, MAX_DELAY_MILLIS,
+                new CircuitBreaker(FAILURE_THRESHOLD, OPEN_MILLIS));
+    }
+
+    /**
+     * Creates a new uploader. Entries that are still pending in the journal are uploaded immediately.
+     *
+     * @param journal
+     *         the journal file of the pending entries
+     * @param sender
+     *         sends an entry to the server, throws an {@link UncheckedIOException} if the server is not available, or
+     *         an {@link IllegalStateException} if the server rejected the entry
+     * @param baseDelayMillis
+     *         the delay before the first retry
+     * @param maxDelayMillis
+     *         the maximum delay between two retries
+     * @param breaker
+     *         the circuit breaker that stops the uploads if the server failed repeatedly
+     */
+    DurableScoreUploader(final Path journal, final Consumer<HighScoreEntry> sender, final long baseDelayMillis,
+            final long maxDelayMillis, final CircuitBreaker breaker) {
+        this.journal = ScoreJournal.open(journal);
+        this.sender = sender;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.breaker = breaker;
+
+        scheduleUpload(0);
+    }
+
+    /**
+     * Submits the specified entry. The entry is stored in the journal before this method returns, the upload is done
+     * in the background.
+     *
+     * @param entry
+     *         the entry to upload
+     *
+     * @return a future that completes when the server accepted the entry, or that completes exceptionally if the
+     *         server rejected the entry
+     */
+    public CompletableFuture<Void> submit(final HighScoreEntry entry) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (lock) { // the uploader takes the future with the same lock, so it sees the future of the entry
+            submissions.put(journal.append(entry), future);
+        }
+        scheduleUpload(0);
+        return future;
+    }
+
+    /**
+     * Returns the number of entries that have not been accepted by the server yet.
+     *
+     * @return the number of pending entries
+     */
+    public int getPendingCount() {
+        return journal.size();
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return breaker.getState();
+    }
+
+    private void scheduleUpload(final long delayMillis) {
+        synchronized (lock) {
+            if (!isUploadScheduled && !executor.isShutdown()) {
+                isUploadScheduled = true;
+                scheduledUpload = Optional.of(executor.schedule(this::upload, delayMillis, TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    // Uploads the oldest pending entry and schedules the next upload
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void upload() {
+        synchronized (lock) {
+            isUploadScheduled = false;
+        }
+        try {
+            uploadNext();
+        }
+        catch (RuntimeException exception) { // e.g., the journal could not be written
+            scheduleUpload(computeBackoff(retries++));
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void uploadNext() {
+        Optional<PendingEntry> next = journal.peek();
+        if (!next.isPresent()) {
+            return;
+        }
+        long remaining = breaker.getRemainingOpenMillis();
+        if (remaining > 0) {
+            scheduleUpload(remaining);
+            return;
+        }
+
+        PendingEntry pending = next.get();
+        try {
+            sender.accept(pending.getEntry());
+        }
+        catch (IllegalStateException exception) {
+            breaker.recordSuccess(); // the server is available but rejected the entry, so it is dropped
+            complete(pending, Optional.of(exception));
+            return;
+        }
+        catch (RuntimeException exception) {
+            breaker.recordFailure();
+            scheduleUpload(computeBackoff(retries++));
+            return;
+        }
+        breaker.recordSuccess();
+        complete(pending, Optional.empty());
+    }
+
+    // Removes the entry from the journal, completes its future, and schedules the upload of the next entry
+    private void complete(final PendingEntry pending, final Optional<RuntimeException> rejection) {
+        retries = 0;
+        journal.acknowledge(pending.getSequence());
+        Optional<CompletableFuture<Void>> future;
+        synchronized (lock) {
+            future = Optional.ofNullable(submissions.remove(pending.getSequence()));
+        }
+        if (future.isPresent()) {
+            if (rejection.isPresent()) {
+                future.get().completeExceptionally(rejection.get());
+            }
+            else {
+                future.get().complete(null);
+            }
+        }
+        scheduleUpload(0);
+    }
+
+    @SuppressFBWarnings(value = "PREDICTABLE_RANDOM", justification = "The jitter has no security impact")
+    private long computeBackoff(final int retry) {
+        long limit = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry, MAX_EXPONENT));
+        return ThreadLocalRandom.current().nextLong(limit + 1);
+    }
+
+    /**
+     * Stops the uploads. Pending entries remain in the journal and will be uploaded by the next uploader that uses the
+     * same journal.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            scheduledUpload.ifPresent(upload -> upload.cancel(false));
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+}
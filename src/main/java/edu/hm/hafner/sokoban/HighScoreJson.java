@@ -0,0 +1,169 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Converts {@link HighScoreEntry high score entries} from and to JSON. The JSON mapping is configured only once: all
+ * conversions share a thread safe {@link ObjectReader} and {@link ObjectWriter} that are warmed up when the class is
+ * loaded, so the serializers and deserializers are resolved only once and not for each request.
+ *
+ * <p>
+ * An entry contains its solution in the compact format of {@link HighScoreEntry#getEncodedSolution()} only. For servers
+ * that have not been migrated yet, the solution can be written as array of moves in addition, see {@link
+ * #toBytes(HighScoreEntry, boolean)}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class HighScoreJson {
+    private static final ObjectMapper MAPPER = createObjectMapper();
+    private static final ObjectReader ENTRY_READER = MAPPER.reader(HighScoreEntry.class);
+    private static final ObjectWriter ENTRY_WRITER = MAPPER.writerWithType(HighScoreEntry.class);
+    private static final ObjectWriter LEGACY_ENTRY_WRITER = createLegacyWriter();
+
+    static {
+        warmUp();
+    }
+
+    private HighScoreJson() {
+        // prevents instantiation
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Instant.class, new InstantDeserializer());
+        mapper.registerModule(module);
+        return mapper;
+    }
+
+    private static ObjectWriter createLegacyWriter() {
+        ObjectMapper mapper = createObjectMapper();
+        mapper.addMixInAnnotations(HighScoreEntry.class, SolutionArrayMixIn.class);
+        return mapper.writerWithType(HighScoreEntry.class);
+    }
+
+    // Resolves and caches the serializers and deserializers before the first request is sent
+    private static void warmUp() {
+        try {
+            HighScoreEntry empty = new HighScoreEntry.HighScoreEntryBuilder().build();
+            LEGACY_ENTRY_WRITER.writeValueAsBytes(empty);
+            ENTRY_READER.readValue(ENTRY_WRITER.writeValueAsString(empty));
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Can't initialize JSON mapping of high score entries", exception);
+        }
+    }
+
+    /**
+     * Converts the specified entry to compact JSON.
+     *
+     * @param entry
+     *         the entry to convert
+     *
+     * @return the JSON representation of the entry
+     */
+    static String toJson(final HighScoreEntry entry) {
+        try {
+            return ENTRY_WRITER.writeValueAsString(entry);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Converts the specified entry to compact JSON that is encoded with UTF-8.
+     *
+     * @param entry
+     *         the entry to convert
+     * @param isWritingSolutionArray
+     *         determines whether the solution should be written as array of moves in addition to the encoded
+     *         solution, so that servers that have not been migrated yet can read it
+     *
+     * @return the JSON representation of the entry
+     */
+    static byte[] toBytes(final HighScoreEntry entry, final boolean isWritingSolutionArray) {
+        try {
+            return (isWritingSolutionArray ? LEGACY_ENTRY_WRITER : ENTRY_WRITER).writeValueAsBytes(entry);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Creates an entry from the specified JSON representation.
+     *
+     * @param json
+     *         the JSON representation of the entry, see {@link #toJson(HighScoreEntry)}
+     *
+     * @return the entry
+     * @throws IOException
+     *         if the JSON representation is invalid
+     */
+    static HighScoreEntry fromJson(final String json) throws IOException {
+        return ENTRY_READER.readValue(json);
+    }
+
+    /**
+     * Returns the entries of the specified JSON array while they are read, see {@link BoardParser}.
+     *
+     * @param input
+     *         the JSON array of the entries
+     * @param isReadingSolutions
+     *         determines whether the solutions of the entries should be read, otherwise the solutions are empty
+     *
+     * @return the entries
+     * @throws IOException
+     *         if the input could not be read
+     */
+    static Stream<HighScoreEntry> stream(final InputStream input, final boolean isReadingSolutions)
+            throws IOException {
+        return BoardParser.stream(MAPPER.getFactory(), input, isReadingSolutions);
+    }
+
+    /**
+     * Writes the solution of an entry as array of moves.
+     */
+    private abstract static class SolutionArrayMixIn {
+        @JsonIgnore(false)
+        public abstract List<Orientation> getSolution();
+    }
+
+    private static class InstantDeserializer extends JsonDeserializer<Instant> {
+        /**
+         * Deserializes String representation of an {@link Instant} to an {@link Instant} Object.
+         */
+        @Override
+        public Instant deserialize(final JsonParser jsonParser, final DeserializationContext deserializationContext) {
+            try {
+                String dateAsString = jsonParser.getText();
+                if (dateAsString != null) {
+                    return BoardParser.parseTimestamp(dateAsString);
+                }
+            }
+            catch (IOException exception) {
+                // ignore and return now
+            }
+            return Instant.now();
+        }
+    }
+}
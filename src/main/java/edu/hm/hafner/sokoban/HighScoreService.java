@@ -3,6 +3,11 @@ package edu.hm.hafner.sokoban;
 import java.util.Collection;
 import java.util.Formatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
 
 import com.google.errorprone.annotations.FormatMethod;
 
@@ -32,6 +37,29 @@ public interface HighScoreService {
     void registerSolution(String playerName, String levelName, int numberOfMoves,
             int numberOfAttempts, Collection<Orientation> solution);
 
+    /**
+     * Submits a new solution for the specified level without waiting for the registration, so that this method can be
+     * called from the user interface thread. Services that communicate with a server register the solution in the
+     * background, local services may register the solution synchronously, see {@link #registerSolution(String, String,
+     * int, int, Collection)}.
+     *
+     * @param playerName
+     *         the name of the player
+     * @param levelName
+     *         the name of the Level
+     * @param numberOfMoves
+     *         the number of moves of the solution
+     * @param numberOfAttempts
+     *         the number of attempts so far
+     * @param solution
+     *         the solution
+     *
+     * @return a future that completes when the solution has been registered, or that completes exceptionally if the
+     *         registration failed
+     */
+    CompletableFuture<Void> submitSolution(String playerName, String levelName, int numberOfMoves,
+            int numberOfAttempts, Collection<Orientation> solution);
+
     /**
      * Clears the all scores.
      */
@@ -81,6 +109,18 @@ public interface HighScoreService {
      */
     List<HighScoreEntry> getBoard(String levelName);
 
+    /**
+     * Returns the page of the high score boards that is selected by the specified query. The entries are sorted like
+     * the entries of {@link #getBoard(String)}. If the query selects all levels, then the boards are concatenated in
+     * the order of the level names.
+     *
+     * @param query
+     *         the query that selects the level, the player, the page, and the projection of the entries
+     *
+     * @return the selected entries
+     */
+    List<HighScoreEntry> getBoard(BoardQuery query);
+
     /**
      * Prints the high score board for the specified level.
      *
@@ -138,4 +178,45 @@ public interface HighScoreService {
             System.out.println();
         }
     }
+
+    /**
+     * Prints {@link HighScoreEntry high score entries} as a table of fixed width.
+     */
+    final class HighScoreTable {
+        private HighScoreTable() {
+            // prevents instantiation
+        }
+
+        /**
+         * Prints the specified entries as a table. The table starts with the title and a header, then each entry is
+         * printed as a row. The first column of a row shows the level or the player of the entry, the other columns
+         * show the number of moves, the number of attempts, and the timestamp of the entry.
+         *
+         * @param printer
+         *         the printer to use
+         * @param title
+         *         the title of the table
+         * @param label
+         *         the label of the first column
+         * @param firstColumn
+         *         returns the value of the first column for an entry
+         * @param entries
+         *         the entries to print
+         */
+        static void print(final FormattedPrinter printer, final String title, final String label,
+                final Function<HighScoreEntry, String> firstColumn, final Stream<HighScoreEntry> entries) {
+            String header = String.format("|%-28s|%-9s|%-9s|%-24s|", label, "#Moves", "#Attempts", "Timestamp");
+            int width = header.length() - 2;
+            String line = "+" + StringUtils.repeat('-', width) + "+";
+
+            printer.print("%s", line);
+            printer.print("|%s|", StringUtils.rightPad(title, width));
+            printer.print("%s", line);
+            printer.print("%s", header);
+            printer.print("%s", line);
+            entries.forEach(e -> printer.print("|%-28s|%9d|%9d|%24s|", firstColumn.apply(e), e.getNumberOfMoves(),
+                    e.getNumberOfAttempts(), e.getTimestamp()));
+            printer.print("%s", line);
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Provides hints for a level that is currently played. The level is solved in the background as soon as it has been
+ * loaded, so that a hint for the current state of the level can be returned immediately. The solutions are cached
+ * per level name.
+ *
+ * <p>
+ * If the player walks around without changing the treasures, then the hint guides the player to the position of the
+ * next push of the solution. If the player diverges from the solution by pushing a treasure somewhere else, then a
+ * new solution is computed in the background, starting with the current state of the level. Until this solution is
+ * available, no hint will be returned. States that could not be solved are remembered, so that the solver is not
+ * started again for such a state.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class HintService {
+    private static final int MAX_PLANS_PER_LEVEL = 16;
+    private static final int MAX_FAILED_STATES_PER_LEVEL = 64;
+
+    private final SokobanSolver solver;
+    private final Executor executor;
+    private final Map<String, LevelPlans> plansByLevel = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new hint service that solves the levels in a background thread.
+     */
+    public HintService() {
+        this(new SokobanSolver(), Executors.newSingleThreadExecutor(HintService::createDaemonThread));
+    }
+
+    /**
+     * Creates a new hint service.
+     *
+     * @param solver
+     *         the solver to use
+     * @param executor
+     *         the executor that runs the solver
+     */
+    HintService(final SokobanSolver solver, final Executor executor) {
+        this.solver = solver;
+        this.executor = executor;
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static Thread createDaemonThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, "sokoban-hints");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Starts solving the specified level in the background. The level must have been validated before.
+     *
+     * @param level
+     *         the level to solve
+     */
+    public void startSolving(final AbstractSokobanModel level) {
+        SokobanSolver.SolvingTask task = solver.prepare(level);
+        getPlans(level).plan(level.getBoard().createState(level), task::solve);
+    }
+
+    /**
+     * Returns the next move of a solution for the current state of the specified level.
+     *
+     * @param level
+     *         the level that is currently played
+     *
+     * @return the next move, or an empty optional if no solution for the current state is available yet
+     */
+    public Optional<Orientation> getHint(final AbstractSokobanModel level) {
+        return getPlans(level).getHint(level.getBoard().createState(level));
+    }
+
+    private LevelPlans getPlans(final AbstractSokobanModel level) {
+        return plansByLevel.computeIfAbsent(level.getName(), name -> new LevelPlans(level.getBoard()));
+    }
+
+    /**
+     * The solutions that have been computed for a given level. The methods of this class are invoked by the UI thread
+     * and the background thread, so all methods synchronize on the same lock.
+     */
+    private final class LevelPlans {
+        private final SokobanBoard board;
+        private final PlayerReachability reachability;
+        private final List<Plan> plans = new ArrayList<>();
+        private final Set<SokobanState> failedStates = new LinkedHashSet<>();
+        private final Object lock = new Object();
+        private boolean isPlanning;
+
+        LevelPlans(final SokobanBoard board) {
+            this.board = board;
+            reachability = new PlayerReachability(board);
+        }
+
+        void plan(final SokobanState start) {
+            plan(start, () -> solver.solve(board, start));
+        }
+
+        void plan(final SokobanState start, final Supplier<Optional<List<Orientation>>> task) {
+            synchronized (lock) {
+                if (isPlanning) {
+                    return;
+                }
+                isPlanning = true;
+            }
+            try {
+                executor.execute(() -> solve(start, task));
+            }
+            catch (RejectedExecutionException exception) {
+                synchronized (lock) {
+                    isPlanning = false;
+                }
+                throw exception;
+            }
+        }
+
+        // If the solver fails, then the state is remembered as failed and the exception is passed to the executor
+        private void solve(final SokobanState start, final Supplier<Optional<List<Orientation>>> task) {
+            Optional<List<Orientation>> solution = Optional.empty();
+            try {
+                solution = task.get();
+            }
+            finally {
+                completePlan(start, solution);
+            }
+        }
+
+        private void completePlan(final SokobanState start, final Optional<List<Orientation>> solution) {
+            synchronized (lock) {
+                isPlanning = false;
+                if (solution.isPresent()) {
+                    if (plans.size() == MAX_PLANS_PER_LEVEL) {
+                        plans.remove(0);
+                    }
+                    plans.add(new Plan(board, reachability, start, solution.get()));
+                }
+                else {
+                    if (failedStates.size() == MAX_FAILED_STATES_PER_LEVEL) {
+                        failedStates.remove(failedStates.iterator().next());
+                    }
+                    failedStates.add(reachability.normalize(start));
+                }
+            }
+        }
+
+        Optional<Orientation> getHint(final SokobanState state) {
+            synchronized (lock) {
+                for (int i = plans.size() - 1; i >= 0; i--) {
+                    Optional<Orientation> move = plans.get(i).getNextMove(state);
+                    if (move.isPresent()) {
+                        return move;
+                    }
+                }
+                SokobanState normalized = reachability.normalize(state);
+                for (int i = plans.size() - 1; i >= 0; i--) {
+                    Optional<SokobanState> push = plans.get(i).getNextPush(normalized);
+                    if (push.isPresent()) {
+                        return reachability.findPath(state, push.get().getPlayer())
+                                .flatMap(walk -> walk.stream().findFirst());
+                    }
+                }
+                if (failedStates.contains(normalized)) {
+                    return Optional.empty();
+                }
+            }
+            plan(state);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A solution for a level, starting at a given state. Stores the index of each state that has been visited by the
+     * solution. Additionally, the states before a push are stored with a normalized player position, so that a player
+     * that walked around in the same region can be guided back to the solution.
+     */
+    private static final class Plan {
+        private final List<Orientation> moves;
+        private final Map<SokobanState, Integer> indexByState = new HashMap<>();
+        private final Map<SokobanState, SokobanState> pushByRegion = new HashMap<>();
+
+        Plan(final SokobanBoard board, final PlayerReachability reachability, final SokobanState start,
+                final List<Orientation> moves) {
+            this.moves = new ArrayList<>(moves);
+
+            SokobanState state = start;
+            for (int i = 0; i < moves.size(); i++) {
+                indexByState.putIfAbsent(state, i);
+                SokobanState next = state.move(board, SokobanBoard.toDirection(moves.get(i)));
+                if (!next.hasSameTreasures(state)) {
+                    pushByRegion.putIfAbsent(reachability.normalize(state), state);
+                }
+                state = next;
+            }
+        }
+
+        Optional<Orientation> getNextMove(final SokobanState state) {
+            Integer index = indexByState.get(state);
+            if (index == null) {
+                return Optional.empty();
+            }
+            return Optional.of(moves.get(index));
+        }
+
+        Optional<SokobanState> getNextPush(final SokobanState normalized) {
+            return Optional.ofNullable(pushByRegion.get(normalized));
+        }
+    }
+}
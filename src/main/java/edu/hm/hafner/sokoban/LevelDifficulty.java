@@ -0,0 +1,231 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import edu.hm.hafner.util.Generated;
+
+/**
+ * Metrics that estimate the difficulty of a level, computed by a {@link DifficultyAnalyzer}. The metrics do not depend
+ * on the name of the level, so levels with the same content share the same instance.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings({"PMD.MissingStaticMethodInNonInstantiatableClass", "PMD.DataClass"})
+public final class LevelDifficulty {
+    /**
+     * Orders levels from easy to hard: solvable levels come first, ordered by the effort of the solver and the number
+     * of pushes of the solution.
+     */
+    public static final Comparator<LevelDifficulty> EASIEST_FIRST
+            = Comparator.comparing(LevelDifficulty::isSolved, Comparator.reverseOrder())
+            .thenComparingLong(LevelDifficulty::getNodesExpanded)
+            .thenComparingInt(LevelDifficulty::getOptimalPushes);
+
+    private final String contentHash;
+    private final boolean solved;
+    private final int optimalPushes;
+    private final int moves;
+    private final long nodesExpanded;
+    private final long nodesGenerated;
+    private final int deadSquares;
+    private final int distanceSum;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    private LevelDifficulty(final String contentHash, final boolean solved, final int optimalPushes, final int moves,
+            final long nodesExpanded, final long nodesGenerated, final int deadSquares, final int distanceSum) {
+        this.contentHash = contentHash;
+        this.solved = solved;
+        this.optimalPushes = optimalPushes;
+        this.moves = moves;
+        this.nodesExpanded = nodesExpanded;
+        this.nodesGenerated = nodesGenerated;
+        this.deadSquares = deadSquares;
+        this.distanceSum = distanceSum;
+    }
+
+    /**
+     * Returns the hash of the content of the level, see {@link DifficultyAnalyzer#computeContentHash}.
+     *
+     * @return the content hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Returns whether the solver found a solution within its search limit.
+     *
+     * @return {@code true} if the level has been solved, {@code false} otherwise
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Returns the minimal number of pushes that are required to solve the level.
+     *
+     * @return the number of pushes, or 0 if the level has not been solved
+     */
+    public int getOptimalPushes() {
+        return optimalPushes;
+    }
+
+    /**
+     * Returns the number of moves of the push optimal solution.
+     *
+     * @return the number of moves, or 0 if the level has not been solved
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of nodes the solver expanded.
+     *
+     * @return the number of expanded nodes
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the number of nodes the solver generated.
+     *
+     * @return the number of generated nodes
+     */
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    /**
+     * Returns the average number of successors of an expanded node.
+     *
+     * @return the branching factor
+     */
+    public double getBranchingFactor() {
+        if (nodesExpanded == 0) {
+            return 0;
+        }
+        return (double) nodesGenerated / nodesExpanded;
+    }
+
+    /**
+     * Returns the number of dead squares that the player can reach.
+     *
+     * @return the number of dead squares
+     */
+    public int getDeadSquares() {
+        return deadSquares;
+    }
+
+    /**
+     * Returns the sum of the walking distances of each treasure to its nearest target.
+     *
+     * @return the sum of the distances
+     */
+    public int getDistanceSum() {
+        return distanceSum;
+    }
+
+    @Override @Generated
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("contentHash", contentHash)
+                .append("solved", solved)
+                .append("optimalPushes", optimalPushes)
+                .append("moves", moves)
+                .append("nodesExpanded", nodesExpanded)
+                .append("nodesGenerated", nodesGenerated)
+                .append("deadSquares", deadSquares)
+                .append("distanceSum", distanceSum)
+                .toString();
+    }
+
+    @Override @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LevelDifficulty that = (LevelDifficulty) o;
+        return solved == that.solved
+                && optimalPushes == that.optimalPushes
+                && moves == that.moves
+                && nodesExpanded == that.nodesExpanded
+                && nodesGenerated == that.nodesGenerated
+                && deadSquares == that.deadSquares
+                && distanceSum == that.distanceSum
+                && contentHash.equals(that.contentHash);
+    }
+
+    @Override @Generated
+    public int hashCode() {
+        return Objects.hash(contentHash, solved, optimalPushes, moves, nodesExpanded, nodesGenerated, deadSquares,
+                distanceSum);
+    }
+
+    /**
+     * Builds {@link LevelDifficulty} instances.
+     */
+    @SuppressWarnings({"checkstyle:HiddenField", "checkstyle:MissingJavadocMethod", "PMD.AccessorClassGeneration", "ParameterHidesMemberVariable"})
+    public static class LevelDifficultyBuilder {
+        private String contentHash = "";
+        private boolean solved;
+        private int optimalPushes;
+        private int moves;
+        private long nodesExpanded;
+        private long nodesGenerated;
+        private int deadSquares;
+        private int distanceSum;
+
+        public LevelDifficultyBuilder withContentHash(final String contentHash) {
+            this.contentHash = contentHash;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withSolved(final boolean solved) {
+            this.solved = solved;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withOptimalPushes(final int optimalPushes) {
+            this.optimalPushes = optimalPushes;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withMoves(final int moves) {
+            this.moves = moves;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withNodesExpanded(final long nodesExpanded) {
+            this.nodesExpanded = nodesExpanded;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withNodesGenerated(final long nodesGenerated) {
+            this.nodesGenerated = nodesGenerated;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withDeadSquares(final int deadSquares) {
+            this.deadSquares = deadSquares;
+            return this;
+        }
+
+        public LevelDifficultyBuilder withDistanceSum(final int distanceSum) {
+            this.distanceSum = distanceSum;
+            return this;
+        }
+
+        public LevelDifficulty build() {
+            return new LevelDifficulty(contentHash, solved, optimalPushes, moves, nodesExpanded, nodesGenerated,
+                    deadSquares, distanceSum);
+        }
+    }
+}
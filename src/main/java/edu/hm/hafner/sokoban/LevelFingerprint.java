@@ -0,0 +1,352 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+import edu.hm.hafner.util.Generated;
+
+/**
+ * A 128-bit fingerprint of the canonical form of a level. Levels that differ only by rotation, mirroring, or additional
+ * padding around the walls have the same canonical form and therefore the same fingerprint. The name of a level is not
+ * part of the fingerprint.
+ *
+ * <p>
+ * The canonical form is created in two steps: first, the level is trimmed to the bounding box of its walls and all
+ * cells that the player can't reach (except walls) are represented by the same character. Then the trimmed level is
+ * transformed with each of the 8 symmetries of a rectangle (4 rotations, each with and without mirroring), and the
+ * lexicographically smallest textual representation is chosen. The fingerprint consists of the first 128 bits of the
+ * SHA-256 digest of the canonical form. Since the player is not moved during the transformation, a solution of a level
+ * can be converted into a solution of every other level with the same fingerprint, see {@link
+ * #toCanonical(Orientation)} and {@link #fromCanonical(Orientation)}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.GodClass")
+public final class LevelFingerprint {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final char ROW_SEPARATOR = '\n';
+
+    private final long high;
+    private final long low;
+    private final Symmetry symmetry;
+    private final String canonicalForm;
+
+    /**
+     * Computes the fingerprint of the specified level.
+     *
+     * @param level
+     *         the level
+     *
+     * @return the fingerprint
+     */
+    public static LevelFingerprint compute(final AbstractSokobanModel level) {
+        char[][] trimmed = trim(level);
+
+        Symmetry best = Symmetry.IDENTITY;
+        String canonicalForm = best.transform(trimmed);
+        for (Symmetry symmetry : Symmetry.values()) {
+            String candidate = symmetry.transform(trimmed);
+            if (candidate.compareTo(canonicalForm) < 0) {
+                canonicalForm = candidate;
+                best = symmetry;
+            }
+        }
+
+        ByteBuffer digest = ByteBuffer.wrap(digest(canonicalForm));
+        return new LevelFingerprint(digest.getLong(), digest.getLong(), best, canonicalForm);
+    }
+
+    /**
+     * Removes the levels that have the same fingerprint as a previous level of the collection.
+     *
+     * @param levels
+     *         the levels to deduplicate
+     * @param <T>
+     *         the type of the levels
+     *
+     * @return the first level of each fingerprint, in the order of the collection
+     */
+    public static <T extends AbstractSokobanModel> List<T> deduplicate(final Collection<? extends T> levels) {
+        Map<LevelFingerprint, T> unique = new LinkedHashMap<>();
+        for (T level : levels) {
+            unique.putIfAbsent(compute(level), level);
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    private LevelFingerprint(final long high, final long low, final Symmetry symmetry, final String canonicalForm) {
+        this.high = high;
+        this.low = low;
+        this.symmetry = symmetry;
+        this.canonicalForm = canonicalForm;
+    }
+
+    /**
+     * Returns the upper 64 bits of the fingerprint. These bits can be used as a smaller fingerprint if a higher
+     * probability of collisions is acceptable.
+     *
+     * @return the upper 64 bits
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * Returns the lower 64 bits of the fingerprint.
+     *
+     * @return the lower 64 bits
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Returns the fingerprint as hexadecimal string with 32 digits.
+     *
+     * @return the fingerprint as string
+     */
+    public String toHexString() {
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            hex[15 - i] = HEX_DIGITS[(int) (high >>> (4 * i)) & 0xF];
+            hex[31 - i] = HEX_DIGITS[(int) (low >>> (4 * i)) & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Returns the rows of the canonical form of the level in ASCII format. Cells that the player can't reach (except
+     * walls) are represented by {@code -}.
+     *
+     * @return the rows of the canonical form
+     */
+    public List<String> getCanonicalLines() {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int end = canonicalForm.indexOf(ROW_SEPARATOR); end >= 0; end = canonicalForm.indexOf(ROW_SEPARATOR,
+                start)) {
+            lines.add(canonicalForm.substring(start, end));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * Converts a move in the level of this fingerprint to the corresponding move in the canonical form.
+     *
+     * @param move
+     *         the move in the level
+     *
+     * @return the move in the canonical form
+     */
+    public Orientation toCanonical(final Orientation move) {
+        return symmetry.transpose(symmetry.flip(move));
+    }
+
+    /**
+     * Converts a move in the canonical form to the corresponding move in the level of this fingerprint.
+     *
+     * @param move
+     *         the move in the canonical form
+     *
+     * @return the move in the level
+     */
+    public Orientation fromCanonical(final Orientation move) {
+        return symmetry.flip(symmetry.transpose(move));
+    }
+
+    @Override @Generated
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LevelFingerprint that = (LevelFingerprint) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override @Generated
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+
+    @Override @Generated
+    public String toString() {
+        return toHexString();
+    }
+
+    // Copies the bounding box of the walls into an array of characters in ASCII format
+    private static char[][] trim(final AbstractSokobanModel level) {
+        int minX = level.getWidth();
+        int minY = level.getHeight();
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                if (level.getField(new Point(x, y)) == Field.WALL) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        if (maxX < 0) {
+            minX = 0;
+            minY = 0;
+            maxX = level.getWidth() - 1;
+            maxY = level.getHeight() - 1;
+        }
+
+        boolean[][] reachable = findReachableCells(level);
+        char[][] trimmed = new char[maxY - minY + 1][maxX - minX + 1];
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                trimmed[y - minY][x - minX] = toCharacter(level, new Point(x, y), reachable[y][x]);
+            }
+        }
+        return trimmed;
+    }
+
+    // Marks all cells that the player can reach if the treasures are ignored
+    private static boolean[][] findReachableCells(final AbstractSokobanModel level) {
+        boolean[][] reachable = new boolean[level.getHeight()][level.getWidth()];
+        Deque<Point> pending = new ArrayDeque<>();
+        pending.add(level.getPlayer());
+        while (!pending.isEmpty()) {
+            Point point = pending.remove();
+            if (isInside(level, point) && !reachable[point.getY()][point.getX()]
+                    && level.getField(point) != Field.WALL) {
+                reachable[point.getY()][point.getX()] = true;
+                pending.add(point.moveLeft());
+                pending.add(point.moveRight());
+                pending.add(point.moveUp());
+                pending.add(point.moveDown());
+            }
+        }
+        return reachable;
+    }
+
+    private static boolean isInside(final AbstractSokobanModel level, final Point point) {
+        return point.getX() >= 0 && point.getY() >= 0
+                && point.getX() < level.getWidth() && point.getY() < level.getHeight();
+    }
+
+    private static char toCharacter(final AbstractSokobanModel level, final Point point, final boolean isReachable) {
+        Field field = level.getField(point);
+        if (field != Field.WALL && !isReachable) {
+            return '-';
+        }
+        boolean isTarget = field == Field.TARGET;
+        if (level.getPlayer().equals(point)) {
+            return isTarget ? '+' : '@';
+        }
+        if (level.getTreasures().contains(point)) {
+            return isTarget ? '*' : '$';
+        }
+        switch (field) {
+            case WALL:
+                return '#';
+            case TARGET:
+                return '.';
+            default:
+                return ' ';
+        }
+    }
+
+    private static byte[] digest(final String canonicalForm) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(canonicalForm.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+
+    /**
+     * The 8 symmetries of a rectangle. Each symmetry optionally mirrors the columns and the rows, afterwards the result
+     * is optionally transposed.
+     */
+    private enum Symmetry {
+        IDENTITY(/* mirrorColumns= */ false, /* mirrorRows= */ false, /* transposed= */ false),
+        MIRROR_COLUMNS(/* mirrorColumns= */ true, /* mirrorRows= */ false, /* transposed= */ false),
+        MIRROR_ROWS(/* mirrorColumns= */ false, /* mirrorRows= */ true, /* transposed= */ false),
+        ROTATE_180(/* mirrorColumns= */ true, /* mirrorRows= */ true, /* transposed= */ false),
+        TRANSPOSE(/* mirrorColumns= */ false, /* mirrorRows= */ false, /* transposed= */ true),
+        ROTATE_90(/* mirrorColumns= */ false, /* mirrorRows= */ true, /* transposed= */ true),
+        ROTATE_270(/* mirrorColumns= */ true, /* mirrorRows= */ false, /* transposed= */ true),
+        ANTI_TRANSPOSE(/* mirrorColumns= */ true, /* mirrorRows= */ true, /* transposed= */ true);
+
+        private final boolean mirrorColumns;
+        private final boolean mirrorRows;
+        private final boolean transposed;
+
+        Symmetry(final boolean mirrorColumns, final boolean mirrorRows, final boolean transposed) {
+            this.mirrorColumns = mirrorColumns;
+            this.mirrorRows = mirrorRows;
+            this.transposed = transposed;
+        }
+
+        // Creates the rows of the transformed level, each row is terminated by a line separator
+        @SuppressWarnings("PMD.UseVarargs")
+        String transform(final char[][] level) {
+            int height = level.length;
+            int width = level[0].length;
+            int targetHeight = transposed ? width : height;
+            int targetWidth = transposed ? height : width;
+
+            StringBuilder rows = new StringBuilder(targetHeight * (targetWidth + 1));
+            for (int y = 0; y < targetHeight; y++) {
+                for (int x = 0; x < targetWidth; x++) {
+                    int sourceX = transposed ? y : x;
+                    int sourceY = transposed ? x : y;
+                    rows.append(level[mirrorRows ? height - 1 - sourceY : sourceY]
+                            [mirrorColumns ? width - 1 - sourceX : sourceX]);
+                }
+                rows.append(ROW_SEPARATOR);
+            }
+            return rows.toString();
+        }
+
+        Orientation flip(final Orientation move) {
+            if (mirrorColumns && (move == Orientation.LEFT || move == Orientation.RIGHT)) {
+                return move == Orientation.LEFT ? Orientation.RIGHT : Orientation.LEFT;
+            }
+            if (mirrorRows && (move == Orientation.UP || move == Orientation.DOWN)) {
+                return move == Orientation.UP ? Orientation.DOWN : Orientation.UP;
+            }
+            return move;
+        }
+
+        Orientation transpose(final Orientation move) {
+            if (!transposed) {
+                return move;
+            }
+            switch (move) {
+                case LEFT:
+                    return Orientation.UP;
+                case UP:
+                    return Orientation.LEFT;
+                case RIGHT:
+                    return Orientation.DOWN;
+                case DOWN:
+                    return Orientation.RIGHT;
+                default:
+                    return move;
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.hm.hafner.sokoban.SokobanGameModel.SokobanGameModelBuilder;
+import edu.hm.hafner.sokoban.model.Orientation;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Generates random levels with a minimum number of pushes. Each generation attempt creates a random room surrounded by
+ * walls and places the targets. Starting with all treasures on the targets, a breadth-first reverse search pulls the
+ * treasures away from the targets: the states of the last layer of this search require the most pushes to be solved.
+ * One of these states is used as the start of the level if the number of pushes is large enough. Finally, each level
+ * is verified with the {@link SokobanSolver}.
+ *
+ * <p>
+ * The attempts are independent of each other and run in parallel using a {@link ForkJoinPool}. Each attempt uses its
+ * own random generator that is derived from the seed and the number of the attempt, so the same seed always produces
+ * the same levels.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings({"PMD.DoNotUseThreads", "PMD.GodClass"})
+public class LevelGenerator {
+    private static final int MIN_SIZE = 4;
+    private static final int WALL_PERCENTAGE = 20;
+    private static final int PERCENT = 100;
+    private static final int MAX_REVERSE_STATES = 100_000;
+    private static final long SEED_INCREMENT = 0x9E37_79B9_7F4A_7C15L;
+    private static final int ARGUMENT_COUNT = 6;
+
+    private final int width;
+    private final int height;
+    private final int treasures;
+    private final int minPushes;
+    private final SokobanSolver solver;
+    private final ForkJoinPool pool;
+
+    /**
+     * Generates levels and writes them to a file in the ASCII format.
+     *
+     * @param args
+     *         the file name, the number of levels, the width and height of the levels, the number of treasures, and
+     *         the minimum number of pushes
+     */
+    public static void main(final String... args) {
+        if (args.length != ARGUMENT_COUNT) {
+            throw new IllegalArgumentException(
+                    "Usage: java LevelGenerator file count width height treasures min-pushes");
+        }
+        int[] values = Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray();
+        LevelGenerator generator = new LevelGenerator(values[1], values[2], values[3], values[4]);
+        List<SokobanGameModel> levels = generator.generate(values[0], System.nanoTime(), values[0] * PERCENT);
+        try (Writer output = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            new SokobanWriter().write(levels, output);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Creates a new generator that uses the default solver and the common pool.
+     *
+     * @param width
+     *         the width of the levels, including the surrounding walls
+     * @param height
+     *         the height of the levels, including the surrounding walls
+     * @param treasures
+     *         the number of treasures
+     * @param minPushes
+     *         the minimum number of pushes that are required to solve a level
+     */
+    public LevelGenerator(final int width, final int height, final int treasures, final int minPushes) {
+        this(width, height, treasures, minPushes, new SokobanSolver(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param width
+     *         the width of the levels, including the surrounding walls
+     * @param height
+     *         the height of the levels, including the surrounding walls
+     * @param treasures
+     *         the number of treasures
+     * @param minPushes
+     *         the minimum number of pushes that are required to solve a level
+     * @param solver
+     *         the solver that verifies the generated levels
+     * @param pool
+     *         the pool that runs the generation attempts in parallel
+     */
+    public LevelGenerator(final int width, final int height, final int treasures, final int minPushes,
+            final SokobanSolver solver, final ForkJoinPool pool) {
+        if (width < MIN_SIZE || height < MIN_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("Level size must be at least %d x %d: %d x %d", MIN_SIZE, MIN_SIZE, width, height));
+        }
+        if (treasures < 1 || treasures * 2 >= (width - 2) * (height - 2)) {
+            throw new IllegalArgumentException("Number of treasures does not fit into the level: " + treasures);
+        }
+        this.width = width;
+        this.height = height;
+        this.treasures = treasures;
+        this.minPushes = minPushes;
+        this.solver = solver;
+        this.pool = pool;
+    }
+
+    /**
+     * Generates levels in parallel. The generation stops if the requested number of levels has been generated or if
+     * the maximum number of attempts has been reached.
+     *
+     * @param count
+     *         the number of levels to generate
+     * @param seed
+     *         the seed of the random generators
+     * @param maxAttempts
+     *         the maximum number of generation attempts
+     *
+     * @return the generated levels, at most {@code count} levels
+     */
+    public List<SokobanGameModel> generate(final int count, final long seed, final int maxAttempts) {
+        return pool.submit(() -> IntStream.range(0, maxAttempts)
+                .parallel()
+                .mapToObj(attempt -> generateAttempt(seed, attempt))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .limit(count)
+                .collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Runs a single generation attempt.
+     *
+     * @param seed
+     *         the seed of the random generators
+     * @param attempt
+     *         the number of the attempt
+     *
+     * @return the generated level, or an empty optional if the attempt did not produce a level with the required
+     *         number of pushes
+     */
+    @SuppressFBWarnings(value = "PREDICTABLE_RANDOM", justification = "Levels must be reproducible for a given seed")
+    Optional<SokobanGameModel> generateAttempt(final long seed, final int attempt) {
+        Random random = new Random(seed + attempt * SEED_INCREMENT);
+        Field[][] room = createRoom(random);
+        List<Integer> floors = getFloors(room);
+        if (floors.size() <= treasures * 2 || !isConnected(room, floors)) {
+            return Optional.empty();
+        }
+
+        Collections.shuffle(floors, random);
+        int[] targets = new int[treasures];
+        for (int i = 0; i < treasures; i++) {
+            int cell = floors.get(i);
+            targets[i] = cell;
+            room[cell / width][cell % width] = Field.TARGET;
+        }
+        Arrays.sort(targets);
+
+        SokobanBoard board = new SokobanBoard(room);
+        List<SokobanState> hardest = pullTreasures(board, targets);
+        if (hardest.isEmpty()) {
+            return Optional.empty();
+        }
+        SokobanState start = hardest.get(random.nextInt(hardest.size()));
+        return verify(createLevel(room, board, start, String.format("Generated %d-%d", seed, attempt)));
+    }
+
+    // Creates a room that is surrounded by walls, the inner fields are walls or floors
+    private Field[][] createRoom(final Random random) {
+        Field[][] room = new Field[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                room[y][x] = isBorder(x, y) || random.nextInt(PERCENT) < WALL_PERCENTAGE ? Field.WALL : Field.FLOOR;
+            }
+        }
+        return room;
+    }
+
+    private boolean isBorder(final int x, final int y) {
+        return x == 0 || y == 0 || x == width - 1 || y == height - 1;
+    }
+
+    @SuppressWarnings("PMD.UseVarargs")
+    private List<Integer> getFloors(final Field[][] room) {
+        List<Integer> floors = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (room[y][x] != Field.WALL) {
+                    floors.add(y * width + x);
+                }
+            }
+        }
+        return floors;
+    }
+
+    // Returns whether all floors can be reached from the first floor
+    private boolean isConnected(final Field[][] room, final List<Integer> floors) {
+        SokobanBoard board = new SokobanBoard(room);
+        PlayerReachability reachability = new PlayerReachability(board);
+        reachability.fill(new SokobanState(floors.get(0), new int[0]));
+        return reachability.getReachableCount() == floors.size();
+    }
+
+    /**
+     * Pulls the treasures away from the targets using a breadth-first search. The search starts with all treasures on
+     * the targets and the player at any position that is not occupied by a treasure. Each layer of the search adds one
+     * pull, so the states of the last layer require the most pushes to be solved. The search stops if the board has
+     * been explored completely or if the maximum number of states has been reached.
+     *
+     * @param board
+     *         the board with the targets
+     * @param targets
+     *         the sorted cells of the targets
+     *
+     * @return the states of the last layer if they require at least the minimum number of pushes, an empty list
+     *         otherwise
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    List<SokobanState> pullTreasures(final SokobanBoard board, final int[] targets) {
+        PlayerReachability reachability = new PlayerReachability(board);
+        Set<SokobanState> visited = new HashSet<>();
+        List<SokobanState> layer = new ArrayList<>();
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (board.isAccessible(cell) && Arrays.binarySearch(targets, cell) < 0) {
+                addIfNew(reachability.normalize(new SokobanState(cell, targets)), visited, layer);
+            }
+        }
+
+        int pushes = 0;
+        while (visited.size() < MAX_REVERSE_STATES) {
+            List<SokobanState> next = new ArrayList<>();
+            for (SokobanState state : layer) {
+                for (SokobanState pulled : pull(board, reachability, state)) {
+                    addIfNew(reachability.normalize(pulled), visited, next);
+                }
+            }
+            next.removeIf(state -> state.isSolved(board));
+            if (next.isEmpty()) {
+                break;
+            }
+            layer = next;
+            pushes++;
+        }
+        if (pushes < minPushes) {
+            return new ArrayList<>();
+        }
+        return layer;
+    }
+
+    private void addIfNew(final SokobanState state, final Set<SokobanState> visited, final List<SokobanState> layer) {
+        if (visited.add(state)) {
+            layer.add(state);
+        }
+    }
+
+    // Returns all states that can be reached from the specified state with a single pull
+    private List<SokobanState> pull(final SokobanBoard board, final PlayerReachability reachability,
+            final SokobanState state) {
+        reachability.fill(state);
+        List<SokobanState> pulled = new ArrayList<>();
+        for (int i = 0; i < state.getTreasureCount(); i++) {
+            int treasure = state.getTreasure(i);
+            for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                int player = board.getNeighbor(treasure, direction);
+                if (reachability.isReachable(player)) {
+                    SokobanState next = state.withPlayer(player).pull(board, direction);
+                    if (!next.hasSameTreasures(state)) {
+                        pulled.add(next);
+                    }
+                }
+            }
+        }
+        return pulled;
+    }
+
+    private SokobanGameModel createLevel(final Field[][] room, final SokobanBoard board, final SokobanState start,
+            final String name) {
+        SokobanGameModelBuilder builder = new SokobanGameModelBuilder().withName(name).withSize(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.withField(x, y, room[y][x]);
+            }
+        }
+        builder.withPlayer(board.toPoint(start.getPlayer()));
+        for (int i = 0; i < start.getTreasureCount(); i++) {
+            builder.withTreasure(board.toPoint(start.getTreasure(i)));
+        }
+        return builder.build();
+    }
+
+    // Verifies that the level is valid and that the solver requires at least the minimum number of pushes
+    private Optional<SokobanGameModel> verify(final SokobanGameModel level) {
+        try {
+            level.validate();
+        }
+        catch (IllegalArgumentException | IllegalStateException exception) {
+            return Optional.empty();
+        }
+        SokobanBoard board = level.getBoard();
+        Optional<List<Orientation>> solution = solver.solve(level);
+        if (solution.isPresent()
+                && DifficultyAnalyzer.countPushes(board, board.createState(level), solution.get()) >= minPushes) {
+            return Optional.of(level);
+        }
+        return Optional.empty();
+    }
+}
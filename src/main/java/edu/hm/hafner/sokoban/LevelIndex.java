@@ -0,0 +1,286 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An index of the levels of a collection file that provides random access to a level by its name. The collection file
+ * is memory mapped and scanned once: for each level the name (see {@link SokobanCollectionReader}) and the byte range
+ * of the level are recorded. The index is persisted next to the collection file (using the extension {@code .idx}),
+ * so subsequent openings of an unchanged collection do not need to scan the file again. A level is parsed only when
+ * it is requested.
+ *
+ * @author Ullrich Hafner
+ */
+public final class LevelIndex {
+    private static final int MAGIC = 0x534F4B49; // SOKI
+    private static final int VERSION = 2;
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte WALL = '#';
+    private static final boolean[] FIELD_CHARACTERS = new boolean[128];
+
+    static {
+        for (char character : (SokobanReader.FIELD_CHARACTERS + SokobanReader.RUN_LENGTH_CHARACTERS).toCharArray()) {
+            FIELD_CHARACTERS[character] = true;
+        }
+    }
+
+    private final MappedByteBuffer content;
+    private final Map<String, Entry> entries;
+    private final SokobanReader reader = new SokobanReader();
+
+    /**
+     * Opens the index of the specified collection file. If there is an up-to-date index file next to the collection
+     * file, then the index is read from this file. Otherwise, the collection is scanned and the index file is
+     * created.
+     *
+     * @param collection
+     *         the collection file
+     *
+     * @return the index of the collection
+     */
+    public static LevelIndex open(final Path collection) {
+        try (FileChannel channel = FileChannel.open(collection, StandardOpenOption.READ)) {
+            MappedByteBuffer content = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+            Path indexFile = getIndexFile(collection);
+            long lastModified = Files.getLastModifiedTime(collection).toMillis();
+            Optional<Map<String, Entry>> persisted = readIndex(indexFile, content.capacity(), lastModified);
+            if (persisted.isPresent()) {
+                return new LevelIndex(content, persisted.get());
+            }
+
+            Map<String, Entry> entries = scan(SokobanCollectionReader.getCollectionName(collection), content);
+            writeIndex(indexFile, content.capacity(), lastModified, entries);
+            return new LevelIndex(content, entries);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Returns the file that stores the index of the specified collection file.
+     *
+     * @param collection
+     *         the collection file
+     *
+     * @return the index file
+     */
+    static Path getIndexFile(final Path collection) {
+        return collection.resolveSibling(collection.getFileName() + INDEX_SUFFIX);
+    }
+
+    private LevelIndex(final MappedByteBuffer content, final Map<String, Entry> entries) {
+        this.content = content;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the names of all levels in the order of the collection.
+     *
+     * @return the names of the levels
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Returns the number of levels in the collection.
+     *
+     * @return the number of levels
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reads the level with the specified name. If the collection contains several levels with the same name, then the
+     * first one is returned.
+     *
+     * @param name
+     *         the name of the level
+     *
+     * @return the level, or an empty optional if there is no such level
+     */
+    public Optional<SokobanGameModel> getLevel(final String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        ByteBuffer level = content.duplicate();
+        level.position(entry.offset);
+        level.limit(entry.offset + entry.length);
+        String lines = StandardCharsets.UTF_8.decode(level).toString();
+        return Optional.of(reader.read(name, Arrays.asList(lines.split("\r?\n"))));
+    }
+
+    // Scans the lines of the collection and records the position of the field lines of each level
+    private static Map<String, Entry> scan(final String collectionName, final ByteBuffer content) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        List<String> header = new ArrayList<>();
+        int levelStart = -1;
+        int levelEnd = -1;
+        int count = 0;
+        int lineStart = 0;
+        int limit = content.limit();
+        while (lineStart < limit) {
+            int lineEnd = findLineEnd(content, lineStart);
+            if (isFieldLine(content, lineStart, lineEnd)) {
+                if (levelStart < 0) {
+                    levelStart = lineStart;
+                }
+                levelEnd = stripCarriageReturn(content, lineStart, lineEnd);
+            }
+            else {
+                if (levelStart >= 0) {
+                    addEntry(entries, getLevelName(collectionName, count++, header), levelStart, levelEnd);
+                    header.clear();
+                    levelStart = -1;
+                }
+                header.add(decode(content, lineStart, lineEnd));
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (levelStart >= 0) {
+            addEntry(entries, getLevelName(collectionName, count, header), levelStart, levelEnd);
+        }
+        return entries;
+    }
+
+    private static String getLevelName(final String collectionName, final int index, final List<String> header) {
+        return SokobanCollectionReader.getLevelName(collectionName, index, header);
+    }
+
+    private static void addEntry(final Map<String, Entry> entries, final String name, final int start,
+            final int end) {
+        entries.putIfAbsent(name, new Entry(start, end - start));
+    }
+
+    private static int findLineEnd(final ByteBuffer content, final int start) {
+        int position = start;
+        while (position < content.limit() && content.get(position) != NEW_LINE) {
+            position++;
+        }
+        return position;
+    }
+
+    // Returns the end of the line without a trailing carriage return of a CRLF line break
+    private static int stripCarriageReturn(final ByteBuffer content, final int start, final int end) {
+        if (end > start && content.get(end - 1) == CARRIAGE_RETURN) {
+            return end - 1;
+        }
+        return end;
+    }
+
+    private static boolean isFieldLine(final ByteBuffer content, final int start, final int end) {
+        int last = stripCarriageReturn(content, start, end);
+        if (last == start || content.get(start) == ':') {
+            return false;
+        }
+        boolean hasWall = false;
+        for (int position = start; position < last; position++) {
+            byte character = content.get(position);
+            if (character < 0 || !FIELD_CHARACTERS[character]) {
+                return false;
+            }
+            hasWall |= character == WALL;
+        }
+        return hasWall;
+    }
+
+    private static String decode(final ByteBuffer content, final int start, final int end) {
+        ByteBuffer line = content.duplicate();
+        line.position(start);
+        line.limit(end);
+        return StandardCharsets.UTF_8.decode(line).toString().trim();
+    }
+
+    private static Optional<Map<String, Entry>> readIndex(final Path indexFile, final long size,
+            final long lastModified) {
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION
+                    || input.readLong() != size || input.readLong() != lastModified) {
+                return Optional.empty();
+            }
+            int count = input.readInt();
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                entries.put(input.readUTF(), new Entry(input.readInt(), input.readInt()));
+            }
+            return Optional.of(entries);
+        }
+        catch (IOException exception) {
+            return Optional.empty(); // the index is corrupt and will be recreated
+        }
+    }
+
+    // Writes the index to a temporary file that replaces the index file atomically. If the index can't be written
+    // (e.g., in a read-only folder), then the index is used in memory only and the collection is scanned again next time
+    private static void writeIndex(final Path indexFile, final long size, final long lastModified,
+            final Map<String, Entry> entries) {
+        Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(size);
+                output.writeLong(lastModified);
+                output.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeInt(entry.getValue().offset);
+                    output.writeInt(entry.getValue().length);
+                }
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception) {
+            try {
+                Files.deleteIfExists(temporary);
+            }
+            catch (IOException ignored) {
+                // ignore and keep the temporary file
+            }
+        }
+    }
+
+    /**
+     * The byte range of a level in the collection file.
+     */
+    private static final class Entry {
+        private final int offset;
+        private final int length;
+
+        Entry(final int offset, final int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Optional;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import edu.hm.hafner.util.Generated;
+
+/**
+ * The result of loading a single level of a collection with a {@link CollectionLoader}. Either the level has been
+ * loaded and validated successfully, or the result contains the error message that describes why the level is invalid.
+ *
+ * @author Ullrich Hafner
+ */
+public final class LevelLoadResult {
+    private final int index;
+    private final String name;
+    private final Optional<SokobanGameModel> level;
+    private final Optional<String> error;
+
+    /**
+     * Creates a result for a valid level.
+     *
+     * @param index
+     *         the index of the level in the collection
+     * @param level
+     *         the loaded and validated level
+     *
+     * @return the result
+     */
+    static LevelLoadResult valid(final int index, final SokobanGameModel level) {
+        return new LevelLoadResult(index, level.getName(), Optional.of(level), Optional.empty());
+    }
+
+    /**
+     * Creates a result for an invalid level.
+     *
+     * @param index
+     *         the index of the level in the collection
+     * @param name
+     *         the name of the level
+     * @param error
+     *         the message that describes the problem of the level
+     *
+     * @return the result
+     */
+    static LevelLoadResult invalid(final int index, final String name, final String error) {
+        return new LevelLoadResult(index, name, Optional.empty(), Optional.of(error));
+    }
+
+    private LevelLoadResult(final int index, final String name, final Optional<SokobanGameModel> level,
+            final Optional<String> error) {
+        this.index = index;
+        this.name = name;
+        this.level = level;
+        this.error = error;
+    }
+
+    /**
+     * Returns the index of the level in the collection (starting with 0).
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the name of the level.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether the level has been loaded and validated successfully.
+     *
+     * @return {@code true} if the level is valid, {@code false} otherwise
+     */
+    public boolean isValid() {
+        return level.isPresent();
+    }
+
+    /**
+     * Returns the loaded level.
+     *
+     * @return the level, or an empty optional if the level is invalid
+     */
+    public Optional<SokobanGameModel> getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the message that describes why the level is invalid.
+     *
+     * @return the error message, or an empty optional if the level is valid
+     */
+    public Optional<String> getError() {
+        return error;
+    }
+
+    @Override @Generated
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("index", index)
+                .append("name", name)
+                .append("error", error.orElse("-"))
+                .toString();
+    }
+}
@@ -0,0 +1,50 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A source of level collections, e.g. the resources of the class path, a directory of collection files, or a zipped
+ * bundle of collections. A collection is identified by its path relative to the root of the source, using {@code /} as
+ * separator (e.g. {@code minicosmos.sok}). Collections in the ASCII, XSB, RLE, and SLC formats are supported, see
+ * {@link SokobanCollectionReader}.
+ *
+ * <p>
+ * The levels of a collection are read lazily: a level is parsed when the returned stream reaches the level. The
+ * content of a collection is not kept in memory, each read of a collection streams the file or resource again.
+ * </p>
+ *
+ * <p>
+ * Level sources are created with the factory methods of {@link LevelSources}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public interface LevelSource extends AutoCloseable {
+    /**
+     * Returns the collections of this source, sorted by name.
+     *
+     * @return the names of the collections
+     */
+    List<String> getCollections();
+
+    /**
+     * Reads the levels of the specified collection. The levels are parsed lazily while the stream is consumed.
+     *
+     * @param collection
+     *         the name of the collection, see {@link #getCollections()}
+     *
+     * @return the levels of the collection
+     * @throws IllegalArgumentException
+     *         if the collection does not exist
+     * @throws java.io.UncheckedIOException
+     *         if the collection could not be read
+     */
+    Stream<SokobanGameModel> read(String collection);
+
+    /**
+     * Releases the resources of this source.
+     */
+    @Override
+    void close();
+}
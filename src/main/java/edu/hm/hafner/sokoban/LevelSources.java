@@ -0,0 +1,103 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Creates {@link LevelSource} instances for the class path, a directory of collection files, or a zipped bundle of
+ * collections.
+ *
+ * @author Ullrich Hafner
+ */
+public final class LevelSources {
+    private LevelSources() {
+        // prevents instantiation
+    }
+
+    /**
+     * Returns the level source of the class path.
+     *
+     * @return the level source
+     */
+    public static LevelSource fromClasspath() {
+        return new ClasspathLevelSource(LevelSource.class);
+    }
+
+    /**
+     * Returns a level source that contains the collection files of the specified directory and its subdirectories.
+     *
+     * @param directory
+     *         the directory with the collection files
+     *
+     * @return the level source
+     */
+    public static LevelSource fromDirectory(final Path directory) {
+        return new DirectoryLevelSource(directory);
+    }
+
+    /**
+     * Returns a level source that contains the collection files of the specified zip file. The zip file remains open
+     * until the source is closed.
+     *
+     * @param bundle
+     *         the zip file with the collection files
+     *
+     * @return the level source
+     */
+    public static LevelSource fromZip(final Path bundle) {
+        return new ZipLevelSource(bundle);
+    }
+
+    /**
+     * Returns the level source for the specified location: an existing directory is opened with {@link
+     * #fromDirectory(Path)}, an existing zip file with {@link #fromZip(Path)}. If the location is blank, then the
+     * class path is used.
+     *
+     * @param location
+     *         the location of the levels, a directory, a zip file, or an empty string
+     *
+     * @return the level source
+     * @throws IllegalArgumentException
+     *         if the location is neither blank nor an existing directory or zip file
+     */
+    public static LevelSource open(final String location) {
+        if (StringUtils.isBlank(location)) {
+            return fromClasspath();
+        }
+        Path path = Paths.get(location);
+        if (Files.isDirectory(path)) {
+            return fromDirectory(path);
+        }
+        if (Files.isRegularFile(path) && isCollectionBundle(location)) {
+            return fromZip(path);
+        }
+        throw new IllegalArgumentException("No level directory or bundle: " + location);
+    }
+
+    /**
+     * Returns whether the specified file name refers to a zipped bundle of collections.
+     *
+     * @param fileName
+     *         the file name
+     *
+     * @return {@code true} if the file is a zip file, {@code false} otherwise
+     */
+    public static boolean isCollectionBundle(final String fileName) {
+        return StringUtils.endsWithAny(StringUtils.lowerCase(fileName), ".zip", ".jar");
+    }
+
+    /**
+     * Returns whether the specified file name refers to a collection of levels.
+     *
+     * @param fileName
+     *         the file name
+     *
+     * @return {@code true} if the file contains levels, {@code false} otherwise
+     */
+    public static boolean isCollection(final String fileName) {
+        return StringUtils.endsWithAny(StringUtils.lowerCase(fileName), ".sok", ".xsb", ".txt", ".slc");
+    }
+}
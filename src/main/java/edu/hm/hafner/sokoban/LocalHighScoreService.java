@@ -1,54 +1,479 @@
 package edu.hm.hafner.sokoban;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
 
 import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
 import edu.hm.hafner.sokoban.model.Orientation;
 
 /**
- * Empty implementation just to make sure that the class compiles.
+ * Manages the high scores of Sokoban levels in memory. Each level has a board that is kept sorted while new solutions
+ * are registered: inserting a solution takes O(log N) and never sorts the whole board again. If the number of entries
+ * per level is limited, then the worst entries are dropped as soon as the board exceeds the limit. A secondary index
+ * maps each player to the entries on the boards, so that the scores of a player are printed or removed without scanning
+ * all boards.
  *
- * @author Your Name
+ * <p>
+ * The service is thread safe: each board is guarded by a lock of its own, so solutions of different levels are
+ * registered in parallel. The player index is updated atomically per player while the lock of the board is held,
+ * hence the index always contains exactly the entries that are on the boards.
+ * </p>
+ *
+ * <p>
+ * If the service is created with a {@link ScoreLog}, then the boards are restored from the log and all changes are
+ * appended to the log. A method that changes the scores returns after the change has been forced to the disk.
+ * Registrations run concurrently and share the syncs of the log, while removing scores, clearing the boards, and
+ * changing the number of entries per level block all other changes.
+ * </p>
+ *
+ * @author Ullrich Hafner
  */
+@SuppressWarnings("PMD.GodClass")
 public class LocalHighScoreService implements HighScoreService {
+    /** Sorts the entries of a board by number of moves, number of attempts, and name of the player. */
+    static final Comparator<HighScoreEntry> BY_RANK = Comparator.comparingInt(HighScoreEntry::getNumberOfMoves)
+            .thenComparingInt(HighScoreEntry::getNumberOfAttempts)
+            .thenComparing(HighScoreEntry::getPlayerName)
+            .thenComparing(HighScoreEntry::getInstant);
+
+    private static final Comparator<HighScoreEntry> BY_LEVEL_AND_RANK = Comparator
+            .comparing(HighScoreEntry::getLevelName).thenComparing(BY_RANK);
+
+    private static final long NO_TICKET = 0;
+
+    private final Optional<SolutionCache> solutions;
+    private final Optional<ScoreLog> log;
+    private final ReadWriteLock logLock = new ReentrantReadWriteLock();
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final Map<String, Set<Score>> scoresByPlayer = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger numberOfEntriesPerLevel = new AtomicInteger(Integer.MAX_VALUE);
+
+    /**
+     * Creates a new service without a cache of solutions.
+     */
+    public LocalHighScoreService() {
+        this(Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Creates a new service that uses the solutions of the specified cache for levels without registered solutions.
+     *
+     * @param solutions
+     *         the cache of solutions
+     */
+    public LocalHighScoreService(final SolutionCache solutions) {
+        this(Optional.of(solutions), Optional.empty());
+    }
+
+    /**
+     * Creates a new service that stores the scores in the specified log. The boards are restored from the records of
+     * the log. The log is owned by the caller and needs to be closed after the service is not used anymore.
+     *
+     * @param log
+     *         the log of the scores
+     */
+    public LocalHighScoreService(final ScoreLog log) {
+        this(Optional.empty(), Optional.of(log));
+
+        log.replay(new Replay());
+    }
+
+    private LocalHighScoreService(final Optional<SolutionCache> solutions, final Optional<ScoreLog> log) {
+        this.solutions = solutions;
+        this.log = log;
+    }
+
     @Override
     public void registerSolution(final String playerName, final String levelName, final int numberOfMoves,
             final int numberOfAttempts, final Collection<Orientation> solution) {
+        HighScoreEntry entry = new HighScoreEntryBuilder()
+                .withPlayerName(playerName)
+                .withLevelName(levelName)
+                .withNumberOfMoves(numberOfMoves)
+                .withNumberOfAttempts(numberOfAttempts)
+                .withSolution(new ArrayList<>(solution))
+                .build();
+        register(entry);
+    }
+
+    /**
+     * Submits a new solution for the specified level. The solution is registered synchronously, see {@link
+     * #registerSolution(String, String, int, int, Collection)}.
+     */
+    @Override
+    public CompletableFuture<Void> submitSolution(final String playerName, final String levelName,
+            final int numberOfMoves, final int numberOfAttempts, final Collection<Orientation> solution) {
+        return CompletableFuture.runAsync(
+                () -> registerSolution(playerName, levelName, numberOfMoves, numberOfAttempts, solution), Runnable::run);
+    }
+
+    /**
+     * Registers the specified entry on the board of its level. If the board is full and the entry is worse than all
+     * entries on the board, then the entry is ignored.
+     *
+     * @param entry
+     *         the entry to register
+     */
+    void register(final HighScoreEntry entry) {
+        Lock shared = logLock.readLock();
+        shared.lock();
+        try {
+            sync(insert(entry, /* isLogged= */ true));
+        }
+        finally {
+            shared.unlock();
+        }
+        compactIfRequired();
+    }
+
+    // Inserts the entry into the board of its level and returns the ticket of the record in the log
+    private long insert(final HighScoreEntry entry, final boolean isLogged) {
+        Board board = boards.computeIfAbsent(entry.getLevelName(), key -> new Board());
+        Score score = new Score(entry, sequence.incrementAndGet());
+        synchronized (board.lock) {
+            int maximum = numberOfEntriesPerLevel.get();
+            board.scores.add(score);
+            if (board.scores.size() > maximum && score.equals(board.scores.last())) {
+                board.scores.remove(score);
+                return NO_TICKET;
+            }
+            index(score);
+            trim(board, maximum);
+            return isLogged ? append(output -> output.appendRegistration(entry)) : NO_TICKET;
+        }
     }
 
     @Override
     public Collection<Orientation> getBestSolutionFor(final String levelName) {
-        return Collections.emptyList();
+        Optional<HighScoreEntry> best = getBestEntry(levelName);
+        if (best.isPresent()) {
+            return best.get().getSolution();
+        }
+        return solutions.flatMap(cache -> cache.get(levelName)).orElse(Collections.emptyList());
+    }
+
+    private Optional<HighScoreEntry> getBestEntry(final String levelName) {
+        Board board = boards.get(levelName);
+        if (board == null) {
+            return Optional.empty();
+        }
+        synchronized (board.lock) {
+            if (board.scores.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(board.scores.first().entry);
+        }
     }
 
     @Override
     public List<HighScoreEntry> getBoard(final String levelName) {
-        return Collections.emptyList();
+        Board board = boards.get(levelName);
+        if (board == null) {
+            return new ArrayList<>();
+        }
+        synchronized (board.lock) {
+            List<HighScoreEntry> entries = new ArrayList<>(board.scores.size());
+            for (Score score : board.scores) {
+                entries.add(score.entry);
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Returns the page of the high score boards that is selected by the specified query. If the query selects a
+     * player, then the entries are taken from the index of the player. Otherwise, the sorted boards are traversed up to
+     * the last entry of the page, and boards that are skipped by the offset as a whole are not traversed at all.
+     *
+     * @param query
+     *         the query that selects the level, the player, the page, and the projection of the entries
+     *
+     * @return the selected entries
+     */
+    @Override
+    public List<HighScoreEntry> getBoard(final BoardQuery query) {
+        if (query.getPlayerName().isPresent()) {
+            return query.select(getScoresOf(query.getPlayerName().get()).stream().sorted(BY_LEVEL_AND_RANK));
+        }
+
+        Collection<String> levelNames = query.getLevelName().map(Collections::singleton)
+                .orElseGet(() -> new TreeSet<>(boards.keySet()));
+        List<HighScoreEntry> page = new ArrayList<>();
+        int offset = query.getOffset();
+        for (String levelName : levelNames) {
+            Board board = boards.get(levelName);
+            if (board != null && page.size() < query.getLimit()) {
+                offset = select(board, query, offset, page);
+            }
+        }
+        return page;
+    }
+
+    // Adds the entries of the board to the page and returns the number of entries that still need to be skipped
+    private int select(final Board board, final BoardQuery query, final int offset, final List<HighScoreEntry> page) {
+        synchronized (board.lock) {
+            if (offset >= board.scores.size()) {
+                return offset - board.scores.size();
+            }
+            Iterator<Score> scores = board.scores.iterator();
+            for (int skipped = 0; skipped < offset; skipped++) {
+                scores.next();
+            }
+            while (scores.hasNext() && page.size() < query.getLimit()) {
+                page.add(query.project(scores.next().entry));
+            }
+            return 0;
+        }
+    }
+
+    private List<HighScoreEntry> getScoresOf(final String player) {
+        List<HighScoreEntry> entries = new ArrayList<>();
+        Set<Score> scores = scoresByPlayer.get(player);
+        if (scores != null) {
+            scores.forEach(score -> entries.add(score.entry));
+        }
+        return entries;
     }
 
     @Override
     public void printBoard(final String levelName, final FormattedPrinter printer) {
+        printBoard(levelName, printer, getBoard(levelName));
+    }
+
+    private void printBoard(final String levelName, final FormattedPrinter printer,
+            final List<HighScoreEntry> entries) {
+        HighScoreTable.print(printer, levelName, "Player", HighScoreEntry::getPlayerName, entries.stream());
+    }
+
+    @Override
+    public void printBoards(final FormattedPrinter printer) {
+        for (String levelName : new TreeSet<>(boards.keySet())) {
+            List<HighScoreEntry> entries = getBoard(levelName);
+            if (!entries.isEmpty()) {
+                printBoard(levelName, printer, entries);
+            }
+        }
     }
 
     @Override
     public void printScoresFor(final String player, final FormattedPrinter printer) {
+        List<HighScoreEntry> entries = getScoresOf(player);
+        entries.sort(BY_LEVEL_AND_RANK);
+
+        HighScoreTable.print(printer, player, "Level", HighScoreEntry::getLevelName, entries.stream());
     }
 
     @Override
     public void removeScoresFor(final String player) {
+        modifyExclusively(() -> remove(player) ? append(output -> output.appendRemoval(player)) : NO_TICKET);
+    }
+
+    private boolean remove(final String player) {
+        Set<Score> scores = scoresByPlayer.remove(player);
+        if (scores == null) {
+            return false;
+        }
+        for (Score score : scores) {
+            Board board = boards.get(score.entry.getLevelName());
+            if (board != null) {
+                synchronized (board.lock) {
+                    board.scores.remove(score);
+                }
+            }
+        }
+        return true;
     }
 
     @Override
     public void clear() {
+        modifyExclusively(() -> {
+            clearBoards();
+            return append(ScoreLog::appendClear);
+        });
     }
 
+    private void clearBoards() {
+        for (Board board : boards.values()) {
+            synchronized (board.lock) {
+                board.scores.forEach(this::unindex);
+                board.scores.clear();
+            }
+        }
+    }
+
+    /**
+     * Sets the maximum number of entries that are stored per level. Boards that already contain more entries are
+     * trimmed immediately.
+     *
+     * @param numberOfEntries
+     *         the maximum number of entries, must be positive
+     *
+     * @throws IllegalArgumentException
+     *         if the number of entries is not positive
+     */
     @Override
     public void setNumberOfEntriesPerLevel(final int numberOfEntries) {
+        if (numberOfEntries <= 0) {
+            throw new IllegalArgumentException("Number of entries must be positive: " + numberOfEntries);
+        }
+        modifyExclusively(() -> {
+            limit(numberOfEntries);
+            return append(output -> output.appendLimit(numberOfEntries));
+        });
     }
 
-    @Override
-    public void printBoards(final FormattedPrinter printer) {
+    private void limit(final int numberOfEntries) {
+        numberOfEntriesPerLevel.set(numberOfEntries);
+        for (Board board : boards.values()) {
+            synchronized (board.lock) {
+                trim(board, numberOfEntries);
+            }
+        }
+    }
+
+    // Removes the worst entries of the board, the caller must hold the lock of the board
+    private void trim(final Board board, final int numberOfEntries) {
+        while (board.scores.size() > numberOfEntries) {
+            unindex(board.scores.pollLast());
+        }
+    }
+
+    // Runs the modification while all other modifications are blocked, the modification returns the ticket of its record
+    private void modifyExclusively(final LongSupplier modification) {
+        Lock exclusive = logLock.writeLock();
+        exclusive.lock();
+        try {
+            sync(modification.getAsLong());
+        }
+        finally {
+            exclusive.unlock();
+        }
+        compactIfRequired();
+    }
+
+    private long append(final ToLongFunction<ScoreLog> record) {
+        return log.map(record::applyAsLong).orElse(NO_TICKET);
+    }
+
+    private void sync(final long ticket) {
+        if (ticket != NO_TICKET) {
+            log.ifPresent(output -> output.sync(ticket));
+        }
+    }
+
+    private void compactIfRequired() {
+        if (log.isPresent() && log.get().isCompactionRequired()) {
+            Lock exclusive = logLock.writeLock();
+            exclusive.lock();
+            try {
+                if (log.get().isCompactionRequired()) {
+                    List<HighScoreEntry> entries = new ArrayList<>();
+                    for (String levelName : boards.keySet()) {
+                        entries.addAll(getBoard(levelName));
+                    }
+                    log.get().compact(numberOfEntriesPerLevel.get(), entries);
+                }
+            }
+            finally {
+                exclusive.unlock();
+            }
+        }
+    }
+
+    private void index(final Score score) {
+        scoresByPlayer.compute(score.entry.getPlayerName(), (player, scores) -> {
+            Set<Score> indexed = scores == null ? ConcurrentHashMap.newKeySet() : scores;
+            indexed.add(score);
+            return indexed;
+        });
+    }
+
+    private void unindex(final Score score) {
+        scoresByPlayer.computeIfPresent(score.entry.getPlayerName(), (player, scores) -> {
+            scores.remove(score);
+            return scores.isEmpty() ? null : scores;
+        });
+    }
+
+    /**
+     * Restores the boards from the records of the log.
+     */
+    private final class Replay implements ScoreLog.Visitor {
+        @Override
+        public void registered(final HighScoreEntry entry) {
+            insert(entry, /* isLogged= */ false);
+        }
+
+        @Override
+        public void removed(final String player) {
+            remove(player);
+        }
+
+        @Override
+        public void cleared() {
+            clearBoards();
+        }
+
+        @Override
+        public void limited(final int numberOfEntries) {
+            limit(numberOfEntries);
+        }
+    }
+
+    /**
+     * The sorted entries of a level and the lock that guards them.
+     */
+    private static final class Board {
+        private final Object lock = new Object();
+        private final NavigableSet<Score> scores = new TreeSet<>();
+    }
+
+    /**
+     * An entry of a board. Entries with the same rank are ordered by the sequence of their registration.
+     */
+    private static final class Score implements Comparable<Score> {
+        private final HighScoreEntry entry;
+        private final long sequence;
+
+        Score(final HighScoreEntry entry, final long sequence) {
+            this.entry = entry;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(final Score other) {
+            int rank = BY_RANK.compare(entry, other.entry);
+            return rank == 0 ? Long.compare(sequence, other.sequence) : rank;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Score && sequence == ((Score) o).sequence;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
     }
 }
@@ -0,0 +1,198 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Computes all cells of a {@link SokobanBoard} that the player can reach without pushing a treasure. The flood fill
+ * does not allocate any memory: the queue is a reusable {@code int} array and visited cells are marked with the
+ * generation number of the current fill, so that the marks of the previous fill do not need to be cleared.
+ *
+ * <p>
+ * The smallest reachable cell index (i.e. the top-left most reachable cell) is used as normalized player position:
+ * all states with the same treasures and a player in the same region are equivalent for push based algorithms. The
+ * normalized position of the last fill is cached, so that subsequent requests for a player that walked around within
+ * the same region do not need to flood the board again.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are not thread safe, each search thread needs its own instance.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class PlayerReachability {
+    private final SokobanBoard board;
+    private final int[] queue;
+    private final int[] visited;
+    private final int[] occupied;
+    private final int[] entered;
+    private int generation;
+
+    private SokobanState lastState = new SokobanState(SokobanBoard.NO_CELL, new int[0]);
+    private boolean isRegionCached;
+    private int normalizedPlayer = SokobanBoard.NO_CELL;
+    private int reachableCount;
+
+    /**
+     * Creates a new flood fill for the specified board.
+     *
+     * @param board
+     *         the board to fill
+     */
+    PlayerReachability(final SokobanBoard board) {
+        this.board = board;
+
+        queue = new int[board.size()];
+        visited = new int[board.size()];
+        occupied = new int[board.size()];
+        entered = new int[board.size()];
+    }
+
+    /**
+     * Computes all cells the player of the specified state can reach without pushing a treasure.
+     *
+     * @param state
+     *         the state that contains the positions of the player and the treasures
+     *
+     * @return the normalized player position, i.e. the smallest reachable cell index
+     */
+    int fill(final SokobanState state) {
+        if (isRegionCached && lastState.hasSameTreasures(state) && isReachable(state.getPlayer())) {
+            lastState = state;
+            return normalizedPlayer;
+        }
+
+        startGeneration(state);
+
+        int player = state.getPlayer();
+        int head = 0;
+        int tail = 0;
+        int minimum = player;
+        visited[player] = generation;
+        queue[tail++] = player;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                int neighbor = board.getNeighbor(cell, direction);
+                if (isFree(neighbor)) {
+                    visited[neighbor] = generation;
+                    queue[tail++] = neighbor;
+                    minimum = Math.min(minimum, neighbor);
+                }
+            }
+        }
+
+        lastState = state;
+        isRegionCached = true;
+        normalizedPlayer = minimum;
+        reachableCount = tail;
+        return minimum;
+    }
+
+    /**
+     * Finds a shortest walk of the player to the specified cell without pushing a treasure.
+     *
+     * @param state
+     *         the state that contains the positions of the player and the treasures
+     * @param target
+     *         the cell the player should walk to
+     *
+     * @return the moves of the walk, or an empty optional if the player can't reach the cell
+     */
+    Optional<List<Orientation>> findPath(final SokobanState state, final int target) {
+        isRegionCached = false;
+        startGeneration(state);
+
+        int player = state.getPlayer();
+        int head = 0;
+        int tail = 0;
+        visited[player] = generation;
+        queue[tail++] = player;
+        while (head < tail && visited[target] != generation) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                int neighbor = board.getNeighbor(cell, direction);
+                if (isFree(neighbor)) {
+                    visited[neighbor] = generation;
+                    entered[neighbor] = direction;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        if (visited[target] != generation) {
+            return Optional.empty();
+        }
+
+        List<Orientation> path = new ArrayList<>();
+        int cell = target;
+        while (cell != player) {
+            int direction = entered[cell];
+            path.add(SokobanBoard.DIRECTIONS[direction]);
+            cell = board.getNeighbor(cell, SokobanBoard.opposite(direction));
+        }
+        Collections.reverse(path);
+        return Optional.of(path);
+    }
+
+    /**
+     * Returns the state with the player moved to the normalized position.
+     *
+     * @param state
+     *         the state to normalize
+     *
+     * @return the normalized state
+     */
+    SokobanState normalize(final SokobanState state) {
+        return state.withPlayer(fill(state));
+    }
+
+    /**
+     * Returns whether the specified cell is reachable by the player in the state of the last fill or the last
+     * computed path.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if the cell is reachable, {@code false} otherwise
+     */
+    boolean isReachable(final int cell) {
+        return cell >= 0 && cell < visited.length && visited[cell] == generation && generation > 0;
+    }
+
+    /**
+     * Returns the number of cells that are reachable in the state of the last fill.
+     *
+     * @return the number of reachable cells
+     */
+    int getReachableCount() {
+        return reachableCount;
+    }
+
+    // Starts a new fill and marks the treasures of the specified state as occupied
+    private void startGeneration(final SokobanState state) {
+        nextGeneration();
+        for (int i = 0; i < state.getTreasureCount(); i++) {
+            occupied[state.getTreasure(i)] = generation;
+        }
+    }
+
+    // Returns whether the player can enter the specified cell and the cell has not been visited in the current fill
+    private boolean isFree(final int cell) {
+        return board.isAccessible(cell) && visited[cell] != generation && occupied[cell] != generation;
+    }
+
+    private void nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(occupied, 0);
+            generation = 1;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the files of the {@link ScoreLog} and the {@link SolutionCache}. Such a file starts with a header
+ * of {@link #HEADER_SIZE} bytes (a magic number and a version), followed by a sequence of records. Each record consists
+ * of the length of its payload, the payload, and the CRC32 checksum of the payload. A record that is truncated or
+ * damaged is detected when reading the file, so the records before it can still be used.
+ *
+ * @author Ullrich Hafner
+ */
+final class RecordFile {
+    /** The size of the header in bytes. */
+    static final int HEADER_SIZE = 8;
+
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES;
+
+    private RecordFile() {
+        // prevents instantiation
+    }
+
+    /**
+     * Truncates the specified file and writes a new header. Afterwards, the position of the channel is at the end of
+     * the header.
+     *
+     * @param output
+     *         the file to write to
+     * @param magic
+     *         the magic number that identifies the type of the file
+     * @param version
+     *         the version of the file format
+     *
+     * @throws IOException
+     *         if the header could not be written
+     */
+    static void writeHeader(final FileChannel output, final int magic, final int version) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(magic).putInt(version).flip();
+        output.truncate(0);
+        output.write(header, 0);
+        output.position(HEADER_SIZE);
+        output.force(true);
+    }
+
+    /**
+     * Creates a record that contains the specified payload.
+     *
+     * @param payload
+     *         the payload of the record
+     *
+     * @return the record, ready to be written
+     */
+    static ByteBuffer toRecord(final byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(payload.length + RECORD_OVERHEAD);
+        record.putInt(payload.length).put(payload).putLong(checksum(payload)).flip();
+        return record;
+    }
+
+    /**
+     * Writes the specified record completely to the current position of the specified file.
+     *
+     * @param output
+     *         the file to write to
+     * @param record
+     *         the record to write
+     *
+     * @throws IOException
+     *         if the record could not be written
+     */
+    static void write(final FileChannel output, final ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            output.write(record);
+        }
+    }
+
+    /**
+     * Reads the payload of the next record of the specified content.
+     *
+     * @param content
+     *         the content of the file, positioned at the start of a record
+     *
+     * @return the payload, or an empty optional if there is no further record or if the record is damaged
+     */
+    static Optional<ByteBuffer> readPayload(final ByteBuffer content) {
+        try {
+            int length = content.getInt();
+            if (length <= 0 || length > content.remaining() - Long.BYTES) {
+                return Optional.empty();
+            }
+            byte[] payload = new byte[length];
+            content.get(payload);
+            if (content.getLong() != checksum(payload)) {
+                return Optional.empty();
+            }
+            return Optional.of(ByteBuffer.wrap(payload));
+        }
+        catch (BufferUnderflowException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private static long checksum(final byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,253 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+
+/**
+ * An append-only journal of the {@link HighScoreEntry high score entries} that have not been accepted by the server
+ * yet. Each line of the journal is a record: {@code + <sequence> <json>} adds an entry, {@code - <sequence>} marks the
+ * entry as delivered. Each record is forced to the disk before the method that wrote it returns.
+ *
+ * <p>
+ * When the journal is opened, the records are replayed to restore the pending entries in the order of their
+ * submission. An incomplete record at the end of the file (e.g. after a crash) is discarded. Afterwards, the journal is
+ * compacted, i.e. it is rewritten with the pending entries only. If all entries have been delivered, the file is
+ * truncated.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+final class ScoreJournal implements AutoCloseable {
+    private static final char ADDED = '+';
+    private static final char DELIVERED = '-';
+    private static final char SEPARATOR = ' ';
+    private static final char END_OF_RECORD = '\n';
+
+    private final FileChannel channel;
+    private final Deque<PendingEntry> pending;
+    private final Object lock = new Object();
+    private long nextSequence;
+
+    /**
+     * Opens the specified journal. If the file does not exist, then an empty journal is created.
+     *
+     * @param file
+     *         the journal file
+     *
+     * @return the opened journal
+     * @throws UncheckedIOException
+     *         if the journal could not be read or written
+     */
+    static ScoreJournal open(final Path file) {
+        try {
+            Deque<PendingEntry> entries = replay(file);
+            compact(file, entries);
+            return new ScoreJournal(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND), entries);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private ScoreJournal(final FileChannel channel, final Deque<PendingEntry> pending) {
+        this.channel = channel;
+        this.pending = pending;
+        nextSequence = pending.isEmpty() ? 0 : pending.getLast().getSequence() + 1;
+    }
+
+    // Reads all complete records and returns the entries that have not been delivered yet
+    private static Deque<PendingEntry> replay(final Path file) throws IOException {
+        Map<Long, HighScoreEntry> entries = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            int start = 0;
+            for (int end = content.indexOf(END_OF_RECORD); end >= 0; end = content.indexOf(END_OF_RECORD, start)) {
+                if (!replay(content.substring(start, end), entries)) {
+                    break;
+                }
+                start = end + 1;
+            }
+        }
+        Deque<PendingEntry> pending = new ArrayDeque<>();
+        entries.forEach((sequence, entry) -> pending.add(new PendingEntry(sequence, entry)));
+        return pending;
+    }
+
+    private static boolean replay(final String record, final Map<Long, HighScoreEntry> entries) {
+        int separator = record.indexOf(SEPARATOR, 2);
+        try {
+            if (record.charAt(0) == DELIVERED) {
+                entries.remove(Long.parseLong(record.substring(2)));
+                return true;
+            }
+            if (record.charAt(0) == ADDED && separator > 0) {
+                entries.put(Long.parseLong(record.substring(2, separator)),
+                        HighScoreJson.fromJson(record.substring(separator + 1)));
+                return true;
+            }
+        }
+        catch (IOException | NumberFormatException | IndexOutOfBoundsException exception) {
+            // the record is corrupt, it will be discarded along with all following records
+        }
+        return false;
+    }
+
+    private static void compact(final Path file, final Deque<PendingEntry> entries) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        StringBuilder records = new StringBuilder();
+        for (PendingEntry entry : entries) {
+            records.append(toRecord(entry));
+        }
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(compacted, records.toString());
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String toRecord(final PendingEntry entry) {
+        return ADDED + " " + entry.getSequence() + SEPARATOR + HighScoreJson.toJson(entry.getEntry())
+                + END_OF_RECORD;
+    }
+
+    private static void write(final FileChannel output, final String records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        output.force(false);
+    }
+
+    /**
+     * Appends the specified entry to the journal.
+     *
+     * @param entry
+     *         the entry to append
+     *
+     * @return the sequence number of the entry
+     */
+    long append(final HighScoreEntry entry) {
+        synchronized (lock) {
+            PendingEntry pendingEntry = new PendingEntry(nextSequence, entry);
+            writeRecord(toRecord(pendingEntry));
+            pending.add(pendingEntry);
+            nextSequence++;
+            return pendingEntry.getSequence();
+        }
+    }
+
+    /**
+     * Returns the oldest entry that has not been delivered yet.
+     *
+     * @return the oldest pending entry, or an empty optional if all entries have been delivered
+     */
+    Optional<PendingEntry> peek() {
+        synchronized (lock) {
+            return Optional.ofNullable(pending.peekFirst());
+        }
+    }
+
+    /**
+     * Marks the oldest pending entry as delivered. If there are no more pending entries, then the journal is
+     * truncated.
+     *
+     * @param sequence
+     *         the sequence number of the oldest entry
+     *
+     * @throws IllegalArgumentException
+     *         if the sequence number is not the number of the oldest entry
+     */
+    void acknowledge(final long sequence) {
+        synchronized (lock) {
+            PendingEntry first = pending.peekFirst();
+            if (first == null || first.getSequence() != sequence) {
+                throw new IllegalArgumentException("Entry is not the oldest pending entry: " + sequence);
+            }
+            pending.removeFirst();
+            if (pending.isEmpty()) {
+                truncate();
+            }
+            else {
+                writeRecord(String.valueOf(DELIVERED) + SEPARATOR + sequence + END_OF_RECORD);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries that have not been delivered yet.
+     *
+     * @return the number of pending entries
+     */
+    int size() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private void writeRecord(final String record) {
+        try {
+            write(channel, record);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(false);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            try {
+                channel.close();
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * An entry of the journal together with its sequence number.
+     */
+    static final class PendingEntry {
+        private final long sequence;
+        private final HighScoreEntry entry;
+
+        PendingEntry(final long sequence, final HighScoreEntry entry) {
+            this.sequence = sequence;
+            this.entry = entry;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        HighScoreEntry getEntry() {
+            return entry;
+        }
+    }
+}
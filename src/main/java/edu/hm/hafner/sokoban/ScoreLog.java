@@ -0,0 +1,541 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * An append-only log of the changes of a {@link LocalHighScoreService}. Each change is stored as a compact binary
+ * record with a checksum: registered solutions (with the moves encoded by {@link MoveCodec}), removed players, cleared
+ * boards, and the maximum number of entries per level. When a service is created with a log, the records are replayed
+ * from a memory mapped view of the file. If the application crashed while writing a record, then the incomplete record
+ * is detected and cut off.
+ *
+ * <p>
+ * The first version of the log stored the moves packed with 2 bits per move. Such a log is migrated to the current
+ * format while it is replayed: the file is then replaced atomically by a file that contains the same records in the
+ * current format. Logs of unknown versions are rejected and left untouched.
+ * </p>
+ *
+ * <p>
+ * Appending a record and forcing it to the disk are separate steps, so that concurrent writers share a single {@link
+ * FileChannel#force(boolean)}: a writer that syncs its record syncs all records that have been appended so far, the
+ * writers that wait in the meantime find their records already synced (group commit). Since the log contains entries
+ * that have been evicted from the boards, it is compacted when it grows beyond twice the size after the last
+ * compaction: the file is then replaced atomically by a file that contains the entries of the boards only.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.GodClass")
+public final class ScoreLog implements AutoCloseable {
+    private static final int MAGIC = 0x534F4B4C; // SOKL
+    private static final int VERSION = 2;
+    private static final int PACKED_MOVES_VERSION = 1;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+    private static final int MOVES_PER_BYTE = 4;
+
+    private static final byte REGISTERED = 1;
+    private static final byte REMOVED = 2;
+    private static final byte CLEARED = 3;
+    private static final byte LIMITED = 4;
+
+    private final Path file;
+    private final Object lock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private boolean isReplayed;
+    private long size;
+    private long compactedSize;
+    private long appended;
+    private long synced;
+
+    /**
+     * Opens the log that is stored in the specified file. If the file does not exist yet, then it will be created. The
+     * records of the log are replayed by the {@link LocalHighScoreService} that uses the log.
+     *
+     * @param file
+     *         the file that stores the log
+     *
+     * @return the log
+     * @throws UncheckedIOException
+     *         if the file could not be opened
+     */
+    public static ScoreLog open(final Path file) {
+        try {
+            return new ScoreLog(file, FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private ScoreLog(final Path file, final FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Replays all valid records of the log. A damaged record at the end of the file is cut off, afterwards new records
+     * are appended.
+     *
+     * @param visitor
+     *         the visitor that receives the records
+     *
+     * @throws IllegalStateException
+     *         if the log has already been replayed
+     * @throws IllegalArgumentException
+     *         if the file is not a score log or if the version of the log is not supported
+     */
+    void replay(final Visitor visitor) {
+        synchronized (lock) {
+            if (isReplayed) {
+                throw new IllegalStateException("Log has already been replayed: " + file);
+            }
+            try {
+                size = replay(visitor, channel.size());
+                channel.truncate(size);
+                channel.position(size);
+                compactedSize = size;
+                isReplayed = true;
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    private long replay(final Visitor visitor, final long fileSize) throws IOException {
+        if (fileSize < RecordFile.HEADER_SIZE) {
+            writeHeader(channel);
+            return RecordFile.HEADER_SIZE;
+        }
+
+        MappedByteBuffer content = channel.map(MapMode.READ_ONLY, 0, fileSize);
+        if (content.getInt() != MAGIC) {
+            throw new IllegalArgumentException("File is not a score log: " + file);
+        }
+        int version = content.getInt();
+        if (version == PACKED_MOVES_VERSION) {
+            return migrate(content, visitor);
+        }
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + version + " of score log: " + file);
+        }
+        return readRecords(content, visitor, version);
+    }
+
+    private long readRecords(final ByteBuffer content, final Visitor visitor, final int version) {
+        long validSize = content.position();
+        while (readRecord(content, visitor, version)) {
+            validSize = content.position();
+        }
+        return validSize;
+    }
+
+    // Replays the records of a log with packed moves and replaces the file by a log in the current format
+    @SuppressWarnings("PMD.CloseResource") // the channel is closed when the log is closed
+    private long migrate(final ByteBuffer content, final Visitor visitor) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel migrated = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(migrated);
+            readRecords(content, new Migration(visitor, migrated), PACKED_MOVES_VERSION);
+            migrated.force(true);
+        }
+        replaceWith(temporary);
+        return channel.size();
+    }
+
+    private boolean readRecord(final ByteBuffer content, final Visitor visitor, final int version) {
+        Optional<ByteBuffer> payload = RecordFile.readPayload(content);
+        if (!payload.isPresent()) {
+            return false;
+        }
+        try {
+            return accept(payload.get(), visitor, version);
+        }
+        catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException exception) {
+            return false;
+        }
+    }
+
+    private boolean accept(final ByteBuffer payload, final Visitor visitor, final int version) {
+        switch (payload.get()) {
+            case REGISTERED:
+                visitor.registered(readEntry(payload, version));
+                return true;
+            case REMOVED:
+                visitor.removed(readString(payload));
+                return true;
+            case CLEARED:
+                visitor.cleared();
+                return true;
+            case LIMITED:
+                visitor.limited(payload.getInt());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Appends a record for the registered entry. The record is not synced yet, see {@link #sync(long)}.
+     *
+     * @param entry
+     *         the registered entry
+     *
+     * @return the ticket that is required to sync the record
+     */
+    long appendRegistration(final HighScoreEntry entry) {
+        return append(toRecord(REGISTERED, toBytes(entry)));
+    }
+
+    /**
+     * Appends a record for the removed player. The record is not synced yet, see {@link #sync(long)}.
+     *
+     * @param player
+     *         the removed player
+     *
+     * @return the ticket that is required to sync the record
+     */
+    long appendRemoval(final String player) {
+        return append(toRecord(REMOVED, toBytes(player)));
+    }
+
+    /**
+     * Appends a record for clearing all boards. The record is not synced yet, see {@link #sync(long)}.
+     *
+     * @return the ticket that is required to sync the record
+     */
+    long appendClear() {
+        return append(toRecord(CLEARED, new byte[0]));
+    }
+
+    /**
+     * Appends a record for a new maximum number of entries per level. The record is not synced yet, see {@link
+     * #sync(long)}.
+     *
+     * @param numberOfEntries
+     *         the maximum number of entries per level
+     *
+     * @return the ticket that is required to sync the record
+     */
+    long appendLimit(final int numberOfEntries) {
+        return append(toRecord(LIMITED, ByteBuffer.allocate(Integer.BYTES).putInt(numberOfEntries).array()));
+    }
+
+    private long append(final ByteBuffer record) {
+        synchronized (lock) {
+            if (!isReplayed) {
+                throw new IllegalStateException("Log has not been replayed yet: " + file);
+            }
+            try {
+                while (record.hasRemaining()) {
+                    size += channel.write(record);
+                }
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            appended++;
+            return appended;
+        }
+    }
+
+    /**
+     * Forces the record with the specified ticket to the disk. All other records that have been appended in the
+     * meantime are forced along with this record, so concurrent writers that call this method afterwards return
+     * without accessing the disk.
+     *
+     * @param ticket
+     *         the ticket of the record, as returned by one of the append methods
+     */
+    @SuppressWarnings("PMD.CloseResource") // the channel is closed when the log is closed
+    void sync(final long ticket) {
+        synchronized (syncLock) {
+            if (synced >= ticket) {
+                return;
+            }
+            long target;
+            FileChannel output;
+            synchronized (lock) {
+                target = appended;
+                output = channel;
+            }
+            try {
+                output.force(false);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Returns whether the log has grown beyond twice the size after the last compaction.
+     *
+     * @return {@code true} if the log should be compacted, {@code false} otherwise
+     */
+    boolean isCompactionRequired() {
+        synchronized (lock) {
+            return size > 2 * compactedSize + MIN_COMPACTION_SIZE;
+        }
+    }
+
+    /**
+     * Replaces the log with a new log that contains the specified state only. The caller must make sure that no
+     * records are appended concurrently.
+     *
+     * @param numberOfEntries
+     *         the maximum number of entries per level
+     * @param entries
+     *         the entries of all boards, the entries of each level in the order of the board
+     */
+    @SuppressWarnings("PMD.CloseResource") // the channel is closed when the log is closed
+    void compact(final int numberOfEntries, final Collection<HighScoreEntry> entries) {
+        synchronized (syncLock) {
+            synchronized (lock) {
+                Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+                try {
+                    try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                        writeHeader(compacted);
+                        write(compacted, toRecord(LIMITED,
+                                ByteBuffer.allocate(Integer.BYTES).putInt(numberOfEntries).array()));
+                        for (HighScoreEntry entry : entries) {
+                            write(compacted, toRecord(REGISTERED, toBytes(entry)));
+                        }
+                        compacted.force(true);
+                    }
+                    replaceWith(temporary);
+                    size = channel.size();
+                    channel.position(size);
+                    compactedSize = size;
+                    synced = appended;
+                }
+                catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the size of the log file in bytes.
+     *
+     * @return the size in bytes
+     */
+    long getSizeInBytes() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            try {
+                channel.close();
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    // Replaces the file of the log with the specified file and opens the channel again
+    private void replaceWith(final Path temporary) throws IOException {
+        channel.close();
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            // if the file has not been replaced, then new records are appended to the old file
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    private static void writeHeader(final FileChannel output) throws IOException {
+        RecordFile.writeHeader(output, MAGIC, VERSION);
+    }
+
+    private static void write(final FileChannel output, final ByteBuffer record) throws IOException {
+        RecordFile.write(output, record);
+    }
+
+    private static ByteBuffer toRecord(final byte type, final byte[] data) {
+        byte[] payload = new byte[data.length + 1];
+        payload[0] = type;
+        System.arraycopy(data, 0, payload, 1, data.length);
+
+        return RecordFile.toRecord(payload);
+    }
+
+    private static byte[] toBytes(final HighScoreEntry entry) {
+        byte[] level = toBytes(entry.getLevelName());
+        byte[] player = toBytes(entry.getPlayerName());
+        byte[] moves = MoveCodec.encode(entry.getSolution());
+        Instant timestamp = entry.getInstant();
+
+        ByteBuffer payload = ByteBuffer.allocate(level.length + player.length + 3 * Integer.BYTES + Long.BYTES
+                + Integer.BYTES + moves.length);
+        payload.put(level).put(player)
+                .putInt(entry.getNumberOfMoves()).putInt(entry.getNumberOfAttempts())
+                .putLong(timestamp.getEpochSecond()).putInt(timestamp.getNano())
+                .putInt(moves.length).put(moves);
+        return payload.array();
+    }
+
+    // Stores the string with a prefix of 2 bytes that contains the length of the encoded string
+    private static byte[] toBytes(final String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Name is too long: " + value);
+        }
+        return ByteBuffer.allocate(Short.BYTES + encoded.length).putShort((short) encoded.length).put(encoded).array();
+    }
+
+    private static HighScoreEntry readEntry(final ByteBuffer payload, final int version) {
+        String level = readString(payload);
+        String player = readString(payload);
+        int numberOfMoves = payload.getInt();
+        int numberOfAttempts = payload.getInt();
+        Instant timestamp = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+
+        return new HighScoreEntryBuilder()
+                .withLevelName(level)
+                .withPlayerName(player)
+                .withNumberOfMoves(numberOfMoves)
+                .withNumberOfAttempts(numberOfAttempts)
+                .withTimestamp(timestamp)
+                .withSolution(version == PACKED_MOVES_VERSION ? readPackedMoves(payload) : readEncodedMoves(payload))
+                .build();
+    }
+
+    // The moves are stored with the number of moves and 2 bits per move
+    private static List<Orientation> readPackedMoves(final ByteBuffer payload) {
+        int moveCount = payload.getInt();
+        if (moveCount < 0 || moveCount > (long) payload.remaining() * MOVES_PER_BYTE) {
+            throw new IllegalArgumentException("Invalid number of moves: " + moveCount);
+        }
+        byte[] moves = new byte[(moveCount + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE];
+        payload.get(moves);
+        return MoveCodec.unpack(moves, moveCount);
+    }
+
+    // The moves are stored with the length of the encoded moves and the format of MoveCodec
+    private static List<Orientation> readEncodedMoves(final ByteBuffer payload) {
+        byte[] moves = new byte[payload.getInt()];
+        payload.get(moves);
+        return MoveCodec.decode(moves);
+    }
+
+    private static String readString(final ByteBuffer payload) {
+        byte[] encoded = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Passes the records of a log with packed moves to a visitor and writes them in the current format.
+     */
+    private static final class Migration implements Visitor {
+        private final Visitor visitor;
+        private final FileChannel output;
+
+        Migration(final Visitor visitor, final FileChannel output) {
+            this.visitor = visitor;
+            this.output = output;
+        }
+
+        @Override
+        public void registered(final HighScoreEntry entry) {
+            migrate(toRecord(REGISTERED, toBytes(entry)));
+            visitor.registered(entry);
+        }
+
+        @Override
+        public void removed(final String player) {
+            migrate(toRecord(REMOVED, toBytes(player)));
+            visitor.removed(player);
+        }
+
+        @Override
+        public void cleared() {
+            migrate(toRecord(CLEARED, new byte[0]));
+            visitor.cleared();
+        }
+
+        @Override
+        public void limited(final int numberOfEntries) {
+            migrate(toRecord(LIMITED, ByteBuffer.allocate(Integer.BYTES).putInt(numberOfEntries).array()));
+            visitor.limited(numberOfEntries);
+        }
+
+        private void migrate(final ByteBuffer record) {
+            try {
+                write(output, record);
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Receives the records of the log during the replay.
+     */
+    interface Visitor {
+        /**
+         * Called for a registered entry.
+         *
+         * @param entry
+         *         the registered entry
+         */
+        void registered(HighScoreEntry entry);
+
+        /**
+         * Called for a removed player.
+         *
+         * @param player
+         *         the removed player
+         */
+        void removed(String player);
+
+        /**
+         * Called if all boards have been cleared.
+         */
+        void cleared();
+
+        /**
+         * Called for a new maximum number of entries per level.
+         *
+         * @param numberOfEntries
+         *         the maximum number of entries per level
+         */
+        void limited(int numberOfEntries);
+    }
+}
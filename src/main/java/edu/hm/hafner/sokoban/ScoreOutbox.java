@@ -0,0 +1,185 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * A bounded outbox for {@link HighScoreEntry high score entries} that are sent asynchronously to the cloud. Submitting
+ * an entry never blocks: the entry is added to the outbox and a flush is scheduled on a background executor. The flush
+ * drains the outbox in batches and sends each entry using the asynchronous API of OkHttp, so the requests of a batch
+ * are in flight concurrently. The capacity of the outbox limits the number of entries that are waiting or in flight:
+ * the slot of an entry is released when the request has been answered or failed. If the outbox is full, the entry is
+ * rejected immediately.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+class ScoreOutbox {
+    private final OkHttpClient client;
+    private final Function<HighScoreEntry, Request> requestFactory;
+    private final BlockingQueue<Submission> pending;
+    private final Semaphore slots;
+    private final int capacity;
+    private final int batchSize;
+    private final Executor executor;
+    private final AtomicBoolean isFlushScheduled = new AtomicBoolean();
+
+    /**
+     * Creates a new outbox.
+     *
+     * @param client
+     *         the client that sends the requests
+     * @param requestFactory
+     *         creates the request that registers an entry
+     * @param capacity
+     *         the maximum number of entries that wait in the outbox or are in flight
+     * @param batchSize
+     *         the maximum number of entries that are sent in one batch
+     * @param executor
+     *         the executor that flushes the outbox
+     */
+    ScoreOutbox(final OkHttpClient client, final Function<HighScoreEntry, Request> requestFactory,
+            final int capacity, final int batchSize, final Executor executor) {
+        this.client = client;
+        this.requestFactory = requestFactory;
+        this.pending = new ArrayBlockingQueue<>(capacity);
+        this.slots = new Semaphore(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds the specified entry to the outbox.
+     *
+     * @param entry
+     *         the entry to send
+     *
+     * @return a future that completes when the server accepted the entry, or that completes exceptionally if the
+     *         outbox is full or the request failed
+     */
+    CompletableFuture<Void> submit(final HighScoreEntry entry) {
+        if (!slots.tryAcquire()) {
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new IllegalStateException(String.format(
+                    "Outbox is full, score of %s for level %s has been rejected",
+                    entry.getPlayerName(), entry.getLevelName())));
+            return rejected;
+        }
+        Submission submission = new Submission(entry, slots);
+        pending.add(submission);
+        scheduleFlush();
+        return submission.future;
+    }
+
+    /**
+     * Returns the number of entries that wait in the outbox or are in flight.
+     *
+     * @return the number of pending entries
+     */
+    int size() {
+        return capacity - slots.availablePermits();
+    }
+
+    private void scheduleFlush() {
+        if (isFlushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            }
+            catch (RejectedExecutionException exception) {
+                isFlushScheduled.set(false);
+                List<Submission> rejected = new ArrayList<>();
+                pending.drainTo(rejected);
+                rejected.forEach(submission -> submission.fail(exception));
+            }
+        }
+    }
+
+    // Sends all pending entries; entries that are added while the flag is being reset start a new round
+    private void flush() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        do {
+            while (pending.drainTo(batch, batchSize) > 0) {
+                batch.forEach(this::send);
+                batch.clear();
+            }
+            isFlushScheduled.set(false);
+        }
+        while (!pending.isEmpty() && isFlushScheduled.compareAndSet(false, true));
+    }
+
+    private void send(final Submission submission) {
+        try {
+            client.newCall(requestFactory.apply(submission.entry)).enqueue(submission);
+        }
+        catch (UncheckedIOException | IllegalArgumentException exception) {
+            submission.fail(exception);
+        }
+    }
+
+    /**
+     * An entry of the outbox and the future that reports the result of the request. The slot of the entry is released
+     * before the future is completed.
+     */
+    private static class Submission implements Callback {
+        private final HighScoreEntry entry;
+        private final Semaphore slots;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        Submission(final HighScoreEntry entry, final Semaphore slots) {
+            this.entry = entry;
+            this.slots = slots;
+        }
+
+        void fail(final Throwable throwable) {
+            release();
+            future.completeExceptionally(throwable);
+        }
+
+        void succeed() {
+            release();
+            future.complete(null);
+        }
+
+        private void release() {
+            if (isReleased.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+
+        @Override
+        public void onFailure(final Call call, final IOException exception) {
+            fail(exception);
+        }
+
+        @Override
+        public void onResponse(final Call call, final Response response) {
+            try (Response closeable = response) {
+                CloudHighScoreService.validateBodyOfResponse(closeable);
+                succeed();
+            }
+            catch (IOException | IllegalStateException exception) {
+                fail(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package edu.hm.hafner.sokoban;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Flight recorder event for a single search of a search engine. The event is recorded whenever a flight recording is
+ * running, it can be configured in a JFR settings file using the name {@code edu.hm.hafner.sokoban.Search}. The fields
+ * of the event are read by the flight recorder only. Since the flight recorder is not available in all runtimes, this
+ * class must be referenced only by {@link SearchRecorder}.
+ *
+ * @author Ullrich Hafner
+ */
+@Name("edu.hm.hafner.sokoban.Search")
+@Label("Sokoban Search")
+@Category("Sokoban")
+@Description("A single search of a Sokoban search engine")
+@SuppressWarnings({"PMD.DataClass", "PMD.SingularField", "PMD.UnusedPrivateField", "UnusedVariable"})
+@SuppressFBWarnings(value = "URF_UNREAD_FIELD", justification = "The fields are read by the flight recorder")
+final class SearchEvent extends Event implements SearchRecorder.Recording {
+    @Label("Engine")
+    private String engine = "-";
+    @Label("Nodes Expanded")
+    private long nodesExpanded;
+    @Label("Nodes Generated")
+    private long nodesGenerated;
+    @Label("Duplicates")
+    private long duplicates;
+    @Label("Deadlock Prunes")
+    private long deadlockPrunes;
+    @Label("Max Frontier Size")
+    private long maxFrontierSize;
+
+    /**
+     * Creates a new event and starts the timing of the event.
+     *
+     * @return the event
+     */
+    static SearchEvent start() {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void finish(final String engineName, final long expanded, final long generated, final long duplicateCount,
+            final long pruneCount, final long maxFrontier) {
+        end();
+        if (shouldCommit()) {
+            engine = engineName;
+            nodesExpanded = expanded;
+            nodesGenerated = generated;
+            duplicates = duplicateCount;
+            deadlockPrunes = pruneCount;
+            maxFrontierSize = maxFrontier;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package edu.hm.hafner.sokoban;
+
+/**
+ * Collects the counters of a single search. A probe is confined to the thread that runs the search, so the counters
+ * are plain fields that are cheap to update in the inner loop of the search. The counters are published to the
+ * {@link SearchStatistics} of the engine after a fixed number of expanded nodes and when the search is finished.
+ * When the search is finished, the search is recorded in the flight recorder (if available), see
+ * {@link SearchRecorder}.
+ *
+ * @author Ullrich Hafner
+ */
+final class SearchProbe {
+    private static final int PUBLISH_INTERVAL = 4096;
+
+    private final SearchStatistics statistics;
+    private final SearchRecorder.Recording recording = SearchRecorder.begin();
+
+    private long expandedCount;
+    private long generatedCount;
+    private long duplicateCount;
+    private long pruneCount;
+    private long frontier;
+    private long maxFrontier;
+
+    private long publishedExpanded;
+    private long publishedGenerated;
+    private long publishedDuplicates;
+    private long publishedPrunes;
+    private long publishedNanos;
+    private final long start = System.nanoTime();
+
+    SearchProbe(final SearchStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Records that the successors of a node are computed.
+     *
+     * @param frontierSize
+     *         the number of nodes that still need to be expanded
+     */
+    void expanded(final int frontierSize) {
+        expandedCount++;
+        frontier = frontierSize;
+        maxFrontier = Math.max(maxFrontier, frontierSize);
+        if (expandedCount % PUBLISH_INTERVAL == 0) {
+            publish();
+        }
+    }
+
+    /**
+     * Records that a new successor node has been generated.
+     */
+    void generated() {
+        generatedCount++;
+    }
+
+    /**
+     * Records that a successor node has been generated that has been visited before.
+     */
+    void duplicate() {
+        generatedCount++;
+        duplicateCount++;
+    }
+
+    /**
+     * Records that a successor node has been skipped since it contains a deadlock.
+     */
+    void pruned() {
+        pruneCount++;
+    }
+
+    /**
+     * Finishes the search: publishes the remaining counters and finishes the recording of the search.
+     */
+    void finish() {
+        publish();
+        statistics.finishSearch();
+
+        recording.finish(statistics.getEngine(), expandedCount, generatedCount, duplicateCount, pruneCount,
+                maxFrontier);
+    }
+
+    /**
+     * Returns the number of nodes whose successors have been computed so far.
+     *
+     * @return the number of expanded nodes
+     */
+    long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * Returns the number of successor nodes that have been computed so far.
+     *
+     * @return the number of generated nodes
+     */
+    long getGeneratedCount() {
+        return generatedCount;
+    }
+
+    private void publish() {
+        long nanos = System.nanoTime() - start;
+        statistics.publish(expandedCount - publishedExpanded, generatedCount - publishedGenerated,
+                duplicateCount - publishedDuplicates, pruneCount - publishedPrunes, frontier, nanos - publishedNanos);
+
+        publishedExpanded = expandedCount;
+        publishedGenerated = generatedCount;
+        publishedDuplicates = duplicateCount;
+        publishedPrunes = pruneCount;
+        publishedNanos = nanos;
+    }
+}
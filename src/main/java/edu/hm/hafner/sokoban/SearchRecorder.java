@@ -0,0 +1,74 @@
+package edu.hm.hafner.sokoban;
+
+/**
+ * Records the searches of the search engines in the flight recorder of the JVM, see {@link SearchEvent}. Not all Java 8
+ * runtimes contain the flight recorder, so the events are created only if the flight recorder API is available.
+ * Otherwise, the recordings of the searches are discarded.
+ *
+ * @author Ullrich Hafner
+ */
+final class SearchRecorder {
+    private static final Recording DISCARDED = new DiscardedRecording();
+    private static final boolean IS_FLIGHT_RECORDER_AVAILABLE = isFlightRecorderAvailable();
+
+    private SearchRecorder() {
+        // prevents instantiation
+    }
+
+    /**
+     * Starts the recording of a new search.
+     *
+     * @return the recording
+     */
+    static Recording begin() {
+        if (IS_FLIGHT_RECORDER_AVAILABLE) {
+            return SearchEvent.start();
+        }
+        return DISCARDED;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, SearchRecorder.class.getClassLoader());
+            return true;
+        }
+        catch (ClassNotFoundException | LinkageError exception) {
+            return false;
+        }
+    }
+
+    /**
+     * The recording of a single search.
+     */
+    interface Recording {
+        /**
+         * Finishes the recording of the search with the final counters of the search.
+         *
+         * @param engine
+         *         the name of the search engine
+         * @param nodesExpanded
+         *         the number of expanded nodes
+         * @param nodesGenerated
+         *         the number of generated nodes
+         * @param duplicates
+         *         the number of generated nodes that have been visited before
+         * @param deadlockPrunes
+         *         the number of nodes that have been skipped due to a deadlock
+         * @param maxFrontierSize
+         *         the maximum number of nodes that waited for their expansion
+         */
+        void finish(String engine, long nodesExpanded, long nodesGenerated, long duplicates, long deadlockPrunes,
+                long maxFrontierSize);
+    }
+
+    /**
+     * A recording that is used if the flight recorder is not available.
+     */
+    private static final class DiscardedRecording implements Recording {
+        @Override
+        public void finish(final String engine, final long nodesExpanded, final long nodesGenerated,
+                final long duplicates, final long deadlockPrunes, final long maxFrontierSize) {
+            // the flight recorder is not available
+        }
+    }
+}
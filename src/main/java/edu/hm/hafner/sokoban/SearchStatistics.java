@@ -0,0 +1,188 @@
+package edu.hm.hafner.sokoban;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import edu.hm.hafner.sokoban.HighScoreService.FormattedPrinter;
+
+/**
+ * Accumulated counters of all searches of a search engine (e.g. {@link SokobanSolver} or {@link SolutionOptimizer}).
+ * Each engine has exactly one instance that is registered as MBean in the platform MBean server using the object name
+ * {@code edu.hm.hafner.sokoban:type=SearchStatistics,engine=<name>}.
+ *
+ * <p>
+ * The searches do not update these counters for each node: every search collects its counters in a {@link SearchProbe}
+ * that is confined to the search thread and publishes the counters periodically. Additionally, the probe emits a JFR
+ * event for each search, see {@link SearchEvent}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public final class SearchStatistics implements SearchStatisticsMBean {
+    private static final String OBJECT_NAME = "edu.hm.hafner.sokoban:type=SearchStatistics,engine=";
+    private static final Map<String, SearchStatistics> ENGINES = new ConcurrentHashMap<>();
+
+    private final String engine;
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder activeSearches = new LongAdder();
+    private final LongAdder nodesExpanded = new LongAdder();
+    private final LongAdder nodesGenerated = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder deadlockPrunes = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final AtomicLong frontierSize = new AtomicLong();
+
+    /**
+     * Returns the statistics of the specified search engine. The statistics are created and registered in the platform
+     * MBean server on the first call.
+     *
+     * @param engine
+     *         the name of the search engine
+     *
+     * @return the statistics of the engine
+     */
+    public static SearchStatistics forEngine(final String engine) {
+        return ENGINES.computeIfAbsent(engine, SearchStatistics::register);
+    }
+
+    /**
+     * Returns the statistics of all search engines that have been used so far.
+     *
+     * @return the statistics of all engines
+     */
+    public static Collection<SearchStatistics> getEngines() {
+        return new ArrayList<>(ENGINES.values());
+    }
+
+    private static SearchStatistics register(final String engine) {
+        SearchStatistics statistics = new SearchStatistics(engine);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(OBJECT_NAME + engine));
+        }
+        catch (InstanceAlreadyExistsException exception) {
+            // ignore, the engine has been registered by another class loader
+        }
+        catch (JMException exception) {
+            throw new IllegalStateException("Can't register statistics of engine " + engine, exception);
+        }
+        return statistics;
+    }
+
+    private SearchStatistics(final String engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Starts a new search of this engine.
+     *
+     * @return the probe that collects the counters of the new search
+     */
+    SearchProbe startSearch() {
+        searches.increment();
+        activeSearches.increment();
+
+        return new SearchProbe(this);
+    }
+
+    void publish(final long expanded, final long generated, final long duplicated, final long pruned,
+            final long frontier, final long nanos) {
+        nodesExpanded.add(expanded);
+        nodesGenerated.add(generated);
+        duplicates.add(duplicated);
+        deadlockPrunes.add(pruned);
+        searchNanos.add(nanos);
+        frontierSize.set(frontier);
+    }
+
+    void finishSearch() {
+        activeSearches.decrement();
+    }
+
+    /**
+     * Prints the counters of this engine using a single line.
+     *
+     * @param printer
+     *         the printer to use
+     */
+    public void print(final FormattedPrinter printer) {
+        printer.print("%s: %d searches (%d active), %d expanded, %d generated, %.1f%% duplicates, "
+                        + "%d deadlock prunes, frontier %d, %.0f states/s, %d MB used",
+                engine, getSearches(), getActiveSearches(), getNodesExpanded(), getNodesGenerated(),
+                getDuplicateRate() * 100, getDeadlockPrunes(), getFrontierSize(), getStatesPerSecond(),
+                getUsedMemory() / 1024 / 1024);
+    }
+
+    @Override
+    public String getEngine() {
+        return engine;
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getActiveSearches() {
+        return activeSearches.sum();
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded.sum();
+    }
+
+    @Override
+    public long getNodesGenerated() {
+        return nodesGenerated.sum();
+    }
+
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public double getDuplicateRate() {
+        long generated = getNodesGenerated();
+        if (generated == 0) {
+            return 0;
+        }
+        return (double) getDuplicates() / generated;
+    }
+
+    @Override
+    public long getDeadlockPrunes() {
+        return deadlockPrunes.sum();
+    }
+
+    @Override
+    public long getFrontierSize() {
+        return frontierSize.get();
+    }
+
+    @Override
+    public double getStatesPerSecond() {
+        long nanos = searchNanos.sum();
+        if (nanos == 0) {
+            return 0;
+        }
+        return getNodesGenerated() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
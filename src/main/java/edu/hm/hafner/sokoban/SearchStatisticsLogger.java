@@ -0,0 +1,62 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import edu.hm.hafner.sokoban.HighScoreService.FormattedPrinter;
+
+/**
+ * Periodically prints the {@link SearchStatistics} of all search engines that are currently running a search. The
+ * statistics are printed in a background thread that is stopped when this logger is closed.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class SearchStatisticsLogger implements AutoCloseable {
+    private final ScheduledExecutorService scheduler
+            = Executors.newSingleThreadScheduledExecutor(SearchStatisticsLogger::createDaemonThread);
+    private final ScheduledFuture<?> printing;
+
+    /**
+     * Creates a new logger and starts printing.
+     *
+     * @param printer
+     *         the printer to use
+     * @param periodInSeconds
+     *         the number of seconds between two log lines of an engine
+     */
+    public SearchStatisticsLogger(final FormattedPrinter printer, final int periodInSeconds) {
+        if (periodInSeconds < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + periodInSeconds);
+        }
+        printing = scheduler.scheduleAtFixedRate(() -> print(printer), periodInSeconds, periodInSeconds, TimeUnit.SECONDS);
+    }
+
+    private static Thread createDaemonThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, "sokoban-search-statistics");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Prints the statistics of all engines that are currently running a search.
+     *
+     * @param printer
+     *         the printer to use
+     */
+    static void print(final FormattedPrinter printer) {
+        for (SearchStatistics statistics : SearchStatistics.getEngines()) {
+            if (statistics.getActiveSearches() > 0) {
+                statistics.print(printer);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        printing.cancel(false);
+        scheduler.shutdownNow();
+    }
+}
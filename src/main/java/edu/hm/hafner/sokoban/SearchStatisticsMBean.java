@@ -0,0 +1,86 @@
+package edu.hm.hafner.sokoban;
+
+/**
+ * Management interface of {@link SearchStatistics}. Exposes the accumulated counters of all searches of a search
+ * engine via JMX.
+ *
+ * @author Ullrich Hafner
+ */
+public interface SearchStatisticsMBean {
+    /**
+     * Returns the name of the search engine.
+     *
+     * @return the name of the search engine
+     */
+    String getEngine();
+
+    /**
+     * Returns the number of searches that have been started.
+     *
+     * @return the number of started searches
+     */
+    long getSearches();
+
+    /**
+     * Returns the number of searches that are currently running.
+     *
+     * @return the number of running searches
+     */
+    long getActiveSearches();
+
+    /**
+     * Returns the number of nodes whose successors have been computed.
+     *
+     * @return the number of expanded nodes
+     */
+    long getNodesExpanded();
+
+    /**
+     * Returns the number of successor nodes that have been computed.
+     *
+     * @return the number of generated nodes
+     */
+    long getNodesGenerated();
+
+    /**
+     * Returns the number of generated nodes that have been visited before.
+     *
+     * @return the number of duplicates
+     */
+    long getDuplicates();
+
+    /**
+     * Returns the ratio of duplicates to generated nodes.
+     *
+     * @return the duplicate hit rate, a value between 0 and 1
+     */
+    double getDuplicateRate();
+
+    /**
+     * Returns the number of successor nodes that have been skipped since they contain a deadlock.
+     *
+     * @return the number of pruned nodes
+     */
+    long getDeadlockPrunes();
+
+    /**
+     * Returns the number of nodes that have not been expanded yet in the most recently reported search.
+     *
+     * @return the size of the frontier
+     */
+    long getFrontierSize();
+
+    /**
+     * Returns the number of generated nodes per second of search time.
+     *
+     * @return the number of states per second
+     */
+    double getStatesPerSecond();
+
+    /**
+     * Returns the number of bytes of heap memory that are currently used.
+     *
+     * @return the used memory in bytes
+     */
+    long getUsedMemory();
+}
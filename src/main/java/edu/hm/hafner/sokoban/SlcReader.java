@@ -0,0 +1,153 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Reads collections of Sokoban levels in the XML based SLC format. The file is processed with a streaming StAX parser,
+ * so only the lines of the current level are held in memory. Each {@code Level} element contains the rows of the level
+ * in {@code L} elements, the name of the level is taken from the attribute {@code Id}. The rows are converted by a
+ * {@link SokobanReader}, so the same models are created as for the ASCII format.
+ *
+ * @author Ullrich Hafner
+ */
+public class SlcReader {
+    private static final String LEVEL = "Level";
+    private static final String ROW = "L";
+    private static final String ID = "Id";
+
+    private final SokobanReader reader = new SokobanReader();
+    private final XMLInputFactory factory;
+
+    /**
+     * Creates a new reader.
+     */
+    public SlcReader() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Reads the levels of the specified stream. The stream will not be closed.
+     *
+     * @param collectionName
+     *         the name of the collection, used for levels without {@code Id}
+     * @param input
+     *         the stream to read the levels from
+     *
+     * @return the levels of the collection
+     * @throws IllegalArgumentException
+     *         if the stream does not contain a valid SLC file
+     */
+    @SuppressWarnings("PMD.CloseResource") // will be closed when the stream is closed
+    @SuppressFBWarnings(value = "XXE_XMLSTREAMREADER", justification = "DTDs are disabled in the constructor")
+    public Stream<SokobanGameModel> read(final String collectionName, final InputStream input) {
+        try {
+            XMLStreamReader xml = factory.createXMLStreamReader(input);
+            LevelIterator levels = new LevelIterator(collectionName, xml);
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(levels,
+                    Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> close(xml));
+        }
+        catch (XMLStreamException exception) {
+            throw new IllegalArgumentException("Can't read SLC file " + collectionName, exception);
+        }
+    }
+
+    private static void close(final XMLStreamReader xml) {
+        try {
+            xml.close();
+        }
+        catch (XMLStreamException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Iterates over the {@code Level} elements of a SLC file. Reads the rows of the next level on demand.
+     */
+    private class LevelIterator implements Iterator<SokobanGameModel> {
+        private final String collectionName;
+        private final XMLStreamReader xml;
+        private final List<String> rows = new ArrayList<>();
+        private String name = StringUtils.EMPTY;
+        private int index;
+
+        LevelIterator(final String collectionName, final XMLStreamReader xml) {
+            this.collectionName = collectionName;
+            this.xml = xml;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (rows.isEmpty()) {
+                readNextLevel();
+            }
+            return !rows.isEmpty();
+        }
+
+        @Override
+        public SokobanGameModel next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more levels in collection " + collectionName);
+            }
+            SokobanGameModel level = reader.read(name, rows);
+
+            rows.clear();
+            return level;
+        }
+
+        // Skips all events until the next level element with rows, then reads the rows of the level
+        private void readNextLevel() {
+            try {
+                while (rows.isEmpty() && xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && LEVEL.equals(xml.getLocalName())) {
+                        name = getLevelName();
+                        index++;
+                        readRows();
+                    }
+                }
+            }
+            catch (XMLStreamException exception) {
+                throw new IllegalArgumentException("Can't read SLC file " + collectionName, exception);
+            }
+        }
+
+        private String getLevelName() {
+            String id = xml.getAttributeValue(null, ID);
+            if (StringUtils.isBlank(id)) {
+                return SokobanCollectionReader.getLevelName(collectionName, index, Collections.emptyList());
+            }
+            return id.trim();
+        }
+
+        private void readRows() throws XMLStreamException {
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT && ROW.equals(xml.getLocalName())) {
+                    rows.add(xml.getElementText());
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT && LEVEL.equals(xml.getLocalName())) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -6,13 +6,19 @@ import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Locale;
+import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.sokoban.CloudHighScoreService.CloudHighScoreServiceBuilder;
 import edu.hm.hafner.sokoban.HighScoreService.SystemOutPrinter;
 import edu.hm.hafner.sokoban.LevelInformationBoard.AttemptResult;
 import edu.hm.hafner.sokoban.model.Orientation;
@@ -26,10 +32,11 @@ import static edu.hm.hafner.sokoban.model.Orientation.*;
  *
  * @author Ullrich Hafner
  */
-@SuppressWarnings("checkstyle:ClassDataAbstractionCoupling")
+@SuppressWarnings({"checkstyle:ClassDataAbstractionCoupling", "checkstyle:ClassFanOutComplexity"})
 public class Sokoban extends JPanel {
     private static final long serialVersionUID = 3621359482117480904L;
     private static final String START_MESSAGE = "Press UP, DOWN, LEFT or RIGHT to start";
+    private static final String JOURNAL_PROPERTY = "sokoban.journal";
 
     /**
      * Starts Sokoban.
@@ -40,7 +47,8 @@ public class Sokoban extends JPanel {
     public static void main(final String... args) {
         AbstractSokobanModel level;
         if (args.length == 1) { // use level name of the command line argument #1
-            level = new SokobanReader().read(args[0].replace(".sok", ""), read(args[0]));
+            level = read(args[0]);
+            level.validate();
         }
         else if (args.length == 0) { // use built in level
             level = createLevel();
@@ -49,15 +57,30 @@ public class Sokoban extends JPanel {
             throw new IllegalArgumentException("Usage: java GameLoop [level-file-name]");
         }
 
-        SwingUtilities.invokeLater(() -> showLevel(level));
+        HintService hints = new HintService();
+        hints.startSolving(level);
+
+        SwingUtilities.invokeLater(() -> showLevel(level, hints));
+    }
+
+    // Reads the first level of a collection file, or of a collection resource of the class path
+    private static SokobanGameModel read(final String fileName) {
+        Path file = Paths.get(fileName).toAbsolutePath();
+        Path directory = file.getParent();
+        Path name = file.getFileName();
+        if (Files.isRegularFile(file) && directory != null && name != null) {
+            return read(LevelSources.fromDirectory(directory), name.toString());
+        }
+        return read(LevelSources.fromClasspath(), fileName);
     }
 
-    private static List<String> read(final String fileName) {
-        try {
-            return Files.readAllLines(Paths.get("target/classes/" + fileName));
+    private static SokobanGameModel read(final LevelSource source, final String collection) {
+        try (LevelSource levelSource = source; Stream<SokobanGameModel> levels = levelSource.read(collection)) {
+            return levels.findFirst().orElseThrow(
+                    () -> new IllegalArgumentException("Level file contains no level: " + collection));
         }
-        catch (IOException exception) {
-            throw new IllegalArgumentException("Level file not found: " + fileName, exception);
+        catch (UncheckedIOException exception) {
+            throw new IllegalArgumentException("Level file not readable: " + collection, exception);
         }
     }
 
@@ -82,11 +105,20 @@ public class Sokoban extends JPanel {
         return sokoban;
     }
 
-    private static void showLevel(final AbstractSokobanModel sokoban) {
+    // Returns the journal of the solutions that have not been uploaded yet, the system property overrides the default
+    private static Path getJournal() {
+        String journal = System.getProperty(JOURNAL_PROPERTY);
+        if (StringUtils.isBlank(journal)) {
+            return Paths.get(System.getProperty("user.home"), ".sokoban-scores.journal");
+        }
+        return Paths.get(journal);
+    }
+
+    private static void showLevel(final AbstractSokobanModel sokoban, final HintService hints) {
         String name = sokoban.getName();
 
         LevelInformationBoard levelScore = new LocalLevelInformationBoard(name);
-        HighScoreService uploadHighScore = new CloudHighScoreService();
+        HighScoreService uploadHighScore = new CloudHighScoreServiceBuilder().withJournal(getJournal()).build();
 
         SokobanGameRenderer painter = new SokobanGameRenderer();
         BufferedImage bitmap = painter.toImage(sokoban, DOWN);
@@ -105,6 +137,7 @@ public class Sokoban extends JPanel {
         JMenu menu = new JMenu("File");
 
         addRestartMenu(sokoban, name, levelScore, painter, game, frame, statusBar, menu);
+        addHintMenu(sokoban, hints, statusBar, menu);
         addPrintMenu(uploadHighScore, menu);
         menu.addSeparator();
         addExitMenu(menu);
@@ -144,6 +177,15 @@ public class Sokoban extends JPanel {
         menu.add(restart);
     }
 
+    private static void addHintMenu(final AbstractSokobanModel sokoban, final HintService hints,
+            final JLabel statusBar, final JMenu menu) {
+        JMenuItem hint = new JMenuItem("Hint");
+        hint.addActionListener(e -> statusBar.setText(hints.getHint(sokoban)
+                .map(orientation -> "Hint: move " + orientation.name().toLowerCase(Locale.ENGLISH))
+                .orElse("No hint available yet, please try again in a moment")));
+        menu.add(hint);
+    }
+
     @SuppressFBWarnings("DM_EXIT") @SuppressWarnings("PMD.DoNotCallSystemExit")
     private static void addExitMenu(final JMenu menu) {
         JMenuItem exit = new JMenuItem("Exit");
@@ -318,9 +360,14 @@ public class Sokoban extends JPanel {
             if (sokoban.isSolved()) {
                 game.setOrientation(SOLVED);
                 AttemptResult result = levelScore.finishLevel();
-                uploadHighScore.registerSolution("Ulli Hafner",
+                uploadHighScore.submitSolution("Ulli Hafner",
                         levelScore.getName(), levelScore.getHighScore(), levelScore.getAttempts(),
-                        levelScore.printMoves());
+                        levelScore.printMoves())
+                        .exceptionally(error -> {
+                            SwingUtilities.invokeLater(
+                                    () -> statusBar.setText("Upload of high score failed: " + error.getMessage()));
+                            return null;
+                        });
                 statusBar.setText(createMessage(result));
 
                 SwingUtilities.invokeLater(() -> {
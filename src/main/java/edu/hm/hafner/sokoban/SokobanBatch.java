@@ -0,0 +1,116 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.sokoban.HighScoreService.FormattedPrinter;
+import edu.hm.hafner.sokoban.HighScoreService.SystemOutPrinter;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Headless entry point that validates and solves all levels of a {@link LevelSource} without showing a user interface.
+ * The first argument is the location of the levels (a directory, a zip file, or an empty string for the class path), the
+ * remaining arguments are the names of the collections to process. If no collection is given, then all collections of
+ * the source are processed. With the option {@code --cache file} the solutions are stored in a {@link SolutionCache}
+ * that is backed by the specified file, so levels that have been solved in a previous run (or a rotated or mirrored copy
+ * of them) are not solved again.
+ *
+ * @author Ullrich Hafner
+ */
+public class SokobanBatch {
+    private static final String CACHE_OPTION = "--cache";
+    private static final int CACHE_ARGUMENTS = 2;
+    private static final long CACHE_BUDGET = 16 * 1024 * 1024;
+    private static final String USAGE = "Usage: java SokobanBatch [--cache file] location [collection...]";
+
+    private final SokobanSolver solver;
+    private final FormattedPrinter printer;
+
+    /**
+     * Starts the batch processing.
+     *
+     * @param args
+     *         the optional cache file, the location of the levels, optionally followed by the names of the
+     *         collections
+     */
+    public static void main(final String... args) {
+        List<String> arguments = Arrays.asList(args);
+        if (arguments.isEmpty()) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        if (CACHE_OPTION.equals(arguments.get(0))) {
+            if (arguments.size() <= CACHE_ARGUMENTS) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            try (SolutionCache cache = SolutionCache.open(Paths.get(arguments.get(1)), CACHE_BUDGET)) {
+                run(new SokobanSolver(cache), arguments.subList(CACHE_ARGUMENTS, arguments.size()));
+            }
+        }
+        else {
+            run(new SokobanSolver(), arguments);
+        }
+    }
+
+    private static void run(final SokobanSolver solver, final List<String> arguments) {
+        try (LevelSource source = LevelSources.open(arguments.get(0))) {
+            new SokobanBatch(solver, new SystemOutPrinter()).process(source, arguments.subList(1, arguments.size()));
+        }
+    }
+
+    /**
+     * Creates a new instance of {@link SokobanBatch}.
+     *
+     * @param solver
+     *         the solver for the levels
+     * @param printer
+     *         the printer for the results
+     */
+    public SokobanBatch(final SokobanSolver solver, final FormattedPrinter printer) {
+        this.solver = solver;
+        this.printer = printer;
+    }
+
+    /**
+     * Validates and solves the levels of the specified collections.
+     *
+     * @param source
+     *         the source of the levels
+     * @param collections
+     *         the collections to process, an empty list processes all collections of the source
+     *
+     * @return the number of levels that have been solved
+     */
+    public int process(final LevelSource source, final List<String> collections) {
+        int solved = 0;
+        for (String collection : collections.isEmpty() ? source.getCollections() : collections) {
+            printer.print("Collection %s", collection);
+            try (Stream<SokobanGameModel> levels = source.read(collection)) {
+                solved += levels.mapToInt(this::process).sum();
+            }
+        }
+        return solved;
+    }
+
+    private int process(final SokobanGameModel level) {
+        try {
+            level.validate();
+        }
+        catch (IllegalArgumentException | IllegalStateException exception) {
+            printer.print("  %s: invalid - %s", level.getName(),
+                    StringUtils.defaultString(exception.getMessage(), exception.getClass().getSimpleName()));
+            return 0;
+        }
+        Optional<List<Orientation>> solution = solver.solve(level);
+        if (solution.isPresent()) {
+            printer.print("  %s: solved in %d moves", level.getName(), solution.get().size());
+            return 1;
+        }
+        printer.print("  %s: no solution found", level.getName());
+        return 0;
+    }
+}
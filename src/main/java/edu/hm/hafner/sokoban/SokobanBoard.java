@@ -0,0 +1,199 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+
+/**
+ * Flat representation of the static parts of a Sokoban level that is used by the search algorithms. All fields are
+ * stored row by row in one-dimensional arrays, so that a position of the level is represented by a single {@code int}
+ * cell index. The movable parts of a level (player and treasures) are not part of the board, they are stored in
+ * {@link SokobanState} instances. Instances of this class are immutable.
+ *
+ * @author Ullrich Hafner
+ */
+final class SokobanBoard {
+    /** The directions a player can move to, the index in this array is used as direction ID. */
+    static final Orientation[] DIRECTIONS = {LEFT, RIGHT, UP, DOWN};
+    /** Marks a neighbor that is outside of the board. */
+    static final int NO_CELL = -1;
+
+    private final int width;
+    private final int height;
+    private final boolean[] walls;
+    private final boolean[] targets;
+    private final int[] neighbors;
+
+    /**
+     * Creates a new board for the specified fields.
+     *
+     * @param fields
+     *         the fields of the level, given as an array of lines
+     */
+    @SuppressWarnings("PMD.UseVarargs")
+    SokobanBoard(final Field[][] fields) {
+        height = fields.length;
+        width = height == 0 ? 0 : fields[0].length;
+        walls = new boolean[width * height];
+        targets = new boolean[width * height];
+        neighbors = new int[width * height * DIRECTIONS.length];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                walls[cell] = fields[y][x] == Field.WALL;
+                targets[cell] = fields[y][x] == Field.TARGET;
+
+                neighbors[cell * 4] = x > 0 ? cell - 1 : NO_CELL;
+                neighbors[cell * 4 + 1] = x < width - 1 ? cell + 1 : NO_CELL;
+                neighbors[cell * 4 + 2] = y > 0 ? cell - width : NO_CELL;
+                neighbors[cell * 4 + 3] = y < height - 1 ? cell + width : NO_CELL;
+            }
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of cells of this board.
+     *
+     * @return the number of cells
+     */
+    int size() {
+        return walls.length;
+    }
+
+    /**
+     * Returns whether the specified cell is a wall that can't be entered by the player or a treasure.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if the cell is a wall, {@code false} otherwise
+     */
+    boolean isWall(final int cell) {
+        return walls[cell];
+    }
+
+    /**
+     * Returns whether the specified cell is a target for a treasure.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if the cell is a target, {@code false} otherwise
+     */
+    boolean isTarget(final int cell) {
+        return targets[cell];
+    }
+
+    /**
+     * Returns the neighbor of the specified cell in the given direction.
+     *
+     * @param cell
+     *         the cell to get the neighbor for
+     * @param direction
+     *         the index of the direction, see {@link #DIRECTIONS}
+     *
+     * @return the neighbor cell or {@link #NO_CELL} if the neighbor would be outside of the board
+     */
+    int getNeighbor(final int cell, final int direction) {
+        return neighbors[cell * 4 + direction];
+    }
+
+    /**
+     * Returns whether the specified cell can be entered by the player or a treasure, i.e. the cell is inside the
+     * board and not a wall.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if the cell can be entered, {@code false} otherwise
+     */
+    boolean isAccessible(final int cell) {
+        return cell != NO_CELL && !walls[cell];
+    }
+
+    /**
+     * Converts the specified point to a cell index.
+     *
+     * @param point
+     *         the point to convert
+     *
+     * @return the cell index
+     */
+    int toCell(final Point point) {
+        return point.getY() * width + point.getX();
+    }
+
+    /**
+     * Converts the specified cell index to a point.
+     *
+     * @param cell
+     *         the cell to convert
+     *
+     * @return the point
+     */
+    Point toPoint(final int cell) {
+        return new Point(cell % width, cell / width);
+    }
+
+    /**
+     * Returns the index of the specified orientation in {@link #DIRECTIONS}.
+     *
+     * @param orientation
+     *         the orientation
+     *
+     * @return the direction index
+     * @throws IllegalArgumentException
+     *         if the orientation is not a movement
+     */
+    static int toDirection(final Orientation orientation) {
+        for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+            if (DIRECTIONS[direction] == orientation) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Orientation is not a movement: " + orientation);
+    }
+
+    /**
+     * Returns the index of the opposite direction of the specified direction.
+     *
+     * @param direction
+     *         the index of the direction, see {@link #DIRECTIONS}
+     *
+     * @return the index of the opposite direction
+     */
+    static int opposite(final int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * Creates the state of the movable parts of the specified level, i.e. the positions of the player and the
+     * treasures.
+     *
+     * @param level
+     *         the level to get the positions from
+     *
+     * @return the state of the level
+     */
+    SokobanState createState(final AbstractSokobanModel level) {
+        List<Point> treasurePositions = level.getTreasures();
+        int[] treasures = new int[treasurePositions.size()];
+        for (int i = 0; i < treasures.length; i++) {
+            treasures[i] = toCell(treasurePositions.get(i));
+        }
+        Arrays.sort(treasures);
+        return new SokobanState(toCell(level.getPlayer()), treasures);
+    }
+}
@@ -0,0 +1,308 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads collections of Sokoban levels in ASCII format. A collection contains several levels that are separated by
+ * comments or empty lines. The levels are read lazily: only the lines of the current level are held in memory, so
+ * collections of arbitrary size can be processed.
+ *
+ * <p>
+ * The name of a level is taken from the header of the level, i.e. the comments and text lines before the fields of the
+ * level. A header line {@code Title: <name>} (with or without comment prefix) has the highest priority, then the first
+ * text line that is neither a comment nor a {@code <key>: <value>} pair is used. If the header contains no name, then
+ * the name of the collection is used, followed by the number of the level in the collection (starting with the second
+ * level).
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+public class SokobanCollectionReader {
+    private static final String TITLE = "Title:";
+    private static final char KEY_VALUE_SEPARATOR = ':';
+    private static final String BYTE_ORDER_MARK = "\u00EF\u00BB\u00BF"; // the bytes of the UTF-8 byte order mark
+    private static final char XML_START = '<';
+    private static final int MAX_PREFIX_LENGTH = 1024;
+
+    private final SokobanReader reader = new SokobanReader();
+
+    /**
+     * Reads the levels of the specified file. The format of the file is detected automatically: XML files are read
+     * with a {@link SlcReader}, all other files are read as ASCII collections (with optional run length encoded
+     * levels). The returned stream must be closed after use in order to close the file.
+     *
+     * @param file
+     *         the file to read
+     *
+     * @return the levels of the collection
+     */
+    @SuppressWarnings("PMD.CloseResource") // will be closed when the stream is closed
+    public Stream<SokobanGameModel> read(final Path file) {
+        try {
+            InputStream input = Files.newInputStream(file);
+            return read(getCollectionName(file), input).onClose(() -> close(input));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads the levels of the specified stream. The format of the content is detected automatically, see {@link
+     * #read(Path)}. The stream will not be closed.
+     *
+     * @param collectionName
+     *         the name of the collection, used for levels without name
+     * @param input
+     *         the stream to read the levels from
+     *
+     * @return the levels of the collection
+     */
+    public Stream<SokobanGameModel> read(final String collectionName, final InputStream input) {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        try {
+            if (isXml(buffered)) {
+                return new SlcReader().read(collectionName, buffered);
+            }
+            return read(collectionName, new InputStreamReader(buffered, StandardCharsets.UTF_8));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads the levels of the specified reader. The reader will not be closed.
+     *
+     * @param collectionName
+     *         the name of the collection, used for levels without name
+     * @param input
+     *         the reader to read the levels from
+     *
+     * @return the levels of the collection
+     */
+    public Stream<SokobanGameModel> read(final String collectionName, final Reader input) {
+        return split(collectionName, input, reader::read);
+    }
+
+    /**
+     * Splits the collection of the specified reader on the level boundaries. Each level is converted with the
+     * specified factory that gets the name and the field lines of the level. The list of lines is reused for the next
+     * level, so the factory needs to copy the lines if they are required later on. The reader will not be closed.
+     *
+     * @param collectionName
+     *         the name of the collection, used for levels without name
+     * @param input
+     *         the reader to read the levels from
+     * @param factory
+     *         the factory that creates an element for the name and the lines of a level
+     * @param <T>
+     *         the type of the created elements
+     *
+     * @return the created elements in the order of the collection
+     */
+    <T> Stream<T> split(final String collectionName, final Reader input,
+            final BiFunction<String, List<String>, T> factory) {
+        LevelIterator<T> levels = new LevelIterator<>(collectionName, new BufferedReader(input), factory);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(levels,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the name of the collection that is stored in the specified file, i.e. the file name without extension.
+     *
+     * @param file
+     *         the file
+     *
+     * @return the name of the collection
+     */
+    static String getCollectionName(final Path file) {
+        Path fileName = file.getFileName();
+        if (fileName == null) {
+            return StringUtils.EMPTY;
+        }
+        return StringUtils.substringBeforeLast(fileName.toString(), ".");
+    }
+
+    /**
+     * Returns the name of a level in a collection.
+     *
+     * @param collectionName
+     *         the name of the collection
+     * @param index
+     *         the index of the level in the collection (starting with 0)
+     * @param header
+     *         the comment and text lines before the fields of the level
+     *
+     * @return the name of the level
+     */
+    static String getLevelName(final String collectionName, final int index, final List<String> header) {
+        String name = StringUtils.EMPTY;
+        for (String line : header) {
+            String text = StringUtils.removeStart(line, SokobanReader.COMMENT).trim();
+            if (text.startsWith(TITLE)) {
+                return StringUtils.removeStart(text, TITLE).trim();
+            }
+            if (name.isEmpty() && !line.startsWith(SokobanReader.COMMENT) && text.indexOf(KEY_VALUE_SEPARATOR) < 0) {
+                name = text;
+            }
+        }
+        if (!name.isEmpty()) {
+            return name;
+        }
+        if (index == 0) {
+            return collectionName;
+        }
+        return String.format("%s #%d", collectionName, index + 1);
+    }
+
+    /**
+     * Returns whether the specified line contains fields of a level.
+     *
+     * @param line
+     *         the line to check
+     *
+     * @return {@code true} if the line contains fields, {@code false} if the line is part of the header
+     */
+    static boolean isFieldLine(final String line) {
+        return SokobanReader.isFieldLine(line);
+    }
+
+    /**
+     * Returns whether the specified file contains XML, i.e. the first character that is not a white space (or byte
+     * order mark) is {@code <}.
+     *
+     * @param file
+     *         the file to check
+     *
+     * @return {@code true} if the file contains XML, {@code false} otherwise
+     * @throws IOException
+     *         if the file can't be read
+     */
+    static boolean isXml(final Path file) throws IOException {
+        try (BufferedInputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            return isXml(input);
+        }
+    }
+
+    // Inspects the first bytes of the stream and resets the stream afterwards
+    private static boolean isXml(final BufferedInputStream input) throws IOException {
+        input.mark(MAX_PREFIX_LENGTH);
+        try {
+            int character = input.read();
+            for (int i = 0; i < MAX_PREFIX_LENGTH && isPrefix(character); i++) {
+                character = input.read();
+            }
+            return character == XML_START;
+        }
+        finally {
+            input.reset();
+        }
+    }
+
+    private static boolean isPrefix(final int character) {
+        return Character.isWhitespace(character) || BYTE_ORDER_MARK.indexOf(character) >= 0;
+    }
+
+    private static void close(final Closeable reader) {
+        try {
+            reader.close();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Iterates over the levels of a collection. Reads the lines of the next level on demand.
+     *
+     * @param <T>
+     *         the type of the created elements
+     */
+    private static class LevelIterator<T> implements Iterator<T> {
+        private final String collectionName;
+        private final BufferedReader input;
+        private final BiFunction<String, List<String>, T> factory;
+        private final List<String> header = new ArrayList<>();
+        private final List<String> fields = new ArrayList<>();
+        private final List<String> nextHeader = new ArrayList<>();
+        private int index;
+        private boolean isEndOfInput;
+
+        LevelIterator(final String collectionName, final BufferedReader input,
+                final BiFunction<String, List<String>, T> factory) {
+            this.collectionName = collectionName;
+            this.input = input;
+            this.factory = factory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (fields.isEmpty() && !isEndOfInput) {
+                readNextLevel();
+            }
+            return !fields.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more levels in collection " + collectionName);
+            }
+            T level = factory.apply(getLevelName(collectionName, index, header), fields);
+
+            index++;
+            header.clear();
+            header.addAll(nextHeader);
+            nextHeader.clear();
+            fields.clear();
+            return level;
+        }
+
+        // Reads the header and the fields of the next level, the first header line of the following level is kept
+        private void readNextLevel() {
+            try {
+                String line = input.readLine();
+                while (line != null) {
+                    if (isFieldLine(line)) {
+                        fields.add(line);
+                    }
+                    else if (fields.isEmpty()) {
+                        header.add(line);
+                    }
+                    else {
+                        nextHeader.add(line); // the level is complete, the line belongs to the next level
+                        return;
+                    }
+                    line = input.readLine();
+                }
+                isEndOfInput = true;
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+}
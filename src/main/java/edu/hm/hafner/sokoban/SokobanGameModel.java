@@ -1,7 +1,13 @@
 package edu.hm.hafner.sokoban;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
- * Represents the playable game field of Sokoban.
+ * Represents the playable game field of Sokoban. Levels can be created with the constructor and the setters of the
+ * model or with a {@link SokobanGameModelBuilder}. The builder writes the fields directly into the storage of the
+ * model, so bulk imports avoid the copy of the fields that is made by {@link #setLevel(Field[][])}.
  *
  * @author Ullrich Hafner
  */
@@ -63,4 +69,75 @@ public class SokobanGameModel extends AbstractSokobanModel {
     protected void storeLevelState() {
         // FIXME: Store the initial level state
     }
+
+    /**
+     * Builds {@link SokobanGameModel} instances. The fields are written into an array that is owned by the builder and
+     * handed over to the created model without copying. Afterwards, the builder needs a new size before the next
+     * model can be built.
+     */
+    @SuppressWarnings({"checkstyle:HiddenField", "checkstyle:MissingJavadocMethod", "ParameterHidesMemberVariable"})
+    public static class SokobanGameModelBuilder {
+        private static final Field[][] NO_FIELDS = new Field[0][0];
+
+        private String name = "";
+        private Field[][] fields = NO_FIELDS;
+        private Point player = new Point(0, 0);
+        private List<Point> treasures = new ArrayList<>();
+
+        public SokobanGameModelBuilder withName(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the size of the level. All fields are initialized with {@link Field#BACKGROUND}.
+         *
+         * @param width
+         *         the width of the level
+         * @param height
+         *         the height of the level
+         *
+         * @return this builder
+         */
+        public SokobanGameModelBuilder withSize(final int width, final int height) {
+            fields = new Field[height][width];
+            for (Field[] row : fields) {
+                Arrays.fill(row, Field.BACKGROUND);
+            }
+            return this;
+        }
+
+        public SokobanGameModelBuilder withField(final int x, final int y, final Field field) {
+            fields[y][x] = field;
+            return this;
+        }
+
+        public SokobanGameModelBuilder withPlayer(final Point player) {
+            this.player = player;
+            return this;
+        }
+
+        public SokobanGameModelBuilder withTreasure(final Point treasure) {
+            treasures.add(treasure);
+            return this;
+        }
+
+        /**
+         * Creates the model. The fields are handed over to the model, the builder is reset to an empty level.
+         *
+         * @return the created model
+         * @throws IllegalArgumentException
+         *         if no size has been set
+         */
+        public SokobanGameModel build() {
+            SokobanGameModel model = new SokobanGameModel(name);
+            model.adoptLevel(fields);
+            model.setPlayer(player);
+            model.addAllTreasures(treasures);
+
+            fields = NO_FIELDS;
+            treasures = new ArrayList<>();
+            return model;
+        }
+    }
 }
@@ -1,11 +1,19 @@
 package edu.hm.hafner.sokoban;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
+
+import edu.hm.hafner.sokoban.SokobanGameModel.SokobanGameModelBuilder;
+
 import static edu.hm.hafner.sokoban.Field.*;
 
 /**
- * Reads and creates a Sokoban level in ASCII format.
+ * Reads and creates a Sokoban level in ASCII format. Besides the plain ASCII format, the XSB variant (that uses
+ * {@code -} or {@code _} for floors) and the run length encoded format (RLE) are detected and decoded automatically. In
+ * RLE a field character may be preceded by a repetition count and rows may be separated by {@code |}, e.g. {@code
+ * 5#|#@$.#|5#}.
  *
  * @author Ullrich Hafner
  */
@@ -15,11 +23,29 @@ import static edu.hm.hafner.sokoban.Field.*;
 // Treasure             $
 // Treasure on target   *
 // Target               .
-// Floor                (Space)
+// Floor                (Space) - _
+// Row separator (RLE)  |
 // Comment              ::
 public class SokobanReader {
+    static final String COMMENT = "::";
+    static final String FIELD_CHARACTERS = "#@+$*. -_";
+    static final String RUN_LENGTH_CHARACTERS = "|0123456789";
+
+    private static final char WALL_CHARACTER = '#';
+    private static final char PLAYER = '@';
+    private static final char PLAYER_ON_TARGET = '+';
+    private static final char TREASURE = '$';
+    private static final char TREASURE_ON_TARGET = '*';
+    private static final char TARGET_CHARACTER = '.';
+    private static final char FLOOR_CHARACTER = ' ';
+    private static final char XSB_FLOOR = '-';
+    private static final char XSB_FLOOR_ALTERNATIVE = '_';
+    private static final char ROW_SEPARATOR = '|';
+
     /**
-     * Converts the array of strings to a Sokoban level.
+     * Converts the array of strings to a Sokoban level. Comments and empty lines are skipped, run length encoded lines
+     * are expanded. Floors before the first field of a line and the missing fields at the end of shorter lines are
+     * converted to {@link Field#BACKGROUND}.
      *
      * @param name
      *         the name of the level
@@ -29,20 +55,146 @@ public class SokobanReader {
      * @return the created model of the level
      */
     public SokobanGameModel read(final String name, final List<String> lines) {
-        // FIXME: Implement reading of game levels from the list of lines
-        SokobanGameModel sokobanGameModel = new SokobanGameModel(name);
-        sokobanGameModel.setLevel(createDummyLevel());
-        sokobanGameModel.setPlayer(new Point(0, 0));
-        return sokobanGameModel;
-    }
-
-    private Field[][] createDummyLevel() {
-        return new Field[][] {
-                {WALL, WALL, WALL, WALL},
-                {WALL, FLOOR, TARGET, WALL},
-                {WALL, FLOOR, TARGET, WALL},
-                {WALL, FLOOR, FLOOR, WALL},
-                {WALL, WALL, WALL, WALL},
-        };
+        List<String> rows = new ArrayList<>();
+        for (String line : lines) {
+            if (isRunLengthEncoded(line)) {
+                rows.addAll(decodeRunLength(line));
+            }
+            else if (!isComment(line)) {
+                rows.add(line);
+            }
+        }
+        int width = 0;
+        for (String row : rows) {
+            width = Math.max(width, row.length());
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Level " + name + " contains no fields");
+        }
+
+        SokobanGameModelBuilder builder = new SokobanGameModelBuilder().withName(name).withSize(width, rows.size());
+        for (int y = 0; y < rows.size(); y++) {
+            readRow(builder, rows.get(y), y);
+        }
+        return builder.build();
+    }
+
+    // Sets the fields of the row, the fields before the first wall remain background
+    private void readRow(final SokobanGameModelBuilder builder, final String row, final int y) {
+        boolean isOutside = true;
+        for (int x = 0; x < row.length(); x++) {
+            char character = row.charAt(x);
+            isOutside &= isFloor(character);
+            if (!isOutside) {
+                builder.withField(x, y, toField(character, x, y));
+            }
+            if (character == PLAYER || character == PLAYER_ON_TARGET) {
+                builder.withPlayer(new Point(x, y));
+            }
+            else if (character == TREASURE || character == TREASURE_ON_TARGET) {
+                builder.withTreasure(new Point(x, y));
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified line is a run length encoded line of fields.
+     *
+     * @param line
+     *         the line to check
+     *
+     * @return {@code true} if the line is run length encoded, {@code false} otherwise
+     */
+    static boolean isRunLengthEncoded(final String line) {
+        return StringUtils.containsAny(line, RUN_LENGTH_CHARACTERS) && isFieldLine(line);
+    }
+
+    /**
+     * Returns whether the specified line contains fields of a level, in plain or run length encoded format. Since
+     * each row of a level is bounded by walls, a field line contains at least one wall.
+     *
+     * @param line
+     *         the line to check
+     *
+     * @return {@code true} if the line contains fields, {@code false} otherwise
+     */
+    static boolean isFieldLine(final String line) {
+        return line.indexOf(WALL_CHARACTER) >= 0 && !line.startsWith(COMMENT)
+                && StringUtils.containsOnly(line, FIELD_CHARACTERS + RUN_LENGTH_CHARACTERS);
+    }
+
+    /**
+     * Expands the specified run length encoded line: each field character that is preceded by a number is repeated
+     * accordingly, and the line is split into rows at the row separators.
+     *
+     * @param line
+     *         the run length encoded line
+     *
+     * @return the expanded rows
+     */
+    static List<String> decodeRunLength(final String line) {
+        List<String> rows = new ArrayList<>();
+        StringBuilder row = new StringBuilder(line.length());
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char character = line.charAt(i);
+            if (Character.isDigit(character)) {
+                count = count * 10 + character - '0';
+            }
+            else {
+                for (int repetition = Math.max(count, 1); repetition > 0; repetition--) {
+                    appendDecoded(rows, row, character);
+                }
+                count = 0;
+            }
+        }
+        rows.add(row.toString());
+        return rows;
+    }
+
+    private static void appendDecoded(final List<String> rows, final StringBuilder row, final char character) {
+        if (character == ROW_SEPARATOR) {
+            rows.add(row.toString());
+            row.setLength(0);
+        }
+        else {
+            row.append(character);
+        }
+    }
+
+    private static boolean isFloor(final char character) {
+        return character == FLOOR_CHARACTER || character == XSB_FLOOR || character == XSB_FLOOR_ALTERNATIVE;
+    }
+
+    /**
+     * Returns whether the specified line is not part of the fields of a level, i.e. the line is empty or a comment.
+     *
+     * @param line
+     *         the line to check
+     *
+     * @return {@code true} if the line is a comment or empty, {@code false} if the line contains fields
+     */
+    static boolean isComment(final String line) {
+        return line.startsWith(COMMENT) || StringUtils.isBlank(line);
+    }
+
+    private Field toField(final char character, final int x, final int y) {
+        if (isFloor(character)) {
+            return FLOOR;
+        }
+        switch (character) {
+            case WALL_CHARACTER:
+                return WALL;
+            case PLAYER:
+            case TREASURE:
+                return FLOOR;
+            case TARGET_CHARACTER:
+            case PLAYER_ON_TARGET:
+            case TREASURE_ON_TARGET:
+                return TARGET;
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Unknown character '%c' at %s", character, new Point(x, y)));
+        }
     }
 }
@@ -0,0 +1,311 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Solves Sokoban levels using a breadth-first search over the pushes of the treasures. The player walks between two
+ * pushes are not part of the search: all states with the same treasures and a player in the same region are
+ * considered equal (see {@link PlayerReachability}). Pushes of a treasure onto a dead square are skipped (see {@link
+ * DeadSquares}). The solutions found have a minimal number of pushes, the walks between the pushes are shortest
+ * paths.
+ *
+ * @author Ullrich Hafner
+ */
+public class SokobanSolver {
+    private static final int DEFAULT_MAX_STATES = 2_000_000;
+    private static final int NO_PARENT = -1;
+
+    private final int maxStates;
+    private final Optional<SolutionCache> cache;
+    private final SearchStatistics statistics = SearchStatistics.forEngine("SokobanSolver");
+
+    /**
+     * Creates a new solver with a default search limit.
+     */
+    public SokobanSolver() {
+        this(DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Creates a new solver with a default search limit that consults the specified cache before a level is solved. New
+     * solutions are added to the cache.
+     *
+     * @param cache
+     *         the cache of solutions
+     */
+    public SokobanSolver(final SolutionCache cache) {
+        this(DEFAULT_MAX_STATES, cache);
+    }
+
+    /**
+     * Creates a new solver.
+     *
+     * @param maxStates
+     *         the maximum number of states that will be visited before the search is aborted
+     */
+    public SokobanSolver(final int maxStates) {
+        this(maxStates, Optional.empty());
+    }
+
+    /**
+     * Creates a new solver that consults the specified cache before a level is solved. New solutions are added to the
+     * cache.
+     *
+     * @param maxStates
+     *         the maximum number of states that will be visited before the search is aborted
+     * @param cache
+     *         the cache of solutions
+     */
+    public SokobanSolver(final int maxStates, final SolutionCache cache) {
+        this(maxStates, Optional.of(cache));
+    }
+
+    private SokobanSolver(final int maxStates, final Optional<SolutionCache> cache) {
+        if (maxStates < 1) {
+            throw new IllegalArgumentException("Number of states must be positive: " + maxStates);
+        }
+        this.maxStates = maxStates;
+        this.cache = cache;
+    }
+
+    /**
+     * Solves the specified level, starting with the current positions of the player and the treasures. The level will
+     * not be changed.
+     *
+     * @param level
+     *         the level to solve
+     *
+     * @return the moves of a solution with a minimal number of pushes, or an empty optional if the level can't be
+     *         solved within the search limit
+     */
+    public Optional<List<Orientation>> solve(final AbstractSokobanModel level) {
+        return prepare(level).solve();
+    }
+
+    /**
+     * Solves the specified level, starting with the specified positions of the player and the treasures.
+     *
+     * @param board
+     *         the board of the level
+     * @param start
+     *         the positions of the player and the treasures
+     *
+     * @return the moves of a solution with a minimal number of pushes, or an empty optional if the level can't be
+     *         solved within the search limit
+     */
+    Optional<List<Orientation>> solve(final SokobanBoard board, final SokobanState start) {
+        return solve(board, start, statistics.startSearch());
+    }
+
+    /**
+     * Solves the specified level, starting with the specified positions of the player and the treasures. The progress
+     * of the search is reported to the specified probe, the probe will be finished afterwards.
+     *
+     * @param board
+     *         the board of the level
+     * @param start
+     *         the positions of the player and the treasures
+     * @param probe
+     *         the probe that collects the counters of the search
+     *
+     * @return the moves of a solution with a minimal number of pushes, or an empty optional if the level can't be
+     *         solved within the search limit
+     */
+    Optional<List<Orientation>> solve(final SokobanBoard board, final SokobanState start, final SearchProbe probe) {
+        if (start.isSolved(board)) {
+            probe.finish();
+            return Optional.of(Collections.emptyList());
+        }
+
+        return new Search(board, maxStates, probe).solve(start);
+    }
+
+    /**
+     * Prepares the solving of the specified level: the current state of the level is captured, so the returned task
+     * can be run in a background thread while the level is changed. If the solver has a cache, then the cache is
+     * consulted first, and a new solution is added to the cache.
+     *
+     * @param level
+     *         the level to solve
+     *
+     * @return the task that solves the level
+     */
+    SolvingTask prepare(final AbstractSokobanModel level) {
+        SokobanBoard board = level.getBoard();
+        SokobanState start = board.createState(level);
+        if (!cache.isPresent() || start.isSolved(board)) {
+            return new SolvingTask(board, start, Optional.empty(), level.getName());
+        }
+        return new SolvingTask(board, start, Optional.of(LevelFingerprint.compute(level)), level.getName());
+    }
+
+    /**
+     * Solves a level in the state that has been captured by {@link #prepare(AbstractSokobanModel)}.
+     */
+    final class SolvingTask {
+        private final SokobanBoard board;
+        private final SokobanState start;
+        private final Optional<LevelFingerprint> fingerprint;
+        private final String levelName;
+
+        SolvingTask(final SokobanBoard board, final SokobanState start,
+                final Optional<LevelFingerprint> fingerprint, final String levelName) {
+            this.board = board;
+            this.start = start;
+            this.fingerprint = fingerprint;
+            this.levelName = levelName;
+        }
+
+        /**
+         * Solves the level. If the solver has a cache, then the cache is consulted first, and a new solution is added
+         * to the cache.
+         *
+         * @return the moves of a solution with a minimal number of pushes, or an empty optional if the level can't be
+         *         solved within the search limit
+         */
+        @SuppressWarnings("PMD.CloseResource") // the cache is closed by its owner
+        Optional<List<Orientation>> solve() {
+            if (!fingerprint.isPresent() || !cache.isPresent()) {
+                return SokobanSolver.this.solve(board, start);
+            }
+
+            SolutionCache solutions = cache.get();
+            Optional<List<Orientation>> cached = solutions.get(fingerprint.get());
+            if (cached.isPresent()) {
+                return cached;
+            }
+            Optional<List<Orientation>> solution = SokobanSolver.this.solve(board, start);
+            solution.ifPresent(moves -> solutions.put(fingerprint.get(), levelName, moves));
+            return solution;
+        }
+    }
+
+    /**
+     * A single breadth-first search over the pushes of a level. The nodes of the search tree are stored in a list that
+     * is used as queue as well. The progress of the search is reported to the specified probe.
+     */
+    private static final class Search {
+        private final SokobanBoard board;
+        private final int maxStates;
+        private final DeadSquares deadSquares;
+        private final PlayerReachability region;
+        private final PlayerReachability normalization;
+        private final List<Node> nodes = new ArrayList<>();
+        private final Set<SokobanState> visited = new HashSet<>();
+        private final SearchProbe probe;
+
+        Search(final SokobanBoard board, final int maxStates, final SearchProbe probe) {
+            this.board = board;
+            this.maxStates = maxStates;
+            this.probe = probe;
+
+            deadSquares = new DeadSquares(board);
+            region = new PlayerReachability(board);
+            normalization = new PlayerReachability(board);
+        }
+
+        Optional<List<Orientation>> solve(final SokobanState start) {
+            SokobanState root = normalization.normalize(start);
+            nodes.add(new Node(root, NO_PARENT, SokobanBoard.NO_CELL, -1));
+            visited.add(root);
+
+            try {
+                for (int index = 0; index < nodes.size() && visited.size() < maxStates; index++) {
+                    if (expand(index)) {
+                        return Optional.of(createMoves(start));
+                    }
+                }
+                return Optional.empty();
+            }
+            finally {
+                probe.finish();
+            }
+        }
+
+        // Adds all states that can be reached with a single push, returns true if one of these states is solved
+        private boolean expand(final int index) {
+            SokobanState state = nodes.get(index).state;
+            probe.expanded(nodes.size() - index - 1);
+            region.fill(state);
+            for (int treasure = 0; treasure < state.getTreasureCount(); treasure++) {
+                int cell = state.getTreasure(treasure);
+                for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                    int player = board.getNeighbor(cell, SokobanBoard.opposite(direction));
+                    if (canPush(state, player, board.getNeighbor(cell, direction))
+                            && push(index, player, direction)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Adds the state after the push if it has not been visited yet, returns true if this state is solved
+        private boolean push(final int index, final int player, final int direction) {
+            SokobanState pushed = normalization.normalize(
+                    nodes.get(index).state.withPlayer(player).move(board, direction));
+            if (visited.add(pushed)) {
+                probe.generated();
+                nodes.add(new Node(pushed, index, player, direction));
+                return pushed.isSolved(board);
+            }
+            probe.duplicate();
+            return false;
+        }
+
+        private boolean canPush(final SokobanState state, final int player, final int target) {
+            if (!region.isReachable(player) || !board.isAccessible(target) || state.hasTreasureAt(target)) {
+                return false;
+            }
+            if (deadSquares.isDead(target)) {
+                probe.pruned();
+                return false;
+            }
+            return true;
+        }
+
+        // Walks the path from the solution back to the root and creates the moves of the player
+        private List<Orientation> createMoves(final SokobanState start) {
+            List<Node> pushes = new ArrayList<>();
+            for (Node node = nodes.get(nodes.size() - 1); node.parent != NO_PARENT; node = nodes.get(node.parent)) {
+                pushes.add(node);
+            }
+            Collections.reverse(pushes);
+
+            PlayerReachability walk = new PlayerReachability(board);
+            List<Orientation> moves = new ArrayList<>();
+            SokobanState state = start;
+            for (Node push : pushes) {
+                moves.addAll(walk.findPath(state, push.player).orElseThrow(
+                        () -> new IllegalStateException("Player can't reach push position " + push.player)));
+                moves.add(SokobanBoard.DIRECTIONS[push.direction]);
+                state = state.withPlayer(push.player).move(board, push.direction);
+            }
+            return moves;
+        }
+    }
+
+    /**
+     * A node of the search tree. Stores the push that leads to the state of this node.
+     */
+    private static class Node {
+        private final SokobanState state;
+        private final int parent;
+        private final int player;
+        private final int direction;
+
+        Node(final SokobanState state, final int parent, final int player, final int direction) {
+            this.state = state;
+            this.parent = parent;
+            this.player = player;
+            this.direction = direction;
+        }
+    }
+}
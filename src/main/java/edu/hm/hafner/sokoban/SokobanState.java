@@ -0,0 +1,188 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the movable parts of a Sokoban level, i.e. the cell of the player and the cells of all treasures
+ * on a {@link SokobanBoard}. The treasure cells are kept sorted so that two states with the same positions are equal.
+ * Instances of this class are immutable.
+ *
+ * @author Ullrich Hafner
+ */
+final class SokobanState {
+    private final int player;
+    private final int[] treasures;
+    private final int hash;
+
+    /**
+     * Creates a new state.
+     *
+     * @param player
+     *         the cell of the player
+     * @param treasures
+     *         the sorted cells of the treasures, the array will not be copied
+     */
+    @SuppressWarnings({"PMD.ArrayIsStoredDirectly", "PMD.UseVarargs"})
+    SokobanState(final int player, final int[] treasures) {
+        this.player = player;
+        this.treasures = treasures;
+        hash = 31 * Arrays.hashCode(treasures) + player;
+    }
+
+    int getPlayer() {
+        return player;
+    }
+
+    int getTreasureCount() {
+        return treasures.length;
+    }
+
+    /**
+     * Returns the cell of the treasure with the specified index.
+     *
+     * @param index
+     *         the index of the treasure
+     *
+     * @return the cell of the treasure
+     */
+    int getTreasure(final int index) {
+        return treasures[index];
+    }
+
+    /**
+     * Returns whether there is a treasure at the specified cell.
+     *
+     * @param cell
+     *         the cell to check
+     *
+     * @return {@code true} if there is a treasure, {@code false} otherwise
+     */
+    boolean hasTreasureAt(final int cell) {
+        return Arrays.binarySearch(treasures, cell) >= 0;
+    }
+
+    /**
+     * Returns whether each treasure covers a target of the specified board.
+     *
+     * @param board
+     *         the board with the targets
+     *
+     * @return {@code true} if the level is solved, {@code false} otherwise
+     */
+    boolean isSolved(final SokobanBoard board) {
+        for (int treasure : treasures) {
+            if (!board.isTarget(treasure)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the player in the specified direction. If the player moves against a treasure, then the treasure is
+     * pushed one cell in that direction as well. If the move is not possible, then nothing is done.
+     *
+     * @param board
+     *         the board to move on
+     * @param direction
+     *         the index of the direction, see {@link SokobanBoard#DIRECTIONS}
+     *
+     * @return the new state, or this state if the move is not possible
+     */
+    SokobanState move(final SokobanBoard board, final int direction) {
+        int next = board.getNeighbor(player, direction);
+        if (!board.isAccessible(next)) {
+            return this;
+        }
+        int index = Arrays.binarySearch(treasures, next);
+        if (index < 0) {
+            return new SokobanState(next, treasures);
+        }
+        int behind = board.getNeighbor(next, direction);
+        if (!board.isAccessible(behind) || hasTreasureAt(behind)) {
+            return this;
+        }
+        return new SokobanState(next, moveTreasure(index, behind));
+    }
+
+    /**
+     * Moves the player in the specified direction and pulls the treasure that is on the opposite side of the player.
+     * This is the reverse operation of a push, see {@link #move(SokobanBoard, int)}. If the move is not possible or if
+     * there is no treasure to pull, then nothing is done.
+     *
+     * @param board
+     *         the board to move on
+     * @param direction
+     *         the index of the direction, see {@link SokobanBoard#DIRECTIONS}
+     *
+     * @return the new state, or this state if the pull is not possible
+     */
+    SokobanState pull(final SokobanBoard board, final int direction) {
+        int next = board.getNeighbor(player, direction);
+        if (!board.isAccessible(next) || hasTreasureAt(next)) {
+            return this;
+        }
+        int behind = board.getNeighbor(player, SokobanBoard.opposite(direction));
+        int index = behind == SokobanBoard.NO_CELL ? -1 : Arrays.binarySearch(treasures, behind);
+        if (index < 0) {
+            return this;
+        }
+        return new SokobanState(next, moveTreasure(index, player));
+    }
+
+    /**
+     * Returns a state with the same treasures as this state but with the player at the specified cell.
+     *
+     * @param cell
+     *         the new cell of the player
+     *
+     * @return the new state, or this state if the player is already at the specified cell
+     */
+    SokobanState withPlayer(final int cell) {
+        if (cell == player) {
+            return this;
+        }
+        return new SokobanState(cell, treasures);
+    }
+
+    /**
+     * Returns whether the specified state has the treasures at the same cells as this state.
+     *
+     * @param other
+     *         the other state
+     *
+     * @return {@code true} if the treasures are at the same cells, {@code false} otherwise
+     */
+    boolean hasSameTreasures(final SokobanState other) {
+        return treasures == other.treasures || Arrays.equals(treasures, other.treasures);
+    }
+
+    private int[] moveTreasure(final int index, final int target) {
+        int[] moved = treasures.clone();
+        moved[index] = target;
+        Arrays.sort(moved);
+        return moved;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SokobanState that = (SokobanState) o;
+        return player == that.player && hash == that.hash && Arrays.equals(treasures, that.treasures);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Player: %d, Treasures: %s", player, Arrays.toString(treasures));
+    }
+}
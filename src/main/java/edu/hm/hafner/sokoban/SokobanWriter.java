@@ -0,0 +1,83 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Writes Sokoban levels in the ASCII format that is read by {@link SokobanReader} and {@link SokobanCollectionReader}.
+ * Each level starts with a {@code Title} comment that contains the name of the level and ends with an empty line.
+ * Background fields are written as spaces, rows that contain no walls are omitted.
+ *
+ * @author Ullrich Hafner
+ */
+public class SokobanWriter {
+    private static final String TITLE = SokobanReader.COMMENT + " Title: ";
+
+    /**
+     * Writes the specified levels to the writer. The writer will not be closed.
+     *
+     * @param levels
+     *         the levels to write
+     * @param output
+     *         the writer to write to
+     */
+    public void write(final Collection<? extends AbstractSokobanModel> levels, final Writer output) {
+        try {
+            for (AbstractSokobanModel level : levels) {
+                output.write(TITLE + level.getName() + "\n");
+                for (String row : toRows(level)) {
+                    output.write(row + "\n");
+                }
+                output.write("\n");
+            }
+            output.flush();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Converts the fields, the player, and the treasures of the specified level into rows of characters.
+     *
+     * @param level
+     *         the level to convert
+     *
+     * @return the rows of the level
+     */
+    public List<String> toRows(final AbstractSokobanModel level) {
+        List<String> rows = new ArrayList<>(level.getHeight());
+        for (int y = 0; y < level.getHeight(); y++) {
+            StringBuilder row = new StringBuilder(level.getWidth());
+            for (int x = 0; x < level.getWidth(); x++) {
+                row.append(toCharacter(level, new Point(x, y)));
+            }
+            String fields = StringUtils.stripEnd(row.toString(), " ");
+            if (SokobanReader.isFieldLine(fields)) {
+                rows.add(fields);
+            }
+        }
+        return rows;
+    }
+
+    private char toCharacter(final AbstractSokobanModel level, final Point point) {
+        Field field = level.getField(point);
+        boolean isTarget = field == Field.TARGET;
+        if (level.getPlayer().equals(point)) {
+            return isTarget ? '+' : '@';
+        }
+        if (level.getTreasures().contains(point)) {
+            return isTarget ? '*' : '$';
+        }
+        if (field == Field.WALL) {
+            return '#';
+        }
+        return isTarget ? '.' : ' ';
+    }
+}
@@ -0,0 +1,481 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * A cache of level solutions that is keyed by the {@link LevelFingerprint} of the levels. A solution is stored in the
+ * orientation of the canonical form of the level, so it can be used for all rotated or mirrored copies of the level.
+ * The moves are packed with 2 bits per move.
+ *
+ * <p>
+ * The cache is bounded by a budget in bytes: if the solutions in memory exceed the budget, then the least recently used
+ * solutions are evicted. A cache can be backed by a file: new solutions are appended to the file as records with a
+ * checksum, and the file is synced after each record. If the application crashes while writing a record, then the
+ * incomplete record is detected and discarded when the file is opened again. If the file grows beyond twice the budget,
+ * then it is compacted, i.e. replaced atomically by a file that contains the solutions of the memory only.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.GodClass")
+public final class SolutionCache implements AutoCloseable {
+    private static final int MAGIC = 0x534F4B43; // SOKC
+    private static final int VERSION = 1;
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int MOVES_PER_BYTE = 4;
+    private static final int BITS_PER_MOVE = 2;
+    private static final int MOVE_MASK = 3;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+    private static final byte IDENTITY = (byte) 0b11_10_01_00; // each direction is mapped to itself
+
+    private final Optional<Path> file;
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Key> keysByName = new HashMap<>();
+    private final Object lock = new Object();
+    private long sizeInBytes;
+    private Optional<FileChannel> channel = Optional.empty();
+
+    /**
+     * Creates a cache that is not backed by a file.
+     *
+     * @param maxBytes
+     *         the budget of the cache in bytes
+     *
+     * @return the cache
+     */
+    public static SolutionCache createInMemory(final long maxBytes) {
+        return new SolutionCache(Optional.empty(), maxBytes);
+    }
+
+    /**
+     * Opens the cache that is backed by the specified file. If the file does not exist yet, then it will be created.
+     *
+     * @param file
+     *         the file that stores the solutions
+     * @param maxBytes
+     *         the budget of the cache in bytes, the file may grow to twice the budget before it is compacted
+     *
+     * @return the cache
+     */
+    public static SolutionCache open(final Path file, final long maxBytes) {
+        SolutionCache cache = new SolutionCache(Optional.of(file), maxBytes);
+        boolean replayed = false;
+        try {
+            cache.replay(file);
+            replayed = true;
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        finally {
+            if (!replayed) {
+                cache.close();
+            }
+        }
+        return cache;
+    }
+
+    private SolutionCache(final Optional<Path> file, final long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Budget must not be negative: " + maxBytes);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached solution for the specified level.
+     *
+     * @param fingerprint
+     *         the fingerprint of the level
+     *
+     * @return the moves of the solution in the orientation of the level, or an empty optional if there is no cached
+     *         solution
+     */
+    public Optional<List<Orientation>> get(final LevelFingerprint fingerprint) {
+        synchronized (lock) {
+            Entry entry = entries.get(new Key(fingerprint.getHigh(), fingerprint.getLow()));
+            if (entry == null) {
+                return Optional.empty();
+            }
+            List<Orientation> moves = new ArrayList<>(entry.moveCount);
+            for (Orientation move : entry.unpack()) {
+                moves.add(fingerprint.fromCanonical(move));
+            }
+            return Optional.of(moves);
+        }
+    }
+
+    /**
+     * Returns the cached solution for the level with the specified name. Only the name of the level that has been
+     * used to store the solution can be used.
+     *
+     * @param levelName
+     *         the name of the level
+     *
+     * @return the moves of the solution in the orientation of the level, or an empty optional if there is no cached
+     *         solution
+     */
+    public Optional<List<Orientation>> get(final String levelName) {
+        synchronized (lock) {
+            Key key = keysByName.get(levelName);
+            if (key == null) {
+                return Optional.empty();
+            }
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            byte orientation = entry.names.getOrDefault(levelName, IDENTITY);
+            List<Orientation> moves = new ArrayList<>(entry.moveCount);
+            for (Orientation move : entry.unpack()) {
+                moves.add(fromCanonical(orientation, move));
+            }
+            return Optional.of(moves);
+        }
+    }
+
+    /**
+     * Stores the solution of the specified level. If the cache is backed by a file, then the solution is appended to
+     * the file.
+     *
+     * @param fingerprint
+     *         the fingerprint of the level
+     * @param levelName
+     *         the name of the level
+     * @param moves
+     *         the moves of the solution in the orientation of the level
+     */
+    public void put(final LevelFingerprint fingerprint, final String levelName, final List<Orientation> moves) {
+        List<Orientation> canonical = new ArrayList<>(moves.size());
+        for (Orientation move : moves) {
+            canonical.add(fingerprint.toCanonical(move));
+        }
+        Entry entry = new Entry(new Key(fingerprint.getHigh(), fingerprint.getLow()), moves.size(), pack(canonical));
+        entry.names.put(levelName, getOrientation(fingerprint));
+
+        synchronized (lock) {
+            add(entry);
+            channel.ifPresent(output -> append(output, entry, levelName));
+        }
+    }
+
+    /**
+     * Returns the number of cached solutions.
+     *
+     * @return the number of solutions
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes of the cached solutions in memory.
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        synchronized (lock) {
+            return sizeInBytes;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (channel.isPresent()) {
+                try {
+                    channel.get().close();
+                }
+                catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+                finally {
+                    channel = Optional.empty();
+                }
+            }
+        }
+    }
+
+    private void add(final Entry entry) {
+        Entry previous = entries.put(entry.key, entry);
+        if (previous != null) {
+            remove(previous);
+            previous.names.forEach(entry.names::putIfAbsent);
+        }
+        for (String name : entry.names.keySet()) {
+            Key replaced = keysByName.put(name, entry.key);
+            if (replaced != null && !replaced.equals(entry.key)) {
+                removeName(replaced, name);
+            }
+        }
+        sizeInBytes += entry.getSizeInBytes();
+
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (sizeInBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Entry evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            remove(evicted);
+        }
+    }
+
+    private void remove(final Entry entry) {
+        sizeInBytes -= entry.getSizeInBytes();
+        for (String name : entry.names.keySet()) {
+            keysByName.remove(name, entry.key);
+        }
+    }
+
+    // Removes a name from an entry, the name is now used for a different level
+    private void removeName(final Key key, final String name) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            sizeInBytes -= entry.getSizeInBytes();
+            entry.names.remove(name);
+            sizeInBytes += entry.getSizeInBytes();
+        }
+    }
+
+    // Stores for each direction of the canonical form the corresponding direction of the level in 2 bits
+    private static byte getOrientation(final LevelFingerprint fingerprint) {
+        int orientation = 0;
+        for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+            int converted = SokobanBoard.toDirection(fingerprint.fromCanonical(SokobanBoard.DIRECTIONS[direction]));
+            orientation |= converted << (direction * BITS_PER_MOVE);
+        }
+        return (byte) orientation;
+    }
+
+    private static Orientation fromCanonical(final byte orientation, final Orientation move) {
+        int direction = SokobanBoard.toDirection(move);
+        return SokobanBoard.DIRECTIONS[orientation >> (direction * BITS_PER_MOVE) & MOVE_MASK];
+    }
+
+    // Reads all valid records of the file, a damaged record at the end of the file is cut off
+    @SuppressWarnings("PMD.CloseResource") // the channel is closed when the cache is closed
+    private void replay(final Path cacheFile) throws IOException {
+        FileChannel output = FileChannel.open(cacheFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel = Optional.of(output);
+        if (output.size() < RecordFile.HEADER_SIZE) {
+            writeHeader(output);
+            return;
+        }
+
+        ByteBuffer content = ByteBuffer.allocate((int) output.size());
+        int read = 0;
+        while (content.hasRemaining() && read >= 0) {
+            read = output.read(content);
+        }
+        content.flip();
+        if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+            throw new IllegalArgumentException("File is not a solution cache: " + cacheFile);
+        }
+        long validSize = content.position();
+        Optional<Entry> entry = readRecord(content);
+        while (entry.isPresent()) {
+            add(entry.get());
+            validSize = content.position();
+            entry = readRecord(content);
+        }
+        output.truncate(validSize);
+        output.position(validSize);
+        compactIfRequired(output);
+    }
+
+    private Optional<Entry> readRecord(final ByteBuffer content) {
+        try {
+            return RecordFile.readPayload(content).map(Entry::read);
+        }
+        catch (BufferUnderflowException | NegativeArraySizeException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private void append(final FileChannel output, final Entry entry, final String levelName) {
+        try {
+            RecordFile.write(output, toRecord(entry, levelName));
+            output.force(false);
+            compactIfRequired(output);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // Replaces the file with a new file that contains the cached entries only
+    @SuppressWarnings("PMD.CloseResource") // the channel is closed when the cache is closed
+    private void compactIfRequired(final FileChannel output) throws IOException {
+        if (!file.isPresent() || output.size() <= RecordFile.HEADER_SIZE + 2 * maxBytes) {
+            return;
+        }
+
+        Path cacheFile = file.get();
+        Path temporary = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(compacted);
+            for (Entry entry : entries.values()) {
+                for (String name : entry.names.keySet()) {
+                    RecordFile.write(compacted, toRecord(entry, name));
+                }
+            }
+            compacted.force(true);
+        }
+        output.close();
+        try {
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            // if the file has not been replaced, then new solutions are appended to the uncompacted file
+            FileChannel reopened = FileChannel.open(cacheFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            reopened.position(reopened.size());
+            channel = Optional.of(reopened);
+        }
+    }
+
+    private static void writeHeader(final FileChannel output) throws IOException {
+        RecordFile.writeHeader(output, MAGIC, VERSION);
+    }
+
+    private static ByteBuffer toRecord(final Entry entry, final String levelName) {
+        return RecordFile.toRecord(entry.toBytes(levelName));
+    }
+
+    /**
+     * Packs the specified moves with 2 bits per move.
+     *
+     * @param moves
+     *         the moves to pack
+     *
+     * @return the packed moves
+     */
+    static byte[] pack(final List<Orientation> moves) {
+        return MoveCodec.pack(moves);
+    }
+
+    /**
+     * Unpacks moves that have been packed with {@link #pack(List)}.
+     *
+     * @param packed
+     *         the packed moves
+     * @param moveCount
+     *         the number of moves
+     *
+     * @return the moves
+     */
+    static List<Orientation> unpack(final byte[] packed, final int moveCount) {
+        return MoveCodec.unpack(packed, moveCount);
+    }
+
+    /**
+     * The fingerprint of a level, used as key of the cache.
+     */
+    private static final class Key {
+        private final long high;
+        private final long low;
+
+        Key(final long high, final long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return high == key.high && low == key.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
+    }
+
+    /**
+     * A cached solution in the orientation of the canonical form of the level. For each name of a level with this
+     * solution, the orientation of the level is stored, see {@link #getOrientation(LevelFingerprint)}.
+     */
+    private static final class Entry {
+        private final Key key;
+        private final int moveCount;
+        private final byte[] packedMoves;
+        private final Map<String, Byte> names = new LinkedHashMap<>();
+
+        static Entry read(final ByteBuffer payload) {
+            long high = payload.getLong();
+            long low = payload.getLong();
+            byte[] name = new byte[Short.toUnsignedInt(payload.getShort())];
+            payload.get(name);
+            byte orientation = payload.get();
+            int moveCount = payload.getInt();
+            byte[] packedMoves = new byte[(moveCount + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE];
+            payload.get(packedMoves);
+
+            Entry entry = new Entry(new Key(high, low), moveCount, packedMoves);
+            entry.names.put(new String(name, StandardCharsets.UTF_8), orientation);
+            return entry;
+        }
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        Entry(final Key key, final int moveCount, final byte[] packedMoves) {
+            this.key = key;
+            this.moveCount = moveCount;
+            this.packedMoves = packedMoves;
+        }
+
+        List<Orientation> unpack() {
+            return SolutionCache.unpack(packedMoves, moveCount);
+        }
+
+        long getSizeInBytes() {
+            long size = (long) ENTRY_OVERHEAD + packedMoves.length;
+            for (String name : names.keySet()) {
+                size += ENTRY_OVERHEAD + 2L * name.length();
+            }
+            return size;
+        }
+
+        byte[] toBytes(final String levelName) {
+            byte[] name = levelName.getBytes(StandardCharsets.UTF_8);
+            if (name.length > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Level name is too long: " + levelName);
+            }
+            ByteBuffer payload = ByteBuffer.allocate(2 * Long.BYTES + Short.BYTES + name.length + Byte.BYTES
+                    + Integer.BYTES + packedMoves.length);
+            payload.putLong(key.high).putLong(key.low)
+                    .putShort((short) name.length).put(name)
+                    .put(names.get(levelName))
+                    .putInt(moveCount).put(packedMoves);
+            return payload.array();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Shortens a known solution of a level, e.g. the recorded moves of a player or the best solution of a {@link
+ * HighScoreService}. Rather than solving the level from scratch, the optimizer replays the solution and uses the
+ * visited states as fixed checkpoints: first all loops in the sequence of states are removed, then each window of the
+ * move sequence between two checkpoints is re-solved by a bounded breadth-first search. If the search finds a shorter
+ * path to a later checkpoint of the window, then the moves of the window are replaced. These passes are repeated until
+ * no window can be improved anymore.
+ *
+ * @author Ullrich Hafner
+ */
+public class SolutionOptimizer {
+    private static final int MIN_WINDOW_SIZE = 2;
+    private static final int DEFAULT_WINDOW_SIZE = 24;
+    private static final int DEFAULT_MAX_NODES_PER_WINDOW = 100_000;
+    private static final int NO_CHECKPOINT = -1;
+    private static final int NO_PARENT = -1;
+
+    private final int windowSize;
+    private final int maxNodesPerWindow;
+    private final SearchStatistics statistics = SearchStatistics.forEngine("SolutionOptimizer");
+
+    /**
+     * Creates a new optimizer with a default window size and search limit.
+     */
+    public SolutionOptimizer() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MAX_NODES_PER_WINDOW);
+    }
+
+    /**
+     * Creates a new optimizer.
+     *
+     * @param windowSize
+     *         the maximum number of moves that will be re-solved at once
+     * @param maxNodesPerWindow
+     *         the maximum number of states that will be visited while re-solving a window
+     */
+    public SolutionOptimizer(final int windowSize, final int maxNodesPerWindow) {
+        if (windowSize < MIN_WINDOW_SIZE) {
+            throw new IllegalArgumentException("Window size must be at least 2: " + windowSize);
+        }
+        if (maxNodesPerWindow < 1) {
+            throw new IllegalArgumentException("Number of nodes must be positive: " + maxNodesPerWindow);
+        }
+        this.windowSize = windowSize;
+        this.maxNodesPerWindow = maxNodesPerWindow;
+    }
+
+    /**
+     * Shortens the specified solution of the level. The level will not be changed.
+     *
+     * @param level
+     *         the level in its initial state
+     * @param solution
+     *         the moves that solve the level
+     *
+     * @return the optimized solution, containing at most the same number of moves as the specified solution
+     * @throws IllegalArgumentException
+     *         if the moves do not solve the level
+     */
+    public List<Orientation> optimize(final AbstractSokobanModel level, final Collection<Orientation> solution) {
+        SokobanBoard board = level.getBoard();
+        List<SokobanState> states = new ArrayList<>();
+        List<Integer> moves = new ArrayList<>();
+        replay(board, board.createState(level), solution, states, moves);
+
+        if (!states.get(states.size() - 1).isSolved(board)) {
+            throw new IllegalArgumentException("The moves do not solve the level " + level.getName());
+        }
+
+        boolean improved = true;
+        while (improved) {
+            removeLoops(states, moves);
+            improved = false;
+            int step = Math.max(1, windowSize / 2);
+            for (int start = 0; start < moves.size(); start += step) {
+                improved |= improveWindow(board, start, states, moves);
+            }
+        }
+
+        List<Orientation> optimized = new ArrayList<>(moves.size());
+        for (Integer move : moves) {
+            optimized.add(SokobanBoard.DIRECTIONS[move]);
+        }
+        return optimized;
+    }
+
+    // Replays the moves and records all visited states: moves that do not change the state are skipped
+    private void replay(final SokobanBoard board, final SokobanState start, final Collection<Orientation> solution,
+            final List<SokobanState> states, final List<Integer> moves) {
+        SokobanState state = start;
+        states.add(state);
+        for (Orientation orientation : solution) {
+            int direction = SokobanBoard.toDirection(orientation);
+            SokobanState next = state.move(board, direction);
+            if (!next.equals(state)) {
+                moves.add(direction);
+                states.add(next);
+                state = next;
+            }
+        }
+    }
+
+    // If a state is visited several times, then all moves between the first and the last visit are superfluous
+    private void removeLoops(final List<SokobanState> states, final List<Integer> moves) {
+        Map<SokobanState, Integer> lastVisit = new HashMap<>();
+        for (int i = 0; i < states.size(); i++) {
+            lastVisit.put(states.get(i), i);
+        }
+
+        List<SokobanState> remainingStates = new ArrayList<>();
+        List<Integer> remainingMoves = new ArrayList<>();
+        int index = 0;
+        while (true) {
+            index = lastVisit.getOrDefault(states.get(index), index);
+            remainingStates.add(states.get(index));
+            if (index == moves.size()) {
+                break;
+            }
+            remainingMoves.add(moves.get(index));
+            index++;
+        }
+
+        states.clear();
+        states.addAll(remainingStates);
+        moves.clear();
+        moves.addAll(remainingMoves);
+    }
+
+    // Replaces the moves of the window if there is a shorter path from the start to one of the following checkpoints
+    private boolean improveWindow(final SokobanBoard board, final int start,
+            final List<SokobanState> states, final List<Integer> moves) {
+        int end = Math.min(start + windowSize, moves.size());
+        Map<SokobanState, Integer> checkpoints = new HashMap<>();
+        for (int i = start + 1; i <= end; i++) {
+            checkpoints.put(states.get(i), i);
+        }
+
+        List<Node> shortcut = search(board, states.get(start), start, end, checkpoints);
+        if (shortcut.isEmpty()) {
+            return false;
+        }
+
+        int target = shortcut.get(shortcut.size() - 1).checkpoint;
+        states.subList(start + 1, target + 1).clear();
+        moves.subList(start, target).clear();
+        for (int i = 0; i < shortcut.size(); i++) {
+            states.add(start + 1 + i, shortcut.get(i).state);
+            moves.add(start + i, shortcut.get(i).direction);
+        }
+        return true;
+    }
+
+    // Breadth-first search that uses the list of visited nodes as queue, returns the nodes of the shortcut (if any)
+    private List<Node> search(final SokobanBoard board, final SokobanState from, final int start, final int end,
+            final Map<SokobanState, Integer> checkpoints) {
+        List<Node> nodes = new ArrayList<>();
+        Set<SokobanState> visited = new HashSet<>();
+        nodes.add(new Node(from, NO_PARENT, -1, 0, NO_CHECKPOINT));
+        visited.add(from);
+
+        SearchProbe probe = statistics.startSearch();
+        int best = NO_PARENT;
+        int bestSaving = 0;
+        try {
+            for (int index = 0; index < nodes.size() && nodes.size() < maxNodesPerWindow; index++) {
+                Node node = nodes.get(index);
+                if (end - start - node.depth - 1 <= bestSaving) {
+                    break; // no shorter path possible anymore
+                }
+                probe.expanded(nodes.size() - index - 1);
+                for (int direction = 0; direction < SokobanBoard.DIRECTIONS.length; direction++) {
+                    SokobanState next = node.state.move(board, direction);
+                    if (visited.add(next)) {
+                        probe.generated();
+                        Node child = new Node(next, index, direction, node.depth + 1,
+                                checkpoints.getOrDefault(next, NO_CHECKPOINT));
+                        nodes.add(child);
+                        if (child.checkpoint - start - child.depth > bestSaving) {
+                            best = nodes.size() - 1;
+                            bestSaving = child.checkpoint - start - child.depth;
+                        }
+                    }
+                    else {
+                        probe.duplicate();
+                    }
+                }
+            }
+        }
+        finally {
+            probe.finish();
+        }
+
+        List<Node> path = new ArrayList<>();
+        for (int index = best; index > 0; index = nodes.get(index).parent) {
+            path.add(0, nodes.get(index));
+        }
+        return path;
+    }
+
+    /**
+     * A node of the search tree.
+     */
+    private static class Node {
+        private final SokobanState state;
+        private final int parent;
+        private final int direction;
+        private final int depth;
+        private final int checkpoint;
+
+        Node(final SokobanState state, final int parent, final int direction, final int depth,
+                final int checkpoint) {
+            this.state = state;
+            this.parent = parent;
+            this.direction = direction;
+            this.depth = depth;
+            this.checkpoint = checkpoint;
+        }
+    }
+}
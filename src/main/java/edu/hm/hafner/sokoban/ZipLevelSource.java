@@ -0,0 +1,84 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Provides the collection files of a zipped bundle. The zip file is opened on the first access and remains open until
+ * the source is closed.
+ *
+ * @author Ullrich Hafner
+ */
+class ZipLevelSource extends AbstractLevelSource {
+    private final Path bundle;
+    private final Object lock = new Object();
+    private Optional<ZipFile> zip = Optional.empty();
+
+    ZipLevelSource(final Path bundle) {
+        super();
+
+        this.bundle = bundle;
+    }
+
+    @Override
+    protected Stream<String> listCollections() {
+        return getZip().stream().filter(entry -> !entry.isDirectory()).map(ZipEntry::getName);
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CloseResource") // will be closed when the source is closed
+    protected Optional<InputStream> openCollection(final String collection) {
+        ZipFile file = getZip();
+        ZipEntry entry = file.getEntry(collection);
+        if (entry == null || entry.isDirectory()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(file.getInputStream(entry));
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private ZipFile getZip() {
+        synchronized (lock) {
+            if (!zip.isPresent()) {
+                zip = Optional.of(open());
+            }
+            return zip.get();
+        }
+    }
+
+    private ZipFile open() {
+        try {
+            return new ZipFile(bundle.toFile());
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            try {
+                if (zip.isPresent()) {
+                    zip.get().close();
+                }
+            }
+            catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            finally {
+                zip = Optional.empty();
+            }
+        }
+    }
+}
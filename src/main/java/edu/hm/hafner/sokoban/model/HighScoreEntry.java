@@ -58,10 +58,21 @@ public final class HighScoreEntry {
         return numberOfAttempts;
     }
 
+    @JsonIgnore
     public List<Orientation> getSolution() {
         return solution;
     }
 
+    /**
+     * Returns the solution in the compact format of {@link MoveCodec}, converted to Base64. The JSON representation of
+     * an entry contains the solution in this format only.
+     *
+     * @return the encoded solution
+     */
+    public String getEncodedSolution() {
+        return MoveCodec.toBase64(solution);
+    }
+
     public String getTimestamp() {
         return LocalDateTime.ofInstant(timestamp, ZoneId.of("UTC")).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
     }
@@ -147,6 +158,19 @@ public final class HighScoreEntry {
             return this;
         }
 
+        /**
+         * Sets the solution from the compact format, see {@link HighScoreEntry#getEncodedSolution()}.
+         *
+         * @param encodedSolution
+         *         the solution in the format of {@link MoveCodec}, converted to Base64
+         *
+         * @return this builder
+         */
+        public HighScoreEntryBuilder withEncodedSolution(final String encodedSolution) {
+            this.solution = MoveCodec.fromBase64(encodedSolution);
+            return this;
+        }
+
         public HighScoreEntry build() {
             return new HighScoreEntry(levelName, playerName, numberOfMoves, numberOfAttempts, solution, timestamp);
         }
@@ -0,0 +1,263 @@
+package edu.hm.hafner.sokoban.model;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes the moves of a solution into a compact binary format. Each move is stored with 2 bits, hence 4 moves fit into
+ * a byte. Since solutions often move the player several times in the same direction, runs of equal moves are
+ * alternatively stored with one byte per run (2 bits for the direction and 6 bits for the length of the run). The
+ * encoder chooses the shorter of both representations.
+ *
+ * <p>
+ * The encoded moves start with the format (1 byte) and the number of moves (variable length, 7 bits per byte),
+ * followed by the packed moves or the runs. For textual formats like JSON, the encoded moves are converted to Base64,
+ * see {@link #toBase64(List)}.
+ * </p>
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.GodClass")
+public final class MoveCodec {
+    // in the order of the constants of Orientation, so that the ordinal is the index of the direction
+    private static final Orientation[] DIRECTIONS = {Orientation.LEFT, Orientation.RIGHT, Orientation.UP,
+            Orientation.DOWN};
+    private static final byte PACKED = 0;
+    private static final byte RUN_LENGTH = 1;
+    private static final int MOVES_PER_BYTE = 4;
+    private static final int BITS_PER_MOVE = 2;
+    private static final int MOVE_MASK = 3;
+    private static final int MAX_RUN_LENGTH = 64;
+    private static final int VARIABLE_LENGTH_BITS = 7;
+    private static final int VARIABLE_LENGTH_MASK = 0x7F;
+    private static final int CONTINUATION = 0x80;
+
+    private MoveCodec() {
+        // prevents instantiation
+    }
+
+    /**
+     * Encodes the specified moves.
+     *
+     * @param moves
+     *         the moves to encode
+     *
+     * @return the encoded moves
+     * @throws IllegalArgumentException
+     *         if the moves contain an orientation that is not a movement
+     */
+    public static byte[] encode(final List<Orientation> moves) {
+        int[] directions = toDirections(moves);
+        int packedSize = (directions.length + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE;
+        int runLengthSize = countRunBytes(directions);
+
+        byte[] length = toVariableLength(directions.length);
+        boolean isRunLength = runLengthSize < packedSize;
+        byte[] encoded = new byte[1 + length.length + (isRunLength ? runLengthSize : packedSize)];
+        encoded[0] = isRunLength ? RUN_LENGTH : PACKED;
+        System.arraycopy(length, 0, encoded, 1, length.length);
+        if (isRunLength) {
+            writeRuns(directions, encoded, 1 + length.length);
+        }
+        else {
+            writePacked(directions, encoded, 1 + length.length);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes moves that have been encoded with {@link #encode(List)}.
+     *
+     * @param encoded
+     *         the encoded moves
+     *
+     * @return the moves
+     * @throws IllegalArgumentException
+     *         if the encoded moves are malformed
+     */
+    public static List<Orientation> decode(final byte[] encoded) {
+        if (encoded.length == 0) {
+            throw new IllegalArgumentException("Encoded moves are empty");
+        }
+        int position = 1;
+        while (position < encoded.length && (encoded[position] & CONTINUATION) != 0) {
+            position++;
+        }
+        int moveCount = readVariableLength(encoded, position);
+        position++;
+        if (encoded[0] == PACKED) {
+            return readPacked(encoded, position, moveCount);
+        }
+        if (encoded[0] == RUN_LENGTH) {
+            return readRuns(encoded, position, moveCount);
+        }
+        throw new IllegalArgumentException("Unknown format of encoded moves: " + encoded[0]);
+    }
+
+    /**
+     * Encodes the specified moves and converts the result to Base64.
+     *
+     * @param moves
+     *         the moves to encode
+     *
+     * @return the encoded moves in Base64
+     */
+    public static String toBase64(final List<Orientation> moves) {
+        return Base64.getEncoder().encodeToString(encode(moves));
+    }
+
+    /**
+     * Decodes moves that have been encoded with {@link #toBase64(List)}.
+     *
+     * @param base64
+     *         the encoded moves in Base64
+     *
+     * @return the moves
+     * @throws IllegalArgumentException
+     *         if the encoded moves are malformed
+     */
+    public static List<Orientation> fromBase64(final String base64) {
+        return decode(Base64.getDecoder().decode(base64));
+    }
+
+    /**
+     * Packs the specified moves with 2 bits per move. In contrast to {@link #encode(List)}, the number of moves is not
+     * stored.
+     *
+     * @param moves
+     *         the moves to pack
+     *
+     * @return the packed moves
+     */
+    public static byte[] pack(final List<Orientation> moves) {
+        int[] directions = toDirections(moves);
+        byte[] packed = new byte[(directions.length + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE];
+        writePacked(directions, packed, 0);
+        return packed;
+    }
+
+    /**
+     * Unpacks moves that have been packed with {@link #pack(List)}.
+     *
+     * @param packed
+     *         the packed moves
+     * @param moveCount
+     *         the number of moves
+     *
+     * @return the moves
+     */
+    public static List<Orientation> unpack(final byte[] packed, final int moveCount) {
+        return readPacked(packed, 0, moveCount);
+    }
+
+    private static int[] toDirections(final List<Orientation> moves) {
+        int[] directions = new int[moves.size()];
+        for (int i = 0; i < directions.length; i++) {
+            Orientation move = moves.get(i);
+            if (move == Orientation.SOLVED) {
+                throw new IllegalArgumentException("Orientation is not a movement: " + move);
+            }
+            directions[i] = move.ordinal();
+        }
+        return directions;
+    }
+
+    // Reads the number that ends at the specified position
+    private static int readVariableLength(final byte[] input, final int end) {
+        if (end >= input.length || end > (Integer.SIZE + VARIABLE_LENGTH_BITS - 1) / VARIABLE_LENGTH_BITS) {
+            throw new IllegalArgumentException("Encoded moves contain no valid number of moves");
+        }
+        int value = 0;
+        for (int position = end; position > 0; position--) {
+            value = value << VARIABLE_LENGTH_BITS | (input[position] & VARIABLE_LENGTH_MASK);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Encoded moves contain a negative number of moves");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("PMD.UseVarargs")
+    private static int countRunBytes(final int[] directions) {
+        int count = 0;
+        int length = 0;
+        for (int i = 0; i < directions.length; i++) {
+            if (i == 0 || directions[i] != directions[i - 1] || length == MAX_RUN_LENGTH) {
+                count++;
+                length = 0;
+            }
+            length++;
+        }
+        return count;
+    }
+
+    private static byte[] toVariableLength(final int number) {
+        byte[] buffer = new byte[(Integer.SIZE + VARIABLE_LENGTH_BITS - 1) / VARIABLE_LENGTH_BITS];
+        int length = 0;
+        int value = number;
+        do {
+            int bits = value & VARIABLE_LENGTH_MASK;
+            value >>>= VARIABLE_LENGTH_BITS;
+            buffer[length++] = (byte) (value == 0 ? bits : bits | CONTINUATION);
+        }
+        while (value != 0);
+
+        byte[] encoded = new byte[length];
+        System.arraycopy(buffer, 0, encoded, 0, length);
+        return encoded;
+    }
+
+    @SuppressWarnings("PMD.UseVarargs")
+    private static void writePacked(final int[] directions, final byte[] output, final int offset) {
+        for (int i = 0; i < directions.length; i++) {
+            int index = offset + i / MOVES_PER_BYTE;
+            output[index] = (byte) (output[index] | directions[i] << (i % MOVES_PER_BYTE * BITS_PER_MOVE));
+        }
+    }
+
+    // Writes each run as a byte: bits 0-1 contain the direction, bits 2-7 contain the length of the run minus 1
+    @SuppressWarnings("PMD.UseVarargs")
+    private static void writeRuns(final int[] directions, final byte[] output, final int offset) {
+        int position = offset;
+        int start = 0;
+        while (start < directions.length) {
+            int end = start + 1;
+            while (end < directions.length && directions[end] == directions[start] && end - start < MAX_RUN_LENGTH) {
+                end++;
+            }
+            output[position++] = (byte) ((end - start - 1) << BITS_PER_MOVE | directions[start]);
+            start = end;
+        }
+    }
+
+    private static List<Orientation> readPacked(final byte[] input, final int offset, final int moveCount) {
+        if (input.length - offset < (moveCount + MOVES_PER_BYTE - 1) / MOVES_PER_BYTE) {
+            throw new IllegalArgumentException("Encoded moves are truncated");
+        }
+        List<Orientation> moves = new ArrayList<>(moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            int direction = input[offset + i / MOVES_PER_BYTE] >> (i % MOVES_PER_BYTE * BITS_PER_MOVE) & MOVE_MASK;
+            moves.add(DIRECTIONS[direction]);
+        }
+        return moves;
+    }
+
+    private static List<Orientation> readRuns(final byte[] input, final int offset, final int moveCount) {
+        if (moveCount > (long) MAX_RUN_LENGTH * (input.length - offset)) {
+            throw new IllegalArgumentException("Encoded moves are truncated");
+        }
+        List<Orientation> moves = new ArrayList<>(moveCount);
+        for (int position = offset; moves.size() < moveCount; position++) {
+            if (position >= input.length) {
+                throw new IllegalArgumentException("Encoded moves are truncated");
+            }
+            Orientation direction = DIRECTIONS[input[position] & MOVE_MASK];
+            int length = (input[position] & 0xFF) >>> BITS_PER_MOVE;
+            for (int i = 0; i <= length && moves.size() < moveCount; i++) {
+                moves.add(direction);
+            }
+        }
+        return moves;
+    }
+}
@@ -1,5 +1,7 @@
 package edu.hm.hafner.sokoban;
 
+import com.tngtech.archunit.core.importer.ImportOption;
+import com.tngtech.archunit.core.importer.Location;
 import com.tngtech.archunit.junit.AnalyzeClasses;
 import com.tngtech.archunit.junit.ArchTest;
 import com.tngtech.archunit.lang.ArchRule;
@@ -12,7 +14,7 @@ import edu.hm.hafner.util.ArchitectureRules;
  * @author Ullrich Hafner
  */
 @SuppressWarnings("hideutilityclassconstructor")
-@AnalyzeClasses(packages = "edu.hm.hafner..")
+@AnalyzeClasses(packages = "edu.hm.hafner..", importOptions = ArchitectureTest.DoNotIncludeGeneratedBenchmarks.class)
 class ArchitectureTest {
     @ArchTest
     static final ArchRule NO_PUBLIC_TEST_CLASSES = ArchitectureRules.NO_PUBLIC_TEST_CLASSES;
@@ -25,4 +27,14 @@ class ArchitectureTest {
 
     @ArchTest
     static final ArchRule NO_FORBIDDEN_CLASSES_CALLED = ArchitectureRules.NO_FORBIDDEN_CLASSES_CALLED;
+
+    /**
+     * Skips the classes that the JMH annotation processor generates for the benchmarks.
+     */
+    static class DoNotIncludeGeneratedBenchmarks implements ImportOption {
+        @Override
+        public boolean includes(final Location location) {
+            return !location.contains("/generated/");
+        }
+    }
 }
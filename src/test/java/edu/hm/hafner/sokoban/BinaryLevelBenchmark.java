@@ -0,0 +1,95 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the number of levels per second that are created by {@link SokobanReader} from the ASCII format and by
+ * {@link BinaryLevelReader} from the binary format. Run the benchmark by starting the main method after the test
+ * classes have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryLevelBenchmark {
+    private static final List<String> MINI_COSMOS = Arrays.asList(
+            ":: Author: Aymeric du Peloux",
+            "  #####",
+            "###   #",
+            "# $ # ##",
+            "# #  . #",
+            "#    # #",
+            "## #   #",
+            " #@  ###",
+            " #####");
+
+    private final SokobanReader asciiReader = new SokobanReader();
+    private final BinaryLevelReader binaryReader = new BinaryLevelReader();
+    private final byte[] binary;
+
+    /**
+     * Starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BinaryLevelBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Creates the "minicosmos" level in the binary format.
+     */
+    public BinaryLevelBenchmark() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryLevelWriter().write(Collections.singletonList(asciiReader.read("Mini Cosmos", MINI_COSMOS)), output);
+        binary = output.toByteArray();
+    }
+
+    /**
+     * Reads and validates the level in ASCII format.
+     *
+     * @return the level
+     */
+    @Benchmark
+    public AbstractSokobanModel readAscii() {
+        SokobanGameModel level = asciiReader.read("Mini Cosmos", MINI_COSMOS);
+        level.validate();
+        return level;
+    }
+
+    /**
+     * Reads and validates the level in binary format.
+     *
+     * @return the level
+     */
+    @Benchmark
+    public AbstractSokobanModel readBinary() {
+        return binaryReader.read(ByteBuffer.wrap(binary)).get(0);
+    }
+}
@@ -0,0 +1,132 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link BinaryLevelReader}, {@link BinaryLevelWriter}, and {@link BinaryLevelConverter}.
+ *
+ * @author Ullrich Hafner
+ */
+class BinaryLevelReaderTest {
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that levels are unchanged after writing and reading them. */
+    @Test
+    void shouldReadWrittenLevels() {
+        AbstractSokobanModel demo = SokobanSolverTest.createLevel();
+        AbstractSokobanModel asymmetric = new SokobanReader().read("Äsymmetric", Arrays.asList(
+                "####", "# .#", "#  ###", "#*@  #", "#  $ #", "#  ###", "####"));
+
+        List<SokobanGameModel> levels = read(write(Arrays.asList(demo, asymmetric)));
+
+        assertThat(levels).hasSize(2);
+        assertThatLevelsAreEqual(levels.get(0), demo);
+        assertThatLevelsAreEqual(levels.get(1), asymmetric);
+    }
+
+    /** Verifies that the binary format is more compact than the ASCII format. */
+    @Test
+    void shouldCreateCompactFormat() {
+        byte[] binary = write(Arrays.asList(SokobanSolverTest.createLevel()));
+
+        assertThat(binary.length).isLessThan(8 * 9);
+    }
+
+    /** Verifies that invalid content is rejected. */
+    @Test
+    void shouldRejectInvalidContent() {
+        byte[] binary = write(Arrays.asList(SokobanSolverTest.createLevel()));
+        BinaryLevelReader reader = new BinaryLevelReader();
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> reader.read(ByteBuffer.wrap(Arrays.copyOf(binary, binary.length - 3))))
+                .withMessageContaining("truncated");
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> reader.read(ByteBuffer.wrap("Sokoban".getBytes(StandardCharsets.UTF_8))))
+                .withMessageContaining("binary format");
+    }
+
+    /** Verifies that levels with invalid dimensions or positions are rejected. */
+    @Test
+    void shouldRejectInvalidDimensions() {
+        byte[] binary = write(Arrays.asList(SokobanSolverTest.createLevel()));
+        int widthOffset = 4 + 1 + 1 + 2 + SokobanSolverTest.createLevel().getName().getBytes(StandardCharsets.UTF_8).length;
+
+        byte[] withoutWidth = Arrays.copyOf(binary, binary.length);
+        withoutWidth[widthOffset] = 0;
+        withoutWidth[widthOffset + 1] = 0;
+        assertThatIllegalArgumentException().isThrownBy(() -> read(withoutWidth))
+                .withMessageContaining("Invalid size");
+
+        byte[] withHugeHeight = Arrays.copyOf(binary, binary.length);
+        withHugeHeight[widthOffset + 2] = (byte) 0xFF;
+        withHugeHeight[widthOffset + 3] = (byte) 0xFF;
+        assertThatIllegalArgumentException().isThrownBy(() -> read(withHugeHeight))
+                .withMessageContaining("truncated");
+    }
+
+    /** Verifies that long names are truncated without splitting a UTF-8 character. */
+    @Test
+    void shouldTruncateLongNames() {
+        char[] prefix = new char[BinaryLevelWriter.MAX_DIMENSION - 1];
+        Arrays.fill(prefix, 'a');
+        String name = new String(prefix) + "ÄÖ";
+        AbstractSokobanModel level = new SokobanReader().read(name, Arrays.asList("#####", "#@$.#", "#####"));
+
+        List<SokobanGameModel> levels = read(write(Arrays.asList(level)));
+
+        assertThat(levels.get(0).getName()).isEqualTo(new String(prefix));
+    }
+
+    /** Verifies that a collection in ASCII format is converted to the binary format. */
+    @Test
+    void shouldConvertCollection() throws IOException {
+        Path collection = folder.resolve("collection.sok");
+        Files.write(collection, Arrays.asList(
+                ":: Title: First", "#####", "#@$.#", "#####", "",
+                ":: Title: Second", "######", "#@ $.#", "######"), StandardCharsets.UTF_8);
+
+        BinaryLevelConverter.main(collection.toString());
+
+        List<SokobanGameModel> levels = new BinaryLevelReader().read(folder.resolve("collection.sokb"));
+        assertThat(levels).extracting(AbstractSokobanModel::getName).containsExactly("First", "Second");
+        assertThat(levels.get(1).getTreasures()).containsExactly(new Point(3, 1));
+    }
+
+    private byte[] write(final List<AbstractSokobanModel> levels) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BinaryLevelWriter().write(levels, output);
+        return output.toByteArray();
+    }
+
+    private List<SokobanGameModel> read(final byte[] binary) {
+        return new BinaryLevelReader().read(ByteBuffer.wrap(binary));
+    }
+
+    private void assertThatLevelsAreEqual(final AbstractSokobanModel actual, final AbstractSokobanModel expected) {
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        assertThat(actual.getPlayer()).isEqualTo(expected.getPlayer());
+        assertThat(actual.getTreasures()).isEqualTo(expected.getTreasures());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                Point point = new Point(x, y);
+                assertThat(actual.getField(point)).as("Field %s", point).isEqualTo(expected.getField(point));
+            }
+        }
+    }
+}
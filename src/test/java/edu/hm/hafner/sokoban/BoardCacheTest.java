@@ -0,0 +1,82 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.BoardCache.CachedBoard;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link BoardCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class BoardCacheTest {
+    private static final long TIME_TO_LIVE = 100;
+
+    /** Verifies that boards expire after the time to live and can be revalidated. */
+    @Test
+    void shouldExpireBoards() {
+        AtomicLong clock = new AtomicLong();
+        BoardCache cache = new BoardCache(2, TIME_TO_LIVE, clock::get);
+
+        CachedBoard board = cache.put("Level", Collections.singletonList(new HighScoreEntryBuilder().build()),
+                Optional.of("\"tag\""), cache.getGeneration());
+        assertThat(cache.isFresh(board)).isTrue();
+        assertThat(board.getEntityTag()).contains("\"tag\"");
+
+        clock.addAndGet(TIME_TO_LIVE);
+        assertThat(cache.isFresh(board)).isFalse();
+        assertThat(cache.get("Level")).contains(board);
+
+        CachedBoard revalidated = cache.revalidate("Level", board, cache.getGeneration());
+        assertThat(cache.isFresh(revalidated)).isTrue();
+        assertThat(revalidated.getEntries()).isEqualTo(board.getEntries());
+    }
+
+    /** Verifies that the least recently used board is evicted. */
+    @Test
+    void shouldEvictLeastRecentlyUsedBoard() {
+        BoardCache cache = new BoardCache(2, TIME_TO_LIVE);
+
+        cache.put("First", Collections.emptyList(), Optional.empty(), cache.getGeneration());
+        cache.put("Second", Collections.emptyList(), Optional.empty(), cache.getGeneration());
+        cache.get("First");
+        cache.put("Third", Collections.emptyList(), Optional.empty(), cache.getGeneration());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("Second")).isEmpty();
+        assertThat(cache.get("First")).isPresent();
+
+        cache.invalidate("First");
+        assertThat(cache.get("First")).isEmpty();
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    /** Verifies that a board that has been requested before an invalidation is not stored. */
+    @Test
+    void shouldDropBoardsRequestedBeforeInvalidation() {
+        BoardCache cache = new BoardCache(2, TIME_TO_LIVE);
+
+        long generation = cache.getGeneration();
+        cache.invalidate("Level");
+        CachedBoard stale = cache.put("Level", Collections.emptyList(), Optional.empty(), generation);
+
+        assertThat(stale.getEntries()).isEmpty();
+        assertThat(cache.get("Level")).isEmpty();
+
+        generation = cache.getGeneration();
+        cache.invalidateAll();
+        cache.revalidate("Level", stale, generation);
+        assertThat(cache.get("Level")).isEmpty();
+
+        cache.put("Level", Collections.emptyList(), Optional.empty(), cache.getGeneration());
+        assertThat(cache.get("Level")).isPresent();
+    }
+}
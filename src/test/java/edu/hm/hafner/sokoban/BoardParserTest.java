@@ -0,0 +1,139 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link BoardParser}.
+ *
+ * @author Ullrich Hafner
+ */
+class BoardParserTest {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.UP);
+    private static final String BOARD = "[{\"playerName\":\"Ulli\",\"levelName\":\"Level\",\"numberOfMoves\":3,"
+            + "\"numberOfAttempts\":2,\"timestamp\":\"2020-05-01T10:15:30\",\"solution\":[\"LEFT\",\"UP\"]},"
+            + "{\"playerName\":\"Hafner\",\"unknown\":{\"nested\":[1,2]},\"numberOfMoves\":4,"
+            + "\"encodedSolution\":\"" + MoveCodec.toBase64(SOLUTION) + "\"}]";
+
+    /** Verifies that all properties of the entries are read. */
+    @Test
+    void shouldReadEntries() throws IOException {
+        try (Stream<HighScoreEntry> board = BoardParser.stream(FACTORY, toStream(BOARD),
+                /* isReadingSolutions= */ true)) {
+            List<HighScoreEntry> entries = board.collect(Collectors.toList());
+
+            assertThat(entries).hasSize(2);
+            HighScoreEntry first = entries.get(0);
+            assertThat(first.getPlayerName()).isEqualTo("Ulli");
+            assertThat(first.getLevelName()).isEqualTo("Level");
+            assertThat(first.getNumberOfMoves()).isEqualTo(3);
+            assertThat(first.getNumberOfAttempts()).isEqualTo(2);
+            assertThat(first.getTimestamp()).isEqualTo("2020-05-01T10:15:30");
+            assertThat(first.getSolution()).isEqualTo(SOLUTION);
+            assertThat(entries.get(1).getPlayerName()).isEqualTo("Hafner");
+            assertThat(entries.get(1).getSolution()).isEqualTo(SOLUTION);
+        }
+    }
+
+    /** Verifies that only the first format of a solution is decoded if an entry contains the solution twice. */
+    @Test
+    void shouldDecodeFirstSolutionOnly() throws IOException {
+        String board = "[{\"playerName\":\"Array\",\"solution\":[\"LEFT\",\"UP\"],"
+                + "\"encodedSolution\":\"not base64\"},"
+                + "{\"playerName\":\"Encoded\",\"encodedSolution\":\"" + MoveCodec.toBase64(SOLUTION) + "\","
+                + "\"solution\":[\"JUMP\"]}]";
+
+        try (Stream<HighScoreEntry> entries = BoardParser.stream(FACTORY, toStream(board),
+                /* isReadingSolutions= */ true)) {
+            assertThat(entries.collect(Collectors.toList())).hasSize(2)
+                    .allSatisfy(entry -> assertThat(entry.getSolution()).isEqualTo(SOLUTION));
+        }
+    }
+
+    /** Verifies that the solutions are skipped if not requested. */
+    @Test
+    void shouldSkipSolutions() throws IOException {
+        try (Stream<HighScoreEntry> board = BoardParser.stream(FACTORY, toStream(BOARD),
+                /* isReadingSolutions= */ false)) {
+            assertThat(board.collect(Collectors.toList())).hasSize(2)
+                    .allSatisfy(entry -> assertThat(entry.getSolution()).isEmpty())
+                    .extracting(HighScoreEntry::getNumberOfMoves).containsExactly(3, 4);
+        }
+    }
+
+    /** Verifies that reading stops after the requested number of entries. */
+    @Test
+    void shouldStopReadingEarly() throws IOException {
+        String board = IntStream.range(0, 10_000)
+                .mapToObj(i -> "{\"playerName\":\"Player " + i + "\",\"solution\":[\"LEFT\",\"UP\",\"DOWN\"]}")
+                .collect(Collectors.joining(",", "[", "]"));
+        byte[] content = board.getBytes(StandardCharsets.UTF_8);
+        AtomicInteger read = new AtomicInteger();
+        InputStream input = new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                read.addAndGet(Math.max(count, 0));
+                return count;
+            }
+        };
+
+        try (Stream<HighScoreEntry> entries = BoardParser.stream(FACTORY, input, /* isReadingSolutions= */ true)) {
+            assertThat(entries.limit(3).map(HighScoreEntry::getPlayerName))
+                    .containsExactly("Player 0", "Player 1", "Player 2");
+        }
+        assertThat(read.get()).isLessThan(content.length / 10);
+    }
+
+    /** Verifies that invalid solutions are reported and that the following entries are still read. */
+    @Test
+    void shouldRejectInvalidSolutions() throws IOException {
+        String board = "[{\"playerName\":\"Array\","
+                + "\"solution\":[\"LEFT\",{\"move\":\"UP\"},[1],\"JUMP\",\"UP\"],\"numberOfMoves\":4},"
+                + "{\"playerName\":\"Encoded\",\"encodedSolution\":\"not base64\"},"
+                + "{\"playerName\":\"Valid\",\"solution\":[\"LEFT\",\"UP\"]}]";
+
+        try (Stream<HighScoreEntry> entries = BoardParser.stream(FACTORY, toStream(board),
+                /* isReadingSolutions= */ true)) {
+            Iterator<HighScoreEntry> iterator = entries.iterator();
+
+            assertThatIllegalStateException().isThrownBy(iterator::hasNext).withMessageContaining("JUMP");
+            assertThatIllegalStateException().isThrownBy(iterator::hasNext)
+                    .withCauseInstanceOf(IllegalArgumentException.class);
+            assertThat(iterator.next().getSolution()).isEqualTo(SOLUTION);
+            assertThat(iterator.hasNext()).isFalse();
+        }
+    }
+
+    /** Verifies that an error of the server is reported. */
+    @Test
+    void shouldRejectResponseWithoutBoard() {
+        assertThatIllegalStateException().isThrownBy(
+                () -> BoardParser.stream(FACTORY, toStream("{error}"), /* isReadingSolutions= */ true));
+    }
+
+    private InputStream toStream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
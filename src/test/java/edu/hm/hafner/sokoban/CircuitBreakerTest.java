@@ -0,0 +1,68 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.CircuitBreaker.State;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CircuitBreaker}.
+ *
+ * @author Ullrich Hafner
+ */
+class CircuitBreakerTest {
+    private static final long OPEN_MILLIS = 1000;
+
+    /** Verifies that the breaker opens after the threshold and permits a trial call afterwards. */
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        AtomicLong clock = new AtomicLong(10_000);
+        CircuitBreaker breaker = new CircuitBreaker(3, OPEN_MILLIS, clock::get);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getRemainingOpenMillis()).isZero();
+
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.getRemainingOpenMillis()).isEqualTo(OPEN_MILLIS);
+
+        clock.addAndGet(400);
+        assertThat(breaker.getRemainingOpenMillis()).isEqualTo(600);
+
+        clock.addAndGet(600);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.getRemainingOpenMillis()).isZero();
+
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        clock.addAndGet(OPEN_MILLIS);
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    /** Verifies that a success resets the number of consecutive failures. */
+    @Test
+    void shouldResetFailuresAfterSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker(2, OPEN_MILLIS);
+
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        breaker.recordFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    /** Verifies that an invalid threshold is rejected. */
+    @Test
+    void shouldRejectInvalidThreshold() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CircuitBreaker(0, OPEN_MILLIS));
+    }
+}
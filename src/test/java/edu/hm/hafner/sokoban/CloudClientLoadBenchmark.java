@@ -0,0 +1,133 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.sokoban.BoardQuery.BoardQueryBuilder;
+import edu.hm.hafner.sokoban.CloudClientProfile.CloudClientProfileBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Measures the latency of {@link CloudHighScoreService} requests while {@value #CLIENT_COUNT} clients send requests
+ * concurrently to a local stub server (see {@link HighScoreStubServer}). All clients share one service and therefore
+ * one {@link CloudClientProfile}. The benchmark samples the time of each request, so the results show the latency
+ * percentiles (p50, p90, p99, ...) for each combination of the maximum number of concurrent requests, the number of
+ * idle connections in the pool, and the compression of the request bodies. The board of the stub server contains 100
+ * entries and is read without the cache of boards. Run the benchmark by starting the main method after the test
+ * classes have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(CloudClientLoadBenchmark.CLIENT_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudClientLoadBenchmark {
+    static final int CLIENT_COUNT = 128;
+
+    private static final int ENTRY_COUNT = 100;
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.LEFT,
+            Orientation.UP, Orientation.RIGHT, Orientation.DOWN, Orientation.DOWN, Orientation.LEFT, Orientation.UP);
+    private static final BoardQuery QUERY = new BoardQueryBuilder().withLevelName("Level").build();
+
+    @Param({"16", "128"})
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    int maxRequests;
+
+    @Param({"0", "32"})
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    int maxIdleConnections;
+
+    @Param({"false", "true"})
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    boolean isCompressingRequests;
+
+    private final HighScoreStubServer server = new HighScoreStubServer();
+    private CloudHighScoreService service = server.createServiceBuilder().build();
+
+    /**
+     * Starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CloudClientLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Fills the board of the stub server with {@value #ENTRY_COUNT} entries and creates the service with the profile
+     * of the current parameters.
+     */
+    @Setup(Level.Trial)
+    public void createService() {
+        server.setBoard(IntStream.range(0, ENTRY_COUNT)
+                .mapToObj(i -> String.format("{\"playerName\":\"Player %d\",\"levelName\":\"Level\","
+                        + "\"numberOfMoves\":%d,\"numberOfAttempts\":1,\"timestamp\":\"2020-05-01T10:15:30\","
+                        + "\"solution\":[\"LEFT\",\"LEFT\",\"UP\",\"RIGHT\",\"DOWN\",\"DOWN\",\"LEFT\",\"UP\"]}",
+                        i, i + SOLUTION.size()))
+                .collect(Collectors.joining(",", "[", "]")));
+
+        CloudClientProfileBuilder profile = new CloudClientProfileBuilder()
+                .withMaxRequests(maxRequests)
+                .withMaxIdleConnections(maxIdleConnections);
+        if (isCompressingRequests) {
+            profile.withCompressedRequests();
+        }
+        service = server.createServiceBuilder().withProfile(profile.build()).build();
+    }
+
+    /**
+     * Stops the stub server.
+     */
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Posts a solution.
+     */
+    @Benchmark
+    public void registerSolution() {
+        service.registerSolution("Player", "Level", SOLUTION.size(), 1, SOLUTION);
+    }
+
+    /**
+     * Reads the board of a level.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public List<HighScoreEntry> queryBoard() {
+        return service.getBoard(QUERY);
+    }
+}
@@ -0,0 +1,183 @@
+package edu.hm.hafner.sokoban;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.BoardQuery.BoardQueryBuilder;
+import edu.hm.hafner.sokoban.CloudClientProfile.CloudClientProfileBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import okhttp3.OkHttpClient;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CloudClientProfile}.
+ *
+ * @author Ullrich Hafner
+ */
+class CloudClientProfileTest {
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.UP);
+    private static final int TIMEOUT = 10;
+    private static final long BLOCKING_MILLIS = 200;
+
+    /** Verifies that the client is configured with the properties of the profile. */
+    @Test
+    void shouldConfigureClient() {
+        OkHttpClient client = new CloudClientProfileBuilder()
+                .withConnectTimeout(Duration.ofMillis(1500))
+                .withReadTimeout(Duration.ofSeconds(3))
+                .withWriteTimeout(Duration.ofSeconds(4))
+                .withMaxRequests(12)
+                .build()
+                .getClient();
+
+        assertThat(client.connectTimeoutMillis()).isEqualTo(1500);
+        assertThat(client.readTimeoutMillis()).isEqualTo(3000);
+        assertThat(client.writeTimeoutMillis()).isEqualTo(4000);
+        assertThat(client.dispatcher().getMaxRequests()).isEqualTo(12);
+        assertThat(client.dispatcher().getMaxRequestsPerHost()).isEqualTo(12);
+    }
+
+    /** Verifies that services with the same profile share the connection pool. */
+    @Test
+    void shouldShareConnections() {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            CloudClientProfile profile = new CloudClientProfileBuilder().build();
+
+            server.createServiceBuilder().withProfile(profile).build()
+                    .registerSolution("Ulli", "Level", 2, 1, SOLUTION);
+            server.createServiceBuilder().withProfile(profile).build()
+                    .registerSolution("Hafner", "Level", 2, 1, SOLUTION);
+
+            assertThat(profile.getClient().connectionPool().connectionCount()).isEqualTo(1);
+        }
+    }
+
+    /** Verifies that the bodies of the requests are compressed if enabled. */
+    @Test
+    void shouldCompressRequests() {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            server.createServiceBuilder()
+                    .withProfile(new CloudClientProfileBuilder().withCompressedRequests().build()).build()
+                    .registerSolution("Ulli", "Level", 2, 1, SOLUTION);
+            server.createServiceBuilder().build().registerSolution("Hafner", "Level", 2, 1, SOLUTION);
+
+            assertThat(server.getPostedEncodings()).containsExactly("gzip", "identity");
+            assertThat(server.getPostedBodies().get(0)).contains("\"playerName\":\"Ulli\"");
+            assertThat(server.getPostedBodies().get(1)).contains("\"playerName\":\"Hafner\"");
+        }
+    }
+
+    /** Verifies that the solutions are sent as array of moves only if enabled, since this multiplies the payload. */
+    @Test
+    void shouldSendSolutionArraysIfEnabled() {
+        List<Orientation> solution = IntStream.range(0, 200)
+                .mapToObj(move -> SokobanBoard.DIRECTIONS[move * 3 % SokobanBoard.DIRECTIONS.length])
+                .collect(Collectors.toList());
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            server.createServiceBuilder().build().registerSolution("Ulli", "Level", 200, 1, solution);
+            server.createServiceBuilder()
+                    .withProfile(new CloudClientProfileBuilder().withSolutionArrays().build()).build()
+                    .registerSolution("Ulli", "Level", 200, 1, solution);
+
+            String compact = server.getPostedBodies().get(0);
+            String legacy = server.getPostedBodies().get(1);
+            assertThat(compact).contains("\"encodedSolution\"").doesNotContain("\"solution\"");
+            assertThat(legacy).contains("\"encodedSolution\"", "\"solution\":[\"" + solution.get(0) + "\"");
+            assertThat(compact.length()).isLessThan(legacy.length() / 5);
+        }
+    }
+
+    /** Verifies that the number of concurrent requests is limited for synchronous calls. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldLimitConcurrentRequests() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder()
+                        .withProfile(new CloudClientProfileBuilder().withMaxRequests(2).build()).build()) {
+            server.setDelay(50);
+            BoardQuery query = new BoardQueryBuilder().withLevelName("Level").build();
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> requests = new ArrayList<>();
+                for (int thread = 0; thread < 8; thread++) {
+                    requests.add(executor.submit(() -> service.getBoard(query)));
+                }
+                for (Future<?> request : requests) {
+                    request.get(TIMEOUT, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(server.getMaxConcurrentRequests()).isEqualTo(2);
+            assertThat(server.getBoardQueries()).hasSize(8);
+        }
+    }
+
+    /** Verifies that a streamed response holds its slot until it is closed and that async calls are not limited. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldHoldSlotUntilBodyIsClosed() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder()
+                        .withProfile(new CloudClientProfileBuilder().withMaxRequests(1).build()).build()) {
+            server.setBoard("[]");
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                readBoardWhileStreaming(service, executor);
+            }
+            finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(server.getBoardQueries()).hasSize(2);
+            assertThat(server.getPostedBodies()).hasSize(1);
+        }
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private void readBoardWhileStreaming(final CloudHighScoreService service, final ExecutorService executor)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        BoardQuery query = new BoardQueryBuilder().withLevelName("Level").build();
+        Future<?> request;
+        try (Stream<HighScoreEntry> board = service.streamBoard("Level", /* isReadingSolutions= */ false)) {
+            service.submitSolution("Ulli", "Level", 2, 1, SOLUTION).get(TIMEOUT, TimeUnit.SECONDS);
+
+            request = executor.submit(() -> service.getBoard(query));
+            assertThatExceptionOfType(TimeoutException.class).isThrownBy(
+                    () -> request.get(BLOCKING_MILLIS, TimeUnit.MILLISECONDS));
+            assertThat(board).isEmpty();
+        }
+        request.get(TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /** Verifies that invalid properties are rejected. */
+    @Test
+    void shouldRejectInvalidProperties() {
+        CloudClientProfileBuilder builder = new CloudClientProfileBuilder();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.withConnectTimeout(Duration.ZERO));
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.withReadTimeout(Duration.ofSeconds(-1)));
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.withMaxRequests(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> builder.withMaxIdleConnections(-1));
+    }
+}
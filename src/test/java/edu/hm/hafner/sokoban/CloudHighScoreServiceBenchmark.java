@@ -0,0 +1,101 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+/**
+ * Measures the number of requests per second of {@link CloudHighScoreService} against a local stub server (see {@link
+ * HighScoreStubServer}), so the results show the overhead of the client rather than the latency of the network. The
+ * board of the stub server contains 100 entries. Run the benchmark by starting the main method after the test classes
+ * have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudHighScoreServiceBenchmark {
+    private static final int ENTRY_COUNT = 100;
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.LEFT,
+            Orientation.UP, Orientation.RIGHT, Orientation.DOWN, Orientation.DOWN, Orientation.LEFT, Orientation.UP);
+
+    private final HighScoreStubServer server = new HighScoreStubServer();
+    private final CloudHighScoreService service = server.createServiceBuilder().build();
+
+    /**
+     * Starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CloudHighScoreServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Fills the board of the stub server with {@value #ENTRY_COUNT} entries.
+     */
+    @Setup(Level.Trial)
+    public void createBoard() {
+        server.setBoard(IntStream.range(0, ENTRY_COUNT)
+                .mapToObj(i -> String.format("{\"playerName\":\"Player %d\",\"levelName\":\"Level\","
+                        + "\"numberOfMoves\":%d,\"numberOfAttempts\":1,\"timestamp\":\"2020-05-01T10:15:30\","
+                        + "\"solution\":[\"LEFT\",\"LEFT\",\"UP\",\"RIGHT\",\"DOWN\",\"DOWN\",\"LEFT\",\"UP\"]}",
+                        i, i + SOLUTION.size()))
+                .collect(Collectors.joining(",", "[", "]")));
+    }
+
+    /**
+     * Stops the stub server.
+     */
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Posts a solution.
+     */
+    @Benchmark
+    public void registerSolution() {
+        service.registerSolution("Player", "Level", SOLUTION.size(), 1, SOLUTION);
+    }
+
+    /**
+     * Reads the board of a level.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public List<HighScoreEntry> getBoard() {
+        return service.getBoard("Level");
+    }
+}
@@ -0,0 +1,257 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.sokoban.BoardQuery.BoardQueryBuilder;
+import edu.hm.hafner.sokoban.CloudHighScoreService.CloudHighScoreServiceBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CloudHighScoreService}.
+ *
+ * @author Ullrich Hafner
+ */
+class CloudHighScoreServiceTest {
+    private static final long TIME_TO_LIVE = 1000;
+    private static final int TIMEOUT = 10;
+    private static final String BOARD = "[{\"playerName\":\"Ulli\",\"levelName\":\"Level\",\"numberOfMoves\":3,"
+            + "\"numberOfAttempts\":2,\"timestamp\":\"2020-05-01T10:15:30\",\"solution\":[\"LEFT\",\"UP\",\"UP\"]}]";
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that a solution is posted as compact JSON with the encoded solution only. */
+    @Test
+    void shouldPostCompactJson() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            service.registerSolution("Ulli", "Level", 3, 2, Arrays.asList(Orientation.LEFT, Orientation.UP));
+            service.registerSolution("Hafner", "Level", 5, 1, Arrays.asList(Orientation.RIGHT));
+
+            assertThat(server.getPostedBodies()).hasSize(2).allSatisfy(body -> assertThat(body).doesNotContain("\n"));
+            assertThat(server.getPostedBodies().get(0)).contains("\"playerName\":\"Ulli\"",
+                    "\"encodedSolution\":\"" + MoveCodec.toBase64(Arrays.asList(Orientation.LEFT, Orientation.UP)) + "\"")
+                    .doesNotContain("\"solution\"");
+            assertThat(server.getPostedBodies().get(1)).contains("\"playerName\":\"Hafner\"", "\"numberOfMoves\":5");
+        }
+    }
+
+    /** Verifies that the entries of a board are streamed from the server. */
+    @Test
+    void shouldStreamBoard() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            server.setBoard(BOARD);
+
+            try (Stream<HighScoreEntry> board = service.streamBoard("Level", /* isReadingSolutions= */ false)) {
+                assertThat(board.collect(Collectors.toList())).hasSize(1)
+                        .allSatisfy(entry -> assertThat(entry.getSolution()).isEmpty());
+            }
+            try (Stream<HighScoreEntry> board = service.streamBoard("Level", /* isReadingSolutions= */ true)) {
+                assertThat(board.findFirst()).hasValueSatisfying(
+                        entry -> assertThat(entry.getSolution()).hasSize(3));
+            }
+            assertThat(server.getBoardQueries()).hasSize(2);
+        }
+    }
+
+    /** Verifies that a query is sent as parameters and that the page is selected from the response. */
+    @Test
+    void shouldQueryBoard() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            server.setBoard("[" + createEntry("Ulli", 3) + "," + createEntry("Hafner", 4) + ","
+                    + createEntry("Ulli", 5) + "," + createEntry("Ulli", 6) + "]");
+
+            assertThat(service.getBoard(new BoardQueryBuilder().withPlayerName("Ulli").withOffset(1).withLimit(1)
+                    .withoutSolutions().build()))
+                    .hasSize(1).allSatisfy(entry -> {
+                        assertThat(entry.getNumberOfMoves()).isEqualTo(5);
+                        assertThat(entry.getSolution()).isEmpty();
+                    });
+            assertThat(service.getBoard(new BoardQueryBuilder().withLevelName("Level").build()))
+                    .extracting(HighScoreEntry::getNumberOfMoves).containsExactly(3, 4, 5, 6);
+            assertThat(service.getBoard(new BoardQueryBuilder().withLevelName("Level").withOffset(1).withLimit(2)
+                    .build()))
+                    .extracting(HighScoreEntry::getNumberOfMoves).containsExactly(4, 5);
+            assertThat(server.getBoardQueries()).containsExactly(
+                    "levelName=all&playerName=Ulli&solutions=false", "levelName=Level",
+                    "levelName=Level&limit=3");
+        }
+    }
+
+    private static String createEntry(final String playerName, final int numberOfMoves) {
+        return "{\"playerName\":\"" + playerName + "\",\"levelName\":\"Level\",\"numberOfMoves\":"
+                + numberOfMoves + ",\"solution\":[\"LEFT\"]}";
+    }
+
+    /** Verifies that solutions in the compact format are read from the server. */
+    @Test
+    void shouldReadEncodedSolution() {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            List<Orientation> solution = Arrays.asList(Orientation.DOWN, Orientation.DOWN, Orientation.RIGHT);
+            server.setBoard("[{\"playerName\":\"Ulli\",\"levelName\":\"Level\",\"numberOfMoves\":3,"
+                    + "\"encodedSolution\":\"" + MoveCodec.toBase64(solution) + "\"}]");
+
+            assertThat(server.createServiceBuilder().build().getBestSolutionFor("Level")).isEqualTo(solution);
+        }
+    }
+
+    /** Verifies that the board of a level is read from the server. */
+    @Test
+    void shouldReadBoard() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            server.setBoard(BOARD);
+
+            List<HighScoreEntry> board = service.getBoard("Level");
+
+            assertThat(board).hasSize(1);
+            HighScoreEntry entry = board.get(0);
+            assertThat(entry.getPlayerName()).isEqualTo("Ulli");
+            assertThat(entry.getNumberOfMoves()).isEqualTo(3);
+            assertThat(entry.getTimestamp()).isEqualTo("2020-05-01T10:15:30");
+            assertThat(service.getBestSolutionFor("Level"))
+                    .containsExactly(Orientation.LEFT, Orientation.UP, Orientation.UP);
+        }
+    }
+
+    /** Verifies that the board of a level is printed with the printer as a table. */
+    @Test
+    void shouldPrintBoard() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            server.setBoard(BOARD);
+
+            List<String> lines = new ArrayList<>();
+            service.printBoard("Level", (format, args) -> lines.add(String.format(format, args)));
+
+            assertThat(lines).hasSize(7).allSatisfy(line -> assertThat(line).hasSize(75));
+            assertThat(lines.get(1)).startsWith("|Level ").endsWith(" |");
+            assertThat(lines.get(3)).startsWith("|Player ");
+            assertThat(lines.get(5)).startsWith("|Ulli ").contains("|        3|        2|");
+        }
+    }
+
+    /** Verifies that submitted solutions are kept in the journal until the server is available again. */
+    @Test
+    void shouldKeepSubmissionsInJournal() throws InterruptedException, ExecutionException, TimeoutException {
+        int port;
+        String url;
+        try (HighScoreStubServer stopped = new HighScoreStubServer()) {
+            port = stopped.getPort();
+            url = stopped.getUrl();
+        }
+
+        Path journal = folder.resolve("scores.journal");
+        try (CloudHighScoreService offline = new CloudHighScoreServiceBuilder().withServiceUrl(url)
+                .withJournal(journal).build()) {
+            assertThat(offline.submitSolution("Ulli", "Level", 2, 1, Arrays.asList(Orientation.LEFT, Orientation.UP)))
+                    .isNotDone();
+        }
+
+        try (HighScoreStubServer server = new HighScoreStubServer(port);
+                CloudHighScoreService online = server.createServiceBuilder().withJournal(journal).build()) {
+            CompletableFuture<Void> submission = online.submitSolution("Hafner", "Level", 3, 1,
+                    Arrays.asList(Orientation.LEFT, Orientation.UP, Orientation.UP));
+            submission.get(TIMEOUT, TimeUnit.SECONDS);
+
+            assertThat(server.getPostedBodies()).hasSize(2);
+            assertThat(server.getPostedBodies().get(0)).contains("\"playerName\":\"Ulli\"");
+            assertThat(server.getPostedBodies().get(1)).contains("\"playerName\":\"Hafner\"");
+        }
+    }
+
+    /** Verifies that fresh boards are served from the cache and stale boards are revalidated. */
+    @Test
+    void shouldCacheBoards() {
+        AtomicLong clock = new AtomicLong();
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder()
+                        .withBoardCache(new BoardCache(10, TIME_TO_LIVE, clock::get)).build()) {
+            server.setBoard(BOARD);
+
+            List<HighScoreEntry> board = service.getBoard("Level");
+            assertThat(service.getBoard("Level")).isSameAs(board);
+            assertThat(server.getBoardQueries()).hasSize(1);
+
+            clock.addAndGet(TIME_TO_LIVE);
+            assertThat(service.getBoard("Level")).isEqualTo(board);
+            assertThat(server.getBoardQueries()).hasSize(2);
+
+            clock.addAndGet(TIME_TO_LIVE);
+            server.setBoard("[]");
+            assertThat(service.getBoard("Level")).isEmpty();
+            assertThat(server.getBoardQueries()).hasSize(3);
+        }
+    }
+
+    /** Verifies that a cached board is invalidated if a new solution is registered. */
+    @Test
+    void shouldInvalidateBoardAfterRegistration() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            service.getBoard("Level");
+            service.getBoard("Other");
+            service.registerSolution("Ulli", "Level", 3, 2, Arrays.asList(Orientation.LEFT, Orientation.UP));
+            service.getBoard("Level");
+            service.getBoard("Other");
+
+            assertThat(server.getBoardQueries()).containsExactly(
+                    "levelName=Level", "levelName=Other", "levelName=Level");
+        }
+    }
+
+    /** Verifies that the best solution is requested without transferring the whole board. */
+    @Test
+    void shouldRequestBestSolutionOnly() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            server.setBoard(BOARD);
+
+            assertThat(service.getBestSolutionFor("Level"))
+                    .containsExactly(Orientation.LEFT, Orientation.UP, Orientation.UP);
+            assertThat(server.getBoardQueries()).containsExactly("levelName=Level&limit=1");
+
+            service.getBoard("Level");
+            assertThat(service.getBestSolutionFor("Level")).hasSize(3);
+            assertThat(server.getBoardQueries()).hasSize(2);
+        }
+    }
+
+    /** Verifies that the scores of a player are removed. */
+    @Test
+    void shouldRemoveScores() {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            service.removeScoresFor("Ulli");
+            service.clear();
+
+            assertThat(server.getDeleteQueries()).containsExactly("playerName=Ulli", "playerName=all");
+        }
+    }
+
+    /** Verifies that an invalid URL is rejected. */
+    @Test
+    void shouldRejectInvalidUrl() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new CloudHighScoreServiceBuilder().withServiceUrl("no url").build());
+    }
+}
@@ -0,0 +1,112 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how the loading of a large collection with {@link CollectionLoader} scales with the number of threads. The
+ * collection contains the "minicosmos" level 2000 times. Run the benchmark by starting the main method after the test
+ * classes have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class CollectionLoaderBenchmark {
+    private static final int LEVEL_COUNT = 2000;
+
+    @Param({"1", "2", "4", "8"})
+    @SuppressWarnings("checkstyle:VisibilityModifier")
+    int threads;
+
+    private final String collection;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private CollectionLoader loader = new CollectionLoader();
+
+    /**
+     * Starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CollectionLoaderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Creates the collection.
+     */
+    public CollectionLoaderBenchmark() {
+        String level;
+        try {
+            level = IOUtils.toString(CollectionLoaderBenchmark.class.getResourceAsStream("/minicosmos.sok"),
+                    StandardCharsets.UTF_8);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        collection = IntStream.range(0, LEVEL_COUNT)
+                .mapToObj(i -> String.format(":: Title: Level %d%n%s%n", i, level))
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Creates the pool with the number of threads of the current benchmark parameter.
+     */
+    @Setup(Level.Trial)
+    public void createPool() {
+        pool = new ForkJoinPool(threads);
+        loader = new CollectionLoader(pool);
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Loads and validates all levels of the collection.
+     *
+     * @return the results
+     */
+    @Benchmark
+    public List<LevelLoadResult> loadAll() {
+        return loader.loadAll("Benchmark", new StringReader(collection));
+    }
+}
@@ -0,0 +1,77 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link CollectionLoader}.
+ *
+ * @author Ullrich Hafner
+ */
+class CollectionLoaderTest {
+    private static final String VALID_LEVEL = "#####%n#@$.#%n#####%n";
+
+    /** Verifies that the results are in the order of the collection. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldPreserveOrderOfCollection() {
+        String collection = IntStream.range(0, 500)
+                .mapToObj(i -> String.format(":: Title: Level %d%n" + VALID_LEVEL, i))
+                .collect(Collectors.joining());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<LevelLoadResult> results = new CollectionLoader(pool).loadAll("Large", new StringReader(collection));
+
+            assertThat(results).hasSize(500).allMatch(LevelLoadResult::isValid);
+            for (int i = 0; i < results.size(); i++) {
+                LevelLoadResult result = results.get(i);
+                assertThat(result.getIndex()).isEqualTo(i);
+                assertThat(result.getName()).isEqualTo("Level " + i);
+                assertThat(result.getLevel()).hasValueSatisfying(
+                        level -> assertThat(level.getName()).isEqualTo(result.getName()));
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Verifies that invalid levels are reported without aborting the whole collection. */
+    @Test
+    void shouldReportInvalidLevels() {
+        String collection = String.format(":: Title: Valid%n" + VALID_LEVEL
+                + ":: Title: Missing Target%n#####%n#@$ #%n#####%n"
+                + ":: Title: Missing Player%n#####%n# $.#%n#####%n"
+                + ":: Title: Last%n" + VALID_LEVEL);
+
+        List<LevelLoadResult> results = new CollectionLoader().loadAll("Errors", new StringReader(collection));
+
+        assertThat(results).extracting(LevelLoadResult::getName)
+                .containsExactly("Valid", "Missing Target", "Missing Player", "Last");
+        assertThat(results).extracting(LevelLoadResult::isValid).containsExactly(true, false, false, true);
+        assertThat(results.get(0).getError()).isEmpty();
+        assertThat(results.get(1).getLevel()).isEmpty();
+        assertThat(results.get(1).getError()).hasValueSatisfying(error -> assertThat(error).contains("#Targets"));
+        assertThat(results.get(2).getError()).hasValueSatisfying(error -> assertThat(error).contains("wall"));
+    }
+
+    /** Verifies that the levels of a file are loaded. */
+    @Test
+    void shouldLoadLevelsOfFile() throws URISyntaxException {
+        List<LevelLoadResult> results = new CollectionLoader().loadAll(
+                Paths.get(CollectionLoaderTest.class.getResource("/minicosmos.sok").toURI()));
+
+        assertThat(results).isNotEmpty().allMatch(LevelLoadResult::isValid);
+        assertThat(results.get(0).getName()).isEqualTo("minicosmos");
+    }
+}
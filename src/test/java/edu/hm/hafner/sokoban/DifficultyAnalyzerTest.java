@@ -0,0 +1,82 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link DifficultyAnalyzer}.
+ *
+ * @author Ullrich Hafner
+ */
+class DifficultyAnalyzerTest {
+    /** Verifies that the metrics of a simple corridor are computed. */
+    @Test
+    void shouldAnalyzeCorridor() {
+        LevelDifficulty difficulty = new DifficultyAnalyzer().analyze(
+                SokobanSolverTest.createCorridor("Corridor", new Point(3, 1)));
+
+        assertThat(difficulty.isSolved()).isTrue();
+        assertThat(difficulty.getOptimalPushes()).isEqualTo(2);
+        assertThat(difficulty.getMoves()).isEqualTo(3);
+        assertThat(difficulty.getNodesExpanded()).isEqualTo(2);
+        assertThat(difficulty.getBranchingFactor()).isEqualTo(1.0);
+        assertThat(difficulty.getDeadSquares()).isEqualTo(1);
+        assertThat(difficulty.getDistanceSum()).isEqualTo(2);
+        assertThat(difficulty.getContentHash()).hasSize(64);
+    }
+
+    /** Verifies that levels are analyzed in parallel and the results are in the order of the levels. */
+    @Test @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldAnalyzeLevelsInParallel() {
+        AbstractSokobanModel demo = SokobanSolverTest.createLevel();
+        AbstractSokobanModel corridor = SokobanSolverTest.createCorridor("Corridor", new Point(3, 1));
+        AbstractSokobanModel copy = SokobanSolverTest.createCorridor("Copy", new Point(3, 1));
+        AbstractSokobanModel other = SokobanSolverTest.createCorridor("Other", new Point(2, 1));
+
+        DifficultyAnalyzer analyzer = new DifficultyAnalyzer(new SokobanSolver(), new ForkJoinPool(4));
+        List<LevelDifficulty> difficulties = analyzer.analyzeAll(Arrays.asList(demo, corridor, copy, other));
+
+        assertThat(difficulties).hasSize(4);
+        assertThat(difficulties.get(1)).isSameAs(difficulties.get(2));
+        assertThat(difficulties.get(3).getOptimalPushes()).isEqualTo(3);
+        assertThat(difficulties.get(0).getOptimalPushes()).isGreaterThan(3);
+        assertThat(analyzer.getCacheSize()).isEqualTo(3);
+
+        assertThat(difficulties.stream().sorted(LevelDifficulty.EASIEST_FIRST))
+                .containsExactly(difficulties.get(1), difficulties.get(2), difficulties.get(3), difficulties.get(0));
+        assertThat(analyzer.analyze(demo)).isSameAs(difficulties.get(0));
+    }
+
+    /** Verifies that the content hash depends on the positions of the player and the treasures, but not on the name. */
+    @Test
+    void shouldComputeContentHash() {
+        SokobanGameModel corridor = SokobanSolverTest.createCorridor("Corridor", new Point(3, 1));
+        SokobanGameModel renamed = SokobanSolverTest.createCorridor("Other", new Point(3, 1));
+        SokobanGameModel moved = SokobanSolverTest.createCorridor("Corridor", new Point(2, 1));
+
+        String hash = DifficultyAnalyzer.computeContentHash(corridor);
+
+        assertThat(DifficultyAnalyzer.computeContentHash(renamed)).isEqualTo(hash);
+        assertThat(DifficultyAnalyzer.computeContentHash(moved)).isNotEqualTo(hash);
+    }
+
+    /** Verifies that levels that can't be solved are sorted last. */
+    @Test
+    void shouldSortUnsolvableLevelsLast() {
+        SokobanGameModel dead = SokobanSolverTest.createCorridor("Dead", new Point(3, 1));
+        dead.setPlayer(new Point(4, 1));
+
+        DifficultyAnalyzer analyzer = new DifficultyAnalyzer();
+        LevelDifficulty unsolvable = analyzer.analyze(dead);
+        LevelDifficulty solvable = analyzer.analyze(SokobanSolverTest.createLevel());
+
+        assertThat(unsolvable.isSolved()).isFalse();
+        assertThat(unsolvable.getOptimalPushes()).isZero();
+        assertThat(LevelDifficulty.EASIEST_FIRST.compare(solvable, unsolvable)).isNegative();
+    }
+}
@@ -0,0 +1,207 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.sokoban.CircuitBreaker.State;
+import edu.hm.hafner.sokoban.CloudHighScoreService.CloudHighScoreServiceBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link DurableScoreUploader}.
+ *
+ * @author Ullrich Hafner
+ */
+class DurableScoreUploaderTest {
+    private static final int TIMEOUT = 10;
+    private static final long POLL_MILLIS = 10;
+    private static final int ATTEMPTS_UNTIL_SUCCESS = 3;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int BAD_REQUEST = 400;
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that the entries are uploaded in order after the server is available again. */
+    @Test
+    void shouldUploadInOrderAfterServerRecovers()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        int port;
+        String url;
+        try (HighScoreStubServer stopped = new HighScoreStubServer()) {
+            port = stopped.getPort();
+            url = stopped.getUrl();
+        }
+
+        CloudHighScoreService service = new CloudHighScoreServiceBuilder().withServiceUrl(url).build();
+        try (DurableScoreUploader uploader = createUploader(service::register)) {
+            List<CompletableFuture<Void>> submissions = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                submissions.add(uploader.submit(createEntry("Player " + i)));
+            }
+            waitUntil(() -> uploader.getCircuitState() != State.CLOSED);
+            assertThat(submissions).noneMatch(CompletableFuture::isDone);
+            assertThat(uploader.getPendingCount()).isEqualTo(3);
+
+            try (HighScoreStubServer server = new HighScoreStubServer(port)) {
+                CompletableFuture.allOf(submissions.toArray(new CompletableFuture<?>[0]))
+                        .get(TIMEOUT, TimeUnit.SECONDS);
+
+                assertThat(server.getPostedBodies()).hasSize(3);
+                for (int i = 0; i < 3; i++) {
+                    assertThat(server.getPostedBodies().get(i)).contains("\"playerName\":\"Player " + i + "\"");
+                }
+            }
+            assertThat(uploader.getPendingCount()).isZero();
+            assertThat(uploader.getCircuitState()).isEqualTo(State.CLOSED);
+        }
+        assertThat(folder.resolve("journal")).hasContent("");
+    }
+
+    /** Verifies that pending entries survive a restart and are replayed in order. */
+    @Test
+    void shouldReplayJournalAfterRestart() {
+        try (DurableScoreUploader uploader = createUploader(entry -> {
+            throw new UncheckedIOException(new IOException("Server not available"));
+        })) {
+            assertThat(uploader.submit(createEntry("First"))).isNotDone();
+            assertThat(uploader.submit(createEntry("Second"))).isNotDone();
+            assertThat(uploader.getPendingCount()).isEqualTo(2);
+        }
+
+        List<String> uploaded = Collections.synchronizedList(new ArrayList<>());
+        try (DurableScoreUploader uploader = createUploader(entry -> uploaded.add(entry.getPlayerName()))) {
+            waitUntil(() -> uploader.getPendingCount() == 0);
+        }
+        assertThat(uploaded).containsExactly("First", "Second");
+    }
+
+    /** Verifies that an entry that the server rejected is dropped and not retried. */
+    @Test
+    void shouldDropRejectedEntries() throws InterruptedException, ExecutionException, TimeoutException {
+        List<String> uploaded = Collections.synchronizedList(new ArrayList<>());
+        try (DurableScoreUploader uploader = createUploader(entry -> {
+            if ("Rejected".equals(entry.getPlayerName())) {
+                throw new IllegalStateException("Invalid entry");
+            }
+            uploaded.add(entry.getPlayerName());
+        })) {
+            CompletableFuture<Void> rejected = uploader.submit(createEntry("Rejected"));
+            CompletableFuture<Void> accepted = uploader.submit(createEntry("Accepted"));
+
+            accepted.get(TIMEOUT, TimeUnit.SECONDS);
+
+            assertThatThrownBy(rejected::join).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(uploader.getPendingCount()).isZero();
+            assertThat(uploader.getCircuitState()).isEqualTo(State.CLOSED);
+        }
+        assertThat(uploaded).containsExactly("Accepted");
+    }
+
+    /** Verifies that entries are uploaded again if the server answers with a temporary error. */
+    @Test
+    void shouldRetryTemporaryServerErrors() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            server.failNextRequests(SERVICE_UNAVAILABLE, 2);
+            CloudHighScoreService service = server.createServiceBuilder().build();
+
+            try (DurableScoreUploader uploader = createUploader(service::register)) {
+                uploader.submit(createEntry("Player")).get(TIMEOUT, TimeUnit.SECONDS);
+
+                assertThat(uploader.getPendingCount()).isZero();
+            }
+            assertThat(server.getPostedBodies()).hasSize(1).first().asString().contains("\"playerName\":\"Player\"");
+        }
+    }
+
+    /** Verifies that an entry is dropped if the server answers with a client error. */
+    @Test
+    void shouldDropEntriesThatServerRejects() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            server.failNextRequests(BAD_REQUEST, 1);
+            CloudHighScoreService service = server.createServiceBuilder().build();
+
+            try (DurableScoreUploader uploader = createUploader(service::register)) {
+                CompletableFuture<Void> rejected = uploader.submit(createEntry("Rejected"));
+                uploader.submit(createEntry("Accepted")).get(TIMEOUT, TimeUnit.SECONDS);
+
+                assertThatThrownBy(rejected::join).hasCauseInstanceOf(IllegalStateException.class);
+                assertThat(uploader.getPendingCount()).isZero();
+            }
+            assertThat(server.getPostedBodies()).hasSize(1).first().asString().contains("Accepted");
+        }
+    }
+
+    /** Verifies that unexpected exceptions of the sender are retried and do not stop the uploads. */
+    @Test
+    void shouldRetryUnexpectedFailures() throws InterruptedException, ExecutionException, TimeoutException {
+        AtomicInteger attempts = new AtomicInteger();
+        try (DurableScoreUploader uploader = createUploader(entry -> {
+            if (attempts.incrementAndGet() < ATTEMPTS_UNTIL_SUCCESS) {
+                throw new IllegalArgumentException("Unexpected failure");
+            }
+        })) {
+            uploader.submit(createEntry("Player")).get(TIMEOUT, TimeUnit.SECONDS);
+
+            assertThat(attempts).hasValue(ATTEMPTS_UNTIL_SUCCESS);
+            assertThat(uploader.getPendingCount()).isZero();
+        }
+    }
+
+    /** Verifies that delivered entries and an incomplete last record are not replayed. */
+    @Test
+    void shouldSkipDeliveredAndIncompleteRecords() throws IOException {
+        Path journal = folder.resolve("journal");
+        Files.write(journal, String.format("+ 0 %s%n+ 1 %s%n- 0%n+ 2 {\"playerName",
+                HighScoreJson.toJson(createEntry("Delivered")),
+                HighScoreJson.toJson(createEntry("Pending"))).getBytes(StandardCharsets.UTF_8));
+
+        List<String> uploaded = Collections.synchronizedList(new ArrayList<>());
+        try (DurableScoreUploader uploader = createUploader(entry -> uploaded.add(entry.getPlayerName()))) {
+            waitUntil(() -> uploader.getPendingCount() == 0);
+        }
+        assertThat(uploaded).containsExactly("Pending");
+    }
+
+    private DurableScoreUploader createUploader(final Consumer<HighScoreEntry> sender) {
+        return new DurableScoreUploader(folder.resolve("journal"), sender, 5, 50, new CircuitBreaker(3, 100));
+    }
+
+    private HighScoreEntry createEntry(final String playerName) {
+        return new HighScoreEntryBuilder().withPlayerName(playerName).withLevelName("Level").withNumberOfMoves(1)
+                .build();
+    }
+
+    private void waitUntil(final BooleanSupplier condition) {
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("Timeout while waiting for condition").isLessThan(end);
+            try {
+                Thread.sleep(POLL_MILLIS);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(exception);
+            }
+        }
+    }
+}
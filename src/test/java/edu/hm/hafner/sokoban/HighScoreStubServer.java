@@ -0,0 +1,249 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.hm.hafner.sokoban.CloudHighScoreService.CloudHighScoreServiceBuilder;
+
+/**
+ * A local stand-in for the cloud high score server. The server returns a fixed board for each GET request, records
+ * the bodies of POST requests and the query of DELETE requests, and answers with an empty JSON object otherwise. Bodies
+ * that are compressed with gzip are decompressed. The board is sent with an entity tag, a GET request with a matching
+ * {@code If-None-Match} header is answered with {@code 304 Not Modified}. The server can be configured to answer the
+ * next requests with an error status.
+ *
+ * @author Ullrich Hafner
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+class HighScoreStubServer implements AutoCloseable {
+    private static final int OK = 200;
+    private static final int NOT_MODIFIED = 304;
+    private static final int NO_BODY = -1;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Object lock = new Object();
+    private final List<String> posted = new ArrayList<>();
+    private final List<String> encodings = new ArrayList<>();
+    private final List<String> deleted = new ArrayList<>();
+    private final List<String> queried = new ArrayList<>();
+    private final Deque<Integer> failures = new ArrayDeque<>();
+    private final AtomicLong delay = new AtomicLong();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+    private String board = "[]";
+
+    /**
+     * Starts a new server at a free port of the loopback interface.
+     */
+    HighScoreStubServer() {
+        this(0);
+    }
+
+    /**
+     * Starts a new server at the specified port of the loopback interface. This constructor can be used to restart a
+     * server that has been closed before.
+     *
+     * @param port
+     *         the port
+     */
+    HighScoreStubServer(final int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        server.createContext("/", exchange -> handle(exchange));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://localhost:" + getPort() + "/";
+    }
+
+    /**
+     * Returns a builder of services that send their requests to this server.
+     *
+     * @return the builder of the service
+     */
+    CloudHighScoreServiceBuilder createServiceBuilder() {
+        return new CloudHighScoreServiceBuilder().withServiceUrl(getUrl());
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void setBoard(final String json) {
+        synchronized (lock) {
+            board = json;
+        }
+    }
+
+    /**
+     * Delays each response by the specified time, so that the requests of concurrent clients overlap.
+     *
+     * @param millis
+     *         the delay in milliseconds
+     */
+    void setDelay(final long millis) {
+        delay.set(millis);
+    }
+
+    /**
+     * Answers the specified number of the next requests with the specified error status, the requests are not recorded.
+     *
+     * @param status
+     *         the HTTP status of the responses
+     * @param count
+     *         the number of requests that fail
+     */
+    void failNextRequests(final int status, final int count) {
+        synchronized (lock) {
+            for (int i = 0; i < count; i++) {
+                failures.add(status);
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of requests that have been handled concurrently during the delay of the responses.
+     *
+     * @return the maximum number of concurrent requests
+     */
+    int getMaxConcurrentRequests() {
+        return maxActiveRequests.get();
+    }
+
+    List<String> getPostedBodies() {
+        synchronized (lock) {
+            return new ArrayList<>(posted);
+        }
+    }
+
+    List<String> getPostedEncodings() {
+        synchronized (lock) {
+            return new ArrayList<>(encodings);
+        }
+    }
+
+    List<String> getBoardQueries() {
+        synchronized (lock) {
+            return new ArrayList<>(queried);
+        }
+    }
+
+    List<String> getDeleteQueries() {
+        synchronized (lock) {
+            return new ArrayList<>(deleted);
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        try {
+            pause();
+        }
+        finally {
+            activeRequests.decrementAndGet();
+        }
+        Optional<Integer> failure;
+        synchronized (lock) {
+            failure = Optional.ofNullable(failures.poll());
+        }
+        if (failure.isPresent()) {
+            exchange.sendResponseHeaders(failure.get(), NO_BODY);
+            exchange.close();
+        }
+        else {
+            respond(exchange);
+        }
+    }
+
+    private void pause() throws InterruptedIOException {
+        long millis = delay.get();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Interrupted while delaying the response");
+                interrupted.initCause(exception);
+                throw interrupted;
+            }
+        }
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        String response = "{}";
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        try (InputStream input = decode(exchange.getRequestBody(), encoding)) {
+            String body = IOUtils.toString(input, StandardCharsets.UTF_8);
+            synchronized (lock) {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    posted.add(body);
+                    encodings.add(encoding == null ? "identity" : encoding);
+                }
+                else if ("DELETE".equals(exchange.getRequestMethod())) {
+                    deleted.add(exchange.getRequestURI().getQuery());
+                }
+                else {
+                    queried.add(exchange.getRequestURI().getQuery());
+                    response = board;
+                }
+            }
+        }
+        if ("GET".equals(exchange.getRequestMethod())) {
+            String entityTag = "\"" + Integer.toHexString(response.hashCode()) + "\"";
+            exchange.getResponseHeaders().add("ETag", entityTag);
+            if (entityTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(NOT_MODIFIED, NO_BODY);
+                exchange.close();
+                return;
+            }
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(OK, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private InputStream decode(final InputStream body, final String encoding) throws IOException {
+        if ("gzip".equals(encoding)) {
+            return new GZIPInputStream(body);
+        }
+        return body;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
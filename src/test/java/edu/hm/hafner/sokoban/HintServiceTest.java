@@ -0,0 +1,126 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link HintService}.
+ *
+ * @author Ullrich Hafner
+ */
+class HintServiceTest {
+    private static final int MAX_MOVES = 100;
+
+    /** Verifies that following the hints solves the level. */
+    @Test
+    void shouldSolveLevelByFollowingHints() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        HintService hints = createService();
+        hints.startSolving(level);
+
+        followHints(level, hints);
+    }
+
+    /** Verifies that a player that walks around without pushing a treasure is guided back to the solution. */
+    @Test
+    void shouldGuidePlayerBackToSolution() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        HintService hints = createService();
+        hints.startSolving(level);
+
+        move(level, DOWN);
+        move(level, DOWN);
+        assertThat(hints.getHint(level)).isPresent();
+
+        followHints(level, hints);
+    }
+
+    /** Verifies that a new solution is computed if the player pushed a treasure away from the solution. */
+    @Test
+    void shouldReplanWhenPlayerDiverges() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        HintService hints = createService();
+        hints.startSolving(level);
+
+        move(level, UP);
+        move(level, LEFT);
+        move(level, DOWN);
+        assertThat(level.getTreasures()).contains(new Point(2, 5));
+
+        assertThat(hints.getHint(level)).isEmpty();
+
+        followHints(level, hints);
+    }
+
+    /** Verifies that no hint is available before the level has been solved in the background. */
+    @Test
+    void shouldNotProvideHintBeforeSolutionIsAvailable() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        List<Runnable> pending = new ArrayList<>();
+        HintService hints = new HintService(new SokobanSolver(), pending::add);
+        hints.startSolving(level);
+
+        assertThat(hints.getHint(level)).isEmpty();
+        assertThat(pending).hasSize(1);
+
+        pending.get(0).run();
+
+        assertThat(hints.getHint(level)).isPresent();
+    }
+
+    /** Verifies that a state that could not be solved is not planned again. */
+    @Test
+    void shouldRememberUnsolvableStates() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        List<Runnable> pending = new ArrayList<>();
+        HintService hints = new HintService(new SokobanSolver(), pending::add);
+        hints.startSolving(level);
+        pending.get(0).run();
+
+        move(level, DOWN);
+        move(level, RIGHT);
+        assertThat(level.getTreasures()).contains(new Point(5, 5));
+
+        assertThat(hints.getHint(level)).isEmpty();
+        assertThat(pending).hasSize(2);
+        pending.get(1).run();
+
+        assertThat(hints.getHint(level)).isEmpty();
+        move(level, LEFT);
+        assertThat(hints.getHint(level)).isEmpty();
+        assertThat(pending).hasSize(2);
+    }
+
+    private HintService createService() {
+        return new HintService(new SokobanSolver(), Runnable::run);
+    }
+
+    private void followHints(final AbstractSokobanModel level, final HintService hints) {
+        for (int i = 0; i < MAX_MOVES && !level.isSolved(); i++) {
+            Optional<Orientation> hint = hints.getHint(level);
+            assertThat(hint).isPresent();
+            hint.ifPresent(orientation -> move(level, orientation));
+        }
+        assertThat(level.isSolved()).isTrue();
+    }
+
+    private void move(final AbstractSokobanModel level, final Orientation orientation) {
+        SokobanBoard board = level.getBoard();
+        SokobanState state = board.createState(level).move(board, SokobanBoard.toDirection(orientation));
+
+        level.setPlayer(board.toPoint(state.getPlayer()));
+        List<Point> treasures = new ArrayList<>();
+        for (int i = 0; i < state.getTreasureCount(); i++) {
+            treasures.add(board.toPoint(state.getTreasure(i)));
+        }
+        level.addAllTreasures(treasures);
+    }
+}
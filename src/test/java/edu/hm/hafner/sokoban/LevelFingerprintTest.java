@@ -0,0 +1,106 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LevelFingerprint}.
+ *
+ * @author Ullrich Hafner
+ */
+class LevelFingerprintTest {
+    private static final List<String> LEVEL = Arrays.asList(
+            "####",
+            "# .#",
+            "#  ###",
+            "#*@  #",
+            "#  $ #",
+            "#  ###",
+            "####");
+    private static final List<String> TRANSPOSED = Arrays.asList(
+            "  #######",
+            "  #  *  #",
+            "  #. @  #",
+            "  ### $##",
+            "    #  #",
+            "    ####");
+    private static final List<String> MIRRORED = Arrays.asList(
+            "  ####",
+            "  #. #",
+            "###  #",
+            "#  @*#",
+            "# $  #",
+            "###  #",
+            "  ####");
+
+    private final SokobanReader reader = new SokobanReader();
+
+    /** Verifies that transposed, mirrored, and padded levels have the same fingerprint. */
+    @Test
+    void shouldIgnoreSymmetriesAndPadding() {
+        LevelFingerprint fingerprint = LevelFingerprint.compute(reader.read("Level", LEVEL));
+
+        assertThat(LevelFingerprint.compute(reader.read("Transposed", TRANSPOSED))).isEqualTo(fingerprint);
+        assertThat(LevelFingerprint.compute(reader.read("Mirrored", MIRRORED))).isEqualTo(fingerprint);
+        assertThat(fingerprint.toHexString()).hasSize(32).startsWith(String.format("%016x", fingerprint.getHigh()));
+        assertThat(fingerprint.getCanonicalLines()).hasSize(6).allSatisfy(line -> assertThat(line).hasSize(7));
+    }
+
+    /** Verifies that floors and background outside of the reachable area are not distinguished. */
+    @Test
+    void shouldIgnoreFloorsOutsideOfReachableArea() {
+        LevelFingerprint fingerprint = LevelFingerprint.compute(reader.read("Mirrored", MIRRORED));
+
+        assertThat(LevelFingerprint.compute(reader.read("Padded with floors", Arrays.asList(
+                "####  ", "# .#  ", "#  ###", "#*@  #", "#  $ #", "#  ###", "####  ")))).isEqualTo(fingerprint);
+        assertThat(LevelFingerprint.compute(reader.read("Padded with floors", Arrays.asList(
+                "  ####", "  #. #", "###  #", "#  @*#", "# $  #", "###  #", "  ####  ")))).isEqualTo(fingerprint);
+    }
+
+    /** Verifies that different levels have different fingerprints. */
+    @Test
+    void shouldDistinguishDifferentLevels() {
+        LevelFingerprint fingerprint = LevelFingerprint.compute(reader.read("Level", LEVEL));
+
+        assertThat(LevelFingerprint.compute(reader.read("Player moved", Arrays.asList(
+                "####", "# .#", "#  ###", "#* @ #", "#  $ #", "#  ###", "####")))).isNotEqualTo(fingerprint);
+    }
+
+    /** Verifies that duplicates are removed from a collection and the first level of each fingerprint is kept. */
+    @Test
+    void shouldDeduplicateLevels() {
+        AbstractSokobanModel level = reader.read("Level", LEVEL);
+        AbstractSokobanModel other = reader.read("Other", Arrays.asList("#####", "#@$.#", "#####"));
+
+        assertThat(LevelFingerprint.deduplicate(Arrays.asList(level, reader.read("Transposed", TRANSPOSED), other,
+                reader.read("Mirrored", MIRRORED)))).containsExactly(level, other);
+    }
+
+    /** Verifies that a solution of a level solves a transposed copy after converting the moves. */
+    @Test
+    void shouldConvertSolutionsBetweenSymmetricLevels() {
+        SokobanGameModel level = reader.read("Level", LEVEL);
+        level.validate();
+        SokobanGameModel transposed = reader.read("Transposed", TRANSPOSED);
+        transposed.validate();
+
+        Optional<List<Orientation>> solution = new SokobanSolver().solve(level);
+        assertThat(solution).isPresent();
+
+        LevelFingerprint from = LevelFingerprint.compute(level);
+        LevelFingerprint to = LevelFingerprint.compute(transposed);
+        List<Orientation> converted = new ArrayList<>();
+        for (Orientation move : solution.get()) {
+            converted.add(to.fromCanonical(from.toCanonical(move)));
+        }
+        SokobanSolverTest.assertThatMovesSolve(transposed, converted);
+    }
+}
@@ -0,0 +1,109 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LevelGenerator}.
+ *
+ * @author Ullrich Hafner
+ */
+class LevelGeneratorTest {
+    private static final int MIN_PUSHES = 5;
+    private static final long SEED = 4711;
+
+    /** Verifies that the generated levels are valid and require the minimum number of pushes. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldGenerateSolvableLevels() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SokobanSolver solver = new SokobanSolver();
+            List<SokobanGameModel> levels = new LevelGenerator(8, 7, 2, MIN_PUSHES, solver, pool)
+                    .generate(3, SEED, 500);
+
+            assertThat(levels).hasSize(3);
+            for (SokobanGameModel level : levels) {
+                level.validate();
+                assertThat(level.isSolved()).isFalse();
+                assertThat(level.getTreasures()).hasSize(2);
+
+                Optional<List<Orientation>> solution = solver.solve(level);
+                assertThat(solution).isPresent();
+                SokobanBoard board = level.getBoard();
+                assertThat(DifficultyAnalyzer.countPushes(board, board.createState(level), solution.get()))
+                        .isGreaterThanOrEqualTo(MIN_PUSHES);
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Verifies that the same seed produces the same levels. */
+    @Test
+    void shouldGenerateSameLevelsForSameSeed() {
+        LevelGenerator generator = new LevelGenerator(7, 7, 2, MIN_PUSHES);
+
+        assertThat(fingerprints(generator.generate(2, SEED, 500)))
+                .isEqualTo(fingerprints(generator.generate(2, SEED, 500)))
+                .hasSize(2);
+    }
+
+    /** Verifies that the generated levels can be written in ASCII format and read again. */
+    @Test
+    void shouldWriteLevelsInAsciiFormat() {
+        List<SokobanGameModel> levels = new LevelGenerator(7, 6, 2, 3).generate(2, SEED, 500);
+
+        StringWriter output = new StringWriter();
+        new SokobanWriter().write(levels, output);
+
+        try (Stream<SokobanGameModel> read = new SokobanCollectionReader().read("Generated",
+                new StringReader(output.toString()))) {
+            List<SokobanGameModel> parsed = read.collect(Collectors.toList());
+
+            assertThat(parsed).extracting(AbstractSokobanModel::getName)
+                    .containsExactlyElementsOf(levels.stream().map(AbstractSokobanModel::getName)
+                            .collect(Collectors.toList()));
+            assertThat(fingerprints(parsed)).isEqualTo(fingerprints(levels));
+        }
+    }
+
+    /** Verifies that impossible requirements are rejected. */
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LevelGenerator(3, 8, 1, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new LevelGenerator(4, 4, 2, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new LevelGenerator(8, 8, 0, 1));
+    }
+
+    /** Verifies that pulling a treasure is the reverse operation of pushing it. */
+    @Test
+    void shouldPullTreasure() {
+        SokobanBoard board = new SokobanBoard(new Field[][] {{Field.FLOOR, Field.FLOOR, Field.FLOOR, Field.WALL}});
+        SokobanState state = new SokobanState(1, new int[] {2});
+
+        SokobanState pulled = state.pull(board, 0);
+        assertThat(pulled.getPlayer()).isEqualTo(0);
+        assertThat(pulled.getTreasure(0)).isEqualTo(1);
+        assertThat(pulled.move(board, 1)).isEqualTo(state);
+
+        assertThat(pulled.pull(board, 0)).isSameAs(pulled);
+        assertThat(state.pull(board, 1)).isSameAs(state);
+    }
+
+    private List<LevelFingerprint> fingerprints(final List<SokobanGameModel> levels) {
+        return levels.stream().map(LevelFingerprint::compute).collect(Collectors.toList());
+    }
+}
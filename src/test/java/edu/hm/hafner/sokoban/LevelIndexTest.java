@@ -0,0 +1,114 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LevelIndex}.
+ *
+ * @author Ullrich Hafner
+ */
+class LevelIndexTest {
+    private static final List<String> COLLECTION = Arrays.asList(
+            ":: Title: First",
+            "#####",
+            "#@$.#",
+            "#####",
+            "",
+            ":: Title: Second",
+            "######",
+            "#@ $.#",
+            "######",
+            "Third",
+            "#####",
+            "#.$@#",
+            "#####");
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that all levels of a collection are indexed and can be read by name. */
+    @Test
+    void shouldReadLevelsByName() throws IOException {
+        Path collection = createCollection();
+
+        LevelIndex index = LevelIndex.open(collection);
+
+        assertThat(index.getNames()).containsExactly("First", "Second", "Third");
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.getLevel("Second")).hasValueSatisfying(level -> {
+            assertThat(level.getName()).isEqualTo("Second");
+            assertThat(level.getWidth()).isEqualTo(6);
+            assertThat(level.getTreasures()).containsExactly(new Point(3, 1));
+            level.validate();
+        });
+        assertThat(index.getLevel("Third")).hasValueSatisfying(
+                level -> assertThat(level.getPlayer()).isEqualTo(new Point(3, 1)));
+        assertThat(index.getLevel("Fourth")).isEmpty();
+    }
+
+    /** Verifies that the index is persisted and reused as long as the collection is not changed. */
+    @Test
+    void shouldPersistIndex() throws IOException {
+        Path collection = createCollection();
+        Path indexFile = LevelIndex.getIndexFile(collection);
+
+        LevelIndex.open(collection);
+
+        assertThat(indexFile).exists();
+        FileTime created = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(indexFile, created);
+
+        assertThat(LevelIndex.open(collection).getNames()).containsExactly("First", "Second", "Third");
+        assertThat(Files.getLastModifiedTime(indexFile)).isEqualTo(created);
+
+        Files.write(collection, Arrays.asList(":: Title: Changed", "#####", "#@$.#", "#####"),
+                StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(collection, FileTime.fromMillis(2000));
+
+        assertThat(LevelIndex.open(collection).getNames()).containsExactly("Changed");
+        assertThat(Files.getLastModifiedTime(indexFile)).isNotEqualTo(created);
+    }
+
+    /** Verifies that a corrupt index is recreated. */
+    @Test
+    void shouldRecreateCorruptIndex() throws IOException {
+        Path collection = createCollection();
+        Files.write(LevelIndex.getIndexFile(collection), new byte[] {1, 2, 3});
+
+        assertThat(LevelIndex.open(collection).getNames()).containsExactly("First", "Second", "Third");
+    }
+
+    /** Verifies that the levels of a collection with Windows line breaks are read without the carriage returns. */
+    @Test
+    void shouldReadLevelsWithWindowsLineBreaks() throws IOException {
+        Path collection = folder.resolve("windows.sok");
+        Files.write(collection, (String.join("\r\n", COLLECTION) + "\r\n").getBytes(StandardCharsets.UTF_8));
+
+        LevelIndex index = LevelIndex.open(collection);
+
+        assertThat(index.getNames()).containsExactly("First", "Second", "Third");
+        assertThat(index.getLevel("First")).hasValueSatisfying(level -> {
+            assertThat(level.getWidth()).isEqualTo(5);
+            level.validate();
+        });
+        assertThat(index.getLevel("Third")).hasValueSatisfying(
+                level -> assertThat(level.getPlayer()).isEqualTo(new Point(3, 1)));
+    }
+
+    private Path createCollection() throws IOException {
+        Path collection = folder.resolve("collection.sok");
+        Files.write(collection, COLLECTION, StandardCharsets.UTF_8);
+        return collection;
+    }
+}
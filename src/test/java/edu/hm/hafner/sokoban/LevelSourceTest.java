@@ -0,0 +1,171 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.sokoban.HighScoreService.FormattedPrinter;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link LevelSource} and {@link LevelSources}.
+ *
+ * @author Ullrich Hafner
+ */
+class LevelSourceTest {
+    private static final String ASCII = ":: Title: Ascii%n#####%n#@$.#%n#####%n";
+    private static final String SLC = "<?xml version=\"1.0\"?>\n<SokobanLevels><LevelCollection>"
+            + "<Level Id=\"Xml\"><L>######</L><L>#@ $.#</L><L>######</L></Level>"
+            + "</LevelCollection></SokobanLevels>\n";
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that the collections of a directory and its subdirectories are found and read. */
+    @Test
+    void shouldReadCollectionsOfDirectory() throws IOException {
+        write(folder.resolve("first.sok"), String.format(ASCII));
+        Files.createDirectories(folder.resolve("nested"));
+        write(folder.resolve("nested/second.slc"), SLC);
+        write(folder.resolve("readme.md"), "No levels");
+
+        try (LevelSource source = LevelSources.open(folder.toString())) {
+            assertThat(source.getCollections()).containsExactly("first.sok", "nested/second.slc");
+            assertThat(readNames(source, "first.sok")).containsExactly("Ascii");
+            assertThat(readNames(source, "nested/second.slc")).containsExactly("Xml");
+            assertThatIllegalArgumentException().isThrownBy(() -> source.read("../outside.sok"));
+        }
+    }
+
+    /** Verifies that the content of a collection is read again and new models are created on each read. */
+    @Test
+    void shouldStreamContentOfCollection() throws IOException {
+        Path file = folder.resolve("streamed.sok");
+        write(file, String.format(ASCII));
+
+        try (LevelSource source = LevelSources.fromDirectory(folder)) {
+            assertThat(source.getCollections()).containsExactly("streamed.sok");
+            SokobanGameModel first = readFirst(source, "streamed.sok");
+            write(file, String.format(ASCII.replace("Ascii", "Changed")));
+            SokobanGameModel second = readFirst(source, "streamed.sok");
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(first.getName()).isEqualTo("Ascii");
+            assertThat(second.getName()).isEqualTo("Changed");
+
+            Files.delete(file);
+            assertThatIllegalArgumentException().isThrownBy(() -> source.read("streamed.sok"));
+            assertThat(source.getCollections()).containsExactly("streamed.sok");
+        }
+    }
+
+    /** Verifies that the collections of a zipped bundle are read. */
+    @Test
+    void shouldReadCollectionsOfZip() throws IOException {
+        Path bundle = folder.resolve("levels.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(bundle))) {
+            addEntry(zip, "ascii/first.sok", String.format(ASCII));
+            addEntry(zip, "second.slc", SLC);
+        }
+
+        try (LevelSource source = LevelSources.open(bundle.toString())) {
+            assertThat(source.getCollections()).containsExactly("ascii/first.sok", "second.slc");
+            assertThat(readNames(source, "ascii/first.sok")).containsExactly("Ascii");
+            assertThat(readNames(source, "second.slc")).containsExactly("Xml");
+            assertThatIllegalArgumentException().isThrownBy(() -> source.read("missing.sok"));
+        }
+    }
+
+    /** Verifies that the collections of the class path are found and read. */
+    @Test
+    void shouldReadCollectionsOfClasspath() {
+        try (LevelSource source = LevelSources.open("")) {
+            assertThat(source.getCollections()).contains("chaos.sok", "minicosmos.sok");
+            assertThat(readFirst(source, "minicosmos.sok").getName()).isEqualTo("minicosmos");
+            assertThatIllegalArgumentException().isThrownBy(() -> source.read("missing.sok"));
+        }
+    }
+
+    /** Verifies that a location that is neither a directory nor a bundle is rejected. */
+    @Test
+    void shouldRejectUnknownLocation() throws IOException {
+        Path missing = folder.resolve("missing");
+        Path collection = folder.resolve("collection.sok");
+        Files.write(collection, "5#|#@$.#|5#\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> LevelSources.open(missing.toString()))
+                .withMessage("No level directory or bundle: " + missing);
+        assertThatIllegalArgumentException().isThrownBy(() -> LevelSources.open(collection.toString()))
+                .withMessage("No level directory or bundle: " + collection);
+    }
+
+    /** Verifies that the format of a stream is detected automatically. */
+    @Test
+    void shouldDetectFormatOfStream() {
+        SokobanCollectionReader reader = new SokobanCollectionReader();
+
+        try (Stream<SokobanGameModel> levels = reader.read("Stream",
+                new ByteArrayInputStream(("\uFEFF" + SLC).getBytes(StandardCharsets.UTF_8)))) {
+            assertThat(levels.map(AbstractSokobanModel::getName)).containsExactly("Xml");
+        }
+        try (Stream<SokobanGameModel> levels = reader.read("Stream",
+                new ByteArrayInputStream(String.format(ASCII).getBytes(StandardCharsets.UTF_8)))) {
+            assertThat(levels.map(AbstractSokobanModel::getName)).containsExactly("Ascii");
+        }
+    }
+
+    /** Verifies that the batch entry point validates and solves all levels of a source. */
+    @Test
+    void shouldSolveAllLevelsInBatch() throws IOException {
+        write(folder.resolve("first.sok"), String.format(ASCII + ":: Title: Invalid%n#####%n# $.#%n#####%n"));
+        write(folder.resolve("second.slc"), SLC);
+
+        StringBuilder output = new StringBuilder();
+        FormattedPrinter printer = (format, args) -> output.append(String.format(format, args)).append('\n');
+        try (LevelSource source = LevelSources.fromDirectory(folder)) {
+            SokobanBatch batch = new SokobanBatch(new SokobanSolver(), printer);
+
+            assertThat(batch.process(source, Collections.emptyList())).isEqualTo(2);
+            assertThat(batch.process(source, Collections.singletonList("second.slc"))).isEqualTo(1);
+        }
+        assertThat(output.toString())
+                .contains("Collection first.sok", "Ascii: solved in 1 moves", "Invalid: invalid",
+                        "Xml: solved in 2 moves");
+    }
+
+    private List<String> readNames(final LevelSource source, final String collection) {
+        try (Stream<SokobanGameModel> levels = source.read(collection)) {
+            return levels.map(AbstractSokobanModel::getName).collect(Collectors.toList());
+        }
+    }
+
+    private SokobanGameModel readFirst(final LevelSource source, final String collection) {
+        try (Stream<SokobanGameModel> levels = source.read(collection)) {
+            return levels.findFirst().orElseThrow(() -> new AssertionError("No level in " + collection));
+        }
+    }
+
+    private void write(final Path file, final String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void addEntry(final ZipOutputStream zip, final String name, final String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        OutputStream output = zip;
+        output.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,193 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.BoardQuery.BoardQueryBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link LocalHighScoreService}.
+ *
+ * @author Ullrich Hafner
+ */
+class LocalHighScoreServiceTest {
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.UP);
+    private static final int TIMEOUT = 10;
+    private static final int EMPTY_TABLE = 6;
+
+    /** Verifies that the board is sorted by moves, attempts, and player. */
+    @Test
+    void shouldSortBoard() {
+        LocalHighScoreService service = new LocalHighScoreService();
+
+        service.registerSolution("Bob", "Level", 5, 1, SOLUTION);
+        service.registerSolution("Alice", "Level", 3, 2, SOLUTION);
+        service.registerSolution("Carol", "Level", 3, 1, Arrays.asList(Orientation.DOWN, Orientation.RIGHT));
+        service.registerSolution("Alice", "Level", 5, 1, SOLUTION);
+        service.registerSolution("Bob", "Other", 1, 1, SOLUTION);
+
+        assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                .containsExactly("Carol", "Alice", "Alice", "Bob");
+        assertThat(service.getBestSolutionFor("Level")).containsExactly(Orientation.DOWN, Orientation.RIGHT);
+        assertThat(service.getBoard("Unknown")).isEmpty();
+        assertThat(service.getBestSolutionFor("Unknown")).isEmpty();
+    }
+
+    /** Verifies that only the best entries are kept if the number of entries is limited. */
+    @Test
+    void shouldKeepBestEntries() {
+        LocalHighScoreService service = new LocalHighScoreService();
+        service.registerSolution("Bob", "Level", 5, 1, SOLUTION);
+        service.registerSolution("Alice", "Level", 3, 1, SOLUTION);
+        service.registerSolution("Carol", "Level", 4, 1, SOLUTION);
+
+        service.setNumberOfEntriesPerLevel(2);
+        assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                .containsExactly("Alice", "Carol");
+
+        service.registerSolution("Dave", "Level", 9, 1, SOLUTION);
+        service.registerSolution("Eve", "Level", 1, 1, SOLUTION);
+        assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                .containsExactly("Eve", "Alice");
+
+        assertThat(printScoresFor(service, "Bob")).hasSize(EMPTY_TABLE);
+        assertThat(printScoresFor(service, "Dave")).hasSize(EMPTY_TABLE);
+        assertThat(printScoresFor(service, "Carol")).hasSize(EMPTY_TABLE);
+        assertThat(printScoresFor(service, "Eve")).hasSize(EMPTY_TABLE + 1);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> service.setNumberOfEntriesPerLevel(0));
+    }
+
+    /** Verifies that the scores of a player are printed and removed. */
+    @Test
+    void shouldPrintAndRemoveScoresOfPlayer() {
+        LocalHighScoreService service = new LocalHighScoreService();
+        service.registerSolution("Alice", "Second", 3, 1, SOLUTION);
+        service.registerSolution("Alice", "First", 7, 2, SOLUTION);
+        service.registerSolution("Bob", "First", 5, 1, SOLUTION);
+
+        List<String> lines = printScoresFor(service, "Alice");
+        assertThat(lines).hasSize(EMPTY_TABLE + 2);
+        assertThat(lines.get(5)).startsWith("|First  ").contains("|        7|        2|");
+        assertThat(lines.get(6)).startsWith("|Second ").contains("|        3|        1|");
+
+        service.removeScoresFor("Alice");
+        assertThat(service.getBoard("First")).extracting(HighScoreEntry::getPlayerName).containsExactly("Bob");
+        assertThat(service.getBoard("Second")).isEmpty();
+        assertThat(printScoresFor(service, "Alice")).hasSize(EMPTY_TABLE);
+
+        List<String> boards = new ArrayList<>();
+        service.printBoards((format, args) -> boards.add(String.format(format, args)));
+        assertThat(boards).hasSize(EMPTY_TABLE + 1).anyMatch(line -> line.startsWith("|Bob "));
+
+        service.clear();
+        assertThat(service.getBoard("First")).isEmpty();
+        assertThat(printScoresFor(service, "Bob")).hasSize(EMPTY_TABLE);
+    }
+
+    /** Verifies that a query selects a page of a board, of all boards, or of the scores of a player. */
+    @Test
+    void shouldQueryBoards() {
+        LocalHighScoreService service = new LocalHighScoreService();
+        for (int moves = 1; moves <= 5; moves++) {
+            service.registerSolution("Alice", "First", moves * 2, 1, SOLUTION);
+            service.registerSolution("Bob", "First", moves * 2 + 1, 1, SOLUTION);
+        }
+        service.registerSolution("Alice", "Second", 7, 1, SOLUTION);
+        service.registerSolution("Carol", "Second", 1, 1, SOLUTION);
+
+        assertThat(service.getBoard(new BoardQueryBuilder().withLevelName("First").build()))
+                .isEqualTo(service.getBoard("First"));
+        assertThat(service.getBoard(new BoardQueryBuilder().withLevelName("First").withOffset(3).withLimit(4).build()))
+                .extracting(HighScoreEntry::getNumberOfMoves).containsExactly(5, 6, 7, 8);
+        assertThat(service.getBoard(new BoardQueryBuilder().withLevelName("Missing").build())).isEmpty();
+
+        assertThat(service.getBoard(new BoardQueryBuilder().withOffset(9).withLimit(2).build()))
+                .extracting(HighScoreEntry::getLevelName, HighScoreEntry::getNumberOfMoves)
+                .containsExactly(tuple("First", 11), tuple("Second", 1));
+        assertThat(service.getBoard(new BoardQueryBuilder().withOffset(11).build()))
+                .extracting(HighScoreEntry::getPlayerName).containsExactly("Alice");
+        assertThat(service.getBoard(new BoardQueryBuilder().withOffset(12).build())).isEmpty();
+
+        assertThat(service.getBoard(new BoardQueryBuilder().withPlayerName("Alice").withOffset(4).build()))
+                .extracting(HighScoreEntry::getLevelName, HighScoreEntry::getNumberOfMoves)
+                .containsExactly(tuple("First", 10), tuple("Second", 7));
+        assertThat(service.getBoard(new BoardQueryBuilder().withPlayerName("Alice").withLevelName("Second").build()))
+                .extracting(HighScoreEntry::getNumberOfMoves).containsExactly(7);
+        assertThat(service.getBoard(new BoardQueryBuilder().withPlayerName("Dave").build())).isEmpty();
+    }
+
+    /** Verifies that a query can exclude the solutions of the entries. */
+    @Test
+    void shouldExcludeSolutions() {
+        LocalHighScoreService service = new LocalHighScoreService();
+        service.registerSolution("Alice", "First", 2, 1, SOLUTION);
+
+        assertThat(service.getBoard(new BoardQueryBuilder().withoutSolutions().build())).hasSize(1)
+                .allSatisfy(entry -> {
+                    assertThat(entry.getSolution()).isEmpty();
+                    assertThat(entry.getPlayerName()).isEqualTo("Alice");
+                    assertThat(entry.getNumberOfMoves()).isEqualTo(2);
+                });
+        assertThat(service.getBestSolutionFor("First")).isEqualTo(SOLUTION);
+        assertThatIllegalArgumentException().isThrownBy(() -> new BoardQueryBuilder().withOffset(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new BoardQueryBuilder().withLimit(-1));
+    }
+
+    /** Verifies that concurrent registrations keep the best entries of each level. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldRegisterConcurrently() throws InterruptedException, ExecutionException, TimeoutException {
+        LocalHighScoreService service = new LocalHighScoreService();
+        service.setNumberOfEntriesPerLevel(10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> registrations = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                registrations.add(executor.submit(() -> {
+                    for (int moves = 1000; moves > 0; moves--) {
+                        service.registerSolution("Player " + offset, "Level " + moves % 4, moves, 1, SOLUTION);
+                    }
+                }));
+            }
+            for (Future<?> registration : registrations) {
+                registration.get(TIMEOUT, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        for (int level = 0; level < 4; level++) {
+            List<HighScoreEntry> board = service.getBoard("Level " + level);
+            assertThat(board).hasSize(10).isSortedAccordingTo(LocalHighScoreService.BY_RANK);
+            assertThat(board.get(9).getNumberOfMoves()).isLessThanOrEqualTo(8);
+        }
+        long indexed = 0;
+        for (int thread = 0; thread < 8; thread++) {
+            indexed += printScoresFor(service, "Player " + thread).size() - EMPTY_TABLE;
+        }
+        assertThat(indexed).isEqualTo(40);
+    }
+
+    private List<String> printScoresFor(final LocalHighScoreService service, final String player) {
+        List<String> lines = new ArrayList<>();
+        service.printScoresFor(player, (format, args) -> lines.add(String.format(format, args)));
+        return lines;
+    }
+}
@@ -0,0 +1,158 @@
+package edu.hm.hafner.sokoban;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Measures the throughput of {@link MoveCodec} for a solution with 500 random moves and for a solution with 500 moves
+ * in runs of 8 equal moves, and compares the JSON representation of an entry with the former representation of the
+ * solution as array of names. The sizes of the representations are printed before the benchmark starts. Run the
+ * benchmark by starting the main method after the test classes have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveCodecBenchmark {
+    private static final int SIZE = 500;
+    private static final Orientation[] DIRECTIONS = {Orientation.LEFT, Orientation.RIGHT, Orientation.UP,
+            Orientation.DOWN};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Orientation> randomMoves = new ArrayList<>();
+    private final List<Orientation> runs = new ArrayList<>();
+    private final byte[] encodedRandomMoves;
+    private final byte[] encodedRuns;
+    private final HighScoreEntry entry;
+
+    /**
+     * Prints the sizes of the different representations and starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     * @throws JsonProcessingException
+     *         if the solution could not be converted to JSON
+     */
+    @SuppressWarnings("PMD.SystemPrintln")
+    public static void main(final String... args) throws RunnerException, JsonProcessingException {
+        MoveCodecBenchmark benchmark = new MoveCodecBenchmark();
+        System.out.format("Names: %d bytes, encoded: %d bytes (random), %d bytes (runs), entry: %d bytes%n",
+                benchmark.writeNames().length, benchmark.encodedRandomMoves.length, benchmark.encodedRuns.length,
+                benchmark.writeEntry().length);
+
+        new Runner(new OptionsBuilder().include(MoveCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Creates the solutions.
+     */
+    @SuppressFBWarnings(value = "PREDICTABLE_RANDOM", justification = "The moves need to be reproducible")
+    public MoveCodecBenchmark() {
+        Random random = new Random(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            randomMoves.add(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+        }
+        while (runs.size() < SIZE) {
+            runs.addAll(Collections.nCopies(8, DIRECTIONS[random.nextInt(DIRECTIONS.length)]));
+        }
+        encodedRandomMoves = MoveCodec.encode(randomMoves);
+        encodedRuns = MoveCodec.encode(runs);
+        entry = new HighScoreEntryBuilder().withPlayerName("Player").withLevelName("Level")
+                .withSolution(randomMoves).build();
+    }
+
+    /**
+     * Encodes the random moves.
+     *
+     * @return the encoded moves
+     */
+    @Benchmark
+    public byte[] encodeRandomMoves() {
+        return MoveCodec.encode(randomMoves);
+    }
+
+    /**
+     * Decodes the random moves.
+     *
+     * @return the moves
+     */
+    @Benchmark
+    public List<Orientation> decodeRandomMoves() {
+        return MoveCodec.decode(encodedRandomMoves);
+    }
+
+    /**
+     * Encodes the runs.
+     *
+     * @return the encoded moves
+     */
+    @Benchmark
+    public byte[] encodeRuns() {
+        return MoveCodec.encode(runs);
+    }
+
+    /**
+     * Decodes the runs.
+     *
+     * @return the moves
+     */
+    @Benchmark
+    public List<Orientation> decodeRuns() {
+        return MoveCodec.decode(encodedRuns);
+    }
+
+    /**
+     * Converts the random moves to a JSON array of names.
+     *
+     * @return the JSON representation
+     * @throws JsonProcessingException
+     *         if the solution could not be converted
+     */
+    @Benchmark
+    public byte[] writeNames() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(randomMoves);
+    }
+
+    /**
+     * Converts the entry with the random moves to JSON.
+     *
+     * @return the JSON representation
+     */
+    @Benchmark
+    public byte[] writeEntry() {
+        return HighScoreJson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static edu.hm.hafner.sokoban.Field.*;
+
+/**
+ * Measures the number of flood fills per second of {@link PlayerReachability} on the "minicosmos" level. Run the
+ * benchmark by starting the main method after the test classes have been compiled (e.g. from within the IDE).
+ *
+ * @author Ullrich Hafner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerReachabilityBenchmark {
+    private final PlayerReachability reachability;
+    private final SokobanState start;
+    private final SokobanState pushed;
+
+    /**
+     * Starts the benchmark.
+     *
+     * @param args
+     *         not used
+     *
+     * @throws RunnerException
+     *         if the benchmark fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PlayerReachabilityBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Creates the "minicosmos" level and two states with different treasure positions.
+     */
+    public PlayerReachabilityBenchmark() {
+        SokobanGameModel level = new SokobanGameModel("Mini Cosmos");
+        level.setLevel(new Field[][] {
+                {BACKGROUND, BACKGROUND, WALL, WALL, WALL, WALL, WALL, BACKGROUND},
+                {WALL, WALL, WALL, FLOOR, FLOOR, FLOOR, WALL, BACKGROUND},
+                {WALL, FLOOR, FLOOR, FLOOR, WALL, FLOOR, WALL, WALL},
+                {WALL, FLOOR, WALL, FLOOR, FLOOR, TARGET, FLOOR, WALL},
+                {WALL, FLOOR, FLOOR, FLOOR, FLOOR, WALL, FLOOR, WALL},
+                {WALL, WALL, FLOOR, WALL, FLOOR, FLOOR, FLOOR, WALL},
+                {BACKGROUND, WALL, FLOOR, FLOOR, FLOOR, WALL, WALL, WALL},
+                {BACKGROUND, WALL, WALL, WALL, WALL, WALL, BACKGROUND, BACKGROUND},
+        });
+        level.setPlayer(new Point(2, 6));
+        level.addTreasure(new Point(2, 2));
+        level.validate();
+
+        SokobanBoard board = level.getBoard();
+        reachability = new PlayerReachability(board);
+        start = board.createState(level);
+        pushed = new SokobanState(start.getPlayer(), new int[] {board.toCell(new Point(3, 2))});
+    }
+
+    /**
+     * Floods the level for alternating treasure positions, so that the cached region can't be reused.
+     *
+     * @return the normalized player positions
+     */
+    @Benchmark
+    public int fill() {
+        return reachability.fill(start) + reachability.fill(pushed);
+    }
+
+    /**
+     * Normalizes a state whose region has been computed before.
+     *
+     * @return the normalized player position
+     */
+    @Benchmark
+    public int fillCachedRegion() {
+        return reachability.fill(start);
+    }
+}
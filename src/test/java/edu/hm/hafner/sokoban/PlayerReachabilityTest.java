@@ -0,0 +1,86 @@
+package edu.hm.hafner.sokoban;
+
+import org.junit.jupiter.api.Test;
+
+import static edu.hm.hafner.sokoban.Field.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link PlayerReachability}.
+ *
+ * @author Ullrich Hafner
+ */
+class PlayerReachabilityTest {
+    /** Verifies that all cells of the level besides the treasures are reachable. */
+    @Test
+    void shouldReachAllCellsBesidesTreasures() {
+        AbstractSokobanModel level = SokobanGameModelTest.createLevel();
+        SokobanBoard board = level.getBoard();
+        PlayerReachability reachability = new PlayerReachability(board);
+
+        int normalized = reachability.fill(board.createState(level));
+
+        assertThat(board.toPoint(normalized)).isEqualTo(new Point(2, 2));
+        assertThat(reachability.getReachableCount()).isEqualTo(12);
+        assertThat(reachability.isReachable(board.toCell(new Point(5, 5)))).isTrue();
+        assertThat(reachability.isReachable(board.toCell(new Point(2, 4)))).isFalse();
+        assertThat(reachability.isReachable(board.toCell(new Point(1, 1)))).isFalse();
+    }
+
+    /** Verifies that a treasure separates the level into two regions with different normalized positions. */
+    @Test
+    void shouldDetectRegionsThatAreSeparatedByTreasure() {
+        SokobanGameModel level = new SokobanGameModel("Corridor");
+        level.setLevel(new Field[][] {
+                {WALL, WALL, WALL, WALL, WALL, WALL},
+                {WALL, FLOOR, FLOOR, FLOOR, TARGET, WALL},
+                {WALL, WALL, WALL, WALL, WALL, WALL},
+        });
+        level.setPlayer(new Point(1, 1));
+        level.addTreasure(new Point(2, 1));
+        SokobanBoard board = level.getBoard();
+        PlayerReachability reachability = new PlayerReachability(board);
+
+        SokobanState left = board.createState(level);
+        assertThat(reachability.fill(left)).isEqualTo(board.toCell(new Point(1, 1)));
+        assertThat(reachability.getReachableCount()).isEqualTo(1);
+
+        SokobanState right = left.withPlayer(board.toCell(new Point(4, 1)));
+        assertThat(reachability.fill(right)).isEqualTo(board.toCell(new Point(3, 1)));
+        assertThat(reachability.getReachableCount()).isEqualTo(2);
+        assertThat(reachability.normalize(right)).isEqualTo(left.withPlayer(board.toCell(new Point(3, 1))));
+    }
+
+    /** Verifies that the normalized position of a player that walks within the same region is not changed. */
+    @Test
+    void shouldReuseNormalizedPositionWithinSameRegion() {
+        AbstractSokobanModel level = SokobanGameModelTest.createLevel();
+        SokobanBoard board = level.getBoard();
+        PlayerReachability reachability = new PlayerReachability(board);
+        SokobanState state = board.createState(level);
+
+        int normalized = reachability.fill(state);
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (reachability.isReachable(cell)) {
+                assertThat(reachability.fill(state.withPlayer(cell))).isEqualTo(normalized);
+            }
+        }
+    }
+
+    /** Verifies that the model provides the reachable positions of the player. */
+    @Test
+    void shouldProvideReachablePositionsInModel() {
+        AbstractSokobanModel level = SokobanGameModelTest.createLevel();
+
+        assertThat(level.getNormalizedPlayer()).isEqualTo(new Point(2, 2));
+        assertThat(level.getReachablePositions()).hasSize(12)
+                .startsWith(new Point(2, 2), new Point(3, 2))
+                .contains(new Point(3, 4))
+                .doesNotContain(new Point(2, 4), new Point(4, 5));
+        assertThat(level.isReachable(new Point(3, 6))).isTrue();
+        assertThat(level.isReachable(new Point(4, 5))).isFalse();
+        assertThat(level.isReachable(new Point(0, 0))).isFalse();
+        assertThat(level.isReachable(new Point(-1, 0))).isFalse();
+        assertThat(level.isReachable(new Point(0, 20))).isFalse();
+    }
+}
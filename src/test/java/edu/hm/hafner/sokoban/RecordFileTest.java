@@ -0,0 +1,79 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link RecordFile}.
+ *
+ * @author Ullrich Hafner
+ */
+class RecordFileTest {
+    private static final int MAGIC = 0x534F4B54;
+    private static final int VERSION = 3;
+
+    @TempDir
+    @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that the header and the records are read back in the order they have been written. */
+    @Test
+    void shouldReadWrittenRecords() throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(writeRecords("first", "second"));
+
+        assertThat(content.getInt()).isEqualTo(MAGIC);
+        assertThat(content.getInt()).isEqualTo(VERSION);
+        assertThat(RecordFile.readPayload(content)).hasValueSatisfying(payload -> assertThat(payload).isEqualTo(
+                toBuffer("first")));
+        assertThat(RecordFile.readPayload(content)).hasValueSatisfying(payload -> assertThat(payload).isEqualTo(
+                toBuffer("second")));
+        assertThat(RecordFile.readPayload(content)).isEmpty();
+    }
+
+    /** Verifies that a record with a wrong checksum is not read. */
+    @Test
+    void shouldRejectDamagedRecord() throws IOException {
+        byte[] bytes = writeRecords("first");
+        int payloadStart = RecordFile.HEADER_SIZE + Integer.BYTES;
+        bytes[payloadStart] = (byte) (bytes[payloadStart] + 1);
+        ByteBuffer content = ByteBuffer.wrap(bytes);
+        content.position(RecordFile.HEADER_SIZE);
+
+        assertThat(RecordFile.readPayload(content)).isEmpty();
+    }
+
+    /** Verifies that a record that has been cut off is not read. */
+    @Test
+    void shouldRejectTruncatedRecord() throws IOException {
+        byte[] bytes = writeRecords("first");
+        ByteBuffer content = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        content.position(RecordFile.HEADER_SIZE);
+
+        assertThat(RecordFile.readPayload(content)).isEmpty();
+    }
+
+    private byte[] writeRecords(final String... payloads) throws IOException {
+        Path file = folder.resolve("records.bin");
+        try (FileChannel output = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            RecordFile.writeHeader(output, MAGIC, VERSION);
+            for (String payload : payloads) {
+                RecordFile.write(output, RecordFile.toRecord(payload.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return Files.readAllBytes(file);
+    }
+
+    private ByteBuffer toBuffer(final String payload) {
+        return ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,259 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry;
+import edu.hm.hafner.sokoban.model.MoveCodec;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ScoreLog}.
+ *
+ * @author Ullrich Hafner
+ */
+class ScoreLogTest {
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.UP,
+            Orientation.RIGHT, Orientation.DOWN, Orientation.DOWN);
+    private static final int TIMEOUT = 10;
+    private static final int MAGIC = 0x534F4B4C;
+    private static final byte REGISTERED = 1;
+    private static final byte REMOVED = 2;
+
+    @TempDir
+    @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that the scores are restored after a restart. */
+    @Test
+    void shouldRestoreScores() {
+        Path file = folder.resolve("scores.log");
+        List<HighScoreEntry> board;
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+            service.registerSolution("Alice", "Level", 5, 1, SOLUTION);
+            service.registerSolution("Bob", "Level", 3, 2, SOLUTION);
+            service.registerSolution("Carol", "Level", 4, 1, SOLUTION);
+            service.registerSolution("Alice", "Other", 7, 1, SOLUTION);
+            service.registerSolution("Dave", "Other", 9, 1, SOLUTION);
+            service.removeScoresFor("Alice");
+            service.setNumberOfEntriesPerLevel(1);
+            service.registerSolution("Eve", "Level", 8, 1, SOLUTION);
+            board = service.getBoard("Level");
+        }
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+
+            assertThat(service.getBoard("Level")).isEqualTo(board).extracting(HighScoreEntry::getPlayerName)
+                    .containsExactly("Bob");
+            assertThat(service.getBoard("Other")).extracting(HighScoreEntry::getPlayerName).containsExactly("Dave");
+            assertThat(service.getBestSolutionFor("Level")).isEqualTo(SOLUTION);
+
+            service.registerSolution("Frank", "Level", 1, 1, SOLUTION);
+            assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName).containsExactly("Frank");
+
+            service.clear();
+        }
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            assertThat(new LocalHighScoreService(log).getBoard("Other")).isEmpty();
+        }
+    }
+
+    /** Verifies that an incomplete record at the end of the log is cut off. */
+    @Test
+    void shouldDiscardIncompleteRecord() throws IOException {
+        Path file = folder.resolve("scores.log");
+        try (ScoreLog log = ScoreLog.open(file)) {
+            new LocalHighScoreService(log).registerSolution("Alice", "Level", 5, 1, SOLUTION);
+        }
+        long size = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+
+            assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName).containsExactly("Alice");
+            assertThat(log.getSizeInBytes()).isEqualTo(size);
+        }
+        assertThat(Files.size(file)).isEqualTo(size);
+    }
+
+    /** Verifies that the log is compacted if it contains too many evicted entries. */
+    @Test
+    void shouldCompactLog() {
+        Path file = folder.resolve("scores.log");
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+            service.setNumberOfEntriesPerLevel(1);
+
+            for (int moves = 10_000; moves > 0; moves--) {
+                service.registerSolution("Player " + moves, "Level", moves, 1, SOLUTION);
+            }
+
+            assertThat(log.getSizeInBytes()).isLessThan(200_000);
+        }
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+
+            assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                    .containsExactly("Player 1");
+            service.registerSolution("Late", "Level", 2, 1, SOLUTION);
+            assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                    .containsExactly("Player 1");
+        }
+    }
+
+    /** Verifies that concurrent registrations are all written to the log. */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void shouldLogConcurrentRegistrations() throws InterruptedException, ExecutionException, TimeoutException {
+        Path file = folder.resolve("scores.log");
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> registrations = new ArrayList<>();
+                for (int thread = 0; thread < 8; thread++) {
+                    String player = "Player " + thread;
+                    registrations.add(executor.submit(() -> {
+                        for (int moves = 1; moves <= 50; moves++) {
+                            service.registerSolution(player, "Level " + moves % 3, moves, 1, SOLUTION);
+                        }
+                    }));
+                }
+                for (Future<?> registration : registrations) {
+                    registration.get(TIMEOUT, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+
+            int size = 0;
+            for (int level = 0; level < 3; level++) {
+                size += service.getBoard("Level " + level).size();
+            }
+            assertThat(size).isEqualTo(400);
+        }
+    }
+
+    /** Verifies that other files are not accepted as log. */
+    @Test
+    void shouldRejectOtherFiles() throws IOException {
+        Path file = folder.resolve("other.txt");
+        Files.write(file, "This is not a log".getBytes(StandardCharsets.UTF_8));
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            assertThatIllegalArgumentException().isThrownBy(() -> new LocalHighScoreService(log));
+        }
+    }
+
+    /** Verifies that a log of the first version with packed moves is migrated to the current version. */
+    @Test
+    void shouldMigrateLogWithPackedMoves() throws IOException {
+        Path file = folder.resolve("scores.log");
+        Instant timestamp = Instant.ofEpochSecond(1_588_328_130L);
+        Files.write(file, concat(header(1),
+                record(REGISTERED, packedEntry("Alice", 5, timestamp)),
+                record(REGISTERED, packedEntry("Bob", 3, timestamp)),
+                record(REMOVED, name("Bob"))));
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            LocalHighScoreService service = new LocalHighScoreService(log);
+
+            assertThat(service.getBoard("Level")).extracting(HighScoreEntry::getPlayerName).containsExactly("Alice");
+            assertThat(service.getBestSolutionFor("Level")).isEqualTo(SOLUTION);
+            assertThat(service.getBoard("Level").get(0).getInstant()).isEqualTo(timestamp);
+
+            service.registerSolution("Carol", "Level", 4, 1, SOLUTION);
+        }
+        assertThat(Arrays.copyOf(Files.readAllBytes(file), Long.BYTES)).isEqualTo(header(2));
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            assertThat(new LocalHighScoreService(log).getBoard("Level")).extracting(HighScoreEntry::getPlayerName)
+                    .containsExactly("Carol", "Alice");
+        }
+    }
+
+    /** Verifies that a log of an unknown version is rejected and not modified. */
+    @Test
+    void shouldRejectUnknownVersion() throws IOException {
+        Path file = folder.resolve("scores.log");
+        byte[] content = concat(header(99), record(REMOVED, name("Bob")));
+        Files.write(file, content);
+
+        try (ScoreLog log = ScoreLog.open(file)) {
+            assertThatIllegalArgumentException().isThrownBy(() -> new LocalHighScoreService(log))
+                    .withMessageContaining("Unsupported version 99");
+        }
+        assertThat(Files.readAllBytes(file)).isEqualTo(content);
+    }
+
+    private static byte[] header(final int version) {
+        return ByteBuffer.allocate(Long.BYTES).putInt(MAGIC).putInt(version).array();
+    }
+
+    // Creates a registration in the layout of the first version: the number of moves and 2 bits per move
+    private static byte[] packedEntry(final String player, final int numberOfMoves, final Instant timestamp) {
+        byte[] level = name("Level");
+        byte[] name = name(player);
+        byte[] moves = MoveCodec.pack(SOLUTION);
+        return ByteBuffer.allocate(level.length + name.length + 3 * Integer.BYTES + Long.BYTES + Integer.BYTES
+                        + moves.length)
+                .put(level).put(name)
+                .putInt(numberOfMoves).putInt(1)
+                .putLong(timestamp.getEpochSecond()).putInt(timestamp.getNano())
+                .putInt(SOLUTION.size()).put(moves)
+                .array();
+    }
+
+    private static byte[] name(final String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(Short.BYTES + encoded.length).putShort((short) encoded.length).put(encoded).array();
+    }
+
+    private static byte[] record(final byte type, final byte[] data) {
+        byte[] payload = concat(new byte[] {type}, data);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(Integer.BYTES + payload.length + Long.BYTES)
+                .putInt(payload.length).put(payload).putLong(crc.getValue())
+                .array();
+    }
+
+    private static byte[] concat(final byte[]... parts) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            output.write(part, 0, part.length);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.CloudHighScoreService.CloudHighScoreServiceBuilder;
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link ScoreOutbox}.
+ *
+ * @author Ullrich Hafner
+ */
+class ScoreOutboxTest {
+    private static final List<Orientation> SOLUTION = Arrays.asList(Orientation.LEFT, Orientation.UP);
+    private static final int TIMEOUT = 10;
+
+    /** Verifies that all submitted solutions are sent to the server. */
+    @Test
+    void shouldSendAllSubmissions() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer();
+                CloudHighScoreService service = server.createServiceBuilder().build()) {
+            List<CompletableFuture<Void>> submissions = IntStream.range(0, 100)
+                    .mapToObj(i -> service.submitSolution("Player " + i, "Level", 2, 1, SOLUTION))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(submissions.toArray(new CompletableFuture<?>[0])).get(TIMEOUT, TimeUnit.SECONDS);
+
+            assertThat(submissions).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+            assertThat(server.getPostedBodies()).hasSize(100)
+                    .anySatisfy(body -> assertThat(body).contains("\"playerName\":\"Player 0\""))
+                    .anySatisfy(body -> assertThat(body).contains("\"playerName\":\"Player 99\""));
+        }
+    }
+
+    /** Verifies that a submission is rejected if the outbox is full. */
+    @Test
+    void shouldRejectSubmissionsIfFull() {
+        Executor noFlush = command -> {
+            // the outbox is never flushed
+        };
+        ScoreOutbox outbox = new ScoreOutbox(new OkHttpClient(),
+                entry -> new Request.Builder().url("http://localhost/").build(), 2, 1, noFlush);
+
+        CompletableFuture<Void> first = outbox.submit(new HighScoreEntryBuilder().build());
+        CompletableFuture<Void> second = outbox.submit(new HighScoreEntryBuilder().build());
+        CompletableFuture<Void> rejected = outbox.submit(new HighScoreEntryBuilder().withPlayerName("Ulli").build());
+
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Outbox is full").hasMessageContaining("Ulli");
+        assertThat(outbox.size()).isEqualTo(2);
+    }
+
+    /** Verifies that entries occupy a slot of the outbox until the server answered the request. */
+    @Test
+    void shouldCountEntriesInFlight() throws InterruptedException, ExecutionException, TimeoutException {
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            server.setDelay(200);
+            ScoreOutbox outbox = new ScoreOutbox(new OkHttpClient(), entry -> new Request.Builder()
+                    .url(server.getUrl()).post(RequestBody.create(null, "{}")).build(), 2, 2, Runnable::run);
+
+            CompletableFuture<Void> first = outbox.submit(new HighScoreEntryBuilder().build());
+            CompletableFuture<Void> second = outbox.submit(new HighScoreEntryBuilder().build());
+            CompletableFuture<Void> rejected = outbox.submit(new HighScoreEntryBuilder().build());
+
+            assertThat(rejected).isCompletedExceptionally();
+            assertThat(outbox.size()).isEqualTo(2);
+
+            first.get(TIMEOUT, TimeUnit.SECONDS);
+            second.get(TIMEOUT, TimeUnit.SECONDS);
+
+            assertThat(outbox.size()).isZero();
+            outbox.submit(new HighScoreEntryBuilder().build()).get(TIMEOUT, TimeUnit.SECONDS);
+            assertThat(server.getPostedBodies()).hasSize(3);
+        }
+    }
+
+    /** Verifies that a failed request completes the future exceptionally. */
+    @Test
+    void shouldReportFailedRequests() {
+        String url;
+        try (HighScoreStubServer server = new HighScoreStubServer()) {
+            url = server.getUrl();
+        }
+        try (CloudHighScoreService service = new CloudHighScoreServiceBuilder().withServiceUrl(url).build()) {
+            CompletableFuture<Void> submission = service.submitSolution("Ulli", "Level", 2, 1, SOLUTION);
+
+            assertThatThrownBy(() -> submission.get(TIMEOUT, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package edu.hm.hafner.sokoban;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the classes {@link SearchStatistics}, {@link SearchProbe}, and {@link SearchStatisticsLogger}.
+ *
+ * @author Ullrich Hafner
+ */
+class SearchStatisticsTest {
+    /** Verifies that the probe publishes the counters of a search. */
+    @Test
+    void shouldPublishCountersOfSearch() {
+        SearchStatistics statistics = SearchStatistics.forEngine("Test");
+        SearchProbe probe = statistics.startSearch();
+
+        assertThat(statistics.getActiveSearches()).isEqualTo(1);
+
+        probe.expanded(3);
+        probe.generated();
+        probe.generated();
+        probe.duplicate();
+        probe.pruned();
+
+        assertThat(statistics.getNodesExpanded()).isZero();
+
+        probe.finish();
+
+        assertThat(statistics.getSearches()).isEqualTo(1);
+        assertThat(statistics.getActiveSearches()).isZero();
+        assertThat(statistics.getNodesExpanded()).isEqualTo(1);
+        assertThat(statistics.getNodesGenerated()).isEqualTo(3);
+        assertThat(statistics.getDuplicates()).isEqualTo(1);
+        assertThat(statistics.getDuplicateRate()).isEqualTo(1.0 / 3);
+        assertThat(statistics.getDeadlockPrunes()).isEqualTo(1);
+        assertThat(statistics.getFrontierSize()).isEqualTo(3);
+        assertThat(statistics.getStatesPerSecond()).isPositive();
+        assertThat(statistics.getUsedMemory()).isPositive();
+    }
+
+    /** Verifies that the solver reports its progress and the statistics are available via JMX. */
+    @Test
+    void shouldExposeSolverStatisticsViaJmx() throws JMException {
+        assertThat(new SokobanSolver().solve(SokobanSolverTest.createLevel())).isPresent();
+
+        SearchStatistics statistics = SearchStatistics.forEngine("SokobanSolver");
+        assertThat(statistics.getNodesExpanded()).isPositive();
+        assertThat(statistics.getNodesGenerated()).isGreaterThanOrEqualTo(statistics.getNodesExpanded());
+        assertThat(statistics.getDeadlockPrunes()).isPositive();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("edu.hm.hafner.sokoban:type=SearchStatistics,engine=SokobanSolver");
+        assertThat(server.getAttribute(name, "Engine")).isEqualTo("SokobanSolver");
+        assertThat((Long) server.getAttribute(name, "NodesExpanded")).isPositive();
+    }
+
+    /** Verifies that only engines with running searches are logged. */
+    @Test
+    void shouldLogActiveEngines() {
+        SearchStatistics statistics = SearchStatistics.forEngine("Logged");
+        List<String> lines = new ArrayList<>();
+
+        SearchStatisticsLogger.print((format, args) -> lines.add(String.format(format, args)));
+        assertThat(lines).noneMatch(line -> line.startsWith("Logged:"));
+
+        SearchProbe probe = statistics.startSearch();
+        SearchStatisticsLogger.print((format, args) -> lines.add(String.format(format, args)));
+        probe.finish();
+
+        assertThat(lines).anyMatch(line -> line.startsWith("Logged: 1 searches (1 active)"));
+        assertThatIllegalArgumentException().isThrownBy(() -> new SearchStatisticsLogger((format, args) -> lines.add(format), 0));
+    }
+}
@@ -0,0 +1,100 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link SlcReader}.
+ *
+ * @author Ullrich Hafner
+ */
+class SlcReaderTest {
+    private static final String COLLECTION = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<SokobanLevels>\n"
+            + "  <Title>Test</Title>\n"
+            + "  <LevelCollection Copyright=\"Nobody\">\n"
+            + "    <Level Id=\"First\" Width=\"5\" Height=\"3\">\n"
+            + "      <L>#####</L>\n"
+            + "      <L>#@$.#</L>\n"
+            + "      <L>#####</L>\n"
+            + "    </Level>\n"
+            + "    <Level Width=\"6\" Height=\"3\">\n"
+            + "      <L>######</L>\n"
+            + "      <L>#@ $.#</L>\n"
+            + "      <L>######</L>\n"
+            + "    </Level>\n"
+            + "  </LevelCollection>\n"
+            + "</SokobanLevels>\n";
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    /** Verifies that all levels of a SLC file are read. */
+    @Test
+    void shouldReadAllLevels() {
+        List<SokobanGameModel> levels = new SlcReader().read("Collection",
+                new ByteArrayInputStream(COLLECTION.substring(1).getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+
+        assertThat(levels).extracting(AbstractSokobanModel::getName).containsExactly("First", "Collection #2");
+        assertThat(levels).extracting(AbstractSokobanModel::getWidth).containsExactly(5, 6);
+        assertThat(levels.get(1).getPlayer()).isEqualTo(new Point(1, 1));
+        assertThat(levels.get(1).getTreasures()).containsExactly(new Point(3, 1));
+        levels.forEach(AbstractSokobanModel::validate);
+    }
+
+    /** Verifies that a level without rows is skipped and the remaining levels are still read. */
+    @Test
+    void shouldSkipEmptyLevel() {
+        String collection = "<SokobanLevels><LevelCollection>"
+                + "<Level Id=\"Empty\" Width=\"0\" Height=\"0\"></Level>"
+                + "<Level><L>#####</L><L>#@$.#</L><L>#####</L></Level>"
+                + "</LevelCollection></SokobanLevels>";
+
+        List<SokobanGameModel> levels = new SlcReader().read("Collection",
+                new ByteArrayInputStream(collection.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+
+        assertThat(levels).extracting(AbstractSokobanModel::getName).containsExactly("Collection #2");
+        assertThat(levels.get(0).getTreasures()).containsExactly(new Point(2, 1));
+    }
+
+    /** Verifies that malformed XML is rejected. */
+    @Test
+    void shouldRejectMalformedXml() {
+        Stream<SokobanGameModel> levels = new SlcReader().read("Broken",
+                new ByteArrayInputStream("<SokobanLevels><Level><L>###</Level>".getBytes(StandardCharsets.UTF_8)));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> levels.collect(Collectors.toList()))
+                .withMessageContaining("Broken");
+    }
+
+    /** Verifies that the format of a collection file is detected. */
+    @Test
+    void shouldDetectFormatOfCollectionFile() throws IOException {
+        Path slc = folder.resolve("collection.slc");
+        Files.write(slc, COLLECTION.getBytes(StandardCharsets.UTF_8));
+        Path ascii = folder.resolve("collection.sok");
+        Files.write(ascii, "5#|#@$.#|5#\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(SokobanCollectionReader.isXml(slc)).isTrue();
+        assertThat(SokobanCollectionReader.isXml(ascii)).isFalse();
+        try (Stream<SokobanGameModel> levels = new SokobanCollectionReader().read(slc)) {
+            assertThat(levels).extracting(AbstractSokobanModel::getName).containsExactly("First", "collection #2");
+        }
+        try (Stream<SokobanGameModel> levels = new SokobanCollectionReader().read(ascii)) {
+            assertThat(levels).hasSize(1).first().satisfies(level -> assertThat(level.getWidth()).isEqualTo(5));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link SokobanCollectionReader}.
+ *
+ * @author Ullrich Hafner
+ */
+class SokobanCollectionReaderTest {
+    private static final String COLLECTION = String.join("\n",
+            ":: Title: First",
+            ":: Author: Somebody",
+            "#####",
+            "#@$.#",
+            "#####",
+            "",
+            "Second Level",
+            "######",
+            "#@ $.#",
+            "######",
+            ":: Author: Nobody",
+            "#####",
+            "#.$@#",
+            "#####");
+
+    /** Verifies that all levels of a collection are read with the names of the headers. */
+    @Test
+    void shouldReadAllLevelsOfCollection() {
+        List<SokobanGameModel> levels = new SokobanCollectionReader().read("Collection", new StringReader(COLLECTION))
+                .collect(Collectors.toList());
+
+        assertThat(levels).extracting(AbstractSokobanModel::getName)
+                .containsExactly("First", "Second Level", "Collection #3");
+        assertThat(levels).extracting(AbstractSokobanModel::getWidth).containsExactly(5, 6, 5);
+        assertThat(levels.get(1).getPlayer()).isEqualTo(new Point(1, 1));
+        assertThat(levels.get(2).getTreasures()).containsExactly(new Point(2, 1));
+        levels.forEach(AbstractSokobanModel::validate);
+    }
+
+    /** Verifies that the levels are read lazily one after another. */
+    @Test
+    void shouldReadLevelsLazily() {
+        String collection = IntStream.range(0, 1000)
+                .mapToObj(i -> String.format(":: Title: Level %d%n#####%n#@$.#%n#####%n", i))
+                .collect(Collectors.joining());
+
+        Iterator<SokobanGameModel> levels = new SokobanCollectionReader()
+                .read("Large", new StringReader(collection)).iterator();
+
+        assertThat(levels.next().getName()).isEqualTo("Level 0");
+        assertThat(levels.next().getName()).isEqualTo("Level 1");
+        assertThat(levels).toIterable().hasSize(998);
+    }
+
+    /** Verifies that the levels of a file are read and named after the file. */
+    @Test
+    void shouldReadLevelsOfFile() throws URISyntaxException {
+        Path file = Paths.get(SokobanCollectionReaderTest.class.getResource("/chaos.sok").toURI());
+
+        try (Stream<SokobanGameModel> levels = new SokobanCollectionReader().read(file)) {
+            assertThat(levels).hasSize(1).first().satisfies(level -> {
+                assertThat(level.getName()).isEqualTo("chaos");
+                assertThat(level.getTreasures()).hasSize(4);
+            });
+        }
+    }
+
+    /** Verifies that the name of a level is taken from the header. */
+    @Test
+    void shouldDetermineLevelName() {
+        assertThat(SokobanCollectionReader.getLevelName("Collection", 0, Arrays.asList(":: Author: A", "Hello")))
+                .isEqualTo("Hello");
+        assertThat(SokobanCollectionReader.getLevelName("Collection", 0, Arrays.asList(":: Title: Hello")))
+                .isEqualTo("Hello");
+        assertThat(SokobanCollectionReader.getLevelName("Collection", 0, Arrays.asList("Hello", "Title: World")))
+                .isEqualTo("World");
+        assertThat(SokobanCollectionReader.getLevelName("Collection", 0, Arrays.asList(":: Author: A", ":: Copyright", "")))
+                .isEqualTo("Collection");
+        assertThat(SokobanCollectionReader.getLevelName("Collection", 1, Arrays.asList()))
+                .isEqualTo("Collection #2");
+        assertThat(SokobanCollectionReader.getCollectionName(Paths.get("levels", "original.sok")))
+                .isEqualTo("original");
+    }
+}
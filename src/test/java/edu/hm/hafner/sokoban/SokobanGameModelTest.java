@@ -2,6 +2,8 @@ package edu.hm.hafner.sokoban;
 
 import org.junit.jupiter.api.Test;
 
+import edu.hm.hafner.sokoban.SokobanGameModel.SokobanGameModelBuilder;
+
 import static edu.hm.hafner.sokoban.Field.*;
 import static org.assertj.core.api.Assertions.*;
 
@@ -40,6 +42,42 @@ class SokobanGameModelTest extends SokobanTest {
         assertThatTreasuresAreAt(sokoban, new Point(2, 3), new Point(3, 5));
     }
 
+    /** Verifies that the builder hands its fields over to the model and is reset afterwards. */
+    @Test
+    void shouldBuildModel() {
+        SokobanGameModelBuilder builder = new SokobanGameModelBuilder().withName("Built").withSize(5, 3);
+        for (int x = 0; x < 5; x++) {
+            builder.withField(x, 0, WALL).withField(x, 2, WALL);
+        }
+        builder.withField(0, 1, WALL).withField(1, 1, FLOOR).withField(2, 1, FLOOR)
+                .withField(3, 1, TARGET).withField(4, 1, WALL)
+                .withPlayer(new Point(1, 1)).withTreasure(new Point(2, 1));
+
+        SokobanGameModel sokoban = builder.build();
+        sokoban.validate();
+
+        assertThat(sokoban.getName()).isEqualTo("Built");
+        assertThat(sokoban.getWidth()).isEqualTo(5);
+        assertThat(sokoban.getHeight()).isEqualTo(3);
+        assertThat(sokoban.getField(new Point(3, 1))).isEqualTo(TARGET);
+        assertThatPlayerIsAt(sokoban, new Point(1, 1));
+        assertThatTreasuresAreAt(sokoban, new Point(2, 1));
+
+        assertThatIllegalArgumentException().isThrownBy(builder::build).withMessageContaining("no lines");
+    }
+
+    /** Verifies that the fields are copied by {@link AbstractSokobanModel#setLevel(Field[][])}. */
+    @Test
+    void shouldCopyFieldsOfLevel() {
+        Field[][] fields = {{WALL, WALL, WALL}, {WALL, FLOOR, WALL}, {WALL, WALL, WALL}};
+        SokobanGameModel sokoban = new SokobanGameModel("Copy");
+        sokoban.setLevel(fields);
+
+        fields[1][1] = TARGET;
+
+        assertThat(sokoban.getField(new Point(1, 1))).isEqualTo(FLOOR);
+    }
+
     private void assertThatPlayerIsAt(final AbstractSokobanModel sokoban, final Point player) {
         assertThat(sokoban.getPlayer()).as("Player at wrong position").isEqualTo(player);
     }
@@ -51,7 +89,7 @@ class SokobanGameModelTest extends SokobanTest {
         }
     }
 
-    private static AbstractSokobanModel createLevel() {
+    static AbstractSokobanModel createLevel() {
         Field[][] fields = {
                 {BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND},
                 {BACKGROUND, WALL, WALL, WALL, WALL, BACKGROUND, BACKGROUND, BACKGROUND},
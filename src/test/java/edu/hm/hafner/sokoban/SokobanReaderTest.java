@@ -101,6 +101,44 @@ class SokobanReaderTest {
         assertThatTreasuresAreAt(sokoban, new Point(1, 3), new Point(3, 4));
     }
 
+    /** Verifies that levels in XSB and RLE format are read like the same level in ASCII format. */
+    @Test
+    void shouldReadXsbAndRunLengthEncodedLevels() {
+        SokobanReader converter = new SokobanReader();
+        AbstractSokobanModel ascii = converter.read("ASCII",
+                asList("####", "# .#", "#  ###", "#*@  #", "#  $ #", "#  ###", "####"));
+
+        assertThatLevelsAreEqual(converter.read("XSB",
+                asList("####", "#-.#", "#--###", "#*@__#", "#--$-#", "#--###", "####")), ascii);
+        assertThatLevelsAreEqual(converter.read("RLE",
+                asList("4#|#-.#|#2-3#|#*@2-#|#2-$-#|#2-3#|4#")), ascii);
+        assertThatLevelsAreEqual(converter.read("RLE rows",
+                asList("4#", "# .#", "#2 3#", "#*@2 #", "#2 $ #", "#2-3#", "4#")), ascii);
+    }
+
+    /** Verifies that run length encoded lines are expanded. */
+    @Test
+    void shouldDecodeRunLength() {
+        assertThat(SokobanReader.isRunLengthEncoded("12#|#@$.#")).isTrue();
+        assertThat(SokobanReader.isRunLengthEncoded("#@$.#")).isFalse();
+        assertThat(SokobanReader.isRunLengthEncoded("Level 12")).isFalse();
+        assertThat(SokobanReader.decodeRunLength("12#|#@$10-.#||3#"))
+                .containsExactly("############", "#@$----------.#", "", "###");
+    }
+
+    private void assertThatLevelsAreEqual(final AbstractSokobanModel actual, final AbstractSokobanModel expected) {
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                Point point = new Point(x, y);
+                assertThat(actual.getField(point)).as("Field %s", point).isEqualTo(expected.getField(point));
+            }
+        }
+        assertThatPlayerIsAt(actual, expected.getPlayer());
+        assertThatTreasuresAreAt(actual, expected.getTreasures().toArray(new Point[0]));
+    }
+
     /** Verifies that a rectangular level with a player on a target is correctly read. */
     @Test
     void shouldReadRectangleLevel() {
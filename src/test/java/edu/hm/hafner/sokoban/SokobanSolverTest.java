@@ -0,0 +1,103 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static edu.hm.hafner.sokoban.Field.*;
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link SokobanSolver}.
+ *
+ * @author Ullrich Hafner
+ */
+class SokobanSolverTest {
+    /** Verifies that a corridor is solved by walking to the treasure and pushing it onto the target. */
+    @Test
+    void shouldSolveCorridor() {
+        SokobanGameModel level = createCorridor("Corridor", new Point(3, 1));
+
+        assertThat(new SokobanSolver().solve(level)).contains(Arrays.asList(RIGHT, RIGHT, RIGHT));
+    }
+
+    /** Verifies that a level with two treasures is solved. */
+    @Test
+    void shouldSolveLevelWithTwoTreasures() {
+        AbstractSokobanModel level = createLevel();
+
+        Optional<List<Orientation>> solution = new SokobanSolver().solve(level);
+
+        assertThat(solution).isPresent();
+        assertThatMovesSolve(level, solution.get());
+    }
+
+    /** Verifies that a solved level needs no moves. */
+    @Test
+    void shouldReturnEmptySolutionForSolvedLevel() {
+        SokobanGameModel level = createCorridor("Corridor", new Point(5, 1));
+
+        assertThat(new SokobanSolver().solve(level)).contains(Collections.emptyList());
+    }
+
+    /** Verifies that no solution is returned if the level can't be solved or the search limit is reached. */
+    @Test
+    void shouldNotSolveDeadLevel() {
+        SokobanGameModel level = createCorridor("Corridor", new Point(3, 1));
+        level.setPlayer(new Point(4, 1));
+
+        assertThat(new SokobanSolver().solve(level)).isEmpty();
+        assertThat(new SokobanSolver(1).solve(createLevel())).isEmpty();
+        assertThatIllegalArgumentException().isThrownBy(() -> new SokobanSolver(0));
+    }
+
+    static void assertThatMovesSolve(final AbstractSokobanModel level, final List<Orientation> moves) {
+        SokobanBoard board = level.getBoard();
+        SokobanState state = board.createState(level);
+        for (Orientation move : moves) {
+            state = state.move(board, SokobanBoard.toDirection(move));
+        }
+        assertThat(state.isSolved(board)).as("Moves %s do not solve the level", moves).isTrue();
+    }
+
+    static SokobanGameModel createCorridor(final String name, final Point treasure) {
+        Field[][] fields = {
+                {WALL, WALL, WALL, WALL, WALL, WALL, WALL},
+                {WALL, FLOOR, FLOOR, FLOOR, FLOOR, TARGET, WALL},
+                {WALL, WALL, WALL, WALL, WALL, WALL, WALL},
+        };
+        SokobanGameModel sokoban = new SokobanGameModel(name);
+        sokoban.setLevel(fields);
+        sokoban.setPlayer(new Point(1, 1));
+        sokoban.addTreasure(treasure);
+        sokoban.validate();
+        return sokoban;
+    }
+
+    static AbstractSokobanModel createLevel() {
+        Field[][] fields = {
+                {BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND},
+                {BACKGROUND, WALL, WALL, WALL, WALL, BACKGROUND, BACKGROUND, BACKGROUND},
+                {BACKGROUND, WALL, FLOOR, TARGET, WALL, BACKGROUND, BACKGROUND, BACKGROUND},
+                {BACKGROUND, WALL, FLOOR, FLOOR, WALL, WALL, WALL, BACKGROUND},
+                {BACKGROUND, WALL, TARGET, FLOOR, FLOOR, FLOOR, WALL, BACKGROUND},
+                {BACKGROUND, WALL, FLOOR, FLOOR, FLOOR, FLOOR, WALL, BACKGROUND},
+                {BACKGROUND, WALL, FLOOR, FLOOR, WALL, WALL, WALL, BACKGROUND},
+                {BACKGROUND, WALL, WALL, WALL, WALL, BACKGROUND, BACKGROUND, BACKGROUND},
+                {BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND, BACKGROUND},
+        };
+        SokobanGameModel sokoban = new SokobanGameModel("Demo Level");
+        sokoban.setLevel(fields);
+        sokoban.setPlayer(new Point(3, 4));
+        sokoban.addTreasure(new Point(2, 4));
+        sokoban.addTreasure(new Point(4, 5));
+        sokoban.validate();
+        return sokoban;
+    }
+}
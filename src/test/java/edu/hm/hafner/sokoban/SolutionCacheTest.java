@@ -0,0 +1,182 @@
+package edu.hm.hafner.sokoban;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ * Tests the class {@link SolutionCache}.
+ *
+ * @author Ullrich Hafner
+ */
+class SolutionCacheTest {
+    private static final long BUDGET = 10_000;
+    private static final List<Orientation> SOLUTION = Arrays.asList(RIGHT, RIGHT);
+
+    @TempDir @SuppressWarnings({"checkstyle:VisibilityModifier", "NullAway.Init"})
+    Path folder;
+
+    private final SokobanReader reader = new SokobanReader();
+
+    /** Verifies that moves are packed with 2 bits per move. */
+    @Test
+    void shouldPackMoves() {
+        List<Orientation> moves = Arrays.asList(LEFT, RIGHT, UP, DOWN, DOWN, UP, RIGHT);
+
+        byte[] packed = SolutionCache.pack(moves);
+
+        assertThat(packed).hasSize(2);
+        assertThat(SolutionCache.unpack(packed, moves.size())).isEqualTo(moves);
+    }
+
+    /** Verifies that a solution is found for the level and for a mirrored copy of the level. */
+    @Test
+    void shouldConvertSolutionForSymmetricLevels() {
+        AbstractSokobanModel level = createCorridor();
+        AbstractSokobanModel mirrored = reader.read("Mirrored", Arrays.asList("######", "#.$ @#", "######"));
+
+        try (SolutionCache cache = SolutionCache.createInMemory(BUDGET)) {
+            cache.put(LevelFingerprint.compute(level), level.getName(), SOLUTION);
+
+            assertThat(cache.get(LevelFingerprint.compute(level))).contains(SOLUTION);
+            assertThat(cache.get(LevelFingerprint.compute(mirrored))).contains(Arrays.asList(LEFT, LEFT));
+            assertThat(cache.get(level.getName())).contains(SOLUTION);
+            assertThat(cache.get("Mirrored")).isEmpty();
+        }
+    }
+
+    /** Verifies that the least recently used solutions are evicted if the budget is exceeded. */
+    @Test
+    void shouldEvictLeastRecentlyUsedSolutions() {
+        try (SolutionCache cache = SolutionCache.createInMemory(300)) {
+            LevelFingerprint first = putCorridor(cache, 1);
+            LevelFingerprint second = putCorridor(cache, 2);
+            assertThat(cache.get(first)).isPresent();
+
+            LevelFingerprint third = putCorridor(cache, 3);
+
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.getSizeInBytes()).isLessThanOrEqualTo(300);
+            assertThat(cache.get(second)).isEmpty();
+            assertThat(cache.get(first)).isPresent();
+            assertThat(cache.get(third)).isPresent();
+            assertThat(cache.get("Corridor 2")).isEmpty();
+        }
+    }
+
+    /** Verifies that the solutions are persisted and that a damaged record at the end of the file is discarded. */
+    @Test
+    void shouldPersistSolutions() throws IOException {
+        Path file = folder.resolve("solutions.cache");
+        AbstractSokobanModel level = createCorridor();
+        try (SolutionCache cache = SolutionCache.open(file, BUDGET)) {
+            cache.put(LevelFingerprint.compute(level), level.getName(), SOLUTION);
+        }
+        long size = Files.size(file);
+        Files.write(file, new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (SolutionCache cache = SolutionCache.open(file, BUDGET)) {
+            assertThat(cache.get(LevelFingerprint.compute(level))).contains(SOLUTION);
+            assertThat(cache.get(level.getName())).contains(SOLUTION);
+        }
+        assertThat(Files.size(file)).isEqualTo(size);
+    }
+
+    /** Verifies that the file is compacted if it grows beyond twice the budget. */
+    @Test
+    void shouldCompactFile() throws IOException {
+        Path file = folder.resolve("solutions.cache");
+        try (SolutionCache cache = SolutionCache.open(file, 400)) {
+            for (int i = 1; i < 20; i++) {
+                putCorridor(cache, i);
+            }
+            assertThat(Files.size(file)).isLessThanOrEqualTo(8 + 2 * 400);
+        }
+        try (SolutionCache cache = SolutionCache.open(file, 400)) {
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.get("Corridor 19")).isPresent();
+        }
+    }
+
+    /** Verifies that the solver consults the cache before it solves a level and stores new solutions. */
+    @Test
+    void shouldUseCacheInSolver() {
+        AbstractSokobanModel level = SokobanSolverTest.createLevel();
+        try (SolutionCache cache = SolutionCache.createInMemory(BUDGET)) {
+            List<Orientation> solution = new SokobanSolver(100_000, cache).solve(level)
+                    .orElseThrow(() -> new AssertionError("No solution"));
+
+            assertThat(cache.get(LevelFingerprint.compute(level))).contains(solution);
+            assertThat(new SokobanSolver(1, cache).solve(level)).contains(solution);
+            assertThat(new LocalHighScoreService(cache).getBestSolutionFor(level.getName())).isEqualTo(solution);
+        }
+    }
+
+    /** Verifies that the batch entry point stores the solutions in the specified cache file. */
+    @Test
+    void shouldUseCacheInBatch() throws IOException {
+        Path file = folder.resolve("solutions.cache");
+        Files.write(folder.resolve("corridor.sok"), Arrays.asList(":: Title: Corridor", "######", "#@ $.#", "######"),
+                StandardCharsets.UTF_8);
+
+        SokobanBatch.main("--cache", file.toString(), folder.toString());
+
+        try (SolutionCache cache = SolutionCache.open(file, BUDGET)) {
+            assertThat(cache.get("Corridor")).contains(SOLUTION);
+            assertThat(cache.get(LevelFingerprint.compute(createCorridor()))).contains(SOLUTION);
+        }
+        assertThatIllegalArgumentException().isThrownBy(() -> SokobanBatch.main("--cache", file.toString()));
+    }
+
+    /** Verifies that a file that is not a solution cache is rejected and not left open. */
+    @Test
+    void shouldCloseRejectedFile() throws IOException {
+        OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+        assumeTrue(system instanceof UnixOperatingSystemMXBean);
+        UnixOperatingSystemMXBean unix = (UnixOperatingSystemMXBean) system;
+
+        Path file = folder.resolve("foreign.cache");
+        Files.write(file, "This is not a solution cache".getBytes(StandardCharsets.UTF_8));
+
+        long openFiles = unix.getOpenFileDescriptorCount();
+        for (int i = 0; i < 10; i++) {
+            assertThatIllegalArgumentException().isThrownBy(() -> SolutionCache.open(file, BUDGET))
+                    .withMessageContaining(file.toString());
+        }
+        assertThat(unix.getOpenFileDescriptorCount()).isLessThan(openFiles + 10);
+    }
+
+    private AbstractSokobanModel createCorridor() {
+        return reader.read("Corridor", Arrays.asList("######", "#@ $.#", "######"));
+    }
+
+    // Creates a corridor of the specified length that is different for each length
+    private LevelFingerprint putCorridor(final SolutionCache cache, final int length) {
+        StringBuilder floor = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            floor.append(' ');
+        }
+        String walls = "#####" + floor.toString().replace(' ', '#');
+        AbstractSokobanModel level = reader.read("Corridor " + length, Arrays.asList(walls, "#@" + floor + "$.#", walls));
+        LevelFingerprint fingerprint = LevelFingerprint.compute(level);
+        cache.put(fingerprint, level.getName(), SOLUTION);
+        return fingerprint;
+    }
+}
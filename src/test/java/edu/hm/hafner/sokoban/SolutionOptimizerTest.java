@@ -0,0 +1,99 @@
+package edu.hm.hafner.sokoban;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.Orientation;
+
+import static edu.hm.hafner.sokoban.Field.*;
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link SolutionOptimizer}.
+ *
+ * @author Ullrich Hafner
+ */
+class SolutionOptimizerTest {
+    /** Verifies that loops and moves against walls are removed from a solution. */
+    @Test
+    void shouldRemoveLoopsAndUselessMoves() {
+        AbstractSokobanModel level = SokobanSolverTest.createCorridor("Corridor", new Point(3, 1));
+
+        List<Orientation> optimized = new SolutionOptimizer().optimize(level,
+                Arrays.asList(RIGHT, LEFT, RIGHT, UP, RIGHT, LEFT, RIGHT, RIGHT));
+
+        assertThat(optimized).containsExactly(RIGHT, RIGHT, RIGHT);
+    }
+
+    /** Verifies that a detour without loops is replaced by a shorter path. */
+    @Test
+    void shouldReplaceDetour() {
+        AbstractSokobanModel level = createRoom();
+        List<Orientation> detour = Arrays.asList(RIGHT, RIGHT, RIGHT, DOWN, LEFT, LEFT, LEFT, DOWN, RIGHT);
+        assertThatMovesSolve(level, detour);
+
+        List<Orientation> optimized = new SolutionOptimizer().optimize(level, detour);
+
+        assertThat(optimized).containsExactly(DOWN, DOWN, RIGHT);
+        assertThatMovesSolve(level, optimized);
+    }
+
+    /** Verifies that a small window still produces a valid solution that is not longer than the original one. */
+    @Test
+    void shouldProduceValidSolutionWithSmallWindow() {
+        AbstractSokobanModel level = createRoom();
+        List<Orientation> detour = Arrays.asList(RIGHT, RIGHT, RIGHT, DOWN, LEFT, LEFT, LEFT, DOWN, RIGHT);
+
+        List<Orientation> optimized = new SolutionOptimizer(2, 10).optimize(level, detour);
+
+        assertThat(optimized.size()).isLessThanOrEqualTo(detour.size());
+        assertThatMovesSolve(level, optimized);
+    }
+
+    /** Verifies that moves that do not solve the level are rejected. */
+    @Test
+    void shouldRejectMovesThatDoNotSolveLevel() {
+        SolutionOptimizer optimizer = new SolutionOptimizer();
+        SokobanGameModel corridor = SokobanSolverTest.createCorridor("Corridor", new Point(3, 1));
+
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> optimizer.optimize(corridor, Arrays.asList(RIGHT, RIGHT)));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> optimizer.optimize(corridor, Arrays.asList(RIGHT, RIGHT, SOLVED)));
+    }
+
+    /** Verifies that invalid parameters are rejected. */
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SolutionOptimizer(1, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> new SolutionOptimizer(10, 0));
+    }
+
+    private void assertThatMovesSolve(final AbstractSokobanModel level, final List<Orientation> moves) {
+        SokobanBoard board = level.getBoard();
+        SokobanState state = board.createState(level);
+        for (Orientation move : moves) {
+            state = state.move(board, SokobanBoard.toDirection(move));
+        }
+        assertThat(state.isSolved(board)).as("Moves %s do not solve the level", moves).isTrue();
+    }
+
+    private AbstractSokobanModel createRoom() {
+        Field[][] fields = {
+                {WALL, WALL, WALL, WALL, WALL, WALL},
+                {WALL, FLOOR, FLOOR, FLOOR, FLOOR, WALL},
+                {WALL, FLOOR, FLOOR, FLOOR, FLOOR, WALL},
+                {WALL, FLOOR, FLOOR, TARGET, FLOOR, WALL},
+                {WALL, WALL, WALL, WALL, WALL, WALL},
+        };
+        SokobanGameModel sokoban = new SokobanGameModel("Room");
+        sokoban.setLevel(fields);
+        sokoban.setPlayer(new Point(1, 1));
+        sokoban.addTreasure(new Point(2, 3));
+        sokoban.validate();
+        return sokoban;
+    }
+}
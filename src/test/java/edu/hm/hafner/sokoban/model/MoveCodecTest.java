@@ -0,0 +1,110 @@
+package edu.hm.hafner.sokoban.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.hm.hafner.sokoban.model.HighScoreEntry.HighScoreEntryBuilder;
+
+import static edu.hm.hafner.sokoban.model.Orientation.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests the class {@link MoveCodec}.
+ *
+ * @author Ullrich Hafner
+ */
+class MoveCodecTest {
+    private static final Orientation[] DIRECTIONS = {LEFT, RIGHT, UP, DOWN};
+
+    /** Verifies that moves without runs are packed with 2 bits per move. */
+    @Test
+    void shouldPackMovesWithoutRuns() {
+        List<Orientation> moves = createRandomMoves(500);
+
+        byte[] encoded = MoveCodec.encode(moves);
+
+        assertThat(encoded).hasSize(1 + 2 + 125);
+        assertThat(MoveCodec.decode(encoded)).isEqualTo(moves);
+    }
+
+    /** Verifies that runs of equal moves are stored with one byte per run. */
+    @Test
+    void shouldEncodeRuns() {
+        List<Orientation> moves = new ArrayList<>();
+        moves.addAll(Collections.nCopies(100, LEFT));
+        moves.addAll(Collections.nCopies(64, UP));
+        moves.addAll(Collections.nCopies(5, RIGHT));
+        moves.addAll(Collections.nCopies(65, DOWN));
+
+        byte[] encoded = MoveCodec.encode(moves);
+
+        assertThat(encoded).hasSize(1 + 2 + 6);
+        assertThat(MoveCodec.decode(encoded)).isEqualTo(moves);
+    }
+
+    /** Verifies that short solutions are decoded. */
+    @Test
+    void shouldEncodeShortSolutions() {
+        for (List<Orientation> moves : Arrays.asList(Collections.<Orientation>emptyList(),
+                Collections.singletonList(DOWN), Arrays.asList(RIGHT, RIGHT, LEFT, UP, UP, UP, UP, DOWN))) {
+            assertThat(MoveCodec.decode(MoveCodec.encode(moves))).isEqualTo(moves);
+            assertThat(MoveCodec.fromBase64(MoveCodec.toBase64(moves))).isEqualTo(moves);
+        }
+        assertThat(MoveCodec.encode(Collections.emptyList())).hasSize(2);
+    }
+
+    /** Verifies that random solutions of different lengths are decoded. */
+    @Test
+    void shouldDecodeRandomSolutions() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            List<Orientation> moves = new ArrayList<>();
+            while (moves.size() < i * 10) {
+                moves.addAll(Collections.nCopies(random.nextInt(80) + 1, DIRECTIONS[random.nextInt(4)]));
+            }
+            assertThat(MoveCodec.decode(MoveCodec.encode(moves))).isEqualTo(moves);
+            assertThat(MoveCodec.unpack(MoveCodec.pack(moves), moves.size())).isEqualTo(moves);
+        }
+    }
+
+    /** Verifies that invalid moves and malformed input are rejected. */
+    @Test
+    void shouldRejectInvalidInput() {
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.encode(Arrays.asList(LEFT, SOLVED)));
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.decode(new byte[0]));
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.decode(new byte[] {0}));
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.decode(new byte[] {7, 1, 0}));
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.decode(new byte[] {0, 9, 0}));
+        assertThatIllegalArgumentException().isThrownBy(() -> MoveCodec.decode(new byte[] {1, 9, 4}));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> MoveCodec.decode(new byte[] {0, -1, -1, -1, -1, 15}));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> MoveCodec.decode(new byte[] {1, -1, -1, -1, -1, 7, 4}));
+    }
+
+    /** Verifies that the entry provides the solution in the compact format. */
+    @Test
+    void shouldCreateEntryFromEncodedSolution() {
+        List<Orientation> moves = createRandomMoves(50);
+        HighScoreEntry entry = new HighScoreEntryBuilder().withSolution(moves).build();
+
+        HighScoreEntry copy = new HighScoreEntryBuilder().withEncodedSolution(entry.getEncodedSolution()).build();
+
+        assertThat(copy.getSolution()).isEqualTo(moves);
+        assertThat(entry.getEncodedSolution()).hasSize(20);
+    }
+
+    private List<Orientation> createRandomMoves(final int size) {
+        Random random = new Random(size);
+        List<Orientation> moves = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            moves.add(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+        }
+        return moves;
+    }
+}